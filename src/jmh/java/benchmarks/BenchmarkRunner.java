@@ -0,0 +1,27 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks, with any of the usual JMH options (run with -h to list them). Unless these say otherwise
+ * the results are written as JSON to benchmarks.json, to compare with those of other versions, and allocation is
+ * measured with the GC profiler (-prof gc).
+ * <p>
+ * For example, to benchmark copying in two games, with two and four players:
+ * java -jar Benchmarks-jar-with-dependencies.jar "GameBenchmarks.copy.*" -p gameType=Uno,Dominion -p nPlayers=2,4
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<String> argsList = new ArrayList<>(Arrays.asList(args));
+        if (!argsList.contains("-rf"))
+            argsList.addAll(Arrays.asList("-rf", "json"));
+        if (!argsList.contains("-rff"))
+            argsList.addAll(Arrays.asList("-rff", "benchmarks.json"));
+        if (!argsList.contains("-prof"))
+            argsList.addAll(Arrays.asList("-prof", "gc"));
+        org.openjdk.jmh.Main.main(argsList.toArray(new String[0]));
+    }
+}
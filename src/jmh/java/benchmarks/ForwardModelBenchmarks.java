@@ -0,0 +1,31 @@
+package benchmarks;
+
+import core.AbstractGameState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of AbstractForwardModel.next() on the states of MidGameState. Each call is on a fresh copy of the state,
+ * made (without being timed) before the call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForwardModelBenchmarks extends MidGameState {
+
+    private AbstractGameState nextState;
+
+    @Setup(Level.Invocation)
+    public void copyState() {
+        nextState = state.copy();
+    }
+
+    @Benchmark
+    public AbstractGameState next() {
+        forwardModel.next(nextState, action.copy());
+        return nextState;
+    }
+}
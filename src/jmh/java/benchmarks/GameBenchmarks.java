@@ -0,0 +1,60 @@
+package benchmarks;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import core.interfaces.IStateHeuristic;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the operations on a state that search spends most of its time on (see MidGameState for the states).
+ * ForwardModelBenchmarks has next(), which needs a fresh state for each call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmarks extends MidGameState {
+
+    // Most games end long before this, but a few random playouts can go on for (nearly) ever
+    private static final int MAX_PLAYOUT_ACTIONS = 10000;
+
+    private final IStateHeuristic heuristic = AbstractGameState::getHeuristicScore;
+
+    @Benchmark
+    public AbstractGameState copy() {
+        return state.copy();
+    }
+
+    @Benchmark
+    public AbstractGameState copyForPlayer() {
+        // the view of the player to move, with whatever they cannot see shuffled
+        return state.copy(state.getCurrentPlayer());
+    }
+
+    @Benchmark
+    public List<AbstractAction> computeAvailableActions() {
+        return forwardModel.computeAvailableActions(state);
+    }
+
+    @Benchmark
+    public void heuristic(Blackhole blackhole) {
+        for (int p = 0; p < nPlayers; p++)
+            blackhole.consume(heuristic.evaluateState(state, p));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AbstractGameState randomPlayout() {
+        AbstractGameState playout = state.copy();
+        for (int i = 0; i < MAX_PLAYOUT_ACTIONS && playout.isNotTerminal(); i++) {
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(playout);
+            forwardModel.next(playout, actions.get(rnd.nextInt(actions.size())));
+        }
+        return playout;
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The state the benchmarks are run on, for every GameType (JMH runs over all the values of an enum parameter unless
+ * told otherwise, for example with -p gameType=Uno,Dominion).
+ * <p>
+ * This is the state reached after midGameActions random actions from a game with the given seed, or the last state
+ * before the end of the game if that is sooner, so it is the same from one run to the next. Player counts that the
+ * game does not allow give an error for that set of parameters, which JMH reports and then skips.
+ */
+@State(Scope.Thread)
+public abstract class MidGameState {
+
+    @Param
+    public GameType gameType;
+
+    @Param({"2", "3", "4"})
+    public int nPlayers;
+
+    @Param({"42"})
+    public long seed;
+
+    @Param({"20"})
+    public int midGameActions;
+
+    protected AbstractGameState state;
+    protected AbstractForwardModel forwardModel;
+    // an action available in state
+    protected AbstractAction action;
+    protected Random rnd;
+
+    @Setup(Level.Trial)
+    public void setupState() {
+        if (nPlayers < gameType.getMinPlayers() || nPlayers > gameType.getMaxPlayers())
+            throw new IllegalArgumentException(String.format("%s cannot be played by %d players (%d to %d)",
+                    gameType.name(), nPlayers, gameType.getMinPlayers(), gameType.getMaxPlayers()));
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        state = game.getGameState();
+        forwardModel = game.getForwardModel();
+        rnd = new Random(seed);
+        for (int i = 0; i < midGameActions; i++) {
+            AbstractGameState next = state.copy();
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(next);
+            forwardModel.next(next, actions.get(rnd.nextInt(actions.size())));
+            if (!next.isNotTerminal())
+                break;
+            state = next;
+        }
+        List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+        action = actions.get(rnd.nextInt(actions.size()));
+    }
+}
@@ -1,15 +1,37 @@
 package core;
 
 import core.actions.AbstractAction;
+import core.components.ChangeJournal;
+import core.interfaces.IGamePhase;
+import core.metrics.Metrics;
 import utilities.ElapsedCpuChessTimer;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 public abstract class AbstractForwardModel {
 
+    // Whether each forward model overrides _updateAvailableActions(), as otherwise there is no point in keeping the
+    // actions available before an action in next()
+    private static final ClassValue<Boolean> UPDATES_ACTIONS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != AbstractForwardModel.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("_updateAvailableActions", AbstractGameState.class, List.class, AbstractAction.class);
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    // not overridden here
+                }
+            }
+            return false;
+        }
+    };
+
     /* Limited access/Final methods */
 
     /**
@@ -66,6 +88,49 @@ public abstract class AbstractForwardModel {
      */
     protected abstract List<AbstractAction> _computeAvailableActions(AbstractGameState gameState);
 
+    /**
+     * Adds the currently available actions to the given (empty) list, for computeAvailableActions(state, actions).
+     * By default this just adds those returned by _computeAvailableActions(state).
+     * Games with a fixed set of possible actions can override this to add shared, immutable instances of them, so
+     * that nothing at all is allocated. _computeAvailableActions(state) can then be implemented with this.
+     *
+     * @param gameState - current game state
+     * @param actions   - list to add the available actions to
+     */
+    protected void _computeAvailableActions(AbstractGameState gameState, List<AbstractAction> actions) {
+        actions.addAll(_computeAvailableActions(gameState));
+    }
+
+    /**
+     * Games for which working out the available actions is expensive can override this to return true, so that the
+     * actions available in a game state are kept with it (and with full copies of it), and asking for them again
+     * before the state changes returns the same actions. Whether the state has changed is worked out with
+     * AbstractGameState.getVersion(), so the game state must only be changed through this forward model, through
+     * the methods of its Decks, GridBoards and Counters, or else call AbstractGameState.markModified(). The actions
+     * themselves are shared between calls, and so must not be modified.
+     *
+     * @return - true if the available actions should be cached (false by default).
+     */
+    protected boolean cacheAvailableActions() {
+        return false;
+    }
+
+    /**
+     * Where the available actions are cached (see cacheAvailableActions()), and a single action has been applied to
+     * the state since they were last worked out, games can override this to update the actions available before the
+     * action, rather than work them all out again. Typically this keeps those unaffected by the action, and adds any
+     * that have become possible.
+     *
+     * @param gameState       - current game state, after the action has been applied.
+     * @param previousActions - actions available before the action was applied. This list must not be modified.
+     * @param action          - action applied to the state.
+     * @return - list of the actions now available, or null if they need to be worked out again (the default).
+     */
+    protected List<AbstractAction> _updateAvailableActions(AbstractGameState gameState, List<AbstractAction> previousActions,
+                                                           AbstractAction action) {
+        return null;
+    }
+
     /**
      * Gets a copy of the FM with a new random number generator.
      *
@@ -73,6 +138,41 @@ public abstract class AbstractForwardModel {
      */
     protected abstract AbstractForwardModel _copy();
 
+    /**
+     * Applies the given action to the game state as _next() does, and returns whatever _undo() needs to reverse the
+     * changes made to the game-specific parts of the state. The turn order, game status, player results, game phase
+     * and history are restored by undo() itself.
+     *
+     * By default this records all changes made to Decks, GridBoards and Counters in a ChangeJournal, which is only
+     * enough for games that keep all of their state in those components. Games that keep state in other ways, or that
+     * can undo an action more cheaply, should override this with _undo(). Either way, the game must also override
+     * supportsUndo() to return true, as nextWithUndo() refuses to run otherwise.
+     *
+     * @param currentState - current game state, to be modified by the action.
+     * @param action       - action requested to be played by a player.
+     * @return - data passed to _undo() in order to reverse the action.
+     */
+    protected Object _nextWithUndo(AbstractGameState currentState, AbstractAction action) {
+        ChangeJournal journal = ChangeJournal.start();
+        try {
+            _next(currentState, action);
+        } finally {
+            journal.stop();
+        }
+        return journal;
+    }
+
+    /**
+     * Reverses the changes to the game-specific parts of the state made by _nextWithUndo().
+     *
+     * @param currentState - game state, exactly as _nextWithUndo() left it.
+     * @param action       - the action that was applied.
+     * @param undoData     - the value returned by _nextWithUndo().
+     */
+    protected void _undo(AbstractGameState currentState, AbstractAction action, Object undoData) {
+        ((ChangeJournal) undoData).undo();
+    }
+
     /**
      * Performs any end of game computations, as needed. Not necessary to be implemented in the subclass, but can be.
      * The last thing to be called in the game loop, after the game is finished.
@@ -102,7 +202,7 @@ public abstract class AbstractForwardModel {
             gameState.turnOrder.endPlayerTurn(gameState);
         } else {
             List<AbstractAction> possibleActions = computeAvailableActions(gameState);
-            int randomAction = new Random(gameState.getGameParameters().getRandomSeed()).nextInt(possibleActions.size());
+            int randomAction = new SplitMixRandom(gameState.getGameParameters().getRandomSeed()).nextInt(possibleActions.size());
             next(gameState, possibleActions.get(randomAction));
         }
     }
@@ -127,12 +227,24 @@ public abstract class AbstractForwardModel {
      */
     public final void next(AbstractGameState currentState, AbstractAction action) {
         if (action != null) {
+            long start = Metrics.startTimer();
+            int player = currentState.getCurrentPlayer();
+            IGamePhase phase = currentState.getGamePhase();
             currentState.recordAction(action);
             if (currentState.isActionInProgress()) {
                 // we register the action with the currently active ActionSequence
                 currentState.currentActionInProgress().registerActionTaken(currentState, action);
             }
+            ActionCache cache = currentState.actionCache;
+            // cached actions can only be updated for this action if the game can update them, and they are up to
+            // date now (which is checked last, as it looks at every component)
+            boolean updatable = cache != null && cache.lastAction == null && UPDATES_ACTIONS.get(getClass())
+                    && cache.isValid(currentState);
             _next(currentState, action);
+            currentState.markModified();
+            if (cache != null)
+                currentState.actionCache = updatable ? new ActionCache(cache.actions, currentState, action) : null;
+            Metrics.stopTimer(Metrics.NEXT, start, currentState.getGameType(), player, null, phase);
         } else {
             if (currentState.coreGameParameters.verbose) {
                 System.out.println("Invalid action.");
@@ -141,6 +253,72 @@ public abstract class AbstractForwardModel {
         }
     }
 
+    /**
+     * Applies the given action as next() does, but returns a token that undo() can later use to restore the game
+     * state to exactly how it was before the action. Searches can use this to explore many lines of play from a
+     * single copy of the state, rather than copying the state for each one.
+     *
+     * This is only available for games whose supportsUndo() returns true. Most games keep some of their state
+     * outside the components that ChangeJournal covers, so undoing their actions would leave the state corrupted;
+     * searches should copy the state for these instead.
+     *
+     * @param currentState - current game state, to be modified by the action.
+     * @param action       - action requested to be played by a player.
+     * @return - token with which to undo the action.
+     */
+    public final UndoToken nextWithUndo(AbstractGameState currentState, AbstractAction action) {
+        if (!supportsUndo())
+            throw new IllegalStateException(getClass().getSimpleName() + " does not support undo");
+        if (action == null)
+            throw new IllegalArgumentException("Cannot apply a null action with nextWithUndo()");
+        UndoToken token = new UndoToken(currentState, action);
+        // the original turn order is kept unchanged in the token, to be swapped back in by undo()
+        currentState.turnOrder = token.turnOrder.copyWithListeners();
+        currentState.recordAction(action);
+        if (currentState.isActionInProgress()) {
+            currentState.currentActionInProgress().registerActionTaken(currentState, action);
+        }
+        token.undoData = _nextWithUndo(currentState, action);
+        currentState.markModified();
+        currentState.actionCache = null;
+        return token;
+    }
+
+    /**
+     * Reverses an action applied with nextWithUndo(). The state must be exactly as nextWithUndo() left it, so where
+     * several actions have been applied, they must be undone in the reverse order.
+     *
+     * @param currentState - game state to restore.
+     * @param token        - the token returned by nextWithUndo().
+     */
+    public final void undo(AbstractGameState currentState, UndoToken token) {
+        if (token.state != currentState)
+            throw new IllegalArgumentException("Undo token belongs to a different game state");
+        if (token.undone)
+            throw new IllegalArgumentException("Undo token has already been used");
+        _undo(currentState, token.action, token.undoData);
+        currentState.turnOrder = token.turnOrder;
+        currentState.gameStatus = token.gameStatus;
+        currentState.playerResults = token.playerResults;
+        currentState.gamePhase = token.gamePhase;
+        currentState.truncateHistory(token.historySize);
+        currentState.actionsInProgress.clear();
+        if (token.actionsInProgress != null)
+            currentState.actionsInProgress.addAll(token.actionsInProgress);
+        token.undoData = null;
+        token.undone = true;
+        currentState.markModified();
+        currentState.actionCache = null;
+    }
+
+    /**
+     * @return - true if this forward model can undo its actions (see _nextWithUndo()), so that nextWithUndo() and
+     * undo() may be used, and are expected to be faster than copying the game state.
+     */
+    public boolean supportsUndo() {
+        return false;
+    }
+
     /**
      * Computes the available actions and updates the game state accordingly.
      *
@@ -148,11 +326,66 @@ public abstract class AbstractForwardModel {
      * @return - the list of actions available.
      */
     public final List<AbstractAction> computeAvailableActions(AbstractGameState gameState) {
+        long start = Metrics.startTimer();
+        List<AbstractAction> retValue;
         // If there is an action in progress (see IExtendedSequence), then delegate to that
         if (gameState.isActionInProgress()) {
-            return gameState.actionsInProgress.peek()._computeAvailableActions(gameState);
+            retValue = gameState.actionsInProgress.peek()._computeAvailableActions(gameState);
+        } else if (cacheAvailableActions()) {
+            // the caller may modify the list, but not the one that is cached
+            retValue = new ArrayList<>(cachedActions(gameState));
+        } else {
+            retValue = _computeAvailableActions(gameState);
+        }
+        Metrics.stopTimer(Metrics.COMPUTE_ACTIONS, start, gameState.getGameType(), gameState.getCurrentPlayer(), null, gameState.getGamePhase());
+        return retValue;
+    }
+
+    /**
+     * Computes the available actions as computeAvailableActions(state) does, but into a list provided by the caller.
+     * This is for callers such as rollouts that only need the actions until the next one is chosen, and can then
+     * re-use the same list for the next state, rather than having a new one allocated each time.
+     * The actions themselves may be shared between calls (see _computeAvailableActions(state, actions)), and so must
+     * not be modified.
+     *
+     * @param gameState - game state to compute the available actions in.
+     * @param actions   - list to fill with the actions available. Anything already in it is removed first.
+     */
+    public final void computeAvailableActions(AbstractGameState gameState, List<AbstractAction> actions) {
+        long start = Metrics.startTimer();
+        actions.clear();
+        // If there is an action in progress (see IExtendedSequence), then delegate to that
+        if (gameState.isActionInProgress()) {
+            actions.addAll(gameState.actionsInProgress.peek()._computeAvailableActions(gameState));
+        } else if (cacheAvailableActions()) {
+            actions.addAll(cachedActions(gameState));
+        } else {
+            _computeAvailableActions(gameState, actions);
+        }
+        Metrics.stopTimer(Metrics.COMPUTE_ACTIONS, start, gameState.getGameType(), gameState.getCurrentPlayer(), null, gameState.getGamePhase());
+    }
+
+    /**
+     * Returns the actions available in the given state from its cache, first updating or working them out again if
+     * the state has changed since they were cached (see cacheAvailableActions()).
+     */
+    private List<AbstractAction> cachedActions(AbstractGameState gameState) {
+        ActionCache cache = gameState.actionCache;
+        if (cache != null && cache.isValid(gameState)) {
+            if (cache.lastAction == null)
+                return cache.actions;
+            List<AbstractAction> updated = _updateAvailableActions(gameState, cache.actions, cache.lastAction);
+            if (updated != null) {
+                gameState.actionCache = new ActionCache(updated, gameState, null);
+                return updated;
+            }
         }
-        return _computeAvailableActions(gameState);
+        List<AbstractAction> actions = new ArrayList<>();
+        _computeAvailableActions(gameState, actions);
+        // the version is taken afterwards, as looking at the components of a Deck through getComponents() counts as
+        // a change to it
+        gameState.actionCache = new ActionCache(actions, gameState, null);
+        return actions;
     }
 
     /**
@@ -4,19 +4,57 @@ import core.components.*;
 import core.components.Component;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The components of a game as read from its data files, from which a game copies those it needs at set up (with the
+ * find methods, which all return copies).
+ *
+ * As the files do not change while games are played, getCached() reads them once per process, and the data read is
+ * then shared by all games that use the same files. A game set up this way only copies components, rather than
+ * reading and parsing JSON each time.
+ */
 public class AbstractGameData {
 
+    // Data read so far, by class and data path
+    private static final Map<String, AbstractGameData> cache = new ConcurrentHashMap<>();
+
     private List<GraphBoard> graphBoards = new ArrayList<>();
     private List<GridBoard> gridBoards = new ArrayList<>();
     private List<Deck<Card>> decks = new ArrayList<>();
     private List<Counter> counters = new ArrayList<>();
     private List<Token> tokens = new ArrayList<>();
 
+    /**
+     * Returns the data in the given directory, which is only read the first time it is asked for. The data returned
+     * is shared with other games (possibly on other threads), and so must only be used through methods that copy
+     * what they return, and must not be loaded again.
+     *
+     * @param dataPath - directory to read the data from
+     * @param factory  - creates the (empty) data, on which load() is then called
+     * @param <T>      - type of the data
+     * @return - the data read from the directory
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends AbstractGameData> T getCached(String dataPath, Supplier<T> factory) {
+        T data = factory.get();
+        String key = data.getClass().getName() + "|" + Paths.get(dataPath).toAbsolutePath().normalize();
+        return (T) cache.computeIfAbsent(key, k -> {
+            data.load(dataPath);
+            return data;
+        });
+    }
+
+    /**
+     * Forgets all data read by getCached(), so that it is read again (for example after the files are edited).
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
     public void load(String dataPath) {
         File dir = new File(dataPath);
         if (dir.isDirectory()) {
@@ -3,10 +3,14 @@ package core;
 import core.actions.AbstractAction;
 import core.components.Area;
 import core.components.Component;
+import core.components.ComponentRegistry;
+import core.components.CopyOnWrite;
 import core.components.PartialObservableDeck;
+import core.components.Zobrist;
 import core.interfaces.IComponentContainer;
 import core.interfaces.IExtendedSequence;
 import core.interfaces.IGamePhase;
+import core.metrics.Metrics;
 import core.turnorders.TurnOrder;
 import games.GameType;
 import utilities.ElapsedCpuChessTimer;
@@ -41,6 +45,11 @@ public abstract class AbstractGameState {
     // Parameters, forward model and turn order for the game
     protected final AbstractParameters gameParameters;
     protected TurnOrder turnOrder;
+    // Every component in the game (see ComponentRegistry), for getComponentById()
+    private ComponentRegistry componentRegistry;
+    // True in copy-on-write copies, where the registry is only filled in as components are looked up
+    private boolean lazyComponentRegistry;
+    // Returned by getAllComponents(), and only filled in when that is called
     private Area allComponents;
 
     // Timers for all players
@@ -48,9 +57,11 @@ public abstract class AbstractGameState {
     // Game being played
     protected final GameType gameType;
 
-    // A record of all actions taken to reach this game state
-    private List<AbstractAction> history = new ArrayList<>();
-    private List<String> historyText = new ArrayList<>();
+    // A record of all actions taken to reach this game state, from the most recent back (null if there are none).
+    // Entries never change once recorded, so copies share them
+    private HistoryEntry history;
+    // True if actions applied to this state (and its copies) are not recorded in its history
+    private boolean simulation;
 
     // Status of the game, and status for each player (in cooperative games, the game status is also each player's status)
     protected Utils.GameResult gameStatus;
@@ -65,6 +76,11 @@ public abstract class AbstractGameState {
     private int gameID;
     CoreParameters coreGameParameters;
 
+    // Counts the changes made to this state other than to its components (see getVersion())
+    private long modificationCount;
+    // Actions available in this state, kept by forward models that cache them (see AbstractForwardModel)
+    ActionCache actionCache;
+
     /**
      * Constructor. Initialises some generic game state variables.
      * @param gameParameters - game parameters.
@@ -87,14 +103,18 @@ public abstract class AbstractGameState {
      */
     void reset() {
         turnOrder.reset();
+        componentRegistry = new ComponentRegistry();
+        lazyComponentRegistry = false;
         allComponents = new Area(-1, "All Components");
         gameStatus = GAME_ONGOING;
         playerResults = new Utils.GameResult[getNPlayers()];
         Arrays.fill(playerResults, GAME_ONGOING);
         gamePhase = DefaultGamePhase.Main;
-        history = new ArrayList<>();
-        historyText = new ArrayList<>();
+        history = null;
+        simulation = false;
         playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
+        actionCache = null;
+        markModified();
         _reset();
     }
 
@@ -109,14 +129,17 @@ public abstract class AbstractGameState {
     // Setters
     public final void setTurnOrder(TurnOrder turnOrder) {
         this.turnOrder = turnOrder;
+        markModified();
     }
-    public final void setGameStatus(Utils.GameResult status) { this.gameStatus = status; }
-    public final void setPlayerResult(Utils.GameResult result, int playerIdx) {  this.playerResults[playerIdx] = result; }
+    public final void setGameStatus(Utils.GameResult status) { this.gameStatus = status; markModified(); }
+    public final void setPlayerResult(Utils.GameResult result, int playerIdx) {  this.playerResults[playerIdx] = result; markModified(); }
     public final void setGamePhase(IGamePhase gamePhase) {
         this.gamePhase = gamePhase;
+        markModified();
     }
     public final void setMainGamePhase() {
         this.gamePhase = DefaultGamePhase.Main;
+        markModified();
     }
 
     // Getters
@@ -124,6 +147,32 @@ public abstract class AbstractGameState {
     public final int getCurrentPlayer() { return turnOrder.getCurrentPlayer(this); }
     public final Utils.GameResult getGameStatus() {  return gameStatus; }
     public final AbstractParameters getGameParameters() { return this.gameParameters; }
+
+    /**
+     * Changes whenever this state is changed: by the forward model, by the setters here, by a change to one of its
+     * Decks, GridBoards or Counters, including those kept in an Area (see Component.getVersion()), or by
+     * markModified().
+     * This is used to tell whether anything worked out from the state, such as the actions available in it, needs to
+     * be worked out again. It is not a hash of the state, and is different for equal states.
+     * @return - version of this state
+     */
+    public final long getVersion() {
+        long retValue = modificationCount;
+        for (Component c : _getAllComponents()) {
+            if (c != null)
+                retValue = Component.combineVersions(retValue, c);
+        }
+        return retValue;
+    }
+
+    /**
+     * Records that this state has been changed, other than through the forward model or its components. Games that
+     * cache the actions available (see AbstractForwardModel.cacheAvailableActions()) should call this from methods
+     * that change other game-specific state, if these can be called from outside the forward model.
+     */
+    public final void markModified() {
+        modificationCount++;
+    }
     public final int getNPlayers() { return turnOrder.nPlayers(); }
     public final Utils.GameResult[] getPlayerResults() { return playerResults; }
     public final boolean isNotTerminal(){ return gameStatus == GAME_ONGOING; }
@@ -132,10 +181,25 @@ public abstract class AbstractGameState {
         return gamePhase;
     }
     public final Component getComponentById(int id) {
-        return allComponents.getComponent(id);
+        Component c = componentRegistry.get(id);
+        if (c == null && id >= 0) {
+            // not registered yet, either as this is a copy-on-write copy, or as it was created since the registry
+            // was filled in (negative IDs are used for 'no component', so are not looked for)
+            for (Component topLevel : _getAllComponents()) {
+                c = ComponentRegistry.find(topLevel, id);
+                if (c != null) {
+                    componentRegistry.put(c);
+                    break;
+                }
+            }
+        }
+        return c;
     }
+
     public final Area getAllComponents() {
-        addAllComponents(); // otherwise the list of allComponents is only ever updated when we copy the state!
+        // this is not the registry used by getComponentById(), so is built afresh each time
+        allComponents.clear();
+        allComponents.putComponents(_getAllComponents());
         return allComponents;
     }
 
@@ -154,11 +218,12 @@ public abstract class AbstractGameState {
     /* Limited access final methods */
 
     /**
-     * Adds all components given by the game to the allComponents map in the correct way, first clearing the map.
+     * Adds all components given by the game to the registry used by getComponentById(), first clearing it.
+     * Games that create components after setup call this so that they can be found.
      */
     protected final void addAllComponents() {
-        allComponents.clear();
-        allComponents.putComponents(_getAllComponents());
+        componentRegistry.clear();
+        componentRegistry.putAll(_getAllComponents());
     }
 
     /**
@@ -168,19 +233,32 @@ public abstract class AbstractGameState {
      * @return - reduced copy of the game state.
      */
     public final AbstractGameState copy(int playerId) {
-        AbstractGameState s = _copy(playerId);
+        long start = Metrics.startTimer();
+        AbstractGameState s;
+        if (coreGameParameters.copyOnWrite) {
+            CopyOnWrite.enable();
+            try {
+                s = _copy(playerId);
+            } finally {
+                CopyOnWrite.disable();
+            }
+        } else {
+            s = _copy(playerId);
+        }
         // Copy super class things
         s.turnOrder = turnOrder.copy();
+        s.componentRegistry = componentRegistry.emptyCopy();
         s.allComponents = allComponents.emptyCopy();
         s.gameStatus = gameStatus;
         s.playerResults = playerResults.clone();
         s.gamePhase = gamePhase;
         s.coreGameParameters = coreGameParameters;
 
+        s.simulation = simulation;
         if (!coreGameParameters.competitionMode) {
-            s.history = new ArrayList<>(history);
-            s.historyText = new ArrayList<>(historyText);
-            // we do not copy individual actions in history, as these are now dead and should not change
+            s.history = history;
+            // we do not copy individual actions in history, as these are now dead and should not change; the copy
+            // shares all the entries up to now, and adds its own from here on
             // History is for debugging and spectation of games. There is a risk that History might contain information
             // formally hidden to some participants. For this reason, in COMPETITION_MODE we explicitly do not copy
             // any history over in case a sneaky agent tries to take advantage of it.
@@ -198,7 +276,16 @@ public abstract class AbstractGameState {
         }
 
         // Update the list of components for ID matching in actions.
-        s.addAllComponents();
+        if (coreGameParameters.copyOnWrite) {
+            // Filling this in would copy every shared container, so we wait until components are looked up
+            s.lazyComponentRegistry = true;
+        } else {
+            s.addAllComponents();
+        }
+        // A full copy has the same actions available, so keeps any that have been cached
+        if (playerId == -1 && actionCache != null && actionCache.lastAction == null && actionCache.isValid(this))
+            s.actionCache = new ActionCache(actionCache.actions, s, null);
+        Metrics.stopTimer(Metrics.COPY, start, gameType, playerId, null, gamePhase);
         return s;
     }
 
@@ -214,6 +301,7 @@ public abstract class AbstractGameState {
     }
 
     public void setActionInProgress(IExtendedSequence action) {
+        markModified();
         if (action == null && !actionsInProgress.isEmpty())
             actionsInProgress.pop();
         else
@@ -360,6 +448,15 @@ public abstract class AbstractGameState {
      */
     protected abstract void _reset();
 
+    /**
+     * Override this to add to getZobristHash() any game state that is not held in the components
+     * returned by _getAllComponents() (or the turn order).
+     * @return - 64-bit hash of the game-specific state.
+     */
+    protected long _getZobristHash() {
+        return 0;
+    }
+
     /**
      * Checks if the given object is the same as the current.
      *
@@ -370,6 +467,38 @@ public abstract class AbstractGameState {
 
     /* ####### Public AI agent API ####### */
 
+    /**
+     * A 64-bit Zobrist-style hash of the current game state, which is much cheaper to compute than hashCode().
+     * It combines the hash of each top-level component, the turn order, and the game status and phase. Each call
+     * visits every top-level component (and every component held in an Area), but not the contents of Decks or
+     * GridBoards, which maintain their hashes as the forward model changes them (see Deck.getZobristHash()). So the
+     * cost is proportional to the number of top-level components rather than to the size of the whole state.
+     *
+     * Components in a Deck or on a GridBoard are identified by component ID, so changes made directly to a
+     * component while it is held in one of these are not reflected. Also, unlike hashCode(), this does not depend
+     * on the game parameters, so two copies of a state will have the same hash.
+     * @return - 64-bit hash of the game state.
+     */
+    public long getZobristHash() {
+        long retValue = turnOrder.getZobristHash() ^ _getZobristHash()
+                ^ Zobrist.key(gameStatus.ordinal(), phaseKey(gamePhase));
+        for (int p = 0; p < playerResults.length; p++)
+            retValue ^= Zobrist.key(-1, p, playerResults[p].ordinal());
+        for (Component c : _getAllComponents())
+            retValue ^= Zobrist.key(c.getComponentID(), c.getZobristHash());
+        return retValue;
+    }
+
+    // hashCode() of an enum is its identity hash, which differs from one run to the next, so phases are identified by
+    // their class and ordinal (or their name, for any that are not enums)
+    private static long phaseKey(IGamePhase phase) {
+        if (phase == null)
+            return 0;
+        if (phase instanceof Enum)
+            return Zobrist.key(phase.getClass().getName().hashCode(), ((Enum<?>) phase).ordinal());
+        return Zobrist.key(phase.getClass().getName().hashCode(), phase.toString().hashCode());
+    }
+
     /**
      * Public access copy method, which always does a full copy of the game state.
      * @return - full copy of this game state.
@@ -429,18 +558,90 @@ public abstract class AbstractGameState {
      * @param action The action that has just been applied (or is about to be applied) to the game state
      */
     protected void recordAction(AbstractAction action) {
-        history.add(action);
-        historyText.add("Player " + this.getCurrentPlayer() + " : " + action.getString(this));
+        // the text is worked out now, against the state the action is applied to, as later states (and the
+        // simulations copied from them) may no longer describe it in the same way
+        if (!simulation)
+            history = new HistoryEntry(action, getCurrentPlayer(), action.getString(this), history);
+    }
+
+    /**
+     * @return - the number of actions in the history (see getHistory()), without copying it
+     */
+    public int getHistorySize() {
+        return history == null ? 0 : history.size;
+    }
+
+    /**
+     * Used by ForwardModel.undo() to remove the actions recorded since the history had the given size.
+     */
+    void truncateHistory(int size) {
+        while (history != null && history.size > size)
+            history = history.previous;
+    }
+
+    /**
+     * Search algorithms apply a great many actions to copies of the state they are given, and have no use for the
+     * history of those. Marking such a copy as a simulation means no actions are recorded on it, or on any copy made
+     * from it, while it keeps the history it already has.
+     * @param simulation - true to stop recording actions, false to record them again
+     */
+    public void setSimulation(boolean simulation) {
+        this.simulation = simulation;
+    }
+    public boolean isSimulation() {
+        return simulation;
     }
 
     /**
      * @return All actions that have been executed on this state since reset()/initialisation
      */
     public List<AbstractAction> getHistory() {
-        return new ArrayList<>(history);
+        AbstractAction[] actions = new AbstractAction[getHistorySize()];
+        for (HistoryEntry entry = history; entry != null; entry = entry.previous)
+            actions[entry.size - 1] = entry.action;
+        return new ArrayList<>(Arrays.asList(actions));
+    }
+
+    /**
+     * This only visits the actions after the first size, so is cheap when few actions have been taken since.
+     * @param size - the size of the history at some earlier point, as given by getHistorySize()
+     * @return - the actions that have been executed on this state since the history had the given size
+     */
+    public List<AbstractAction> getHistorySince(int size) {
+        if (size < 0 || size > getHistorySize())
+            throw new IllegalArgumentException("History of size " + getHistorySize() + " has never had size " + size);
+        AbstractAction[] actions = new AbstractAction[getHistorySize() - size];
+        for (HistoryEntry entry = history; entry != null && entry.size > size; entry = entry.previous)
+            actions[entry.size - size - 1] = entry.action;
+        return new ArrayList<>(Arrays.asList(actions));
     }
+
+    /**
+     * @return - the history, with each action as "Player [id] : [action]"
+     */
     public List<String> getHistoryAsText() {
-        return new ArrayList<>(historyText);
+        String[] text = new String[getHistorySize()];
+        for (HistoryEntry entry = history; entry != null; entry = entry.previous)
+            text[entry.size - 1] = entry.text;
+        return new ArrayList<>(Arrays.asList(text));
+    }
+
+    // One action in the history, linked to those before it
+    private static final class HistoryEntry {
+        final AbstractAction action;
+        final int player;
+        final HistoryEntry previous;
+        // the number of actions in the history up to and including this one
+        final int size;
+        final String text;
+
+        HistoryEntry(AbstractAction action, int player, String actionText, HistoryEntry previous) {
+            this.action = action;
+            this.player = player;
+            this.text = "Player " + player + " : " + actionText;
+            this.previous = previous;
+            this.size = previous == null ? 1 : previous.size + 1;
+        }
     }
 
     void setGameID(int id) {gameID = id;} // package level deliberately
@@ -459,7 +660,7 @@ public abstract class AbstractGameState {
         AbstractGameState gameState = (AbstractGameState) o;
         return Objects.equals(gameParameters, gameState.gameParameters) &&
                 Objects.equals(turnOrder, gameState.turnOrder) &&
-                Objects.equals(allComponents, gameState.allComponents) &&
+                Objects.equals(getAllComponents(), gameState.getAllComponents()) &&
                 gameStatus == gameState.gameStatus &&
                 Arrays.equals(playerResults, gameState.playerResults) &&
                 Objects.equals(gamePhase, gameState.gamePhase) &&
@@ -470,7 +671,7 @@ public abstract class AbstractGameState {
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(gameParameters, turnOrder, allComponents, gameStatus, gamePhase);
+        int result = Objects.hash(gameParameters, turnOrder, getAllComponents(), gameStatus, gamePhase);
         result = 31 * result + Arrays.hashCode(playerResults);
         return result;
     }
@@ -1,6 +1,7 @@
 package core;
 
 import core.interfaces.ITunableParameters;
+import utilities.SplitMixRandom;
 import java.util.*;
 
 public abstract class AbstractParameters {
@@ -109,7 +110,7 @@ public abstract class AbstractParameters {
      */
     public void randomize() {
         if (this instanceof ITunableParameters) {
-            Random rnd = new Random(randomSeed);
+            Random rnd = new SplitMixRandom(randomSeed);
             ITunableParameters params = (ITunableParameters) this;
             params.getParameterNames().forEach(name -> {
                         int nValues = params.getPossibleValues(name).size();
@@ -99,6 +99,18 @@ public abstract class AbstractPlayer {
 
     public abstract AbstractPlayer copy();
 
+    /**
+     * Copies the player, giving the copy its own random seed, so that the copies made for a set of games (see
+     * ParallelGameRunner) do not depend on the order in which they are made. By default the seed is ignored, and this
+     * is the same as copy().
+     *
+     * @param seed - random seed for the copy
+     * @return - a copy of this player
+     */
+    public AbstractPlayer copy(long seed) {
+        return copy();
+    }
+
     // override this to provide information on the last decision taken
     public Map<AbstractAction, Map<String, Object>> getDecisionStats() {
             return Collections.emptyMap();
@@ -0,0 +1,43 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.interfaces.IGamePhase;
+
+import java.util.List;
+
+/**
+ * The actions available in a game state, kept with the state by forward models that cache them (see
+ * AbstractForwardModel.cacheAvailableActions()), together with what is needed to tell whether they still apply.
+ */
+final class ActionCache {
+
+    // Actions available (never modified, and so shared with copies of the state)
+    final List<AbstractAction> actions;
+    // AbstractGameState.getVersion(), current player and game phase of the state the actions apply to
+    final long version;
+    final int player;
+    final IGamePhase phase;
+    // If not null, the actions are those available before this was applied to the state (by next()), and still need
+    // to be updated to the state as it is now
+    final AbstractAction lastAction;
+
+    ActionCache(List<AbstractAction> actions, AbstractGameState state, AbstractAction lastAction) {
+        this(actions, state.getVersion(), state.getCurrentPlayer(), state.getGamePhase(), lastAction);
+    }
+
+    private ActionCache(List<AbstractAction> actions, long version, int player, IGamePhase phase, AbstractAction lastAction) {
+        this.actions = actions;
+        this.version = version;
+        this.player = player;
+        this.phase = phase;
+        this.lastAction = lastAction;
+    }
+
+    /**
+     * @param state - game state
+     * @return - true if nothing has changed in the state since these actions were cached
+     */
+    boolean isValid(AbstractGameState state) {
+        return player == state.getCurrentPlayer() && phase == state.getGamePhase() && version == state.getVersion();
+    }
+}
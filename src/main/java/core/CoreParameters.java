@@ -14,6 +14,12 @@ public class CoreParameters extends TunableParameters {
     public boolean alwaysDisplayFullObservable = false;
     public boolean alwaysDisplayCurrentPlayer = false;
     public long frameSleepMS = 100L;
+    // If true, AbstractGameState.copy() shares the contents of Decks, Boards and Areas with the original and only
+    // copies them when first modified (see core.components.CopyOnWrite)
+    public boolean copyOnWrite = false;
+    // If above zero, events that listeners want a snapshot of are delivered on a separate thread, through a queue of
+    // this many events (see GameEventBus)
+    public int eventQueueSize = 0;
 
     public CoreParameters() {
         super(0);
@@ -25,6 +31,8 @@ public class CoreParameters extends TunableParameters {
         addTunableParameter("always display full observable", alwaysDisplayFullObservable, Arrays.asList(false, true));
         addTunableParameter("always display current player", alwaysDisplayCurrentPlayer, Arrays.asList(false, true));
         addTunableParameter("frame sleep MS", frameSleepMS, Arrays.asList(0L, 100L, 500L, 1000L, 5000L));
+        addTunableParameter("copy on write", copyOnWrite, Arrays.asList(false, true));
+        addTunableParameter("event queue size", eventQueueSize, Arrays.asList(0, 64, 1024));
     }
 
     @Override
@@ -38,12 +46,12 @@ public class CoreParameters extends TunableParameters {
         if (!(o instanceof CoreParameters)) return false;
         if (!super.equals(o)) return false;
         CoreParameters that = (CoreParameters) o;
-        return verbose == that.verbose && partialObservable == that.partialObservable && competitionMode == that.competitionMode && disqualifyPlayerOnIllegalActionPlayed == that.disqualifyPlayerOnIllegalActionPlayed && disqualifyPlayerOnTimeout == that.disqualifyPlayerOnTimeout && alwaysDisplayFullObservable == that.alwaysDisplayFullObservable && alwaysDisplayCurrentPlayer == that.alwaysDisplayCurrentPlayer && frameSleepMS == that.frameSleepMS;
+        return verbose == that.verbose && partialObservable == that.partialObservable && competitionMode == that.competitionMode && disqualifyPlayerOnIllegalActionPlayed == that.disqualifyPlayerOnIllegalActionPlayed && disqualifyPlayerOnTimeout == that.disqualifyPlayerOnTimeout && alwaysDisplayFullObservable == that.alwaysDisplayFullObservable && alwaysDisplayCurrentPlayer == that.alwaysDisplayCurrentPlayer && frameSleepMS == that.frameSleepMS && copyOnWrite == that.copyOnWrite && eventQueueSize == that.eventQueueSize;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), verbose, partialObservable, competitionMode, disqualifyPlayerOnIllegalActionPlayed, disqualifyPlayerOnTimeout, alwaysDisplayFullObservable, alwaysDisplayCurrentPlayer, frameSleepMS);
+        return Objects.hash(super.hashCode(), verbose, partialObservable, competitionMode, disqualifyPlayerOnIllegalActionPlayed, disqualifyPlayerOnTimeout, alwaysDisplayFullObservable, alwaysDisplayCurrentPlayer, frameSleepMS, copyOnWrite, eventQueueSize);
     }
 
     @Override
@@ -61,5 +69,7 @@ public class CoreParameters extends TunableParameters {
         alwaysDisplayFullObservable = (boolean) getParameterValue("always display full observable");
         alwaysDisplayCurrentPlayer = (boolean) getParameterValue("always display current player");
         frameSleepMS = Long.parseLong(String.valueOf(getParameterValue("frame sleep MS")));
+        copyOnWrite = (boolean) getParameterValue("copy on write");
+        eventQueueSize = (int) getParameterValue("event queue size");
     }
 }
@@ -4,14 +4,13 @@ import core.actions.AbstractAction;
 import core.actions.DoNothing;
 import core.interfaces.IGameListener;
 import core.interfaces.IPrintable;
+import core.metrics.Metrics;
 import core.turnorders.ReactiveTurnOrder;
 import games.GameType;
 import gui.AbstractGUIManager;
 import gui.GUI;
 import gui.GamePanel;
-import io.humble.video.*;
-import io.humble.video.awt.MediaPictureConverter;
-import io.humble.video.awt.MediaPictureConverterFactory;
+import gui.VideoRecorder;
 import players.human.ActionController;
 import players.human.HumanConsolePlayer;
 import players.human.HumanGUIPlayer;
@@ -26,15 +25,13 @@ import utilities.Utils;
 import javax.swing.*;
 import javax.swing.Timer;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static core.CoreConstants.GameEvents;
 import static games.GameType.*;
-import static utilities.Utils.componentToImage;
 
 public class Game {
 
@@ -46,7 +43,8 @@ public class Game {
     // Real game state and forward model
     protected AbstractGameState gameState;
     protected AbstractForwardModel forwardModel;
-    protected List<IGameListener> listeners = new ArrayList<>();
+    // Sends events to the listeners of the game
+    protected GameEventBus events = new GameEventBus();
     /* Game Statistics */
     private int lastPlayer; // used to track actions per 'turn'
     private JFrame frame;
@@ -66,16 +64,14 @@ public class Game {
 
     // Video recording
     private Rectangle areaBounds;
-    private MediaPictureConverter converter = null;
-    private MediaPacket packet;
-    private MediaPicture picture;
-    private Encoder encoder;
-    private Muxer muxer;
+    private VideoRecorder videoRecorder;
     private boolean recordingVideo = false;
     String fileName = "output.mp4";
     String formatName = "mp4";
     String codecName = null;
     int snapsPerSecond = 10;
+    // Frames captured while this many are waiting to be encoded are dropped
+    int videoQueueSize = 32;
     private int turnPause;
 
     /**
@@ -195,7 +191,31 @@ public class Game {
     public static void runMany(List<GameType> gamesToPlay, List<AbstractPlayer> players, Long seed,
                                int nRepetitions, boolean randomizeParameters,
                                boolean detailedStatistics, List<IGameListener> listeners, int turnPause) {
+        runMany(gamesToPlay, players, seed, nRepetitions, randomizeParameters, detailedStatistics, listeners, turnPause, 1);
+    }
+
+    /**
+     * Runs several games with a given random seed, playing up to nThreads games at once (see ParallelGameRunner).
+     * With one thread, the games are played in turn by the players given, and the seed of each repetition is offset
+     * from the given one by the length of the game before. With more, the seed of each repetition is derived from the
+     * given seed, so the results do not depend on the number of threads.
+     *
+     * @param gamesToPlay         - list of games to play.
+     * @param players             - list of players for the game. With more than one thread, each game is played by
+     *                            copies of these.
+     * @param nRepetitions        - number of repetitions of each game.
+     * @param seed                - random seed for all games. If null, a new random seed is used.
+     * @param randomizeParameters - if true, game parameters are randomized for each run of each game (if possible).
+     * @param detailedStatistics  - if true, detailed statistics are printed, otherwise just average of wins
+     * @param nThreads            - number of games to play at once
+     */
+    public static void runMany(List<GameType> gamesToPlay, List<AbstractPlayer> players, Long seed,
+                               int nRepetitions, boolean randomizeParameters,
+                               boolean detailedStatistics, List<IGameListener> listeners, int turnPause, int nThreads) {
         int nPlayers = players.size();
+        ParallelGameRunner runner = new ParallelGameRunner(nThreads);
+        long masterSeed = seed == null ? System.currentTimeMillis() : seed;
+        List<IGameListener> gameListeners = runner.sharedListeners(listeners);
 
         // Save win rate statistics over all games
         TAGStatSummary[] overall = new TAGStatSummary[nPlayers];
@@ -217,22 +237,39 @@ public class Game {
             }
 
             // Play n repetitions of this game and record player results
-            Game game = null;
-            int offset = 0;
-            for (int i = 0; i < nRepetitions; i++) {
-                Long s = seed;
-                if (s == null) s = System.currentTimeMillis();
-                s += offset;
-                game = runOne(gt, null, players, s, randomizeParameters, listeners, null, turnPause);
-                if (game != null) {
+            boolean played = false;
+            if (nThreads == 1) {
+                int offset = 0;
+                for (int i = 0; i < nRepetitions; i++) {
+                    Long s = seed;
+                    if (s == null) s = System.currentTimeMillis();
+                    s += offset;
+                    Game game = runOne(gt, null, players, s, randomizeParameters, listeners, null, turnPause);
+                    if (game == null)
+                        break;
                     recordPlayerResults(statSummaries, game);
                     offset = game.getGameState().getTurnOrder().getRoundCounter() * game.getGameState().getNPlayers();
-                } else {
-                    break;
+                    played = true;
+                }
+            } else {
+                List<Callable<Utils.GameResult[]>> games = new ArrayList<>();
+                for (int i = 0; i < nRepetitions; i++) {
+                    long s = ParallelGameRunner.gameSeed(masterSeed, i);
+                    games.add(() -> {
+                        Game game = runOne(gt, null, runner.playersFor(players, s), s, randomizeParameters, gameListeners, null, turnPause);
+                        return game == null ? null : game.getGameState().getPlayerResults();
+                    });
+                }
+                // a game that could not be played is skipped, as those after it have been played all the same
+                for (Utils.GameResult[] results : runner.run(games, players)) {
+                    if (results == null)
+                        continue;
+                    recordPlayerResults(statSummaries, results);
+                    played = true;
                 }
             }
 
-            if (game != null) {
+            if (played) {
                 System.out.println("---------------------");
                 for (int i = 0; i < nPlayers; i++) {
                     // Print statistics for this game
@@ -272,7 +309,28 @@ public class Game {
      */
     public static void runMany(List<GameType> gamesToPlay, List<AbstractPlayer> players, int nRepetitions,
                                long[] seeds, ActionController ac, boolean randomizeParameters, List<IGameListener> listeners, int turnPause) {
+        runMany(gamesToPlay, players, nRepetitions, seeds, ac, randomizeParameters, listeners, turnPause, 1);
+    }
+
+    /**
+     * Runs several games with a set of random seeds, one for each repetition of a game, playing up to nThreads games
+     * at once (see ParallelGameRunner).
+     *
+     * @param gamesToPlay         - list of games to play.
+     * @param players             - list of players for the game. With more than one thread, each game is played by
+     *                            copies of these.
+     * @param nRepetitions        - number of repetitions of each game.
+     * @param seeds               - random seeds array, one for each repetition of a game.
+     * @param ac                  - action controller for GUI interactions, null if playing without visuals.
+     * @param randomizeParameters - if true, game parameters are randomized for each run of each game (if possible).
+     * @param nThreads            - number of games to play at once
+     */
+    public static void runMany(List<GameType> gamesToPlay, List<AbstractPlayer> players, int nRepetitions,
+                               long[] seeds, ActionController ac, boolean randomizeParameters, List<IGameListener> listeners,
+                               int turnPause, int nThreads) {
         int nPlayers = players.size();
+        ParallelGameRunner runner = new ParallelGameRunner(nThreads);
+        List<IGameListener> gameListeners = runner.sharedListeners(listeners);
 
         // Save win rate statistics over all games
         TAGStatSummary[] overall = new TAGStatSummary[nPlayers];
@@ -290,11 +348,17 @@ public class Game {
             }
 
             // Play n repetitions of this game and record player results
+            List<Callable<Utils.GameResult[]>> games = new ArrayList<>();
             for (int i = 0; i < nRepetitions; i++) {
-                Game game = runOne(gt, null, players, seeds[i], randomizeParameters, listeners, null, turnPause);
-                if (game != null) {
-                    recordPlayerResults(statSummaries, game);
-                }
+                long s = seeds[i];
+                games.add(() -> {
+                    Game game = runOne(gt, null, runner.playersFor(players, s), s, randomizeParameters, gameListeners, null, turnPause);
+                    return game == null ? null : game.getGameState().getPlayerResults();
+                });
+            }
+            for (Utils.GameResult[] results : runner.run(games, players)) {
+                if (results != null)
+                    recordPlayerResults(statSummaries, results);
             }
 
             for (int i = 0; i < nPlayers; i++) {
@@ -322,8 +386,18 @@ public class Game {
      * @param game          - finished game
      */
     public static void recordPlayerResults(TAGStatSummary[] statSummaries, Game game) {
+        recordPlayerResults(statSummaries, game.getGameState().getPlayerResults());
+    }
+
+    /**
+     * Records the results of a finished game into the given StatSummary objects. Only WIN, LOSE or DRAW are valid
+     * results recorded.
+     *
+     * @param statSummaries - object recording statistics
+     * @param results       - results of each player
+     */
+    public static void recordPlayerResults(TAGStatSummary[] statSummaries, Utils.GameResult[] results) {
         int nPlayers = statSummaries.length;
-        Utils.GameResult[] results = game.getGameState().getPlayerResults();
         for (int p = 0; p < nPlayers; p++) {
             if (results[p] == Utils.GameResult.WIN || results[p] == Utils.GameResult.LOSE || results[p] == Utils.GameResult.DRAW) {
                 statSummaries[p].add(results[p].value);
@@ -402,7 +476,8 @@ public class Game {
         nActionsPerTurn = 1;
         nActionsPerTurnCount = 0;
         lastPlayer = -1;
-        listeners.forEach(l -> l.onGameEvent(GameEvents.ABOUT_TO_START, this));
+        events.setQueueCapacity(gameState.coreGameParameters.eventQueueSize);
+        events.publish(GameEvents.ABOUT_TO_START, this);
     }
 
     /**
@@ -543,9 +618,12 @@ public class Game {
             } else {
                 // Get action from player, and time it
                 s = System.nanoTime();
+                long start = Metrics.startTimer();
                 if (debug) System.out.printf("About to get action for player %d%n", gameState.getCurrentPlayer());
                 action = currentPlayer.getAction(observation, observedActions);
                 agentTime += (System.nanoTime() - s);
+                if (Metrics.isEnabled())
+                    Metrics.stopTimer(Metrics.GET_ACTION, start, gameType, activePlayer, currentPlayer.toString(), observation.getGamePhase());
                 nDecisions++;
             }
             if (gameState.coreGameParameters.competitionMode && action != null && !observedActions.contains(action)) {
@@ -554,7 +632,7 @@ public class Game {
             }
             // We publish an ACTION_CHOSEN message before we implement the action, so that observers can record the state that led to the decision
             AbstractAction finalAction = action;
-            listeners.forEach(l -> l.onEvent(GameEvents.ACTION_CHOSEN, gameState, finalAction));
+            events.publish(GameEvents.ACTION_CHOSEN, gameState, finalAction);
         } else {
             currentPlayer.registerUpdatedObservation(observation);
         }
@@ -583,9 +661,8 @@ public class Game {
         lastPlayer = activePlayer;
 
         // We publish an ACTION_TAKEN message once the action is taken so that observers can record the result of the action
-        // (such as the next player)
-        AbstractAction finalAction1 = action;
-        listeners.forEach(l -> l.onEvent(GameEvents.ACTION_TAKEN, gameState.copy(), finalAction1.copy()));
+        // (such as the next player). The state is only copied for listeners that ask for a snapshot of it
+        events.publish(GameEvents.ACTION_TAKEN, gameState, action);
         if (debug) System.out.printf("Finishing oneAction for player %s%n", activePlayer);
     }
 
@@ -600,7 +677,11 @@ public class Game {
 
         // Perform any end of game computations as required by the game
         forwardModel.endGame(gameState);
-        listeners.forEach(l -> l.onGameEvent(GameEvents.GAME_OVER, this));
+        if (Metrics.isEnabled())
+            Metrics.counter(Metrics.GAMES, gameType, -1, null, null).increment();
+        events.publish(GameEvents.GAME_OVER, this);
+        // no more events will come until the game is reset, so the thread delivering them (if any) can stop
+        events.close();
         if (gameState.coreGameParameters.verbose) {
             System.out.println("Game Over");
         }
@@ -730,15 +811,16 @@ public class Game {
     }
 
     public void addListener(IGameListener listener) {
-        if (!listeners.contains(listener)) {
-            listeners.add(listener);
-            gameState.turnOrder.addListener(listener);
-        }
+        events.addListener(listener);
+        gameState.turnOrder.setEventBus(events);
     }
 
     public void clearListeners() {
-        listeners.clear();
-        getGameState().turnOrder.clearListeners();
+        events.clearListeners();
+    }
+
+    public List<IGameListener> getListeners() {
+        return events.getListeners();
     }
 
     /**
@@ -781,112 +863,28 @@ public class Game {
 
     public void setupVideoRecording(String filename, String formatname,
                                     String codecname, int snapsPerSecond) {
-        if (recordingVideo) {
-            try {
-                final Rational framerate = Rational.make(1, snapsPerSecond);
-
-                // First we create a muxer using the passed in filename and formatname if given.
-                muxer = Muxer.make(filename, null, formatname);
-
-                /* Now, we need to decide what type of codec to use to encode video. Muxers
-                 * have limited sets of codecs they can use. We're going to pick the first one that
-                 * works, or if the user supplied a codec name, we're going to force-fit that
-                 * in instead.
-                 */
-                final MuxerFormat format = muxer.getFormat();
-                final Codec codec;
-                if (codecname != null) {
-                    codec = Codec.findEncodingCodecByName(codecname);
-                } else {
-                    codec = Codec.findEncodingCodec(format.getDefaultVideoCodecId());
-                }
-
-                // Now that we know what codec, we need to create an encoder
-                encoder = Encoder.make(codec);
-
-                /*
-                 * Video encoders need to know at a minimum:
-                 *   width
-                 *   height
-                 *   pixel format
-                 * Some also need to know frame-rate (older codecs that had a fixed rate at which video files could
-                 * be written needed this). There are many other options you can set on an encoder, but we're
-                 * going to keep it simpler here.
-                 */
-                encoder.setWidth(areaBounds.width);
-                encoder.setHeight(areaBounds.height);
-                // We are going to use 420P as the format because that's what most video formats these days use
-                final PixelFormat.Type pixelformat = PixelFormat.Type.PIX_FMT_YUV420P;
-                encoder.setPixelFormat(pixelformat);
-                encoder.setTimeBase(framerate);
-
-                /* An annoynace of some formats is that they need global (rather than per-stream) headers,
-                 * and in that case you have to tell the encoder. And since Encoders are decoupled from
-                 * Muxers, there is no easy way to know this beyond
-                 */
-                if (format.getFlag(MuxerFormat.Flag.GLOBAL_HEADER))
-                    encoder.setFlag(Encoder.Flag.FLAG_GLOBAL_HEADER, true);
-
-                // Open the encoder.
-                encoder.open(null, null);
-                // Add this stream to the muxer.
-                muxer.addNewStream(encoder);
-                // And open the muxer for business.
-                muxer.open(null, null);
-
-                /* Next, we need to make sure we have the right MediaPicture format objects
-                 * to encode data with. Java (and most on-screen graphics programs) use some
-                 * variant of Red-Green-Blue image encoding (a.k.a. RGB or BGR). Most video
-                 * codecs use some variant of YCrCb formatting. So we're going to have to
-                 * convert. To do that, we'll introduce a MediaPictureConverter object later. object.
-                 */
-                picture = MediaPicture.make(
-                        encoder.getWidth(),
-                        encoder.getHeight(),
-                        pixelformat);
-                picture.setTimeBase(framerate);
-
-                /* Now begin our main loop of taking screen snaps.
-                 * We're going to encode and then write out any resulting packets. */
-                packet = MediaPacket.make();
-            } catch (IOException | InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
+        if (recordingVideo)
+            videoRecorder = new VideoRecorder(filename, formatname, codecname, snapsPerSecond,
+                    areaBounds.width, areaBounds.height, videoQueueSize);
     }
 
     private void videoRecordFrame(JFrame gui) {
-        if (recordingVideo) {
-            // Make the screen capture && convert image to TYPE_3BYTE_BGR
-            final BufferedImage screen = componentToImage(gui, BufferedImage.TYPE_3BYTE_BGR);
-
-            // This is LIKELY not in YUV420P format, so we're going to convert it using some handy utilities.
-            if (converter == null)
-                converter = MediaPictureConverterFactory.createConverter(screen, picture);
-            converter.toPicture(picture, screen, tick);
-
-            do {
-                encoder.encode(packet, picture);
-                if (packet.isComplete())
-                    muxer.write(packet, false);
-            } while (packet.isComplete());
-        }
+        // this only captures the frame, which is encoded on another thread
+        if (videoRecorder != null)
+            videoRecorder.captureFrame(gui, tick);
     }
 
     private void terminateVideoRecording() {
-        if (recordingVideo) {
-            /* Encoders, like decoders, sometimes cache pictures so it can do the right key-frame optimizations.
-             * So, they need to be flushed as well. As with the decoders, the convention is to pass in a null
-             * input until the output is not complete.
-             */
-            do {
-                encoder.encode(packet, null);
-                if (packet.isComplete())
-                    muxer.write(packet, false);
-            } while (packet.isComplete());
-
-            // Finally, let's clean up after ourselves.
-            muxer.close();
+        if (videoRecorder != null) {
+            videoRecorder.close();
+            if (Metrics.isEnabled()) {
+                Metrics.counter(Metrics.VIDEO_FRAMES, gameType, -1, null, null).add(videoRecorder.getFramesCaptured());
+                Metrics.counter(Metrics.VIDEO_FRAMES_DROPPED, gameType, -1, null, null).add(videoRecorder.getFramesDropped());
+                Metrics.histogram(Metrics.VIDEO_FRAMES_WAITING, gameType, -1, null, null).record(videoRecorder.getMaxQueued());
+            }
+            if (gameState.coreGameParameters.verbose)
+                System.out.println("Video recording: " + videoRecorder.getStatistics());
+            videoRecorder = null;
         }
     }
 
@@ -0,0 +1,229 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.interfaces.IGameListener;
+import core.interfaces.IGameListener.Payload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static core.CoreConstants.GameEvents;
+
+/**
+ * Delivers the events of one game (from the Game and its TurnOrder) to the listeners of that game.
+ *
+ * Each listener declares which events it wants, and with what (see IGameListener.payload()), so that nothing is done
+ * for events no one wants. In particular the state is only copied for an event if a listener asks for a snapshot, and
+ * then only once, with the copy shared by all the listeners that asked.
+ *
+ * By default all events are delivered on the thread playing the game. With a queue capacity above zero (see
+ * CoreParameters.eventQueueSize), snapshots are instead delivered on a separate thread, through a queue of that
+ * many events; the game only waits if the queue is full. Each listener still receives its events in the order they
+ * happened, so before an event is delivered to a listener on the game thread any snapshots queued for it are
+ * delivered first.
+ */
+public class GameEventBus {
+
+    // A listener, and the number of its events in the queue
+    private static class Subscriber {
+        final IGameListener listener;
+        int queued;
+
+        Subscriber(IGameListener listener) {
+            this.listener = listener;
+        }
+    }
+
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private int queueCapacity;
+    // The queue, and the thread that empties it, are only created when first needed
+    private BlockingQueue<Runnable> queue;
+    private Thread consumer;
+    // The first exception thrown by a listener on the consumer thread, to be rethrown on the game thread
+    private volatile RuntimeException failure;
+
+    public void addListener(IGameListener listener) {
+        for (Subscriber s : subscribers)
+            if (s.listener.equals(listener))
+                return;
+        subscribers.add(new Subscriber(listener));
+    }
+
+    public void clearListeners() {
+        close();
+        subscribers.clear();
+    }
+
+    public List<IGameListener> getListeners() {
+        List<IGameListener> retValue = new ArrayList<>(subscribers.size());
+        for (Subscriber s : subscribers)
+            retValue.add(s.listener);
+        return retValue;
+    }
+
+    /**
+     * Sets how many events may be waiting to be delivered on a separate thread. Any already waiting are delivered
+     * first.
+     * @param capacity - size of the queue, or 0 to deliver all events on the game thread
+     */
+    public void setQueueCapacity(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Queue capacity cannot be negative: " + capacity);
+        if (capacity != queueCapacity) {
+            close();
+            queueCapacity = capacity;
+        }
+    }
+
+    /**
+     * @param type - event type
+     * @return - true if any listener wants events of this type (used to avoid work for events no one wants)
+     */
+    public boolean hasSubscribers(GameEvents type) {
+        for (Subscriber s : subscribers)
+            if (s.listener.payload(type) != Payload.NONE)
+                return true;
+        return false;
+    }
+
+    /**
+     * Events about the game as a whole (ABOUT_TO_START and GAME_OVER), which are always delivered on the game thread.
+     * @param type - event type
+     * @param game - the game
+     */
+    public void publish(GameEvents type, Game game) {
+        checkFailure();
+        for (Subscriber s : subscribers) {
+            if (s.listener.payload(type) != Payload.NONE) {
+                waitForQueued(s);
+                s.listener.onGameEvent(type, game);
+            }
+        }
+    }
+
+    /**
+     * All other events.
+     * @param type   - event type
+     * @param state  - the state in the game
+     * @param action - the action involved, if any
+     */
+    public void publish(GameEvents type, AbstractGameState state, AbstractAction action) {
+        checkFailure();
+        AbstractGameState snapshot = null;
+        AbstractAction actionSnapshot = null;
+        for (Subscriber s : subscribers) {
+            Payload payload = s.listener.payload(type);
+            if (payload == Payload.NONE)
+                continue;
+            if (payload == Payload.STATE) {
+                waitForQueued(s);
+                s.listener.onEvent(type, state, action);
+                continue;
+            }
+            if (snapshot == null) {
+                snapshot = state.copy();
+                actionSnapshot = action == null ? null : action.copy();
+            }
+            if (queueCapacity == 0) {
+                s.listener.onEvent(type, snapshot, actionSnapshot);
+            } else {
+                AbstractGameState finalSnapshot = snapshot;
+                AbstractAction finalAction = actionSnapshot;
+                enqueue(s, () -> s.listener.onEvent(type, finalSnapshot, finalAction));
+            }
+        }
+    }
+
+    /**
+     * Waits until all queued events have been delivered.
+     */
+    public void flush() {
+        for (Subscriber s : subscribers)
+            waitForQueued(s);
+        checkFailure();
+    }
+
+    /**
+     * Delivers all queued events, and stops the thread that delivers them (a new one is started if needed).
+     */
+    public void close() {
+        if (consumer != null) {
+            for (Subscriber s : subscribers)
+                waitForQueued(s);
+            consumer.interrupt();
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumer = null;
+            queue = null;
+        }
+        checkFailure();
+    }
+
+    private void enqueue(Subscriber s, Runnable delivery) {
+        if (consumer == null) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            consumer = new Thread(this::consume, "GameEventBus");
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+        synchronized (s) {
+            s.queued++;
+        }
+        try {
+            queue.put(() -> {
+                try {
+                    delivery.run();
+                } catch (RuntimeException e) {
+                    if (failure == null)
+                        failure = e;
+                } finally {
+                    synchronized (s) {
+                        s.queued--;
+                        s.notifyAll();
+                    }
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for space in the event queue", e);
+        }
+    }
+
+    private void consume() {
+        BlockingQueue<Runnable> q = queue;
+        try {
+            while (true)
+                q.take().run();
+        } catch (InterruptedException e) {
+            // close() only interrupts once everything has been delivered
+        }
+    }
+
+    private void waitForQueued(Subscriber s) {
+        if (consumer == null)
+            return;
+        synchronized (s) {
+            while (s.queued > 0) {
+                try {
+                    s.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for events to be delivered", e);
+                }
+            }
+        }
+    }
+
+    private void checkFailure() {
+        RuntimeException e = failure;
+        if (e != null) {
+            failure = null;
+            throw new RuntimeException("A listener failed while handling an event", e);
+        }
+    }
+}
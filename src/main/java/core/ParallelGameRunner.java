@@ -0,0 +1,258 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.Zobrist;
+import core.interfaces.IGameListener;
+import core.interfaces.IStatisticLogger;
+import utilities.TAGStatSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many independent games at the same time on a work-stealing pool, for Game.runMany() and the tournaments.
+ * <p>
+ * With one thread, the games are played in turn on the calling thread by the players themselves, exactly as they
+ * would be without a ParallelGameRunner.
+ * <p>
+ * With more than one, the results of a set of games are the same whatever the number of threads, provided the players
+ * are deterministic for a given seed:
+ * - the seed of each game is derived from the master seed and the index of the game only (see gameSeed()), and not
+ * from the games played before it
+ * - each game gets its own copies of the players (AbstractPlayer.copy(long)), made by the task that plays it, and
+ * seeded from the seed of the game (see playerSeed()), and not from the order in which the copies are made. The
+ * forward models are copied per game by Game.reset() as usual.
+ * - results are returned in the order of the games, for the caller to aggregate on its own thread
+ * Component IDs come from a global counter, and so do differ between games depending on which are played at the same
+ * time. Players whose decisions depend on these (for example via the hash codes of actions, when they iterate over
+ * a HashMap keyed by them) can therefore play differently. The same is true of anything that depends on
+ * the clock, such as the random seed of a copied game state, and of players that ignore the seed given to
+ * copy(long).
+ * <p>
+ * Listeners and statistics loggers are shared by all the games, so when more than one thread is used they are called
+ * while holding a lock on them (see sharedListeners()). The records from different games may then be interleaved.
+ * <p>
+ * Players that do not support copying (those whose copy(long) returns the player itself, such as human players) cannot
+ * be used in more than one game at once; if there are any, the games are all played on the calling thread.
+ */
+public class ParallelGameRunner {
+
+    private final int threads;
+
+    /**
+     * @param threads - number of games to play at once. With 1, all games are played on the calling thread.
+     */
+    public ParallelGameRunner(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Number of threads must be at least 1: " + threads);
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * The seed of one game in a set of games, which depends on only the master seed and the index of the game.
+     *
+     * @param masterSeed - seed for the whole set of games
+     * @param gameIndex  - index of the game in the set
+     * @return - seed for this game
+     */
+    public static long gameSeed(long masterSeed, int gameIndex) {
+        return Zobrist.key(masterSeed, gameIndex);
+    }
+
+    /**
+     * The seed of one player in a game, which depends on only the seed of the game and the position of the player.
+     *
+     * @param gameSeed    - seed of the game
+     * @param playerIndex - position of the player in the game
+     * @return - seed for the copy of this player
+     */
+    public static long playerSeed(long gameSeed, int playerIndex) {
+        return Zobrist.key(~gameSeed, playerIndex);
+    }
+
+    /**
+     * The players for one game. With one thread these are the players themselves. Otherwise they are copies, seeded
+     * from the seed of the game, which log to the same statistics loggers as the originals. This is best called by the
+     * task that plays the game, so that the copies are only made when they are needed.
+     *
+     * @param players  - the players as given to runMany() or the tournament
+     * @param gameSeed - seed of the game
+     * @return - the players for one game
+     */
+    public List<AbstractPlayer> playersFor(List<AbstractPlayer> players, long gameSeed) {
+        if (threads == 1)
+            return players;
+        List<AbstractPlayer> retValue = new ArrayList<>(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            AbstractPlayer player = players.get(i);
+            AbstractPlayer copy = player.copy(playerSeed(gameSeed, i));
+            if (copy != player) {
+                copy.setName(player.toString());
+                copy.setStatsLogger(player.getStatsLogger() == null ? null : new SharedLogger(player.getStatsLogger()));
+            }
+            retValue.add(copy);
+        }
+        return retValue;
+    }
+
+    /**
+     * @param listeners - listeners to be told about all the games (may be null)
+     * @return - listeners that can safely be used by games on different threads
+     */
+    public List<IGameListener> sharedListeners(List<IGameListener> listeners) {
+        if (listeners == null || threads == 1)
+            return listeners;
+        List<IGameListener> retValue = new ArrayList<>(listeners.size());
+        for (IGameListener listener : listeners)
+            retValue.add(new SharedListener(listener));
+        return retValue;
+    }
+
+    /**
+     * Plays a set of games.
+     *
+     * @param games   - one task per game, each of which plays the game (with the players from playersFor()) and
+     *                returns its result
+     * @param players - all the players that the games take copies of, to check that they can be copied
+     * @param <T>     - type of the result of each game
+     * @return - the results, in the same order as games
+     */
+    public <T> List<T> run(List<Callable<T>> games, Collection<AbstractPlayer> players) {
+        List<T> retValue = new ArrayList<>(games.size());
+        boolean parallel = threads > 1 && games.size() > 1 && canRunInParallel(players);
+        try {
+            if (!parallel) {
+                for (Callable<T> game : games)
+                    retValue.add(game.call());
+                return retValue;
+            }
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                List<Future<T>> futures = new ArrayList<>(games.size());
+                for (Callable<T> game : games)
+                    futures.add(pool.submit(game));
+                for (Future<T> future : futures)
+                    retValue.add(future.get());
+            } finally {
+                pool.shutdownNow();
+            }
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while playing games", e);
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+        return retValue;
+    }
+
+    private static boolean canRunInParallel(Collection<AbstractPlayer> players) {
+        // a player that cannot be copied would be used in more than one game at once
+        for (AbstractPlayer player : players)
+            if (player.copy(0) == player)
+                return false;
+        return true;
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException)
+            return (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+        return new RuntimeException(t);
+    }
+
+    /**
+     * A listener shared by games on different threads, which are given access one at a time.
+     */
+    private static class SharedListener implements IGameListener {
+        final IGameListener listener;
+
+        SharedListener(IGameListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public Payload payload(CoreConstants.GameEvents type) {
+            return listener.payload(type);
+        }
+
+        @Override
+        public void onGameEvent(CoreConstants.GameEvents type, Game game) {
+            synchronized (listener) {
+                listener.onGameEvent(type, game);
+            }
+        }
+
+        @Override
+        public void onEvent(CoreConstants.GameEvents type, AbstractGameState state, AbstractAction action) {
+            synchronized (listener) {
+                listener.onEvent(type, state, action);
+            }
+        }
+
+        @Override
+        public void allGamesFinished() {
+            synchronized (listener) {
+                listener.allGamesFinished();
+            }
+        }
+    }
+
+    /**
+     * A statistics logger shared by players on different threads, which are given access one at a time.
+     */
+    private static class SharedLogger implements IStatisticLogger {
+        final IStatisticLogger logger;
+
+        SharedLogger(IStatisticLogger logger) {
+            this.logger = logger;
+        }
+
+        @Override
+        public void record(Map<String, ?> data) {
+            synchronized (logger) {
+                logger.record(data);
+            }
+        }
+
+        @Override
+        public void record(String key, Object datum) {
+            synchronized (logger) {
+                logger.record(key, datum);
+            }
+        }
+
+        @Override
+        public void processDataAndFinish() {
+            synchronized (logger) {
+                logger.processDataAndFinish();
+            }
+        }
+
+        @Override
+        public void processDataAndNotFinish() {
+            synchronized (logger) {
+                logger.processDataAndNotFinish();
+            }
+        }
+
+        @Override
+        public Map<String, TAGStatSummary> summary() {
+            synchronized (logger) {
+                return logger.summary();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.interfaces.IExtendedSequence;
+import core.interfaces.IGamePhase;
+import core.turnorders.TurnOrder;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Returned by AbstractForwardModel.nextWithUndo(), this holds everything needed to reverse the action with
+ * AbstractForwardModel.undo().
+ *
+ * A token can only be undone once, and only while the state is exactly as nextWithUndo() left it, so tokens must be
+ * undone in the reverse order to that in which they were created.
+ */
+public final class UndoToken {
+
+    final AbstractGameState state;
+    final AbstractAction action;
+    // The turn order object of the state before the action. The state has a copy of it while the action is applied
+    final TurnOrder turnOrder;
+    final Utils.GameResult gameStatus;
+    final Utils.GameResult[] playerResults;
+    final IGamePhase gamePhase;
+    final int historySize;
+    // Only the membership of the stack is restored, not any changes to the state of the sequences themselves
+    final List<IExtendedSequence> actionsInProgress;
+    // Returned by AbstractForwardModel._nextWithUndo() for use by _undo()
+    Object undoData;
+    boolean undone;
+
+    UndoToken(AbstractGameState state, AbstractAction action) {
+        this.state = state;
+        this.action = action;
+        this.turnOrder = state.turnOrder;
+        this.gameStatus = state.gameStatus;
+        this.playerResults = state.playerResults.clone();
+        this.gamePhase = state.gamePhase;
+        this.historySize = state.getHistorySize();
+        this.actionsInProgress = state.actionsInProgress.isEmpty() ? null : new ArrayList<>(state.actionsInProgress);
+    }
+
+    /**
+     * @return - the action that this token can undo
+     */
+    public AbstractAction getAction() {
+        return action;
+    }
+
+    /**
+     * @return - true if undo() has already been called with this token
+     */
+    public boolean isUndone() {
+        return undone;
+    }
+}
@@ -0,0 +1,241 @@
+package core.actions;
+
+import core.components.Zobrist;
+import core.interfaces.ICodedAction;
+
+import java.util.*;
+
+/**
+ * A map keyed by actions, for statistics kept on actions during search (such as the children of a node in MCTS).
+ * Actions that implement ICodedAction are looked up by their class and code alone, and all others with hashCode()
+ * and equals() as in a HashMap.
+ * <p>
+ * The entries are kept in arrays in the order they were added, which is also the order in which they are iterated
+ * over, with a separate open addressing table to find them. So an entry takes up about half the memory it does in
+ * a HashMap, and the order of iteration does not depend on the hash codes of the actions.
+ * Entries cannot be removed (other than by clear()). Null keys are not allowed, but null values are.
+ * It is not thread-safe.
+ *
+ * @param <V> - type of the values
+ */
+public class ActionMap<V> extends AbstractMap<AbstractAction, V> {
+
+    private AbstractAction[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int size;
+    // index + 1 of the entry with each hash (modulo the length), or 0 if free, with linear probing
+    private int[] slots;
+    private EntrySet entrySet;
+
+    public ActionMap() {
+        this(4);
+    }
+
+    /**
+     * @param expectedSize - the number of entries the map is expected to hold. It grows if needed.
+     */
+    public ActionMap(int expectedSize) {
+        int capacity = Math.max(expectedSize, 2);
+        keys = new AbstractAction[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        slots = new int[tableSize(capacity)];
+    }
+
+    public ActionMap(Map<? extends AbstractAction, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+
+    private static int tableSize(int capacity) {
+        // at most half full
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int hash(AbstractAction action) {
+        long h = action instanceof ICodedAction
+                ? ((ICodedAction) action).getActionCode() * 0x9E3779B97F4A7C15L + action.getClass().hashCode()
+                : action.hashCode();
+        return (int) Zobrist.mix(h);
+    }
+
+    private boolean matches(int index, AbstractAction action, int hash) {
+        AbstractAction key = keys[index];
+        if (key == action)
+            return true;
+        if (hashes[index] != hash)
+            return false;
+        if (action instanceof ICodedAction)
+            return key.getClass() == action.getClass()
+                    && ((ICodedAction) key).getActionCode() == ((ICodedAction) action).getActionCode();
+        return key.equals(action);
+    }
+
+    // index of the entry for this key, or -1 if there is none
+    private int find(Object key) {
+        if (!(key instanceof AbstractAction))
+            return -1;
+        AbstractAction action = (AbstractAction) key;
+        int hash = hash(action);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (matches(slots[slot] - 1, action, hash))
+                return slots[slot] - 1;
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = find(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int index = find(key);
+        return index < 0 ? defaultValue : (V) values[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(AbstractAction key, V value) {
+        if (key == null)
+            throw new IllegalArgumentException("Actions in an ActionMap cannot be null");
+        int hash = hash(key);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (matches(index, key, hash)) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+        }
+        if (size == keys.length) {
+            grow();
+            put(key, value);
+            return null;
+        }
+        keys[size] = key;
+        values[size] = value;
+        hashes[size] = hash;
+        size++;
+        slots[slot] = size;
+        return null;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        slots = new int[tableSize(capacity)];
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (slots[slot] != 0)
+                slot = (slot + 1) & mask;
+            slots[slot] = index + 1;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<AbstractAction, V>> entrySet() {
+        if (entrySet == null)
+            entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<AbstractAction, V>> {
+        @Override
+        public Iterator<Entry<AbstractAction, V>> iterator() {
+            return new Iterator<Entry<AbstractAction, V>>() {
+                int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Entry<AbstractAction, V> next() {
+                    if (next >= size)
+                        throw new NoSuchElementException();
+                    return new ActionEntry(next++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class ActionEntry implements Entry<AbstractAction, V> {
+        final int index;
+
+        ActionEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public AbstractAction getKey() {
+            return keys[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) return false;
+            Entry<?, ?> other = (Entry<?, ?>) o;
+            return Objects.equals(getKey(), other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
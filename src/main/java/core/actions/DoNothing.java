@@ -1,11 +1,12 @@
 package core.actions;
 
 import core.AbstractGameState;
+import core.interfaces.ICodedAction;
 
 /**
  * This action executes successfully automatically, it makes not changes to the game state.
  */
-public class DoNothing extends AbstractAction {
+public class DoNothing extends AbstractAction implements ICodedAction {
 
     @Override
     public boolean execute(AbstractGameState gs) {
@@ -23,6 +24,11 @@ public class DoNothing extends AbstractAction {
         return o instanceof DoNothing;
     }
 
+    @Override
+    public long getActionCode() {
+        return 0;
+    }
+
     @Override
     public int hashCode() {
         return 0;
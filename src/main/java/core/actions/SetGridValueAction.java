@@ -4,10 +4,11 @@ import core.AbstractGameState;
 import core.components.Component;
 import core.interfaces.IPrintable;
 import core.components.GridBoard;
+import core.interfaces.ICodedAction;
 
 import java.util.Objects;
 
-public class SetGridValueAction<T extends Component> extends AbstractAction implements IPrintable {
+public class SetGridValueAction<T extends Component> extends AbstractAction implements IPrintable, ICodedAction {
 
     private final int gridBoard;
     private final int x;
@@ -47,6 +48,12 @@ public class SetGridValueAction<T extends Component> extends AbstractAction impl
                 Objects.equals(value, that.value);
     }
 
+    @Override
+    public long getActionCode() {
+        // games have one grid board, so the code is made up of the cell and the ID of the value only
+        return (long) value.getComponentID() << 32 | (x & 0xFFFFL) << 16 | (y & 0xFFFFL);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(gridBoard, x, y, value);
@@ -0,0 +1,57 @@
+package core.actions;
+
+import core.components.Component;
+import core.components.GridBoard;
+
+import java.util.List;
+
+/**
+ * Shared instances of SetGridValueAction, for forward models whose available actions are to set a cell of a grid board
+ * to one of a fixed set of values (for example the token of the current player). SetGridValueAction is immutable, so
+ * the same instance can be handed out every time the same action is available
+ * (see AbstractForwardModel._computeAvailableActions(state, actions)).
+ * <p>
+ * The cache is for one grid board at a time (copies of which have the same component ID); it is cleared if asked for
+ * actions on another. It is not thread-safe, so each forward model should have its own.
+ *
+ * @param <T> - type of the values in the grid
+ */
+public class SetGridValueActionCache<T extends Component> {
+
+    private final List<T> values;
+    private int gridBoard = -1;
+    private int height;
+    // Indexed by value, and then cell (x * height + y)
+    private SetGridValueAction<T>[][] actions;
+
+    /**
+     * @param values - the values cells can be set to, as indexed in get()
+     */
+    public SetGridValueActionCache(List<T> values) {
+        this.values = values;
+    }
+
+    /**
+     * @param board      - grid board to set the value in
+     * @param x          - x coordinate of the cell
+     * @param y          - y coordinate of the cell
+     * @param valueIndex - index of the value, in the list given to the constructor
+     * @return - the action that sets the cell to this value
+     */
+    @SuppressWarnings("unchecked")
+    public SetGridValueAction<T> get(GridBoard<T> board, int x, int y, int valueIndex) {
+        if (actions == null || board.getComponentID() != gridBoard || board.getHeight() != height
+                || x * height + y >= actions[valueIndex].length) {
+            gridBoard = board.getComponentID();
+            height = board.getHeight();
+            actions = new SetGridValueAction[values.size()][board.getWidth() * height];
+        }
+        int cell = x * height + y;
+        SetGridValueAction<T> retValue = actions[valueIndex][cell];
+        if (retValue == null) {
+            retValue = new SetGridValueAction<>(gridBoard, x, y, values.get(valueIndex));
+            actions[valueIndex][cell] = retValue;
+        }
+        return retValue;
+    }
+}
@@ -13,6 +13,8 @@ public class Area extends Component implements IComponentContainer<Component> {
 
     // Collection of components stored in this area, mapping to their IDs
     protected HashMap<Integer, Component> components;
+    // Non-null while the components are shared with copies of this area (see CopyOnWrite)
+    private CopyOnWrite<HashMap<Integer, Component>> sharedComponents;
 
     public Area(int owner, String name) {
         super(Utils.ComponentType.AREA, "");
@@ -28,14 +30,79 @@ public class Area extends Component implements IComponentContainer<Component> {
 
     public Area copy() {
         Area new_area = new Area(ownerId, componentName, componentID);
-        new_area.components = new HashMap<>();
-        for (Map.Entry<Integer, Component> c: this.components.entrySet()){
-            new_area.components.put(c.getKey(), c.getValue().copy());
+        if (CopyOnWrite.isEnabled()) {
+            if (sharedComponents == null)
+                sharedComponents = new CopyOnWrite<>(this, components, Area::copyComponents);
+            new_area.sharedComponents = sharedComponents.join();
+            new_area.components = null;
+        } else {
+            new_area.components = copyComponents(components());
         }
         copyComponentTo(new_area);
         return new_area;
     }
 
+    private static HashMap<Integer, Component> copyComponents(Map<Integer, Component> components) {
+        HashMap<Integer, Component> newComponents = new HashMap<>();
+        for (Map.Entry<Integer, Component> c: components.entrySet()){
+            newComponents.put(c.getKey(), c.getValue().copy());
+        }
+        return newComponents;
+    }
+
+    /**
+     * Read-only access to the components, which does not end any copy-on-write sharing.
+     */
+    private Map<Integer, Component> components() {
+        CopyOnWrite<HashMap<Integer, Component>> shared = sharedComponents;
+        return shared == null ? components : shared.contents();
+    }
+
+    /**
+     * If the components of this area are currently shared with a copy-on-write copy, then this takes a private
+     * version of them. This must be called before modifying the components, or handing them out to other code.
+     */
+    private void materialise() {
+        if (sharedComponents != null) {
+            components = sharedComponents.release(this);
+            sharedComponents = null;
+        }
+    }
+
+    /**
+     * Combines the hashes of the components in this area, so that any that maintain their hash incrementally
+     * (such as a Deck) do not need to be recalculated.
+     */
+    @Override
+    public long getZobristHash() {
+        long retValue = 0;
+        for (Component c : components().values())
+            retValue ^= Zobrist.key(c.getComponentID(), c.getZobristHash());
+        return retValue;
+    }
+
+    /**
+     * Includes the versions of the components in this area, as changes made to them are not changes to the area.
+     */
+    @Override
+    public long getVersion() {
+        long retValue = getModificationCount();
+        for (Component c : components().values())
+            retValue = combineVersions(retValue, c);
+        return retValue;
+    }
+
+    @Override
+    public boolean mayContainComponent(int id) {
+        if (componentID == id)
+            return true;
+        for (Component c : components().values()) {
+            if (c.mayContainComponent(id))
+                return true;
+        }
+        return false;
+    }
+
     /**
      * This is used to avoid a full recursive copy of all the contents of an area
      * This can be useful when we need for other reasons to copy those locally, and it
@@ -53,7 +120,14 @@ public class Area extends Component implements IComponentContainer<Component> {
      * Clears the collection of components.
      */
     public void clear() {
+        if (sharedComponents != null) {
+            // no need to copy the contents we are about to throw away
+            sharedComponents.release(this);
+            sharedComponents = null;
+            components = new HashMap<>();
+        }
         components.clear();
+        modified();
     }
 
     /**
@@ -61,9 +135,15 @@ public class Area extends Component implements IComponentContainer<Component> {
      * @return - HashMap, components mapped to their IDs
      */
     public HashMap<Integer, Component> getComponentsMap() {
+        materialise();
         return this.components;
     }
 
+    @Override
+    public int getSize() {
+        return size();
+    }
+
     @Override
     public CoreConstants.VisibilityMode getVisibilityMode() {
         return CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
@@ -71,6 +151,7 @@ public class Area extends Component implements IComponentContainer<Component> {
 
     @Override
     public List<Component> getComponents() {
+        materialise();
         return new ArrayList<>(components.values());
     }
 
@@ -80,6 +161,7 @@ public class Area extends Component implements IComponentContainer<Component> {
      * @return - component corresponding to the given key.
      */
     public Component getComponent(Integer key) {
+        materialise();
         return this.components.get(key);
     }
 
@@ -89,7 +171,9 @@ public class Area extends Component implements IComponentContainer<Component> {
      * @param component - component to add to the collection.
      */
     public void putComponent(Integer key, Component component) {
+        materialise();
         this.components.put(key, component);
+        modified();
     }
 
     /**
@@ -97,9 +181,11 @@ public class Area extends Component implements IComponentContainer<Component> {
      * @param component - component to add to the collection.
      */
     public void putComponent(Component component) {
+        materialise();
         this.components.put(component.getComponentID(), component);
+        modified();
         if (component instanceof IComponentContainer) {
-            for (Component nestedC : ((IComponentContainer<?>) component).getComponents()) {
+            for (Component nestedC : heldComponents((IComponentContainer<?>) component)) {
                 if (nestedC != null)
                     putComponent(nestedC);
             }
@@ -109,8 +195,10 @@ public class Area extends Component implements IComponentContainer<Component> {
     public void removeComponent(Component component) {
         if (component instanceof Deck || component instanceof Area)
             throw new IllegalArgumentException("Not yet implemented for Decks or Areas");
+        materialise();
         if (components.containsKey(component.componentID)) {
             this.components.remove(component.componentID);
+            modified();
         } else {
             throw new IllegalArgumentException("Cannot remove Component as it is not here : " + component.componentID);
         }
@@ -131,20 +219,20 @@ public class Area extends Component implements IComponentContainer<Component> {
      * @return - size of components map.
      */
     public int size() {
-        return components.size();
+        return components().size();
     }
 
     @Override
     public boolean equals(Object o) {
         if (o instanceof Area) {
             Area other = (Area) o;
-            return componentID == other.componentID && other.components.equals(components);
+            return componentID == other.componentID && other.components().equals(components());
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(componentID, components);
+        return Objects.hash(componentID, components());
     }
 }
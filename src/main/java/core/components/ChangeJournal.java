@@ -0,0 +1,92 @@
+package core.components;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how to reverse the changes made to Components. This is what AbstractForwardModel._nextWithUndo() uses by
+ * default, for games that keep all of their state in these components and so need no undo code of their own (they
+ * must still override supportsUndo() to return true).
+ *
+ * While a journal is recording on a thread, the mutating methods of Deck, PartialObservableDeck, GridBoard and Counter
+ * add a step that reverses their change. undo() then runs these steps in reverse order.
+ *
+ * Only changes made through these components are covered. Games that keep other state in their game state (an int[]
+ * of scores, say) need to reverse that themselves, by overriding AbstractForwardModel._nextWithUndo() and _undo().
+ */
+public final class ChangeJournal {
+
+    // Journals currently recording on this thread (they can be nested)
+    private static final ThreadLocal<ChangeJournal> current = new ThreadLocal<>();
+    // Number of journals recording on any thread, so that components can skip the ThreadLocal lookup if there are none
+    private static final AtomicInteger recording = new AtomicInteger();
+
+    private final ArrayList<Runnable> undoSteps = new ArrayList<>();
+    private ChangeJournal previous;
+    private boolean active;
+
+    private ChangeJournal() {
+    }
+
+    /**
+     * Starts recording changes made on this thread into a new journal, until stop() is called on it.
+     * @return - the new journal
+     */
+    public static ChangeJournal start() {
+        ChangeJournal journal = new ChangeJournal();
+        journal.previous = current.get();
+        journal.active = true;
+        current.set(journal);
+        recording.incrementAndGet();
+        return journal;
+    }
+
+    /**
+     * Stops recording into this journal. Any journal that was recording when this one started resumes.
+     */
+    public void stop() {
+        if (!active)
+            throw new AssertionError("Journal has already been stopped");
+        if (current.get() != this)
+            throw new AssertionError("Journals must be stopped in the reverse order to which they were started");
+        active = false;
+        current.set(previous);
+        previous = null;
+        recording.decrementAndGet();
+    }
+
+    /**
+     * @return - true if changes made to components on this thread should be recorded
+     */
+    public static boolean isRecording() {
+        return recording.get() > 0 && current.get() != null;
+    }
+
+    /**
+     * Adds a step that reverses a change to the journal recording on this thread.
+     * Components should only call this if isRecording() is true.
+     * @param undoStep - reverses the change that is about to be made
+     */
+    public static void record(Runnable undoStep) {
+        current.get().undoSteps.add(undoStep);
+    }
+
+    /**
+     * Reverses all the changes recorded in this journal, most recent first.
+     * The journal must have been stopped first, so that the reversals are not themselves recorded.
+     */
+    public void undo() {
+        if (active)
+            throw new AssertionError("Journal must be stopped before it is undone");
+        for (int i = undoSteps.size() - 1; i >= 0; i--)
+            undoSteps.get(i).run();
+        undoSteps.clear();
+    }
+
+    /**
+     * @return - the number of changes recorded
+     */
+    public int size() {
+        return undoSteps.size();
+    }
+}
@@ -1,30 +1,33 @@
 package core.components;
 
+import core.interfaces.IComponentContainer;
 import core.properties.*;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import utilities.Utils.ComponentType;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class Component {
-    private static int ID = 0;  // All components receive a unique and final ID from this always increasing counter
+    private static final AtomicInteger ID = new AtomicInteger();  // All components receive a unique and final ID from this always increasing counter
 
     protected final int componentID;  // Unique ID of this component
     protected final ComponentType type;  // Type of this component
     protected final HashMap<Integer, Property> properties;  // Maps between integer key for the property and the property object
     protected int ownerId = -1;  // By default belongs to the game
     protected String componentName;  // Name of this component
+    private int modificationCount;  // Number of changes made to this component (see getModificationCount())
 
     public Component(ComponentType type, String name) {
-        this.componentID = ID++;
+        this.componentID = ID.getAndIncrement();
         this.type = type;
         this.componentName = name;
         this.properties = new HashMap<>();
     }
 
     public Component(ComponentType type) {
-        this.componentID = ID++;
+        this.componentID = ID.getAndIncrement();
         this.type = type;
         this.componentName = type.toString();
         this.properties = new HashMap<>();
@@ -77,6 +80,42 @@ public abstract class Component {
         this.ownerId = ownerId;
     }
 
+    /**
+     * Counts the changes made to this component, so that anything worked out from it (such as the actions available
+     * in a game state, see AbstractForwardModel) can tell whether it needs to be worked out again.
+     * Only changes made through the methods of Decks, GridBoards and Counters are counted, as with ChangeJournal.
+     * @return - number of changes made to this component since it was created or copied.
+     */
+    public final int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Called by subclasses whenever they are changed (see getModificationCount()).
+     */
+    protected final void modified() {
+        modificationCount++;
+    }
+
+    /**
+     * Changes whenever this component is changed, or any component kept in it whose changes are not counted by this
+     * one (as for the Decks and Counters in an Area). This is what AbstractGameState.getVersion() is made of.
+     * @return - version of this component
+     */
+    public long getVersion() {
+        return modificationCount;
+    }
+
+    /**
+     * Adds the version of a component to a version made of those of others.
+     * @param version - version of the other components
+     * @param c - component to add
+     * @return - the combined version
+     */
+    public static long combineVersions(long version, Component c) {
+        return (version * 0x9e3779b97f4a7c15L + System.identityHashCode(c)) * 0x9e3779b97f4a7c15L + c.getVersion();
+    }
+
     /**
      * Get the ID of this component.
      * @return - component ID.
@@ -198,6 +237,38 @@ public abstract class Component {
         return c;
     }
 
+    /**
+     * Used to find components by ID in copy-on-write copies of a game state without copying every container on
+     * the way (see CopyOnWrite). Returns false only if the component with this ID is certainly neither this
+     * component, nor nested inside it.
+     * Containers that share their contents should override this with a check that does not end the sharing.
+     * @param id - component ID to look for.
+     * @return - false if the component cannot be this one or any nested within it.
+     */
+    public boolean mayContainComponent(int id) {
+        return componentID == id || this instanceof IComponentContainer;
+    }
+
+    /**
+     * The components nested directly inside a container, for walking the contents of a game state. Unlike
+     * getComponents(), this does not count as a change to a Deck (see Deck.heldComponents()).
+     * @param container - the container
+     * @return - its components, which must not be modified
+     */
+    static List<? extends Component> heldComponents(IComponentContainer<?> container) {
+        return container instanceof Deck ? ((Deck<?>) container).heldComponents() : container.getComponents();
+    }
+
+    /**
+     * Zobrist-style hash of the state of this component, used by AbstractGameState.getZobristHash().
+     * By default this is derived from hashCode(). Components that change often during a game (Deck, GridBoard...)
+     * override this to maintain their hash incrementally, rather than recalculating it from scratch.
+     * @return - 64-bit hash of the state of this component.
+     */
+    public long getZobristHash() {
+        return Zobrist.key(hashCode());
+    }
+
     /**
      * Copies super class variables in given subclass instance.
      * @param copyTo - subclass component instance
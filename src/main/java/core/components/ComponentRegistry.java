@@ -0,0 +1,162 @@
+package core.components;
+
+import core.interfaces.IComponentContainer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the components of a game state by their IDs, for actions that refer to components by ID.
+ *
+ * IDs are handed out in order as components are created, so those of one game nearly all fall in a small range. They
+ * are kept in an array indexed by ID from the smallest of them, which a copy of the game state can allocate at the
+ * right size up front and fill without boxing or hashing. The few with IDs far outside the range (for example
+ * components created late in a long run of many games) are kept in a map instead, so the array stays dense.
+ */
+public final class ComponentRegistry {
+
+    private static final int MIN_CAPACITY = 256;
+    // The array may have at most this many slots for every component in it
+    private static final int MAX_SLOTS_PER_COMPONENT = 8;
+
+    // components[i] has ID base + i
+    private int base;
+    private Component[] components;
+    private int size;
+    // Components with IDs that do not fit in the array, null if there are none
+    private Map<Integer, Component> overflow;
+
+    public ComponentRegistry() {
+        components = new Component[0];
+    }
+
+    /**
+     * @return - an empty registry, with room for the same range of IDs as this one
+     */
+    public ComponentRegistry emptyCopy() {
+        ComponentRegistry retValue = new ComponentRegistry();
+        retValue.base = base;
+        retValue.components = new Component[components.length];
+        return retValue;
+    }
+
+    /**
+     * @param id - component ID to look for
+     * @return - the component with this ID, or null if there is none here
+     */
+    public Component get(int id) {
+        // unsigned comparison, so that negative indices are also out of range
+        int index = id - base;
+        if (Integer.compareUnsigned(index, components.length) < 0) {
+            Component c = components[index];
+            // the array may have grown over an ID that was added when it did not fit
+            if (c != null || overflow == null)
+                return c;
+        }
+        return overflow == null ? null : overflow.get(id);
+    }
+
+    /**
+     * Adds a component, but none that it contains.
+     * @param component - component to add, replacing any with the same ID
+     */
+    public void put(Component component) {
+        int id = component.getComponentID();
+        if (!fits(id)) {
+            if (overflow == null)
+                overflow = new HashMap<>();
+            if (overflow.put(id, component) == null)
+                size++;
+            return;
+        }
+        if (overflow != null && overflow.remove(id) != null)
+            size--;
+        int index = id - base;
+        if (components[index] == null)
+            size++;
+        components[index] = component;
+    }
+
+    /**
+     * Adds the components, and recursively all those they contain. This only reads the containers, so does not
+     * count as a change to them (see Component.getVersion()) or invalidate their hashes.
+     * @param components - components to add
+     */
+    public void putAll(List<? extends Component> components) {
+        for (Component c : components) {
+            if (c == null)
+                continue;
+            put(c);
+            if (c instanceof IComponentContainer)
+                putAll(Component.heldComponents((IComponentContainer<?>) c));
+        }
+    }
+
+    /**
+     * Searches for a component by ID, only copying those copy-on-write containers that may contain it. Like
+     * putAll(), this does not count as a change to the containers searched.
+     * @param c  - component to search, including all those it contains
+     * @param id - component ID to look for
+     * @return - the component with this ID, or null if there is none
+     */
+    public static Component find(Component c, int id) {
+        if (c == null)
+            return null;
+        if (c.getComponentID() == id)
+            return c;
+        if (c instanceof IComponentContainer<?> && c.mayContainComponent(id)) {
+            for (Component nested : Component.heldComponents((IComponentContainer<?>) c)) {
+                Component found = find(nested, id);
+                if (found != null)
+                    return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all components, keeping the room for them.
+     */
+    public void clear() {
+        Arrays.fill(components, null);
+        overflow = null;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return - true if the ID has a slot in the array, which is grown if it can be without making it too sparse
+     */
+    private boolean fits(int id) {
+        int index = id - base;
+        if (index >= 0 && index < components.length)
+            return true;
+        if (components.length == 0) {
+            // leave room below the first ID, as containers are often created after the components they hold
+            base = Math.max(0, id - MIN_CAPACITY / 2);
+            components = new Component[MIN_CAPACITY];
+            return id >= base;
+        }
+        long newBase = Math.min(base, (long) id);
+        long newEnd = Math.max(base + (long) components.length, id + 1L);
+        // with some spare room in the direction of growth
+        long spare = (newEnd - newBase) / 2;
+        if (id < base)
+            newBase = Math.max(0, newBase - spare);
+        else
+            newEnd += spare;
+        long newLength = newEnd - newBase;
+        if (id < 0 || newLength > Math.max(MIN_CAPACITY, (long) MAX_SLOTS_PER_COMPONENT * (size + 1)))
+            return false;
+        Component[] newComponents = new Component[(int) newLength];
+        System.arraycopy(components, 0, newComponents, (int) (base - newBase), components.length);
+        base = (int) newBase;
+        components = newComponents;
+        return true;
+    }
+}
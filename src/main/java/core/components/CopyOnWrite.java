@@ -0,0 +1,100 @@
+package core.components;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Supports copy-on-write copies of Components (switched on with CoreParameters.copyOnWrite).
+ *
+ * While a game state is being copied with copy-on-write enabled, containers such as Deck do not copy their contents,
+ * but instead share them with the original via an instance of this class. Each sharer keeps reading the shared
+ * contents until the first time it needs to modify them (or hand them out to code that might), at which point it
+ * calls release() to get a private version.
+ *
+ * The container that first shared its contents is the owner, and other objects (not least the allComponents Area
+ * of the game state) may hold references to the elements it contains. So when the owner releases it keeps the
+ * original elements, and leaves a deep copy behind for any remaining sharers. Any other sharer gets its own deep copy,
+ * unless it is the very last one, in which case it can just take the shared contents.
+ *
+ * The contract is that elements of a shared container are only modified after obtaining them from the container.
+ * Games that keep direct references to (for example) a Card in a Deck and modify it in place should not use
+ * copy-on-write.
+ *
+ * @param <S> The type of the shared contents (for example the list of components in a Deck)
+ */
+public final class CopyOnWrite<S> {
+
+    // Depth of copy-on-write copies currently in progress on this thread (copies can be nested)
+    private static final ThreadLocal<int[]> enabled = ThreadLocal.withInitial(() -> new int[1]);
+
+    private volatile S contents;
+    private final UnaryOperator<S> deepCopy;
+    private Object owner;
+    private int sharers;
+
+    /**
+     * @param owner    - the container whose contents are now to be shared
+     * @param contents - the contents of owner
+     * @param deepCopy - function that creates a fully independent copy of the contents
+     */
+    public CopyOnWrite(Object owner, S contents, UnaryOperator<S> deepCopy) {
+        this.owner = owner;
+        this.contents = contents;
+        this.deepCopy = deepCopy;
+        this.sharers = 1;
+    }
+
+    /**
+     * Switches copy-on-write on for any Component copies made on this thread, until the matching disable().
+     */
+    public static void enable() {
+        enabled.get()[0]++;
+    }
+
+    public static void disable() {
+        enabled.get()[0]--;
+    }
+
+    /**
+     * @return true if copy() calls on Components should share contents rather than copy them
+     */
+    public static boolean isEnabled() {
+        return enabled.get()[0] > 0;
+    }
+
+    /**
+     * Registers a new sharer of these contents.
+     *
+     * @return this object, for convenience
+     */
+    public synchronized CopyOnWrite<S> join() {
+        sharers++;
+        return this;
+    }
+
+    /**
+     * @return the shared contents. These must be treated as read-only.
+     */
+    public S contents() {
+        return contents;
+    }
+
+    /**
+     * The holder stops sharing the contents, and is given a version of them it can modify freely.
+     *
+     * @param holder - the container that is releasing the contents
+     * @return contents private to the holder
+     */
+    public synchronized S release(Object holder) {
+        S retValue;
+        if (holder == owner) {
+            retValue = contents;
+            if (sharers > 1)
+                contents = deepCopy.apply(retValue);
+            owner = null;
+        } else {
+            retValue = sharers > 1 ? deepCopy.apply(contents) : contents;
+        }
+        sharers--;
+        return retValue;
+    }
+}
@@ -40,11 +40,20 @@ public class Counter extends Component {
         return copy;
     }
 
+    /**
+     * Only the value of a counter changes during a game, so the hash is cheap to calculate whenever it is needed.
+     */
+    @Override
+    public long getZobristHash() {
+        return Zobrist.key(value);
+    }
+
     /**
      * Increment the value of this counter by the specified value.
      * @param value - how much to add to this counter.
      */
     public void increment(int value) {
+        journalValue();
         this.value += value;
         if (this.value > this.maximum) {
             this.value = this.maximum;
@@ -56,6 +65,7 @@ public class Counter extends Component {
      * @param value - how much to decrease this counter by.
      */
     public void decrement(int value) {
+        journalValue();
         this.value -= value;
         if (this.value < this.minimum) {
             this.value = this.minimum;
@@ -104,6 +114,7 @@ public class Counter extends Component {
      * @param maximum - new maximum value.
      */
     public void setMaximum(int maximum) {
+        journalValue();
         this.maximum = maximum;
     }
 
@@ -112,6 +123,7 @@ public class Counter extends Component {
      * @param minimum - new minimum value.
      */
     public void setMinimum(int minimum) {
+        journalValue();
         this.minimum = minimum;
     }
 
@@ -120,9 +132,25 @@ public class Counter extends Component {
      * @param i - new value for the counter.
      */
     public void setValue(int i) {
+        journalValue();
         this.value = i;
     }
 
+    // Records the current value and limits, so that ChangeJournal.undo() can restore them, and counts the change
+    private void journalValue() {
+        modified();
+        if (ChangeJournal.isRecording()) {
+            int oldValue = value;
+            int oldMinimum = minimum;
+            int oldMaximum = maximum;
+            ChangeJournal.record(() -> {
+                value = oldValue;
+                minimum = oldMinimum;
+                maximum = oldMaximum;
+            });
+        }
+    }
+
     /**
      * Loads all counter from a JSON file.
      * @param filename - path to file.
@@ -10,6 +10,8 @@ import utilities.Utils.ComponentType;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static core.CoreConstants.VisibilityMode;
 
@@ -26,6 +28,18 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     protected int capacity;  // Capacity of the deck (maximum number of elements)
     protected ArrayList<T> components;  // List of components in this deck
     protected VisibilityMode visibility;
+    // Non-null while the components are shared with copies of this deck (see CopyOnWrite)
+    private CopyOnWrite<ArrayList<T>> sharedComponents;
+    // Zobrist hash of the components in this deck (see getZobristHash()), maintained as they are added and removed,
+    // and true if it must be worked out again (which also makes orderedHash stale)
+    private long contentsHash;
+    private boolean contentsHashStale;
+    // True if the order of the components is part of the hash (see setOrderMatters())
+    private boolean orderMatters = true;
+    // Hash of the components and their positions, counted from the bottom of the deck, so that adding or removing a
+    // component only changes the terms of those above it; and true if it must be worked out again
+    private long orderedHash;
+    private boolean orderedHashStale;
 
     public Deck(String name, VisibilityMode visibility) {
         this(name, -1, visibility);
@@ -61,7 +75,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return a random component from the Deck
      */
     public T pick(Random rnd) {
-        return pick(rnd.nextInt(components.size()));
+        return pick(rnd.nextInt(components().size()));
     }
 
     /**
@@ -70,9 +84,12 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return the component in position idx from the deck
      */
     public T pick(int idx) {
+        materialiseForChange();
         if(components.size() > 0 && idx < components.size() && idx >= 0) {
-            T c = components.get(idx);
-            components.remove(idx);
+            T c = components.remove(idx);
+            removed(idx, c);
+            if (ChangeJournal.isRecording())
+                ChangeJournal.record(() -> insert(idx, c));
             return c;
         }
         return null;
@@ -83,7 +100,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return the last component of the deck
      */
     public T pickLast() {
-        return pick(components.size()-1);
+        return pick(components().size()-1);
     }
 
     /**
@@ -117,6 +134,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public T peek(int idx)
     {
+        materialise();
         if(components.size() > 0 && idx < components.size()) {
             return components.get(idx);
         }
@@ -129,9 +147,6 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return true if within capacity, false otherwise.
      */
     public boolean add(T c) {
-        if (c != null) {
-            c.setOwnerId(ownerId);
-        }
         return add(c, 0 );
     }
     
@@ -144,8 +159,19 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     public boolean add(T c, int index) {
         if (c==null)
             throw new IllegalArgumentException("null cannot be added to a Deck");
+        materialiseForChange();
+        if (ChangeJournal.isRecording()) {
+            int oldOwner = c.getOwnerId();
+            ChangeJournal.record(() -> {
+                materialiseForChange();
+                components.remove(index);
+                removed(index, c);
+                c.setOwnerId(oldOwner);
+            });
+        }
         c.setOwnerId(ownerId);
         components.add(index, c);
+        added(index, 1);
         return capacity == -1 || components.size() <= capacity;
     }
 
@@ -165,10 +191,14 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(Deck<T> d, int index){
+        materialiseForChange();
+        d.materialise();
+        if (ChangeJournal.isRecording())
+            journalContents(d.components);
         components.addAll(index, d.components);
-        for (T comp: d.components) {
+        for (T comp: d.components)
             comp.setOwnerId(ownerId);
-        }
+        added(index, d.components.size());
         return capacity == -1 || components.size() <= capacity;
     }
 
@@ -177,10 +207,13 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     public boolean add(Collection<T> d, int index){
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalContents(d);
         components.addAll(index, d);
-        for (T comp: d) {
+        for (T comp: d)
             comp.setOwnerId(ownerId);
-        }
+        added(index, d.size());
         return capacity == -1 || components.size() <= capacity;
     }
 
@@ -191,6 +224,11 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return true if successfully removed, false otherwise.
      */
     public boolean remove(T component) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording()) {
+            int oldOwner = component.getOwnerId();
+            ChangeJournal.record(() -> component.setOwnerId(oldOwner));
+        }
         component.setOwnerId(-1);
         int index = components.indexOf(component);
         if (index != -1){
@@ -205,9 +243,18 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return true if successfully removed, false otherwise.
      */
     public boolean remove(int idx) {
+        materialiseForChange();
         if (idx >= 0 && idx < components.size()) {
-            components.get(idx).setOwnerId(-1);
-            components.remove(idx);
+            T c = components.remove(idx);
+            if (ChangeJournal.isRecording()) {
+                int oldOwner = c.getOwnerId();
+                ChangeJournal.record(() -> {
+                    insert(idx, c);
+                    c.setOwnerId(oldOwner);
+                });
+            }
+            c.setOwnerId(-1);
+            removed(idx, c);
             return true;
         }
         return false;
@@ -217,17 +264,28 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * Removes all the components from the deck.
      */
     public void clear() {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalContents(components);
         for (T comp: components) {
             comp.setOwnerId(-1);
         }
         components.clear();
+        contentsHash = 0;
+        contentsHashStale = false;
+        orderedHash = 0;
+        orderedHashStale = false;
     }
     
     /**
      * Shuffles the deck with a specific random object.
      */
     public void shuffle(Random rnd) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalContents(Collections.emptyList());
         Collections.shuffle(components, rnd);
+        reordered();
     }
 
     /**
@@ -237,8 +295,12 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @param rnd - random number generator used for shuffling
      */
     public void shuffle(int fromIndex, int toIndex, Random rnd) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalContents(Collections.emptyList());
         List<T> subList = components.subList(fromIndex, toIndex);
         Collections.shuffle(subList, rnd);
+        reordered();
         int i = 0;
         for (T component: subList) {
             components.set(fromIndex + i, component);
@@ -249,12 +311,93 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     // Getters, Setters
 
     /**
+     * As the caller may modify the list returned, this counts as a change to the deck. Code that only reads the
+     * components should use get(), peek(), getSize() or stream() instead.
      * @return all the components in this deck.
      */
     @Override
     public List<T> getComponents() {
+        materialiseForChange();
+        // the caller may modify the list directly
+        if (ChangeJournal.isRecording())
+            journalContents(Collections.emptyList());
+        contentsHashStale = true;
+        return components;
+    }
+
+    @Override
+    public int getSize() {
+        return components().size();
+    }
+
+    // The methods below only read the components, so use components() rather than getComponents()
+
+    @Override
+    public Stream<T> stream() {
+        return components().stream();
+    }
+
+    @Override
+    public double sumDouble(Function<T, Double> lambda) {
+        double retValue = 0.0;
+        for (T c : components()) {
+            retValue += lambda.apply(c);
+        }
+        return retValue;
+    }
+
+    @Override
+    public int sumInt(Function<T, Integer> lambda) {
+        int retValue = 0;
+        for (T c : components()) {
+            retValue += lambda.apply(c);
+        }
+        return retValue;
+    }
+
+    /**
+     * Read-only access to the components, which (unlike getComponents()) does not end any copy-on-write sharing.
+     * The list and its elements must not be modified.
+     *
+     * @return the components in this deck
+     */
+    protected List<T> components() {
+        CopyOnWrite<ArrayList<T>> shared = sharedComponents;
+        return shared == null ? components : shared.contents();
+    }
+
+    /**
+     * The components, for code in this package that walks the contents of a game state (such as Area and
+     * ComponentRegistry). Like get(), and unlike getComponents(), this does not count as a change to the deck, so
+     * the list must not be modified.
+     *
+     * @return the components in this deck, private to it
+     */
+    List<T> heldComponents() {
+        materialise();
         return components;
     }
+
+    /**
+     * If the components of this deck are currently shared with a copy-on-write copy, then this takes a private
+     * version of them. This must be called before modifying the components, or handing them out to other code.
+     * It does not count as a change to the deck, so readers such as get() can use it too.
+     */
+    protected void materialise() {
+        if (sharedComponents != null) {
+            components = sharedComponents.release(this);
+            sharedComponents = null;
+        }
+    }
+
+    /**
+     * Calls materialise() before a change to the components, and counts the change (see
+     * Component.getModificationCount()).
+     */
+    protected void materialiseForChange() {
+        materialise();
+        modified();
+    }
     
     /**
      * Maximum number of components this deck may contain.
@@ -268,7 +411,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return true if over capacity, false otherwise.
      */
     public boolean isOverCapacity(){
-        return capacity != -1 && components.size() > capacity;
+        return capacity != -1 && components().size() > capacity;
     }
 
     /**
@@ -283,10 +426,17 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @param components - new components for the deck, overrides old content.
      */
     public void setComponents(ArrayList<T> components) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalContents(components);
         this.components = components;
+        contentsHash = 0;
+        contentsHashStale = false;
         for (T comp: components) {
             comp.setOwnerId(ownerId);
+            contentsHash += elementKey(comp);
         }
+        reordered();
     }
 
     /**
@@ -295,8 +445,102 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @param component - new component.
      */
     public void setComponent(int idx, T component) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording()) {
+            int oldOwner = component.getOwnerId();
+            T old = components.get(idx);
+            ChangeJournal.record(() -> {
+                materialiseForChange();
+                components.set(idx, old);
+                replaced(idx, component, old);
+                component.setOwnerId(oldOwner);
+            });
+        }
         component.setOwnerId(ownerId);
-        components.set(idx, component);
+        T old = components.set(idx, component);
+        replaced(idx, old, component);
+    }
+
+    // Reverses the removal of a component, for ChangeJournal.undo()
+    private void insert(int idx, T c) {
+        materialiseForChange();
+        components.add(idx, c);
+        added(idx, 1);
+    }
+
+    // Updates the hashes after count components have been inserted at idx
+    private void added(int idx, int count) {
+        for (int i = idx; i < idx + count; i++)
+            contentsHash += elementKey(components.get(i));
+        if (!orderMatters || orderedHashStale) {
+            orderedHashStale = true;
+            return;
+        }
+        // positions are counted from the bottom, so only the components above the new ones have moved
+        int size = components.size();
+        for (int i = 0; i < idx; i++) {
+            int id = components.get(i).getComponentID();
+            orderedHash += Zobrist.key(id, size - 1 - i) - Zobrist.key(id, size - 1 - i - count);
+        }
+        for (int i = idx; i < idx + count; i++)
+            orderedHash += Zobrist.key(components.get(i).getComponentID(), size - 1 - i);
+    }
+
+    // Updates the hashes after c has been removed from idx
+    private void removed(int idx, T c) {
+        contentsHash -= elementKey(c);
+        if (!orderMatters || orderedHashStale) {
+            orderedHashStale = true;
+            return;
+        }
+        int size = components.size();
+        for (int i = 0; i < idx; i++) {
+            int id = components.get(i).getComponentID();
+            orderedHash += Zobrist.key(id, size - 1 - i) - Zobrist.key(id, size - i);
+        }
+        orderedHash -= Zobrist.key(c.getComponentID(), size - idx);
+    }
+
+    // Updates the hashes after the component at idx has been replaced
+    private void replaced(int idx, T old, T c) {
+        contentsHash += elementKey(c) - elementKey(old);
+        int position = components.size() - 1 - idx;
+        orderedHash += Zobrist.key(c.getComponentID(), position) - Zobrist.key(old.getComponentID(), position);
+    }
+
+    /**
+     * Records that the components have been put in a different order (other than by adding or removing them), so
+     * that the ordered hash must be worked out again.
+     */
+    protected void reordered() {
+        orderedHashStale = true;
+    }
+
+    /**
+     * Records the current contents of this deck, and the owners of the given components, so that ChangeJournal.undo()
+     * can restore them. Used for changes that affect many components at once. Must be called after materialiseForChange().
+     * @param reowned - components whose owner is about to be changed
+     */
+    protected void journalContents(Collection<? extends Component> reowned) {
+        ArrayList<T> oldComponents = new ArrayList<>(components);
+        long oldHash = contentsHash;
+        boolean oldStale = contentsHashStale;
+        long oldOrderedHash = orderedHash;
+        boolean oldOrderedStale = orderedHashStale;
+        Component[] owned = reowned.toArray(new Component[0]);
+        int[] oldOwners = new int[owned.length];
+        for (int i = 0; i < owned.length; i++)
+            oldOwners[i] = owned[i].getOwnerId();
+        ChangeJournal.record(() -> {
+            materialiseForChange();
+            components = oldComponents;
+            contentsHash = oldHash;
+            contentsHashStale = oldStale;
+            orderedHash = oldOrderedHash;
+            orderedHashStale = oldOrderedStale;
+            for (int i = 0; i < owned.length; i++)
+                owned[i].setOwnerId(oldOwners[i]);
+        });
     }
 
     /**
@@ -305,6 +549,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return - component at given index.
      */
     public T get(int idx) {
+        materialise();
         return components.get(idx);
     }
 
@@ -329,18 +574,90 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     protected void copyTo(Deck<T> deck) {
-        ArrayList<T> newComponents = new ArrayList<>();
-        for (T c : components)
-        {
-            newComponents.add((T)c.copy());
+        if (CopyOnWrite.isEnabled()) {
+            if (sharedComponents == null)
+                sharedComponents = new CopyOnWrite<>(this, components, Deck::copyComponents);
+            deck.sharedComponents = sharedComponents.join();
+            deck.components = null;
+        } else {
+            deck.components = copyComponents(components());
         }
-        deck.components = newComponents;
         deck.capacity = capacity;
+        deck.contentsHash = contentsHash;
+        deck.contentsHashStale = contentsHashStale;
+        deck.orderMatters = orderMatters;
+        deck.orderedHash = orderedHash;
+        deck.orderedHashStale = orderedHashStale;
 
         //copy type and component.
         copyComponentTo(deck);
     }
 
+    private static <T extends Component> ArrayList<T> copyComponents(List<T> components) {
+        ArrayList<T> newComponents = new ArrayList<>(components.size());
+        for (T c : components) {
+            newComponents.add((T) c.copy());
+        }
+        return newComponents;
+    }
+
+    /**
+     * The hash depends on which components are in the deck, and (unless setOrderMatters(false) has been called) on
+     * their order, but not on any changes made to them while they are in the deck.
+     * The order matters to the forward model for a deck that is drawn from, as two states that differ only in the order
+     * of a draw pile have different futures. Both hashes are maintained as components are added and removed: without
+     * the order in constant time, and with it in time proportional to the number of components above the one added or
+     * removed (as positions are counted from the bottom), so that drawing from or adding to the top of a deck is
+     * constant time. They are only worked out again in full (in linear time) after the deck is shuffled or set, or
+     * after getComponents() has handed out the underlying list.
+     */
+    @Override
+    public long getZobristHash() {
+        if (contentsHashStale) {
+            contentsHash = 0;
+            for (T c : components())
+                contentsHash += elementKey(c);
+            contentsHashStale = false;
+            orderedHashStale = true;
+        }
+        if (!orderMatters)
+            return contentsHash;
+        if (orderedHashStale) {
+            List<T> components = components();
+            orderedHash = 0;
+            for (int i = 0; i < components.size(); i++)
+                orderedHash += Zobrist.key(components.get(i).getComponentID(), components.size() - 1 - i);
+            orderedHashStale = false;
+        }
+        return orderedHash;
+    }
+
+    /**
+     * @param orderMatters - false if the order of the components in this deck does not affect the game (as for a hand
+     *                     of cards that can be played in any order), so that getZobristHash() can ignore it. States
+     *                     that differ only in the order of such a deck are then transpositions of each other.
+     */
+    public void setOrderMatters(boolean orderMatters) {
+        this.orderMatters = orderMatters;
+        orderedHashStale = true;
+    }
+
+    // Components can be in a deck more than once, so keys are added rather than XORed
+    private static long elementKey(Component c) {
+        return Zobrist.key(c.getComponentID());
+    }
+
+    @Override
+    public boolean mayContainComponent(int id) {
+        if (componentID == id)
+            return true;
+        for (T c : components()) {
+            if (c.mayContainComponent(id))
+                return true;
+        }
+        return false;
+    }
+
     /**
      * Loads all decks of cards from a given JSON file.
      * @param filename - path to file.
@@ -387,7 +704,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     @Override
     public String toString(){
         StringBuilder sb = new StringBuilder();
-        for (T el : components){
+        for (T el : components()){
             sb.append(el.toString());
             sb.append(",");
         }
@@ -407,12 +724,12 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         if (!super.equals(o)) return false;
         Deck<?> deck = (Deck<?>) o;
         return capacity == deck.capacity &&
-                Objects.equals(components, deck.components);
+                Objects.equals(components(), deck.components());
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(capacity, ownerId, componentID, components);
+        return Objects.hash(capacity, ownerId, componentID, components());
     }
 
 }
@@ -21,6 +21,8 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
 
     // List of nodes in the board graph
     protected List<BoardNode> boardNodes;
+    // Non-null while the board nodes are shared with copies of this board (see CopyOnWrite)
+    private CopyOnWrite<List<BoardNode>> sharedNodes;
 
     public GraphBoard(String name)
     {
@@ -54,6 +56,20 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     public GraphBoard copy()
     {
         GraphBoard b = new GraphBoard(componentName, componentID);
+        if (CopyOnWrite.isEnabled()) {
+            if (sharedNodes == null)
+                sharedNodes = new CopyOnWrite<>(this, boardNodes, GraphBoard::copyBoardNodes);
+            b.sharedNodes = sharedNodes.join();
+            b.boardNodes = null;
+        } else {
+            b.boardNodes = copyBoardNodes(nodes());
+        }
+        // Copy properties
+        copyComponentTo(b);
+        return b;
+    }
+
+    private static List<BoardNode> copyBoardNodes(List<BoardNode> boardNodes) {
         HashMap<Integer, BoardNode> nodeCopies = new HashMap<>();
         // Copy board nodes
         for (BoardNode bn: boardNodes) {
@@ -71,11 +87,37 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
                 bnCopy.addNeighbour(nodeCopies.get(e.getKey().componentID), e.getValue());
             }
         }
-        // Assign new neighbours
-        b.setBoardNodes(new ArrayList<>(nodeCopies.values()));
-        // Copy properties
-        copyComponentTo(b);
-        return b;
+        return new ArrayList<>(nodeCopies.values());
+    }
+
+    /**
+     * Read-only access to the board nodes, which does not end any copy-on-write sharing.
+     */
+    private List<BoardNode> nodes() {
+        CopyOnWrite<List<BoardNode>> shared = sharedNodes;
+        return shared == null ? boardNodes : shared.contents();
+    }
+
+    /**
+     * If the board nodes are currently shared with a copy-on-write copy, then this takes a private version of them.
+     * This must be called before modifying the nodes, or handing them out to other code.
+     */
+    private void materialise() {
+        if (sharedNodes != null) {
+            boardNodes = sharedNodes.release(this);
+            sharedNodes = null;
+        }
+    }
+
+    @Override
+    public boolean mayContainComponent(int id) {
+        if (componentID == id)
+            return true;
+        for (BoardNode bn : nodes()) {
+            if (bn.componentID == id)
+                return true;
+        }
+        return false;
     }
 
     /**
@@ -85,6 +127,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
      * @return - node matching property.
      */
     public BoardNode getNodeByProperty(int prop_id, Property p) {
+        materialise();
         for (BoardNode n : boardNodes) {
             Property prop = n.getProperty(prop_id);
             if(prop != null)
@@ -111,6 +154,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
      * @return the list of board nodes
      */
     public List<BoardNode> getBoardNodes() {
+        materialise();
         return boardNodes;
     }
 
@@ -120,6 +164,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
      * @return - node matching ID.
      */
     protected BoardNode getNodeByID(int id) {
+        materialise();
         for (BoardNode n : boardNodes) {
             if (n.componentID == id) return n;
         }
@@ -131,18 +176,22 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
      * @param boardNodes - new list of board nodes.
      */
     public void setBoardNodes(List<BoardNode> boardNodes) {
+        materialise();
         this.boardNodes = boardNodes;
     }
 
     public void addBoardNode(BoardNode bn) {
+        materialise();
         this.boardNodes.add(bn);
     }
 
     public void removeBoardNode(BoardNode bn) {
+        materialise();
         this.boardNodes.remove(bn);
     }
 
     public void breakConnection(BoardNode bn1, BoardNode bn2) {
+        materialise();
         bn1.removeNeighbour(bn2);
         bn2.removeNeighbour(bn1);
 
@@ -167,6 +216,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     }
 
     public void addConnection(BoardNode bn1, BoardNode bn2) {
+        materialise();
         bn1.addNeighbour(bn2);
         bn2.addNeighbour(bn1);
         if (!boardNodes.contains(bn1)) {
@@ -214,6 +264,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
         String neighboursKey = (String) board.get("neighboursKey");
         int maxNeighbours = (int) (long) board.get("maxNeighbours");
 
+        materialise();
         properties.put(Hash.GetInstance().hash("boardType"), new PropertyString("boardType", boardType));
         if (board.get("img") != null) {
             properties.put(imgHash, new PropertyString("img", (String) board.get("img")));
@@ -253,14 +304,14 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     public boolean equals(Object o) {
         if (o instanceof GraphBoard) {
             GraphBoard other = (GraphBoard) o;
-            return componentID == other.componentID && other.boardNodes.equals(boardNodes);
+            return componentID == other.componentID && other.nodes().equals(nodes());
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(componentID, boardNodes);
+        return Objects.hash(componentID, nodes());
     }
 
     @Override
@@ -268,6 +319,11 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
         return getBoardNodes();
     }
 
+    @Override
+    public int getSize() {
+        return nodes().size();
+    }
+
     @Override
     public CoreConstants.VisibilityMode getVisibilityMode() {
         return CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
@@ -26,6 +26,11 @@ public class GridBoard<T extends Component> extends Component implements ICompon
     private int height;  // Height of the board
 
     private Component[][] grid;  // 2D grid representation of this board
+    // True if the grid array may be shared with a copy-on-write copy, and must be copied before it is modified
+    private boolean gridShared;
+    // Zobrist hash of the grid (see getZobristHash()), maintained as elements are set
+    private long gridHash;
+    private boolean gridHashStale = true;
 
     protected GridBoard() {
         super(Utils.ComponentType.BOARD);
@@ -115,6 +120,10 @@ public class GridBoard<T extends Component> extends Component implements ICompon
         int w = Math.min(width, this.width);
         int h = Math.min(height, this.height);
 
+        if (ChangeJournal.isRecording())
+            journalGrid(grid, gridShared);
+        modified();
+
         this.width = width;
         this.height = height;
 
@@ -123,6 +132,8 @@ public class GridBoard<T extends Component> extends Component implements ICompon
             if (w >= 0) System.arraycopy(this.grid[i], 0, grid[i + offsetY], offsetX, w);
         }
         this.grid = grid;
+        this.gridShared = false;
+        this.gridHashStale = true;
     }
 
     /**
@@ -135,12 +146,26 @@ public class GridBoard<T extends Component> extends Component implements ICompon
      */
     public boolean setElement(int x, int y, T value) {
         if (x >= 0 && x < width && y >= 0 && y < height) {
-            grid[y][x] = value;
+            setCell(x, y, value);
             return true;
         } else
             return false;
     }
 
+    // Sets the cell at (x, y), which must be in bounds. This takes any Component, so that the journalled step that
+    // restores the old value needs no cast back to T.
+    private void setCell(int x, int y, Component value) {
+        if (gridShared) unshareGrid();
+        modified();
+        if (ChangeJournal.isRecording()) {
+            Component old = grid[y][x];
+            ChangeJournal.record(() -> setCell(x, y, old));
+        }
+        if (!gridHashStale)
+            gridHash ^= cellKey(x, y, grid[y][x]) ^ cellKey(x, y, value);
+        grid[y][x] = value;
+    }
+
     /**
      * Retrieves the element at position (x, y).
      *
@@ -160,9 +185,53 @@ public class GridBoard<T extends Component> extends Component implements ICompon
      * @return - 2D grid.
      */
     public Component[][] getGridValues() {
+        if (gridShared) unshareGrid();
+        // the caller may modify the grid directly
+        if (ChangeJournal.isRecording())
+            journalGrid(copyGrid(grid, width, height), false);
+        modified();
+        gridHashStale = true;
         return grid;
     }
 
+    /**
+     * Records the current dimensions and hash of the board, so that ChangeJournal.undo() can restore them along with
+     * the given grid.
+     * @param oldGrid - grid to restore, which must not be modified in the meantime
+     * @param oldShared - whether oldGrid may be shared with copy-on-write copies of this board
+     */
+    private void journalGrid(Component[][] oldGrid, boolean oldShared) {
+        int oldWidth = width;
+        int oldHeight = height;
+        long oldHash = gridHash;
+        boolean oldStale = gridHashStale;
+        ChangeJournal.record(() -> {
+            grid = oldGrid;
+            gridShared = oldShared;
+            width = oldWidth;
+            height = oldHeight;
+            gridHash = oldHash;
+            gridHashStale = oldStale;
+        });
+    }
+
+    /**
+     * Takes a private copy of the grid array, so that it can be modified without affecting any copy-on-write copies
+     * (or originals) of this board. The elements themselves are not copied (as in copy()).
+     */
+    private void unshareGrid() {
+        grid = copyGrid(grid, width, height);
+        gridShared = false;
+    }
+
+    private static Component[][] copyGrid(Component[][] grid, int width, int height) {
+        Component[][] gridCopy = new Component[height][width];
+        for (int i = 0; i < height; i++) {
+            if (width >= 0) System.arraycopy(grid[i], 0, gridCopy[i], 0, width);
+        }
+        return gridCopy;
+    }
+
     public List<Vector2D> getEmptyCells(T defaultElement) {
         List<Vector2D> emptyCells = new ArrayList<>();
         for (int i = 0; i < height; i++) {
@@ -186,8 +255,9 @@ public class GridBoard<T extends Component> extends Component implements ICompon
         orientation %= 4;  // Maximum 4 sides to a grid
         for (int i = 0; i < orientation; i++) {
             copy.grid = rotateClockWise(copy.grid);
+            copy.gridShared = false;
         }
-        return copy.grid;
+        return copy.getGridValues();
     }
 
     /**
@@ -224,15 +294,42 @@ public class GridBoard<T extends Component> extends Component implements ICompon
 
     @Override
     public GridBoard<T> copy() {
-        Component[][] gridCopy = new Component[getHeight()][getWidth()];
-        for (int i = 0; i < height; i++) {
-            if (width >= 0) System.arraycopy(grid[i], 0, gridCopy[i], 0, width);
+        GridBoard<T> g;
+        if (CopyOnWrite.isEnabled()) {
+            // both this board and the copy will now take a private copy of the grid on their first modification
+            gridShared = true;
+            g = new GridBoard<>(grid, componentID);
+            g.gridShared = true;
+        } else {
+            g = new GridBoard<>(copyGrid(grid, width, height), componentID);
         }
-        GridBoard<T> g = new GridBoard<>(gridCopy, componentID);
+        g.gridHash = gridHash;
+        g.gridHashStale = gridHashStale;
         copyComponentTo(g);
         return g;
     }
 
+    /**
+     * The hash depends on which component (by ID) is in each cell, but not on any changes made to them while they
+     * are on the board. It is maintained by setElement(), and only needs to be recalculated in full after
+     * getGridValues() has handed out the underlying grid.
+     */
+    @Override
+    public long getZobristHash() {
+        if (gridHashStale) {
+            gridHash = 0;
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    gridHash ^= cellKey(x, y, grid[y][x]);
+            gridHashStale = false;
+        }
+        return gridHash;
+    }
+
+    private static long cellKey(int x, int y, Component c) {
+        return c == null ? 0 : Zobrist.key(x, y, c.getComponentID());
+    }
+
     public GridBoard<T> emptyCopy() {
         GridBoard<T> g = new GridBoard<>(getWidth(), getHeight(), componentID);
         copyComponentTo(g);
@@ -295,6 +392,8 @@ public class GridBoard<T extends Component> extends Component implements ICompon
         }
 
         this.grid = new Component[height][width];
+        this.gridShared = false;
+        this.gridHashStale = true;
 
         JSONArray grids = (JSONArray) board.get("grid");
         int y = 0;
@@ -17,12 +17,17 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
     // Visibility of each component in the deck, order corresponds to order of elements in the deck;
     protected ArrayList<boolean[]> elementVisibility = new ArrayList<>();
+    // Non-null while the element visibility is shared with copies of this deck (see CopyOnWrite)
+    private CopyOnWrite<ArrayList<boolean[]>> sharedVisibility;
 
     public boolean getVisibilityForPlayer(int elementIdx, int playerID) {
-        return elementVisibility.get(elementIdx)[playerID];
+        return visibility().get(elementIdx)[playerID];
     }
 
     public boolean[] getVisibilityOfComponent(int elementIdx) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         return elementVisibility.get(elementIdx);
     }
 
@@ -60,6 +65,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
         if (playerID < 0 || playerID >= deckVisibility.length)
             throw new IllegalArgumentException("playerID " + playerID + " needs to be in range [0," + (deckVisibility.length - 1) + "]");
 
+        materialise();
         ArrayList<T> visibleComponents = new ArrayList<>(components.size());
         for (int i = 0; i < components.size(); i++) {
             boolean[] b = elementVisibility.get(i);
@@ -81,7 +87,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public boolean isComponentVisible(int idx, int playerID) {
         if (playerID < 0 || playerID >= deckVisibility.length)
             throw new IllegalArgumentException("playerID " + playerID + " needs to be in range [0," + (deckVisibility.length - 1) + "]");
-        return elementVisibility.get(idx)[playerID];
+        return visibility().get(idx)[playerID];
     }
 
     /**
@@ -93,6 +99,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      *                            false otherwise).
      */
     public void setComponents(ArrayList<T> components, ArrayList<boolean[]> visibilityPerPlayer) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         super.setComponents(components);
         this.elementVisibility = visibilityPerPlayer;
     }
@@ -107,6 +116,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
             if (b.length != this.deckVisibility.length)
                 throw new IllegalArgumentException("All entries of visibility need to have length " + deckVisibility.length +
                         " but at least one entry is of length " + b.length);
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         this.elementVisibility = visibility;
     }
 
@@ -118,6 +130,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param visibility - true if player can see this component, false otherwise.
      */
     public void setVisibilityOfComponent(int index, int playerID, boolean visibility) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         if (index >= 0 && index < elementVisibility.size()) {
             if (playerID >= 0 && playerID < deckVisibility.length)
                 this.elementVisibility.get(index)[playerID] = visibility;
@@ -135,6 +150,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param visibility - true if player can see this component, false otherwise.
      */
     public void setVisibilityOfComponent(int index, boolean[] visibility) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         if (index >= 0 && index < elementVisibility.size()) {
             this.elementVisibility.set(index, visibility.clone());
         } else {
@@ -164,6 +182,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(T c, int index, boolean[] visibilityPerPlayer) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         this.elementVisibility.add(index, visibilityPerPlayer.clone());
         return super.add(c, index);
     }
@@ -176,7 +197,10 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(Deck<T> d, int index) {
-        for (int i = 0; i < d.components.size(); i++) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
+        for (int i = 0; i < d.getSize(); i++) {
             this.elementVisibility.add(index, deckVisibility.clone());
         }
         return super.add(d, index);
@@ -191,6 +215,10 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public boolean add(PartialObservableDeck<T> d) {
         if (d == null)
             throw new IllegalArgumentException("d cannot be null");
+        materialiseForChange();
+        d.materialise();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         elementVisibility.addAll(d.elementVisibility);
         for (int i = 0; i < deckVisibility.length; i++) {
             deckVisibility[i] &= d.deckVisibility[i];
@@ -202,6 +230,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public boolean add(Deck<T> d) {
         if (d == null)
             throw new IllegalArgumentException("d cannot be null");
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         for (int i = 0; i < d.getSize(); i++) {
             elementVisibility.add(deckVisibility.clone());
         }
@@ -210,6 +241,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
     @Override
     public void setComponents(ArrayList<T> components) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         super.setComponents(components);
 
         elementVisibility.clear();
@@ -220,6 +254,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
     @Override
     public T pick(int idx) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         T el = super.pick(idx);
         if (el != null) {
             elementVisibility.remove(idx);
@@ -240,6 +277,9 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
     @Override
     public boolean remove(int idx) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         if (super.remove(idx)) {
             elementVisibility.remove(idx);
             return true;
@@ -249,15 +289,24 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
     @Override
     public void clear() {
+        materialiseForChange();
+        if (ChangeJournal.isRecording())
+            journalVisibility();
         super.clear();
         elementVisibility.clear();
     }
 
     @Override
     public void shuffle(Random rnd) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording()) {
+            journalContents(Collections.emptyList());
+            journalVisibility();
+        }
         Pair<ArrayList<T>, ArrayList<boolean[]>> shuffled = shuffleLists(components, elementVisibility, rnd);
         components = shuffled.a;
         elementVisibility = shuffled.b;
+        reordered();
     }
 
     /**
@@ -294,6 +343,11 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param visible  - if true, shuffles only visible cards; otherwise, shuffles only hidden cards.
      */
     public void shuffleVisible(Random rnd, int playerId, boolean visible) {
+        materialiseForChange();
+        if (ChangeJournal.isRecording()) {
+            journalContents(Collections.emptyList());
+            journalVisibility();
+        }
         ArrayList<T> visibleComponents = new ArrayList<>();
         ArrayList<boolean[]> visibility = new ArrayList<>();
         for (int i = 0; i < components.size(); i++) {
@@ -321,6 +375,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
                 n++;
             }
         }
+        reordered();
     }
 
     public boolean[] getDeckVisibility() {
@@ -334,17 +389,57 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
         dp.deckVisibility = deckVisibility.clone();
 
-        ArrayList<boolean[]> newVisibility = new ArrayList<>();
-        for (boolean[] visibility : elementVisibility) {
-            newVisibility.add(visibility.clone());
+        if (CopyOnWrite.isEnabled()) {
+            if (sharedVisibility == null)
+                sharedVisibility = new CopyOnWrite<>(this, elementVisibility, PartialObservableDeck::copyVisibility);
+            dp.sharedVisibility = sharedVisibility.join();
+            dp.elementVisibility = null;
+        } else {
+            dp.elementVisibility = copyVisibility(visibility());
         }
-        dp.elementVisibility = newVisibility;
-
         return dp;
     }
 
+    private static ArrayList<boolean[]> copyVisibility(List<boolean[]> visibility) {
+        ArrayList<boolean[]> newVisibility = new ArrayList<>(visibility.size());
+        for (boolean[] b : visibility) {
+            newVisibility.add(b.clone());
+        }
+        return newVisibility;
+    }
+
+    // Records the current visibility, so that ChangeJournal.undo() can restore it. Must be called after
+    // materialiseForChange().
+    private void journalVisibility() {
+        ArrayList<boolean[]> oldVisibility = copyVisibility(elementVisibility);
+        boolean[] oldDeckVisibility = deckVisibility.clone();
+        ChangeJournal.record(() -> {
+            materialiseForChange();
+            elementVisibility = oldVisibility;
+            deckVisibility = oldDeckVisibility;
+        });
+    }
+
+    /**
+     * Read-only access to the element visibility, which does not end any copy-on-write sharing.
+     */
+    private List<boolean[]> visibility() {
+        CopyOnWrite<ArrayList<boolean[]>> shared = sharedVisibility;
+        return shared == null ? elementVisibility : shared.contents();
+    }
+
+    @Override
+    protected void materialise() {
+        super.materialise();
+        if (sharedVisibility != null) {
+            elementVisibility = sharedVisibility.release(this);
+            sharedVisibility = null;
+        }
+    }
+
     public String toString(AbstractGameState gs, int playerID) {
         StringBuilder sb = new StringBuilder();
+        List<T> components = components();
         for (int i = 0; i < components.size(); i++) {
             if (!isComponentVisible(i, playerID) && gs.getCoreGameParameters().partialObservable)
                 sb.append("UNKNOWN");
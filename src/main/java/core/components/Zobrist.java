@@ -0,0 +1,52 @@
+package core.components;
+
+/**
+ * Zobrist-style keys for incrementally hashing game states (see AbstractGameState.getZobristHash()).
+ *
+ * Instead of tables of random numbers, keys are generated by mixing the integers that identify a feature of the
+ * state (for example x, y and the component ID of a token on a GridBoard). This gives the same near-random 64-bit
+ * keys, but without any storage or any need to know the size of the board or the number of components in advance.
+ *
+ * Keys are combined with XOR (or addition, where a feature can be present more than once), so that a component
+ * can add or remove a feature from its hash in constant time, and in any order.
+ */
+public final class Zobrist {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Zobrist() {
+    }
+
+    /**
+     * The SplitMix64 finaliser: a cheap bijective function with good avalanche properties.
+     *
+     * @param z - value to mix
+     * @return - mixed value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return - the key for a feature identified by a single value
+     */
+    public static long key(long a) {
+        return mix(a + GOLDEN_GAMMA);
+    }
+
+    /**
+     * @return - the key for a feature identified by two values (the order of which matters)
+     */
+    public static long key(long a, long b) {
+        return mix(key(a) + b * GOLDEN_GAMMA);
+    }
+
+    /**
+     * @return - the key for a feature identified by three values (the order of which matters)
+     */
+    public static long key(long a, long b, long c) {
+        return mix(key(a, b) + c * GOLDEN_GAMMA);
+    }
+}
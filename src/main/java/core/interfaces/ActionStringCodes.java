@@ -0,0 +1,17 @@
+package core.interfaces;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The numbers given to strings by ICodedAction.stringCode(), in the order in which they are first asked for.
+ */
+final class ActionStringCodes {
+
+    static final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    static final AtomicInteger next = new AtomicInteger();
+
+    private ActionStringCodes() {
+    }
+}
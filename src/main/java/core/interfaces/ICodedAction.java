@@ -0,0 +1,28 @@
+package core.interfaces;
+
+/**
+ * An action that can be identified by a number, so that it can be looked up (see ActionMap) without the use of
+ * equals() and hashCode(), which for many actions are slow to compute or allocate.
+ *
+ * Two actions of the same class must have the same code if and only if they are equal. Only actions that could be
+ * available in the same game need be distinguished, so for example the component ID of a board that is the only one
+ * in a game need not be part of the code. Actions of different classes are never equal, whatever their codes.
+ */
+public interface ICodedAction {
+
+    /**
+     * @return - the code of this action, as described above. This must not change.
+     */
+    long getActionCode();
+
+    /**
+     * A number for a string that is part of an action (such as the name of a city), for use in its code. Equal
+     * strings have the same number, and different strings different ones, for as long as the program runs.
+     *
+     * @param s - the string (may be null)
+     * @return - its number, which is 0 for null and small otherwise
+     */
+    static int stringCode(String s) {
+        return s == null ? 0 : ActionStringCodes.codes.computeIfAbsent(s, k -> ActionStringCodes.next.incrementAndGet());
+    }
+}
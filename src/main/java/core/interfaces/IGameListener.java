@@ -12,6 +12,34 @@ import java.lang.reflect.Constructor;
 
 public interface IGameListener {
 
+    /**
+     * What a listener is given with each type of event (see payload() and core.GameEventBus).
+     */
+    enum Payload {
+        // The event is not delivered at all
+        NONE,
+        // The state (or Game) itself, which must only be read, and only during the call
+        STATE,
+        // A copy of the state and action made for the event, which may be kept. These may be delivered on a
+        // separate thread (see CoreParameters.eventQueueSize)
+        SNAPSHOT
+    }
+
+    /**
+     * Declares which events this listener wants, and what with. Events that no listener wants cost nothing, and the
+     * state is only copied for listeners that ask for a SNAPSHOT.
+     *
+     * By default every event is delivered, with the state itself except for ACTION_TAKEN, which comes with a copy.
+     * Listeners that ignore some events, or only read the state while handling the event, should override this.
+     * For ABOUT_TO_START and GAME_OVER (which come with the Game) anything other than NONE means the event is wanted.
+     *
+     * @param type - the event type
+     * @return - what the listener needs with events of this type
+     */
+    default Payload payload(CoreConstants.GameEvents type) {
+        return type == CoreConstants.GameEvents.ACTION_TAKEN ? Payload.SNAPSHOT : Payload.STATE;
+    }
+
     /**
      * This is used to register Game Start and Game Over events
      *
@@ -27,9 +55,9 @@ public interface IGameListener {
      * Registers all other event types.
      * The state will always be provided, but action will be null except for ACTION_CHOSEN events
      *
-     * The state provided is *deliberately* not a copy, but the actual state to avoid performance overheads
-     * Hence it is *vital* that any implementation of this method only reads data from the state
-     * and does not modify it!
+     * Unless payload() asks for a SNAPSHOT, the state provided is *deliberately* not a copy, but the actual state to
+     * avoid performance overheads. Hence it is *vital* that any implementation of this method only reads data from
+     * the state and does not modify it!
      *
      * @param type   The GameEvent
      * @param state  The current Game state
@@ -8,4 +8,18 @@ public interface IStateFeatureVector {
 
     String[] names();
 
+    /**
+     * Writes the feature vector of a state into part of a larger array, such as a row of a matrix of the features of
+     * many states. By default this copies featureVector(), but it can be overridden to write the features in place.
+     *
+     * @param state    - game state
+     * @param playerID - player the features are for
+     * @param buffer   - array to write to
+     * @param offset   - index in the buffer of the first feature (the others follow it, in the order of names())
+     */
+    default void featureVector(AbstractGameState state, int playerID, double[] buffer, int offset) {
+        double[] features = featureVector(state, playerID);
+        System.arraycopy(features, 0, buffer, offset, features.length);
+    }
+
 }
@@ -1,8 +1,9 @@
-
 package core.interfaces;
 
 import core.AbstractGameState;
 
+import java.util.List;
+
 public interface IStateHeuristic {
 
     /**
@@ -13,4 +14,16 @@ public interface IStateHeuristic {
      * @return - value of given state.
      */
     double evaluateState(AbstractGameState gs, int playerId);
-}
\ No newline at end of file
+
+    /**
+     * Scores many states at once, as evaluateState() would each of them. Heuristics that can do this more quickly
+     * than one state at a time (such as those that work out the features of all the states first) override this.
+     * @param states - game states to evaluate and score.
+     * @param playerId - id of the player we're evaluating the games for.
+     * @param results - filled with the value of each state, in the same order (and must be at least as long).
+     */
+    default void evaluateStates(List<? extends AbstractGameState> states, int playerId, double[] results) {
+        for (int i = 0; i < states.size(); i++)
+            results[i] = evaluateState(states.get(i), playerId);
+    }
+}
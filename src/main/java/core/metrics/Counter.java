@@ -0,0 +1,27 @@
+package core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count of things that have happened, safe to increment from any number of threads at once.
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long n) {
+        count.add(n);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+    public void reset() {
+        count.reset();
+    }
+}
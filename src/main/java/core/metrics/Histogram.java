@@ -0,0 +1,118 @@
+package core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The distribution of a non-negative quantity (such as a time in nanoseconds), from which percentiles can be read.
+ *
+ * As in an HDR histogram, values are counted in buckets that are linear within each power of two, so every value is
+ * known to within about 3% (1 in SUB_BUCKETS), from 1 to Long.MAX_VALUE, in a fixed array. Recording a value is then
+ * just a few atomic increments: nothing is allocated, and it is safe from any number of threads at once.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // values below SUB_BUCKETS have a bucket each; above that, each power of two has SUB_BUCKETS of them
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param value - value to record; negative values are recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0.0 : getSum() / (double) n;
+    }
+
+    /**
+     * @return - the smallest value recorded, or 0 if there are none
+     */
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * @return - the largest value recorded, or 0 if there are none
+     */
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    /**
+     * @param percentile - between 0 and 100
+     * @return - the value below which this percentage of the values recorded lie (to the precision of the buckets),
+     * or 0 if there are none
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        long n = getCount();
+        if (n == 0)
+            return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target)
+                // the top of the bucket, but no more than any value actually seen
+                return Math.max(Math.min(highestInBucket(i), getMax()), getMin());
+        }
+        return getMax();
+    }
+
+    /**
+     * Forgets all values recorded. Values recorded by other threads at the same time may or may not be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        // value >>> shift is between SUB_BUCKETS and 2 * SUB_BUCKETS - 1
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestInBucket(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        long highest = ((subBucket + 1) << shift) - 1;
+        // the very last bucket would overflow
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+}
@@ -0,0 +1,319 @@
+package core.metrics;
+
+import core.interfaces.IGamePhase;
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of all counters, histograms and timers, each of which is kept separately for every combination of
+ * game, player, agent and game phase it is recorded with (any of which may be left out).
+ *
+ * The forward model (next() and computeAvailableActions()), AbstractGameState.copy() and the decisions made in
+ * Game are timed here, so that for example the 99th percentile of the time each agent takes to decide can be found
+ * for each game in a tournament. As these are called millions of times in a search, nothing is recorded unless
+ * metrics are enabled, either with setEnabled() or by running with -Dmetrics=true; a check of one flag is then all
+ * they cost. The results can be written with write(), as JSON or in the text format read by Prometheus.
+ */
+public final class Metrics {
+
+    public enum Kind {
+        COUNTER, HISTOGRAM,
+        // a histogram of times in nanoseconds
+        TIMER
+    }
+
+    // The metrics recorded by the framework itself
+    public static final String NEXT = "forward_model_next";
+    public static final String COMPUTE_ACTIONS = "forward_model_compute_actions";
+    public static final String COPY = "game_state_copy";
+    public static final String GET_ACTION = "player_get_action";
+    public static final String GAMES = "games_played";
+    public static final String MCTS_ITERATIONS = "mcts_iterations";
+    public static final String VIDEO_FRAMES = "video_frames_captured";
+    public static final String VIDEO_FRAMES_DROPPED = "video_frames_dropped";
+    public static final String VIDEO_FRAMES_WAITING = "video_frames_waiting";
+
+    private static final Map<String, String> descriptions = new ConcurrentHashMap<>();
+
+    static {
+        descriptions.put(NEXT, "Time taken by AbstractForwardModel.next()");
+        descriptions.put(COMPUTE_ACTIONS, "Time taken by AbstractForwardModel.computeAvailableActions()");
+        descriptions.put(COPY, "Time taken by AbstractGameState.copy() (with the player the copy is for)");
+        descriptions.put(GET_ACTION, "Time taken by agents to decide on an action in a game");
+        descriptions.put(GAMES, "Number of games played to the end");
+        descriptions.put(MCTS_ITERATIONS, "Iterations of each MCTS search");
+        descriptions.put(VIDEO_FRAMES, "Frames captured for a video of the GUI");
+        descriptions.put(VIDEO_FRAMES_DROPPED, "Frames of a video dropped as the encoder was behind");
+        descriptions.put(VIDEO_FRAMES_WAITING, "Most frames waiting to be encoded at once, in each video");
+    }
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+    // Returned by startTimer() when metrics are not enabled
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled = Boolean.getBoolean("metrics");
+    private static final Map<String, Family> families = new ConcurrentHashMap<>();
+    // Used to look up a series without creating a new key each time
+    private static final ThreadLocal<Tags> lookupKey = ThreadLocal.withInitial(Tags::new);
+
+    private Metrics() {
+    }
+
+    // What a series is recorded for. Any of these may be missing (null, or -1 for the player)
+    private static final class Tags {
+        GameType game;
+        int player;
+        String agent;
+        IGamePhase phase;
+
+        Tags set(GameType game, int player, String agent, IGamePhase phase) {
+            this.game = game;
+            this.player = player;
+            this.agent = agent;
+            this.phase = phase;
+            return this;
+        }
+
+        Tags copy() {
+            return new Tags().set(game, player, agent, phase);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Tags)) return false;
+            Tags other = (Tags) o;
+            return player == other.player && game == other.game && Objects.equals(agent, other.agent)
+                    && Objects.equals(phase, other.phase);
+        }
+
+        @Override
+        public int hashCode() {
+            int retValue = game == null ? 0 : game.hashCode();
+            retValue = 31 * retValue + player;
+            retValue = 31 * retValue + (agent == null ? 0 : agent.hashCode());
+            return 31 * retValue + (phase == null ? 0 : phase.hashCode());
+        }
+
+        // label name and value for each tag present
+        List<String[]> labels() {
+            List<String[]> retValue = new ArrayList<>();
+            if (game != null) retValue.add(new String[]{"game", game.name()});
+            if (player >= 0) retValue.add(new String[]{"player", String.valueOf(player)});
+            if (agent != null) retValue.add(new String[]{"agent", agent});
+            if (phase != null) retValue.add(new String[]{"phase", phase.toString()});
+            return retValue;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (String[] label : labels())
+                sb.append(label[0]).append('=').append(label[1]).append(' ');
+            return sb.toString();
+        }
+    }
+
+    // All series of one metric
+    private static final class Family {
+        final Kind kind;
+        final Map<Tags, Object> series = new ConcurrentHashMap<>();
+
+        Family(Kind kind) {
+            this.kind = kind;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param on - whether the framework should record its metrics (those recorded directly with counter() etc. are
+     *           always recorded)
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Sets the description of a metric, written with it by toPrometheus().
+     */
+    public static void describe(String name, String description) {
+        descriptions.put(name, description);
+    }
+
+    public static Counter counter(String name, GameType game, int player, String agent, IGamePhase phase) {
+        return (Counter) series(name, Kind.COUNTER, game, player, agent, phase);
+    }
+
+    public static Histogram histogram(String name, GameType game, int player, String agent, IGamePhase phase) {
+        return (Histogram) series(name, Kind.HISTOGRAM, game, player, agent, phase);
+    }
+
+    /**
+     * @return - the histogram of times (in nanoseconds) of this metric, for these tags
+     */
+    public static Histogram timer(String name, GameType game, int player, String agent, IGamePhase phase) {
+        return (Histogram) series(name, Kind.TIMER, game, player, agent, phase);
+    }
+
+    /**
+     * Starts timing something, if metrics are enabled.
+     *
+     * @return - the value to pass to stopTimer()
+     */
+    public static long startTimer() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records the time since startTimer() was called, unless metrics were not enabled then.
+     *
+     * @param name  - name of the timer
+     * @param start - the value returned by startTimer()
+     */
+    public static void stopTimer(String name, long start, GameType game, int player, String agent, IGamePhase phase) {
+        if (start != NOT_TIMED)
+            timer(name, game, player, agent, phase).record(System.nanoTime() - start);
+    }
+
+    /**
+     * Removes all metrics recorded so far.
+     */
+    public static void reset() {
+        families.clear();
+    }
+
+    private static Object series(String name, Kind kind, GameType game, int player, String agent, IGamePhase phase) {
+        Family family = families.get(name);
+        if (family == null)
+            family = families.computeIfAbsent(name, n -> new Family(kind));
+        if (family.kind != kind)
+            throw new IllegalArgumentException("Metric " + name + " is a " + family.kind + ", not a " + kind);
+        Object retValue = family.series.get(lookupKey.get().set(game, player, agent, phase));
+        if (retValue == null) {
+            Tags tags = lookupKey.get().copy();
+            retValue = family.series.computeIfAbsent(tags, t -> kind == Kind.COUNTER ? new Counter() : new Histogram());
+        }
+        return retValue;
+    }
+
+    /**
+     * @return - one object for every series of every metric, with its tags and (for histograms and timers) the count,
+     * sum, mean, minimum, maximum and percentiles. Times are in nanoseconds.
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONArray toJSON() {
+        JSONArray retValue = new JSONArray();
+        for (Map.Entry<String, Family> entry : new TreeMap<>(families).entrySet()) {
+            Family family = entry.getValue();
+            for (Map.Entry<Tags, Object> s : sorted(family)) {
+                JSONObject json = new JSONObject();
+                json.put("name", entry.getKey());
+                json.put("type", family.kind.name().toLowerCase());
+                for (String[] label : s.getKey().labels())
+                    json.put(label[0], label[1]);
+                if (s.getKey().player >= 0)
+                    json.put("player", s.getKey().player);
+                if (family.kind == Kind.COUNTER) {
+                    json.put("value", ((Counter) s.getValue()).get());
+                } else {
+                    Histogram h = (Histogram) s.getValue();
+                    if (family.kind == Kind.TIMER)
+                        json.put("unit", "ns");
+                    json.put("count", h.getCount());
+                    json.put("sum", h.getSum());
+                    json.put("mean", h.getMean());
+                    json.put("min", h.getMin());
+                    json.put("max", h.getMax());
+                    for (int i = 0; i < QUANTILES.length; i++)
+                        json.put(PERCENTILE_NAMES[i], h.getValueAtPercentile(QUANTILES[i] * 100));
+                }
+                retValue.add(json);
+            }
+        }
+        return retValue;
+    }
+
+    /**
+     * @return - all metrics in the Prometheus text format. Counters are named with "_total", and timers with
+     * "_seconds" (and are in seconds); histograms and timers are written as summaries.
+     */
+    public static String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Family> entry : new TreeMap<>(families).entrySet()) {
+            Family family = entry.getValue();
+            String name = "tag_" + entry.getKey();
+            double scale = 1.0;
+            if (family.kind == Kind.COUNTER)
+                name += "_total";
+            else if (family.kind == Kind.TIMER) {
+                name += "_seconds";
+                scale = 1e-9;
+            }
+            String description = descriptions.get(entry.getKey());
+            if (description != null)
+                sb.append("# HELP ").append(name).append(' ').append(description.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            sb.append("# TYPE ").append(name).append(family.kind == Kind.COUNTER ? " counter" : " summary").append('\n');
+            for (Map.Entry<Tags, Object> s : sorted(family)) {
+                List<String[]> labels = s.getKey().labels();
+                if (family.kind == Kind.COUNTER) {
+                    sb.append(name).append(labels(labels, null)).append(' ').append(((Counter) s.getValue()).get()).append('\n');
+                    continue;
+                }
+                Histogram h = (Histogram) s.getValue();
+                for (double q : QUANTILES)
+                    sb.append(name).append(labels(labels, String.valueOf(q))).append(' ')
+                            .append(h.getValueAtPercentile(q * 100) * scale).append('\n');
+                sb.append(name).append("_sum").append(labels(labels, null)).append(' ').append(h.getSum() * scale).append('\n');
+                sb.append(name).append("_count").append(labels(labels, null)).append(' ').append(h.getCount()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes all metrics to a file: in the Prometheus text format if its name ends with ".prom" or ".txt", and as
+     * JSON otherwise.
+     *
+     * @param fileName - file to write (any existing file is replaced)
+     */
+    public static void write(String fileName) {
+        boolean prometheus = fileName.endsWith(".prom") || fileName.endsWith(".txt");
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writer.write(prometheus ? toPrometheus() : toJSON().toJSONString());
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem writing metrics to file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    private static List<Map.Entry<Tags, Object>> sorted(Family family) {
+        List<Map.Entry<Tags, Object>> retValue = new ArrayList<>(family.series.entrySet());
+        retValue.sort(Comparator.comparing(e -> e.getKey().toString()));
+        return retValue;
+    }
+
+    private static String labels(List<String[]> labels, String quantile) {
+        if (labels.isEmpty() && quantile == null)
+            return "";
+        StringJoiner sj = new StringJoiner(",", "{", "}");
+        for (String[] label : labels)
+            sj.add(label[0] + "=\"" + escape(label[1]) + "\"");
+        if (quantile != null)
+            sj.add("quantile=\"" + quantile + "\"");
+        return sj.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
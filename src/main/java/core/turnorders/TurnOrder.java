@@ -2,13 +2,12 @@ package core.turnorders;
 
 import core.AbstractGameState;
 import core.CoreConstants;
+import core.GameEventBus;
 import core.actions.AbstractAction;
 import core.actions.LogEvent;
-import core.interfaces.IGameListener;
+import core.components.Zobrist;
 import games.dicemonastery.DiceMonasteryGameState;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -28,7 +27,8 @@ public abstract class TurnOrder {
     protected int turnCounter;  // Number of turns in this round
     protected int roundCounter;  // 1 round = (1 turn) x nPlayers(alive)
 
-    protected List<IGameListener> listeners = new ArrayList<>();
+    // Where events are sent to the listeners of the game; null if this is not the turn order of the game itself
+    protected GameEventBus events;
 
     public TurnOrder(int nPlayers, int nMaxRounds) {
         reset();
@@ -88,10 +88,21 @@ public abstract class TurnOrder {
         turnOrder.firstPlayer = firstPlayer;
         turnOrder.nMaxRounds = nMaxRounds;
         turnOrder.nPlayers = nPlayers;
-        // we deliberately do not copy the listeners, as they only apply to the master turnorder
+        // we deliberately do not copy the event bus, as the listeners only apply to the master turnorder
         return turnOrder;
     }
 
+    /**
+     * Copies this turn order, including its listeners, so that the copy can take its place in the game state.
+     * Used by ForwardModel.nextWithUndo(), so that undo() can swap the original back in.
+     * @return - the copy, which shares its listeners with this turn order.
+     */
+    public final TurnOrder copyWithListeners() {
+        TurnOrder copy = copy();
+        copy.events = events;
+        return copy;
+    }
+
     /**
      * Resets this turn order object (only the variables that can change, not the fixed ones).
      */
@@ -129,7 +140,7 @@ public abstract class TurnOrder {
 
         gameState.getPlayerTimer()[getCurrentPlayer(gameState)].incrementTurn();
 
-        listeners.forEach(l -> l.onEvent(CoreConstants.GameEvents.TURN_OVER, gameState, null));
+        publish(CoreConstants.GameEvents.TURN_OVER, gameState, null);
 
         turnCounter++;
         if (turnCounter >= nPlayers) endRound(gameState);
@@ -141,13 +152,22 @@ public abstract class TurnOrder {
     // helper function to avoid time-consuming string manipulations is the message is not actually
     // going to be logged anywhere
     public void logEvent(Supplier<String> eventText, AbstractGameState state) {
-        if (listeners.isEmpty())
+        if (events == null || !events.hasSubscribers(CoreConstants.GameEvents.GAME_EVENT))
             return; // to avoid expensive string manipulations
         logEvent(eventText.get(), state);
     }
     public void logEvent(String eventText, AbstractGameState state) {
-        AbstractAction logAction = new LogEvent(eventText);
-        listeners.forEach(l -> l.onEvent(CoreConstants.GameEvents.GAME_EVENT, state, logAction));
+        if (events == null || !events.hasSubscribers(CoreConstants.GameEvents.GAME_EVENT))
+            return;
+        events.publish(CoreConstants.GameEvents.GAME_EVENT, state, new LogEvent(eventText));
+    }
+
+    /**
+     * Sends an event to the listeners of the game (if this is the turn order of the game itself).
+     */
+    protected void publish(CoreConstants.GameEvents type, AbstractGameState state, AbstractAction action) {
+        if (events != null)
+            events.publish(type, state, action);
     }
 
     /**
@@ -162,7 +182,7 @@ public abstract class TurnOrder {
 
         gameState.getPlayerTimer()[getCurrentPlayer(gameState)].incrementRound();
 
-        listeners.forEach(l -> l.onEvent(CoreConstants.GameEvents.ROUND_OVER, gameState, null));
+        publish(CoreConstants.GameEvents.ROUND_OVER, gameState, null);
 
         roundCounter++;
         if (nMaxRounds != -1 && roundCounter == nMaxRounds) {
@@ -241,13 +261,21 @@ public abstract class TurnOrder {
         return Objects.hash(nPlayers, turnOwner, turnCounter, roundCounter, firstPlayer, nMaxRounds);
     }
 
-    public void addListener(IGameListener listener) {
-        if (!listeners.contains(listener))
-            listeners.add(listener);
+    /**
+     * Used by AbstractGameState.getZobristHash(). The turn order is small, so this is simply derived from
+     * hashCode(), and subclasses with additional state only need to include it there.
+     * @return - 64-bit hash of the turn order.
+     */
+    public long getZobristHash() {
+        return Zobrist.key(hashCode());
     }
 
-    public void clearListeners() {
-        listeners.clear();
+    /**
+     * Used by the Game, so that events from the turn order reach the listeners of the game.
+     * @param events - the event bus of the game
+     */
+    public void setEventBus(GameEventBus events) {
+        this.events = events;
     }
 
     public int getFirstPlayer() {
@@ -0,0 +1,149 @@
+package evaluation;
+
+import utilities.StatSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A race between candidate settings (such as the recommendations of several NTBEA runs) to find the best with as few
+ * games as possible. Every candidate still in the race plays in turn, and after each result any candidate that is
+ * confidently worse than another is dropped, so that the remaining games go to those that are still close.
+ * <p>
+ * The confidence bound on the mean of each candidate is the empirical Bernstein bound (Audibert, Munos and
+ * Szepesvari 2009), which is much tighter than Hoeffding's when the variance of the results is small compared to
+ * their range, as it is for a win rate far from a half. It holds with probability 1 - delta for every candidate
+ * at every check together (by the union bound over candidates and games).
+ */
+public class CandidateRace {
+
+    private final List<int[]> candidates;
+    private final StatSummary[] results;
+    private final boolean[] dropped;
+    private final double delta;
+    private final double range;
+    private final int maxGames;
+    private double lowest = Double.POSITIVE_INFINITY, highest = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param candidates - settings to race
+     * @param delta      - probability that the winner is dropped wrongly (0.05 for 95% confidence)
+     * @param range      - difference between the highest and lowest possible scores (1 for a win rate), or 0 if this
+     *                   is not known, in which case the range of the scores seen so far is used instead. This is only
+     *                   an estimate of the true range, and so a race is then a little less certain.
+     * @param maxGames   - most results any one candidate can have, for the union bound
+     */
+    public CandidateRace(List<int[]> candidates, double delta, double range, int maxGames) {
+        if (candidates.isEmpty())
+            throw new IllegalArgumentException("There must be at least one candidate to race");
+        if (delta <= 0.0 || delta >= 1.0)
+            throw new IllegalArgumentException("The probability of error in a race must be between 0 and 1, not " + delta);
+        this.candidates = new ArrayList<>(candidates);
+        this.results = new StatSummary[candidates.size()];
+        for (int i = 0; i < results.length; i++)
+            results[i] = new StatSummary();
+        this.dropped = new boolean[candidates.size()];
+        this.delta = delta;
+        this.range = range;
+        this.maxGames = Math.max(1, maxGames);
+    }
+
+    /**
+     * Plays a race. The contenders take the seats in each game in turn, so that with one seat each plays one game
+     * at a time, and with more than one they play each other (and themselves, when there are fewer contenders
+     * than seats).
+     *
+     * @param seats    - number of candidates that play in each game
+     * @param play     - plays one game with the settings of each seated candidate, and returns their scores
+     * @param budget   - most games to play
+     * @param minGames - results the winner must have before the race can stop early (when there is only one
+     *                 candidate left), so that its score is known as well as without a race
+     * @return - the index of the winner
+     */
+    public int run(int seats, Function<List<int[]>, double[]> play, int budget, int minGames) {
+        int next = 0;
+        for (int game = 0; game < budget; game++) {
+            List<Integer> contenders = contenders();
+            if (contenders.size() == 1 && results[contenders.get(0)].n() >= minGames)
+                break;
+            List<Integer> seated = new ArrayList<>(seats);
+            for (int seat = 0; seat < seats; seat++)
+                seated.add(contenders.get(next++ % contenders.size()));
+            double[] scores = play.apply(seated.stream().map(candidates::get).collect(Collectors.toList()));
+            for (int seat = 0; seat < seats; seat++)
+                add(seated.get(seat), scores[seat]);
+        }
+        return leader();
+    }
+
+    /**
+     * Adds a result for a candidate, and drops any candidates that are now confidently worse than another.
+     *
+     * @param candidate - index of the candidate
+     * @param score     - its score in one game
+     */
+    public void add(int candidate, double score) {
+        results[candidate].add(score);
+        lowest = Math.min(lowest, score);
+        highest = Math.max(highest, score);
+        double bestLowerBound = contenders().stream()
+                .mapToDouble(c -> results[c].mean() - radius(c))
+                .max().orElse(Double.NEGATIVE_INFINITY);
+        for (int c : contenders()) {
+            if (results[c].mean() + radius(c) < bestLowerBound)
+                dropped[c] = true;
+        }
+    }
+
+    /**
+     * @param candidate - index of the candidate
+     * @return - half the width of the confidence interval on its mean score (infinite before it has any results)
+     */
+    public double radius(int candidate) {
+        int n = results[candidate].n();
+        if (n == 0)
+            return Double.POSITIVE_INFINITY;
+        double r = range > 0.0 ? range : highest - lowest;
+        double variance = results[candidate].sumSquareDiff() / n;
+        double log = Math.log(3.0 * candidates.size() * maxGames / delta);
+        return Math.sqrt(2.0 * variance * log / n) + 3.0 * r * log / n;
+    }
+
+    /**
+     * @return - indices of the candidates not yet dropped from the race
+     */
+    public List<Integer> contenders() {
+        return IntStream.range(0, dropped.length).filter(i -> !dropped[i]).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * @return - index of the contender with the best mean score so far (of those that have played)
+     */
+    public int leader() {
+        int retValue = -1;
+        for (int c : contenders()) {
+            if (results[c].n() > 0 && (retValue == -1 || results[c].mean() > results[retValue].mean()))
+                retValue = c;
+        }
+        return retValue == -1 ? contenders().get(0) : retValue;
+    }
+
+    /**
+     * @param candidate - index of the candidate
+     * @return - its results so far
+     */
+    public StatSummary results(int candidate) {
+        return results[candidate];
+    }
+
+    /**
+     * @param candidate - index of the candidate
+     * @return - its settings
+     */
+    public int[] candidate(int candidate) {
+        return candidates.get(candidate);
+    }
+}
@@ -0,0 +1,22 @@
+package evaluation;
+
+import evodef.SolutionEvaluator;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A SolutionEvaluator whose evaluations can be run at the same time on different threads, for ParallelNTBEA.
+ */
+public interface ConcurrentSolutionEvaluator extends SolutionEvaluator {
+
+    /**
+     * Sets up one evaluation of the given settings. This is called on a single thread, in the order of the
+     * evaluations, while the tasks returned may then be run on any threads at once.
+     *
+     * @param settings   - settings to evaluate, as for evaluate(int[] settings)
+     * @param evaluation - index of this evaluation. Evaluations with the same index and settings should give the
+     *                   same result (as far as the game and players allow), whatever else is run at the same time.
+     * @return - task that runs the evaluation, and returns its score
+     */
+    DoubleSupplier evaluation(int[] settings, int evaluation);
+}
@@ -18,6 +18,7 @@ import core.interfaces.IStatisticLogger;
 import evodef.SearchSpace;
 import evodef.SolutionEvaluator;
 import games.GameType;
+import utilities.SplitMixRandom;
 import utilities.SummaryLogger;
 
 import java.util.ArrayList;
@@ -25,6 +26,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.function.BiFunction;
+import java.util.function.DoubleSupplier;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
@@ -35,7 +37,7 @@ import static java.util.stream.Collectors.toList;
  *  The meaning of these settings is encapsulated in the AgentSearchSpace, as this will vary with whatever is being
  *  optimised.
  */
-public class GameEvaluator implements SolutionEvaluator {
+public class GameEvaluator implements ConcurrentSolutionEvaluator {
 
     GameType game;
     AbstractParameters gameParams;
@@ -43,6 +45,7 @@ public class GameEvaluator implements SolutionEvaluator {
     int nPlayers;
     List<AbstractPlayer> opponents;
     int nEvals = 0;
+    long seed;
     Random rnd;
     boolean avoidOppDupes;
     boolean fullyCoop;
@@ -80,7 +83,8 @@ public class GameEvaluator implements SolutionEvaluator {
         this.stateHeuristic = stateHeuristic;
         this.gameHeuristic = gameHeuristic;
         this.opponents = opponents;
-        this.rnd = new Random(seed);
+        this.seed = seed;
+        this.rnd = new SplitMixRandom(seed);
         this.avoidOppDupes = avoidOpponentDuplicates && opponents.size() > 1;
         if (avoidOppDupes && opponents.size() < nPlayers - 1)
             throw new AssertionError("Insufficient Opponents to avoid duplicates");
@@ -110,6 +114,31 @@ public class GameEvaluator implements SolutionEvaluator {
     public double evaluate(int[] settings) {
     //    System.out.printf("Starting evaluation %d of %s at %tT%n", nEvals,
      //           Arrays.toString(settings), System.currentTimeMillis());
+        double retValue = setUpGame(settings, nEvals, rnd).getAsDouble();
+        nEvals++;
+        return retValue;
+    }
+
+    /**
+     * Sets up a game as evaluate(int[] settings) does, but with a random number generator that depends only on the
+     * seed of this evaluator and the index of the evaluation, so that the games can be played at the same time.
+     */
+    @Override
+    public DoubleSupplier evaluation(int[] settings, int evaluation) {
+        nEvals++;
+        return setUpGame(settings, evaluation, SplitMixRandom.stream(seed, evaluation));
+    }
+
+    /**
+     * Creates the players and the game for one evaluation. As the search space is changed to create the tuned player,
+     * this must all be done on the one thread, but the game can then be played on any.
+     *
+     * @param settings   - settings to evaluate
+     * @param evaluation - index of the evaluation, used to cycle the position of the tuned player
+     * @param rnd        - random number generator to choose the opponents and the seed of the game
+     * @return - task that plays the game and returns the score
+     */
+    private DoubleSupplier setUpGame(int[] settings, int evaluation, Random rnd) {
         Object configuredThing = searchSpace.getAgent(settings);
         boolean tuningPlayer = configuredThing instanceof AbstractPlayer;
         boolean tuningGame = configuredThing instanceof Game;
@@ -118,12 +147,12 @@ public class GameEvaluator implements SolutionEvaluator {
 
         // We can reduce variance here by cycling the playerIndex on each iteration
         // If we're not tuning the player, then setting index to -99 means we just use the provided opponents list
-        int playerIndex = tuningPlayer ? nEvals % nPlayers : -99;
+        int playerIndex = tuningPlayer ? evaluation % nPlayers : -99;
 
         // create a random permutation of opponents - this is used if we want to avoid opponent duplicates
         // if we allow duplicates, then we randomise them all independently
         List<Integer> opponentOrdering = IntStream.range(0, opponents.size()).boxed().collect(toList());
-        Collections.shuffle(opponentOrdering);
+        Collections.shuffle(opponentOrdering, rnd);
         int count = 0;
         for (int i = 0; i < nPlayers; i++) {
             if (!fullyCoop && i != playerIndex) {
@@ -137,14 +166,17 @@ public class GameEvaluator implements SolutionEvaluator {
             }
         }
 
-        Game newGame = tuningGame ? (Game) configuredThing : game.createGameInstance(nPlayers, gameParams);
-        // always reset the random seed for each new game
-        newGame.reset(allPlayers, rnd.nextLong());
-
-        newGame.run();
-
-        nEvals++;
-        return tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerIndex);
+        // each game has its own parameters, as the random seed is set in them
+        Game newGame = tuningGame ? (Game) configuredThing
+                : game.createGameInstance(nPlayers, gameParams == null ? null : gameParams.copy());
+        long gameSeed = rnd.nextLong();
+
+        return () -> {
+            // always reset the random seed for each new game
+            newGame.reset(allPlayers, gameSeed);
+            newGame.run();
+            return tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerIndex);
+        };
     }
 
     /**
@@ -8,6 +8,7 @@ import core.interfaces.IStatisticLogger;
 import evodef.MultiSolutionEvaluator;
 import evodef.SearchSpace;
 import games.GameType;
+import utilities.SplitMixRandom;
 import utilities.SummaryLogger;
 
 import java.util.*;
@@ -46,7 +47,7 @@ public class GameMultiPlayerEvaluator implements MultiSolutionEvaluator {
         this.searchSpace = parametersToTune;
         this.stateHeuristic = stateHeuristic;
         this.nPlayers = nPlayers;
-        this.rnd = new Random(seed);
+        this.rnd = new SplitMixRandom(seed);
     }
 
     @Override
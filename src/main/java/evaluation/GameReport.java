@@ -59,7 +59,7 @@ public class GameReport {
                             "\tlogger=        The full class name of an IStatisticsLogger implementation.\n" +
                             "\t               This is ignored if a json file is provided for the listener.\n" +
                             "\t               Defaults to utilities.SummaryLogger. \n" +
-                            "\tlogFile=       Will be used as the IStatisticsLogger log file (FileStatsLogger only)\n" +
+                            "\tlogFile=       Will be used as the IStatisticsLogger log file (FileStatsLogger and ColumnarStatsLogger)\n" +
                             "\t               A pipe-delimited list should be provided if each distinct listener should\n" +
                             "\t               use a different log file.\n" +
                             "\tstatsLog=      (Optional) If specified this file will be used to log statistics generated by the\n" +
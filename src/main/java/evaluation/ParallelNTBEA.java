@@ -0,0 +1,261 @@
+package evaluation;
+
+import evodef.EvoAlg;
+import evodef.LandscapeModel;
+import evodef.MultiSolutionEvaluator;
+import evodef.SearchSpace;
+import evodef.SearchSpaceUtil;
+import evodef.SolutionEvaluator;
+import ntbea.NTupleSystem;
+import utilities.SplitMixRandom;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.DoubleSupplier;
+
+/**
+ * NTBEA that plays many games at once, for ParameterSearch. As in NTupleBanditEA, the search moves from one point
+ * (set of parameter settings) to the neighbour with the best upper confidence bound in the NTupleSystem landscape
+ * model, but it does so in one of two ways:
+ * <p>
+ * - In batches: at each step the batchSize best neighbours are each evaluated gamesPerCandidate times, all at once.
+ * The results are added to the landscape model in the order of the batch, whatever order the games finish in, so
+ * that the search is the same for a given seed whatever the number of threads (provided the games themselves are
+ * deterministic for a given seed). With a batch of one, and one game per candidate, this is NTupleBanditEA.
+ * <p>
+ * - In a steady state: a new game is started whenever one finishes, so that every thread is kept busy even when some
+ * games take much longer than others. Each result is added to the model as soon as it is known, and the next
+ * candidate chosen from the model as it is then. The search therefore depends on the order in which games finish,
+ * and is not reproducible.
+ * <p>
+ * The landscape model is only used on the thread that calls runTrial(), so need not be thread-safe, and the
+ * evaluator sets up each game on this thread too (see ConcurrentSolutionEvaluator).
+ */
+public class ParallelNTBEA implements EvoAlg {
+
+    private final NTupleSystem landscapeModel;
+    private final double kExplore;
+    private final int neighbourhoodSize;
+    private final int batchSize;
+    private final int gamesPerCandidate;
+    private final int threads;
+    private final boolean steadyState;
+    private final Random rnd;
+    // Index of the next evaluation, over all calls to runTrial()
+    private int evaluations;
+
+    /**
+     * @param landscapeModel    - model of the search space
+     * @param kExplore          - weight of exploration in the upper confidence bound (as for NTupleBanditEA)
+     * @param neighbourhoodSize - number of neighbours of the current point considered at each step (as for
+     *                          NTupleBanditEA, at most a quarter of the search space, and at least 5)
+     * @param batchSize         - number of candidates evaluated at each step (in batches)
+     * @param gamesPerCandidate - number of games played with each candidate
+     * @param threads           - number of games to play at once
+     * @param steadyState       - true to start a new game as each one finishes, rather than play them in batches
+     * @param seed              - seed for the choice of points (the evaluator has its own)
+     */
+    public ParallelNTBEA(NTupleSystem landscapeModel, double kExplore, int neighbourhoodSize, int batchSize,
+                         int gamesPerCandidate, int threads, boolean steadyState, long seed) {
+        if (batchSize < 1 || gamesPerCandidate < 1 || threads < 1)
+            throw new IllegalArgumentException(String.format("Batch size (%d), games per candidate (%d) and threads (%d) must all be at least 1",
+                    batchSize, gamesPerCandidate, threads));
+        this.landscapeModel = landscapeModel;
+        this.kExplore = kExplore;
+        SearchSpace searchSpace = landscapeModel.getSearchSpace();
+        this.neighbourhoodSize = Math.max(5, (int) Math.min(neighbourhoodSize, SearchSpaceUtil.size(searchSpace) / 4));
+        this.batchSize = batchSize;
+        this.gamesPerCandidate = gamesPerCandidate;
+        this.threads = threads;
+        this.steadyState = steadyState;
+        this.rnd = new SplitMixRandom(seed);
+    }
+
+    /**
+     * Runs the search, adding the result of every game to the landscape model.
+     *
+     * @param evaluator - must be a ConcurrentSolutionEvaluator
+     * @param nTrials   - number of games to play
+     * @return - the best point sampled so far
+     */
+    @Override
+    public double[] runTrial(SolutionEvaluator evaluator, int nTrials) {
+        if (!(evaluator instanceof ConcurrentSolutionEvaluator))
+            throw new IllegalArgumentException("ParallelNTBEA needs a ConcurrentSolutionEvaluator, not " + evaluator.getClass().getSimpleName());
+        ConcurrentSolutionEvaluator concurrentEvaluator = (ConcurrentSolutionEvaluator) evaluator;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "NTBEA");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            if (steadyState)
+                runSteadyState(concurrentEvaluator, nTrials, pool);
+            else
+                runBatches(concurrentEvaluator, nTrials, pool);
+        } catch (ExecutionException e) {
+            throw new AssertionError("Error in NTBEA evaluation: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while running NTBEA", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return landscapeModel.getBestOfSampled();
+    }
+
+    private void runBatches(ConcurrentSolutionEvaluator evaluator, int nTrials, ExecutorService pool)
+            throws InterruptedException, ExecutionException {
+        int[] current = randomPoint();
+        // there is nothing in the model to choose the rest of the first batch with, so they are random neighbours
+        List<int[]> batch = new ArrayList<>();
+        batch.add(current);
+        for (int[] point : neighbours(current, Collections.emptySet(), false)) {
+            if (batch.size() >= batchSize)
+                break;
+            batch.add(point);
+        }
+
+        int played = 0;
+        while (played < nTrials) {
+            List<int[]> points = new ArrayList<>();
+            List<Future<Double>> results = new ArrayList<>();
+            for (int[] point : batch) {
+                for (int game = 0; game < gamesPerCandidate && played + points.size() < nTrials; game++) {
+                    DoubleSupplier task = evaluator.evaluation(point, evaluations++);
+                    points.add(point);
+                    results.add(pool.submit(task::getAsDouble));
+                }
+            }
+            // added in the order of the batch, not that in which the games finish
+            for (int i = 0; i < points.size(); i++)
+                landscapeModel.addPoint(points.get(i), results.get(i).get());
+            played += points.size();
+
+            List<int[]> ranked = neighbours(current, Collections.emptySet(), true);
+            current = ranked.get(0);
+            batch = ranked.subList(0, Math.min(batchSize, ranked.size()));
+        }
+    }
+
+    private void runSteadyState(ConcurrentSolutionEvaluator evaluator, int nTrials, ExecutorService pool)
+            throws InterruptedException, ExecutionException {
+        CompletionService<Double> games = new ExecutorCompletionService<>(pool);
+        Map<Future<Double>, int[]> running = new HashMap<>();
+        // points being evaluated, so that the next candidate is a different one
+        Map<String, Integer> pending = new HashMap<>();
+        Deque<int[]> toStart = new ArrayDeque<>();
+
+        int[] current = randomPoint();
+        int started = 0, played = 0;
+        while (played < nTrials) {
+            while (running.size() < threads && started < nTrials) {
+                if (toStart.isEmpty()) {
+                    int[] candidate = current;
+                    if (started > 0) {
+                        // until there are results in the model, the candidates are random neighbours of the first
+                        List<int[]> options = neighbours(current, pending.keySet(), played > 0);
+                        if (!options.isEmpty())
+                            candidate = options.get(0);
+                        if (played > 0)
+                            current = candidate;
+                    }
+                    for (int game = 0; game < gamesPerCandidate; game++)
+                        toStart.add(candidate);
+                }
+                int[] point = toStart.poll();
+                DoubleSupplier task = evaluator.evaluation(point, evaluations++);
+                running.put(games.submit(task::getAsDouble), point);
+                pending.merge(key(point), 1, Integer::sum);
+                started++;
+            }
+            Future<Double> finished = games.take();
+            int[] point = running.remove(finished);
+            pending.computeIfPresent(key(point), (k, n) -> n > 1 ? n - 1 : null);
+            landscapeModel.addPoint(point, finished.get());
+            played++;
+        }
+    }
+
+    /**
+     * Samples the neighbourhood of a point.
+     *
+     * @param point   - centre of the neighbourhood
+     * @param exclude - keys (see key()) of points to leave out
+     * @param ranked  - true to order the neighbours by their upper confidence bound (best first), false to leave them
+     *                in the order they were sampled
+     * @return - distinct neighbours of the point
+     */
+    private List<int[]> neighbours(int[] point, Set<String> exclude, boolean ranked) {
+        Set<String> seen = new HashSet<>(exclude);
+        seen.add(key(point));
+        List<int[]> retValue = new ArrayList<>();
+        // in a small search space there may not be enough distinct neighbours, so we give up after a while
+        for (int attempt = 0; attempt < neighbourhoodSize * 10 && retValue.size() < neighbourhoodSize; attempt++) {
+            int[] neighbour = mutate(point);
+            if (seen.add(key(neighbour)))
+                retValue.add(neighbour);
+        }
+        if (retValue.isEmpty() && !exclude.contains(key(point)))
+            retValue.add(point);
+        if (ranked) {
+            Map<int[], Double> bounds = new IdentityHashMap<>();
+            for (int[] neighbour : retValue) {
+                // with a little noise to break ties at random
+                bounds.put(neighbour, landscapeModel.getMeanEstimate(neighbour)
+                        + kExplore * landscapeModel.getExplorationEstimate(neighbour) + rnd.nextDouble() * 1e-6);
+            }
+            retValue.sort(Comparator.comparingDouble(n -> -bounds.get(n)));
+        }
+        return retValue;
+    }
+
+    // SearchSpaceUtil.randomPoint() has its own random number generator, which cannot be seeded
+    private int[] randomPoint() {
+        SearchSpace searchSpace = landscapeModel.getSearchSpace();
+        int[] retValue = new int[searchSpace.nDims()];
+        for (int i = 0; i < retValue.length; i++)
+            retValue[i] = rnd.nextInt(searchSpace.nValues(i));
+        return retValue;
+    }
+
+    // Changes each setting with probability 1/nDims, and always at least one, as DefaultMutator does
+    private int[] mutate(int[] point) {
+        SearchSpace searchSpace = landscapeModel.getSearchSpace();
+        int[] retValue = point.clone();
+        boolean changed = false;
+        for (int i = 0; i < retValue.length; i++) {
+            if (searchSpace.nValues(i) > 1 && rnd.nextDouble() < 1.0 / retValue.length) {
+                retValue[i] = otherValue(i, retValue[i]);
+                changed = true;
+            }
+        }
+        for (int attempt = 0; !changed && attempt < retValue.length * 10; attempt++) {
+            int i = rnd.nextInt(retValue.length);
+            if (searchSpace.nValues(i) > 1) {
+                retValue[i] = otherValue(i, retValue[i]);
+                changed = true;
+            }
+        }
+        return retValue;
+    }
+
+    private int otherValue(int dimension, int value) {
+        int retValue = rnd.nextInt(landscapeModel.getSearchSpace().nValues(dimension) - 1);
+        return retValue >= value ? retValue + 1 : retValue;
+    }
+
+    private static String key(int[] point) {
+        return Arrays.toString(point);
+    }
+
+    @Override
+    public double[] runTrial(MultiSolutionEvaluator evaluator, int nTrials) {
+        throw new AssertionError("ParallelNTBEA does not support MultiSolutionEvaluators");
+    }
+
+    @Override
+    public LandscapeModel getModel() {
+        return landscapeModel;
+    }
+}
@@ -27,6 +27,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.joining;
@@ -69,8 +70,18 @@ public class ParameterSearch {
                         "\t               For scores with larger ranges, we recommend scaling kExplore appropriately.\n" +
                         "\thood=          The size of neighbourhood to look at in NTBEA. Default is min(50, |searchSpace|/100) \n" +
                         "\trepeat=        The number of times NTBEA should be re-run, to find a single best recommendation \n" +
+                        "\trace=          If set to a probability of error (such as 0.05), then the recommendations of the repeated runs\n" +
+                        "\t               are raced against each other after they have all finished, instead of each having evalGames\n" +
+                        "\t               games. Those that are confidently worse than another are dropped as the race goes on, and it\n" +
+                        "\t               stops once only one is left (with at least evalGames results), or after evalGames x repeat games.\n" +
+                        "\t               Without an opponent, the race is between the candidates playing each other.\n" +
                         "\tverbose        Will log the results marginalised to each dimension, and the Top 10 best tuples for each run \n" +
-                        "\tseed=          Random seed for Game use (not used by NTBEA itself). Defaults to System.currentTimeMillis()\n" +
+                        "\tseed=          Random seed for Game use (and for NTBEA itself only with the options below). Defaults to System.currentTimeMillis()\n" +
+                        "\tthreads=       The number of games to play at once (default 1). This and the next three are only used with opponent=\n" +
+                        "\tbatch=         The number of candidate settings to evaluate at once in each NTBEA step (default 1) \n" +
+                        "\tcandidateGames= The number of games to play with each candidate in a step (default 1) \n" +
+                        "\tsteadyState    If specified, then a new game is started as soon as any finishes, rather than in batches.\n" +
+                        "\t               This keeps all threads busy when games vary in length, but the results are not reproducible.\n" +
                         "\tlogFile=       Output file with results of each run for easier statistical analysis\n"
         );
 
@@ -162,13 +173,21 @@ public class ParameterSearch {
         String logfile = getArg(args, "logFile", "");
         String evalMethod = getArg(args, "eval", "Win");
         String paramFile = getArg(args, "gameParam", "");
+        double raceDelta = getArg(args, "race", 0.0);
+        boolean racing = raceDelta > 0.0 && evalGames > 0;
         AbstractParameters gameParams = ParameterFactory.createFromFile(game, paramFile);
 
         ITPSearchSpace searchSpace = (ITPSearchSpace) landscapeModel.getSearchSpace();
         int searchSpaceSize = IntStream.range(0, searchSpace.nDims()).reduce(1, (acc, i) -> acc * searchSpace.nValues(i));
         int hood = getArg(args, "hood", Math.min(50, searchSpaceSize / 100));
 
-        NTupleBanditEA searchFramework = new NTupleBanditEA(landscapeModel, kExplore, hood);
+        int threads = getArg(args, "threads", 1);
+        int batchSize = getArg(args, "batch", 1);
+        int candidateGames = getArg(args, "candidateGames", 1);
+        boolean steadyState = Arrays.asList(args).contains("steadyState");
+        EvoAlg searchFramework = threads > 1 || batchSize > 1 || candidateGames > 1 || steadyState
+                ? new ParallelNTBEA(landscapeModel, kExplore, hood, batchSize, candidateGames, threads, steadyState, seed)
+                : new NTupleBanditEA(landscapeModel, kExplore, hood);
 
         // Set up opponents
         List<AbstractPlayer> opponents = new ArrayList<>();
@@ -229,17 +248,25 @@ public class ParameterSearch {
         // This loops once for each complete repetition of NTBEA specified.
         // runNTBEA runs a complete set of trials, and spits out the mean and std error on the mean of the best sampled result
         // These mean statistics are calculated from the evaluation trials that are run after NTBEA is complete. (evalGames)
+        // If we race the recommendations, then they are only evaluated once all the runs are done
         Pair<Pair<Double, Double>, double[]> bestResult = new Pair<>(new Pair<>(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY), new double[0]);
+        List<double[]> recommendations = new ArrayList<>();
         for (int mainLoop = 0; mainLoop < repeats; mainLoop++) {
             landscapeModel.reset();
             evaluator.statsLogger = IStatisticLogger.createLogger("utilities.SummaryLogger", "Agent_" + String.format("%2d", repeats+1) + "_" + logfile);
-            Pair<Double, Double> r = runNTBEA(evaluator, null, searchFramework, iterationsPerRun, iterationsPerRun, evalGames, verbose);
+            Pair<Double, Double> r = runNTBEA(evaluator, null, searchFramework, iterationsPerRun, iterationsPerRun, racing ? 0 : evalGames, verbose);
             Pair<Pair<Double, Double>, double[]> retValue = new Pair<>(r, landscapeModel.getBestOfSampled());
             printDetailsOfRun(retValue, searchSpace, logfile, verbose, evaluator.statsLogger);
+            recommendations.add(retValue.b);
             if (retValue.a.a > bestResult.a.a)
                 bestResult = retValue;
 
         }
+        if (racing) {
+            double range = tuningGame ? 0.0 : scoreRange(evalMethod, nPlayers);
+            bestResult = race(recommendations, 1, settings -> new double[]{evaluator.evaluate(settings.get(0))},
+                    raceDelta, range, evalGames * repeats, evalGames);
+        }
         System.out.println("\nFinal Recommendation: ");
         // we don't log the final run to file to avoid duplication
         printDetailsOfRun(bestResult, searchSpace, "", false, null);
@@ -256,6 +283,7 @@ public class ParameterSearch {
         int nPlayers = getArg(args, "nPlayers", game.getMinPlayers());
         long seed = getArg(args, "seed", System.currentTimeMillis());
         String logfile = getArg(args, "logFile", "");
+        double raceDelta = getArg(args, "race", 0.0);
 
         String evalMethod = getArg(args, "eval", "Win");
         IStateHeuristic stateHeuristic = null;
@@ -289,18 +317,26 @@ public class ParameterSearch {
         // This loops once for each complete repetition of NTBEA specified.
         // runNTBEA runs a complete set of trials, and spits out the mean and std error on the mean of the best sampled result
         // These mean statistics are calculated from the evaluation trials that are run after NTBEA is complete. (evalGames)
+        // If we race the recommendations, then they are only evaluated once all the runs are done
+        boolean racing = raceDelta > 0.0 && evalGames > 0;
         Pair<Pair<Double, Double>, double[]> bestResult = new Pair<>(new Pair<>(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY), new double[0]);
+        List<double[]> recommendations = new ArrayList<>();
         for (int mainLoop = 0; mainLoop < repeats; mainLoop++) {
             landscapeModel.reset();
-            Pair<Double, Double> r = runNTBEA(null, evaluator, searchFramework, iterationsPerRun, iterationsPerRun, evalGames, verbose);
+            Pair<Double, Double> r = runNTBEA(null, evaluator, searchFramework, iterationsPerRun, iterationsPerRun, racing ? 0 : evalGames, verbose);
             Pair<Pair<Double, Double>, double[]> retValue = new Pair<>(r, landscapeModel.getBestOfSampled());
             printDetailsOfRun(retValue, searchSpace, logfile, verbose, null);
             printDiversityResults(landscapeModel, kExplore);
+            recommendations.add(retValue.b);
 
             if (retValue.a.a > bestResult.a.a)
                 bestResult = retValue;
 
         }
+        // the recommendations play each other, as there is no opponent
+        if (racing)
+            bestResult = race(recommendations, nPlayers, evaluator::evaluate,
+                    raceDelta, scoreRange(evalMethod, nPlayers), evalGames * repeats, evalGames);
         System.out.println("\nFinal Recommendation: ");
         // we don't log the final run to file to avoid duplication
         printDetailsOfRun(bestResult, searchSpace, "", false, null);
@@ -369,6 +405,54 @@ public class ParameterSearch {
 
     }
 
+    /**
+     * Races the recommendations of several NTBEA runs (see CandidateRace), and reports how it went.
+     *
+     * @param recommendations - best sampled settings of each run (the same settings may be recommended more than once)
+     * @param seats           - number of candidates in each game
+     * @param play            - plays a game with the given settings, and returns the score of each
+     * @param delta           - probability that the best is dropped wrongly
+     * @param range           - range of the scores, or 0 if not known
+     * @param budget          - most games to play
+     * @param minGames        - results the winner must have before the race can stop early
+     * @return - the mean and standard error of the score of the winner, and its settings
+     */
+    private static Pair<Pair<Double, Double>, double[]> race(List<double[]> recommendations, int seats, Function<List<int[]>, double[]> play,
+                                                             double delta, double range, int budget, int minGames) {
+        Map<String, int[]> distinct = new LinkedHashMap<>();
+        for (double[] recommendation : recommendations) {
+            int[] settings = Arrays.stream(recommendation).mapToInt(d -> (int) (d + 0.5)).toArray();
+            distinct.putIfAbsent(Arrays.toString(settings), settings);
+        }
+        CandidateRace race = new CandidateRace(new ArrayList<>(distinct.values()), delta, range, budget * seats);
+        int winner = race.run(seats, play, budget, minGames);
+
+        int samples = 0;
+        System.out.printf("%nRace between %d candidates:%n", distinct.size());
+        for (int i = 0; i < distinct.size(); i++) {
+            StatSummary results = race.results(i);
+            samples += results.n();
+            System.out.printf("\t%s\t%d results\tmean %.3g +/- %.2g%s%n", Arrays.toString(race.candidate(i)), results.n(),
+                    results.mean(), results.stdErr(), race.contenders().contains(i) ? "" : "\t(dropped)");
+        }
+        System.out.printf("%d results out of a budget of %d%n", samples, budget * seats);
+        StatSummary best = race.results(winner);
+        return new Pair<>(new Pair<>(best.mean(), best.stdErr()), Arrays.stream(race.candidate(winner)).asDoubleStream().toArray());
+    }
+
+    /**
+     * @param evalMethod - what is being optimised (as for the eval= argument)
+     * @param nPlayers   - number of players in each game
+     * @return - the difference between the highest and lowest possible scores, or 0 if this is not known
+     */
+    private static double scoreRange(String evalMethod, int nPlayers) {
+        if (evalMethod.equals("Win"))
+            return 1.0;
+        if (evalMethod.equals("Ordinal"))
+            return nPlayers - 1.0;
+        return 0.0;
+    }
+
     private static String valueToString(int paramIndex, int valueIndex, ITPSearchSpace ss) {
         Object value = ss.value(paramIndex, valueIndex);
         String valueString = value.toString();
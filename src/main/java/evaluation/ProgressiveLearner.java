@@ -64,6 +64,7 @@ public class ProgressiveLearner {
         if (learner instanceof AbstractLearner) {
             ((AbstractLearner) learner).setGamma(getArg(args, "gamma", 1.0));
             ((AbstractLearner) learner).setTarget(getArg(args, "target", AbstractLearner.Target.WIN));
+            ((AbstractLearner) learner).setCacheData(getArg(args, "cacheData", false));
         }
 
         learnedFilesByIteration = new String[iterations];
@@ -106,6 +107,8 @@ public class ProgressiveLearner {
                             "\t               generate a file that the heuristic can read.\n" +
                             "\ttarget=        The target to use (WIN, ORDINAL, SCORE, WIN_MEAN, ORD_MEAN)\n" +
                             "\tgamma=         The discount factor to use - this is applied per round, not per action\n" +
+                            "\tcacheData=     If true, the parsed data files are cached in binary files alongside them, to be\n" +
+                            "\t               re-read quickly in later iterations. Defaults to false.\n" +
                             "\tdir=           The directory containing agent JSON files for learned heuristics and raw data\n" +
                             "\tgameParams=    (Optional) A JSON file from which the game parameters will be initialised.\n" +
                             "\tmatchups=      Defaults to 1. The number of games to play before the learning process is called.\n" +
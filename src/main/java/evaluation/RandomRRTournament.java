@@ -3,6 +3,7 @@ package evaluation;
 import core.AbstractParameters;
 import core.AbstractPlayer;
 import games.GameType;
+import utilities.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -73,7 +74,7 @@ public class RandomRRTournament extends RoundRobinTournament {
                 }
             }
             currentPosition = -1;
-            rnd = new Random(seed);
+            rnd = new SplitMixRandom(seed);
             this.nPlayers = nPlayers;
             shuffle();
         }
@@ -3,9 +3,11 @@ package evaluation;
 import core.AbstractParameters;
 import core.AbstractPlayer;
 import core.Game;
+import core.ParallelGameRunner;
 import core.ParameterFactory;
 import core.interfaces.IGameListener;
 import core.interfaces.IStatisticLogger;
+import core.metrics.Metrics;
 import games.GameType;
 import players.PlayerFactory;
 import players.mcts.BasicMCTSPlayer;
@@ -18,6 +20,7 @@ import utilities.FileStatsLogger;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 import static utilities.Utils.GameResult;
 import static utilities.Utils.getArg;
@@ -32,6 +35,13 @@ public class RoundRobinTournament extends AbstractTournament {
     LinkedList<Integer> agentIDs;
     private int matchUpsRun;
     public boolean verbose = true;
+    // Number of games to play at once (see ParallelGameRunner)
+    public int threads = 1;
+    // Games of the match-ups evaluated so far that are yet to be played, with the agents playing in them
+    private final List<Callable<GameResult[]>> pendingGames = new ArrayList<>();
+    private final List<List<Integer>> pendingAgentIDs = new ArrayList<>();
+    private ParallelGameRunner runner;
+    private List<IGameListener> gameListeners;
 
     /**
      * Create a round robin tournament, which plays all agents against all others.
@@ -93,7 +103,12 @@ public class RoundRobinTournament extends AbstractTournament {
                             "\t                    use a different log file.\n" +
                             "\tstatsLog=      The file to use for logging agent-specific statistics (e.g. MCTS iterations/depth)\n" +
                             "\t               A single line will be generated as the average for each agent, implicitly assuming they are" +
-                            "\t               all of the same type. If not supplied, then no logging will take place."
+                            "\t               all of the same type. If not supplied, then no logging will take place.\n" +
+                            "\tthreads=       The number of games to play at once. Defaults to 1.\n" +
+                            "\t               The results do not depend on this, provided the agents are deterministic for a given seed.\n" +
+                            "\tmetrics=       (Optional) A file to write timings of the forward model, copies and decisions to\n" +
+                            "\t               (with percentiles for each game, player, agent and phase). This is in the Prometheus\n" +
+                            "\t               text format if the file ends in .prom or .txt, and JSON otherwise."
             );
             return;
         }
@@ -106,6 +121,10 @@ public class RoundRobinTournament extends AbstractTournament {
         String playerDirectory = getArg(args, "players", "");
         String gameParams = getArg(args, "gameParams", "");
         String statsLogPrefix = getArg(args, "statsLog", "");
+        int threads = getArg(args, "threads", 1);
+        String metricsFile = getArg(args, "metrics", "");
+        if (!metricsFile.equals(""))
+            Metrics.setEnabled(true);
 
         List<String> listenerClasses = new ArrayList<>(Arrays.asList(getArg(args, "listener", "utilities.GameResultListener").split("\\|")));
         List<String> listenerFiles = new ArrayList<>(Arrays.asList(getArg(args, "listenerFile", "RoundRobinReport.txt").split("\\|")));
@@ -142,6 +161,7 @@ public class RoundRobinTournament extends AbstractTournament {
                 new RandomRRTournament(agents, gameToPlay, nPlayersPerGame, selfPlay, matchups,
                         System.currentTimeMillis(), params);
 
+        tournament.threads = threads;
         tournament.listeners = new ArrayList<>();
         for (int l = 0; l < listenerClasses.size(); l++) {
             IStatisticLogger logger = new FileStatsLogger(listenerFiles.get(l));
@@ -149,6 +169,8 @@ public class RoundRobinTournament extends AbstractTournament {
             tournament.listeners.add(gameTracker);
         }
         tournament.runTournament();
+        if (!metricsFile.equals(""))
+            Metrics.write(metricsFile);
         if (!statsLogPrefix.equals("")) {
             for (int i = 0; i < agents.size(); i++) {
                 AbstractPlayer agent = agents.get(i);
@@ -164,12 +186,15 @@ public class RoundRobinTournament extends AbstractTournament {
      */
     @Override
     public void runTournament() {
+        runner = new ParallelGameRunner(threads);
+        gameListeners = runner.sharedListeners(listeners);
         for (int g = 0; g < games.size(); g++) {
             if (verbose)
                 System.out.println("Playing " + games.get(g).getGameType().name());
 
             LinkedList<Integer> matchUp = new LinkedList<>();
             createAndRunMatchUp(matchUp, g);
+            playPendingGames();
             int gameCounter = (gamesPerMatchUp * matchUpsRun);
             int gamesPerPlayer = gameCounter * playersPerGame.get(g) / agents.size();
 
@@ -207,7 +232,8 @@ public class RoundRobinTournament extends AbstractTournament {
     }
 
     /**
-     * Evaluates one combination of players.
+     * Evaluates one combination of players. The games are queued, to be played (possibly at the same time as those of
+     * other match-ups) once all the match-ups have been created.
      *
      * @param agentIDs - IDs of agents participating in this run.
      * @param gameIdx  - index of game to play in this evaluation.
@@ -219,23 +245,39 @@ public class RoundRobinTournament extends AbstractTournament {
         for (int agentID : agentIDs)
             matchUpPlayers.add(this.agents.get(agentID));
 
-        for (IGameListener listener : listeners) {
-            games.get(gameIdx).addListener(listener);
-        }
-
         // Run the game N = gamesPerMatchUp times with these players
-        long currentSeed = games.get(gameIdx).getGameState().getGameParameters().getRandomSeed();
+        Game template = games.get(gameIdx);
+        long currentSeed = template.getGameState().getGameParameters().getRandomSeed();
         for (int i = 0; i < this.gamesPerMatchUp; i++) {
-            games.get(gameIdx).reset(matchUpPlayers, currentSeed + i + 1);
-
-            games.get(gameIdx).run();  // Always running tournaments without visuals
+            long seed = currentSeed + i + 1;
+            pendingGames.add(() -> {
+                List<AbstractPlayer> players = runner.playersFor(matchUpPlayers, seed);
+                Game game = template.getGameType().createGameInstance(players.size(), seed,
+                        template.getGameState().getGameParameters().copy());
+                gameListeners.forEach(game::addListener);
+                game.reset(players, seed);
+                game.run();  // Always running tournaments without visuals
+                return game.getGameState().getPlayerResults();
+            });
+            pendingAgentIDs.add(new ArrayList<>(agentIDs));
+        }
+        matchUpsRun++;
+    }
 
-            GameResult[] results = games.get(gameIdx).getGameState().getPlayerResults();
-            for (int j = 0; j < matchUpPlayers.size(); j++) {
+    /**
+     * Plays all the games queued by evaluateMatchUp(), and adds up the points of each agent in the order in which
+     * they were queued.
+     */
+    private void playPendingGames() {
+        List<GameResult[]> allResults = runner.run(pendingGames, agents);
+        for (int g = 0; g < allResults.size(); g++) {
+            GameResult[] results = allResults.get(g);
+            List<Integer> agentIDs = pendingAgentIDs.get(g);
+            for (int j = 0; j < agentIDs.size(); j++) {
                 pointsPerPlayer[agentIDs.get(j)] += results[j] == GameResult.WIN ? 1 : 0;
             }
         }
-        games.get(gameIdx).clearListeners();
-        matchUpsRun++;
+        pendingGames.clear();
+        pendingAgentIDs.clear();
     }
 }
@@ -0,0 +1,370 @@
+package evaluation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import core.AbstractParameters;
+import core.AbstractPlayer;
+import core.Game;
+import core.ParallelGameRunner;
+import core.ParameterFactory;
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import players.PlayerFactory;
+import players.simple.RandomPlayer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static utilities.Utils.GameResult;
+import static utilities.Utils.getArg;
+
+/**
+ * Plays batches of games submitted over HTTP, so that a script can run many batches without starting a new JVM (and
+ * loading the data of each game again) for each one.
+ *
+ * The server only listens on localhost. A job is POSTed to /jobs as a JSON object:
+ * {
+ * "game": "TicTacToe",                   the GameType to play
+ * "players": ["mcts", {"class": ...}],   one per player, each as accepted by PlayerFactory: a file name, a short
+ * name such as "random", or the JSON of the player itself
+ * "gameParams": {...},                   (optional) the game parameters, as in a file given to ParameterFactory
+ * "seeds": [1, 2, 3],                    the seeds of the games to play...
+ * "firstSeed": 1, "lastSeed": 100,       ...or a range of them (inclusive)
+ * "repetitions": 1                       (optional) the number of games to play with each seed
+ * }
+ * The first repetition with each seed plays a game with that seed; later ones use seeds derived from it (see
+ * ParallelGameRunner.gameSeed()). The seed actually used is in the result of each game.
+ *
+ * The response is streamed back as each game finishes, one JSON object per line: first a header with the job number,
+ * then one line for each game (in the order they finish, with its index in the job), and last a summary. A game that
+ * fails has an "error" in place of the results. GET /status returns the number of jobs and games run.
+ *
+ * The games of all jobs are played on one pool of worker threads. The players of a job are copied for each game (as
+ * by ParallelGameRunner), so they must support AbstractPlayer.copy().
+ */
+public class SimulationServer {
+
+    private final HttpServer server;
+    private final int threads;
+    private final ExecutorService workers;
+    private final ExecutorService handlers;
+    private final AtomicInteger jobCounter = new AtomicInteger();
+    private final AtomicInteger jobsRunning = new AtomicInteger();
+    private final AtomicInteger gamesPlayed = new AtomicInteger();
+
+    /**
+     * @param port    - port to listen on (on localhost only), or 0 for any free port
+     * @param threads - number of games to play at once, over all jobs
+     */
+    public SimulationServer(int port, int threads) throws IOException {
+        if (threads < 1)
+            throw new IllegalArgumentException("Number of threads must be at least 1: " + threads);
+        this.threads = threads;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        workers = Executors.newFixedThreadPool(threads, daemonThreads("SimulationWorker"));
+        handlers = Executors.newCachedThreadPool(daemonThreads("SimulationJob"));
+        server.setExecutor(handlers);
+        server.createContext("/jobs", this::handleJob);
+        server.createContext("/status", this::handleStatus);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].contains("help")) {
+            System.out.println(
+                    "There are a number of possible arguments:\n" +
+                            "\tport=      The port to listen on (on localhost only). Defaults to 8642.\n" +
+                            "\tthreads=   The number of games to play at once, over all jobs. Defaults to the number of processors.\n" +
+                            "\tpreload=   A pipe-delimited list of games to set up before accepting any jobs, so that their\n" +
+                            "\t           data is loaded, and their code compiled, before the first job.\n" +
+                            "Jobs are then POSTed to http://localhost:<port>/jobs (see SimulationServer for the format)."
+            );
+            return;
+        }
+        int port = getArg(args, "port", 8642);
+        int threads = getArg(args, "threads", Runtime.getRuntime().availableProcessors());
+        String preload = getArg(args, "preload", "");
+
+        SimulationServer server = new SimulationServer(port, threads);
+        if (!preload.equals(""))
+            for (String game : preload.split("\\|"))
+                server.preload(GameType.valueOf(game));
+        server.start();
+        System.out.printf("Simulation server listening on http://localhost:%d/jobs with %d threads%n", server.getPort(), threads);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting jobs, and stops any games still being played.
+     */
+    public void stop() {
+        server.stop(0);
+        workers.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Sets up a game of each number of players it can be played with, so that anything it loads at set up (such as
+     * its data files) is loaded and its code is compiled before the first job.
+     *
+     * @param gameType - game to prepare
+     */
+    public void preload(GameType gameType) {
+        for (int n = gameType.getMinPlayers(); n <= gameType.getMaxPlayers(); n++) {
+            Game game = gameType.createGameInstance(n, 0);
+            if (game == null)
+                return;
+            List<AbstractPlayer> players = new ArrayList<>();
+            for (int p = 0; p < n; p++)
+                players.add(new RandomPlayer());
+            game.reset(players);
+        }
+    }
+
+    // One batch of games to play
+    static class Job {
+        final int id;
+        final GameType gameType;
+        final List<AbstractPlayer> players = new ArrayList<>();
+        final AbstractParameters gameParams;
+        final List<Long> seeds = new ArrayList<>();
+        final int repetitions;
+
+        Job(int id, JSONObject json) {
+            this.id = id;
+            Object game = json.get("game");
+            if (!(game instanceof String))
+                throw new IllegalArgumentException("A job needs a game");
+            try {
+                gameType = GameType.valueOf((String) game);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown game " + game);
+            }
+
+            Object playerData = json.get("players");
+            if (!(playerData instanceof JSONArray) || ((JSONArray) playerData).isEmpty())
+                throw new IllegalArgumentException("A job needs a list of players");
+            for (Object p : (JSONArray) playerData) {
+                AbstractPlayer player;
+                if (p instanceof JSONObject)
+                    player = PlayerFactory.fromJSONObject((JSONObject) p);
+                else if (p instanceof String)
+                    player = PlayerFactory.createPlayer((String) p);
+                else
+                    throw new IllegalArgumentException("Unknown player " + p);
+                if (player.copy() == player)
+                    throw new IllegalArgumentException("Player " + player + " cannot be copied for each game");
+                players.add(player);
+            }
+            if (players.size() < gameType.getMinPlayers() || players.size() > gameType.getMaxPlayers())
+                throw new IllegalArgumentException(gameType + " cannot be played by " + players.size() + " players");
+
+            Object paramData = json.get("gameParams");
+            if (paramData instanceof JSONObject) {
+                AbstractParameters params = ParameterFactory.getDefaultParams(gameType, 0);
+                if (!(params instanceof TunableParameters))
+                    throw new IllegalArgumentException("JSON parameters are not supported for " + gameType);
+                TunableParameters.loadFromJSON((TunableParameters) params, (JSONObject) paramData);
+                gameParams = params;
+            } else if (paramData instanceof String) {
+                gameParams = ParameterFactory.createFromFile(gameType, (String) paramData);
+            } else {
+                gameParams = null;
+            }
+
+            Object seedData = json.get("seeds");
+            if (seedData instanceof JSONArray) {
+                for (Object s : (JSONArray) seedData)
+                    seeds.add(((Number) s).longValue());
+            } else if (json.get("firstSeed") instanceof Number) {
+                long first = ((Number) json.get("firstSeed")).longValue();
+                long last = json.get("lastSeed") instanceof Number ? ((Number) json.get("lastSeed")).longValue() : first;
+                if (last < first)
+                    throw new IllegalArgumentException("lastSeed is before firstSeed");
+                for (long s = first; s <= last; s++)
+                    seeds.add(s);
+            } else {
+                seeds.add(System.currentTimeMillis());
+            }
+            repetitions = json.get("repetitions") instanceof Number ? ((Number) json.get("repetitions")).intValue() : 1;
+            if (repetitions < 1)
+                throw new IllegalArgumentException("Number of repetitions must be at least 1: " + repetitions);
+        }
+
+        int nGames() {
+            return seeds.size() * repetitions;
+        }
+
+        long gameSeed(int index) {
+            long seed = seeds.get(index / repetitions);
+            int repetition = index % repetitions;
+            return repetition == 0 ? seed : ParallelGameRunner.gameSeed(seed, repetition);
+        }
+
+        /**
+         * Plays one game of the job.
+         *
+         * @param index   - index of the game in the job
+         * @param players - the players for this game
+         * @return - the result of the game
+         */
+        @SuppressWarnings("unchecked")
+        JSONObject play(int index, List<AbstractPlayer> players) {
+            JSONObject retValue = new JSONObject();
+            retValue.put("job", id);
+            retValue.put("index", index);
+            long seed = gameSeed(index);
+            retValue.put("seed", seed);
+            long start = System.currentTimeMillis();
+            try {
+                Game game = gameType.createGameInstance(players.size(), seed, gameParams == null ? null : gameParams.copy());
+                game.reset(players);
+                game.run();
+                JSONArray results = new JSONArray(), ordinals = new JSONArray(), scores = new JSONArray();
+                for (int p = 0; p < players.size(); p++) {
+                    GameResult result = game.getGameState().getPlayerResults()[p];
+                    results.add(result.name());
+                    ordinals.add(game.getGameState().getOrdinalPosition(p));
+                    scores.add(game.getGameState().getGameScore(p));
+                }
+                retValue.put("results", results);
+                retValue.put("ordinal", ordinals);
+                retValue.put("scores", scores);
+                retValue.put("ticks", game.getTick());
+            } catch (RuntimeException | AssertionError e) {
+                retValue.put("error", e.toString());
+            }
+            retValue.put("millis", System.currentTimeMillis() - start);
+            return retValue;
+        }
+    }
+
+    private void handleJob(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "Jobs must be POSTed");
+                return;
+            }
+            Job job;
+            try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                Object json = new JSONParser().parse(reader);
+                if (!(json instanceof JSONObject))
+                    throw new IllegalArgumentException("A job must be a JSON object");
+                job = new Job(jobCounter.incrementAndGet(), (JSONObject) json);
+            } catch (ParseException | IllegalArgumentException | AssertionError e) {
+                respond(exchange, 400, e.getMessage() == null ? e.toString() : e.getMessage());
+                return;
+            }
+            runJob(job, exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runJob(Job job, HttpExchange exchange) throws IOException {
+        jobsRunning.incrementAndGet();
+        long start = System.currentTimeMillis();
+        int nGames = job.nGames();
+        BlockingQueue<JSONObject> results = new LinkedBlockingQueue<>();
+        List<Future<?>> futures = new ArrayList<>(nGames);
+        // the players of each game are copied by the task that plays it, seeded from the seed of the game, so that they
+        // are the same however the games are scheduled
+        ParallelGameRunner runner = new ParallelGameRunner(threads);
+        for (int i = 0; i < nGames; i++) {
+            int index = i;
+            futures.add(workers.submit(() -> results.add(job.play(index, runner.playersFor(job.players, job.gameSeed(index))))));
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        // a length of 0 streams the response, as the lines are written
+        exchange.sendResponseHeaders(200, 0);
+        int errors = 0;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            JSONObject header = new JSONObject();
+            header.put("job", job.id);
+            header.put("game", job.gameType.name());
+            JSONArray names = new JSONArray();
+            for (AbstractPlayer player : job.players)
+                names.add(player.toString());
+            header.put("players", names);
+            header.put("games", nGames);
+            writeLine(writer, header);
+            for (int i = 0; i < nGames; i++) {
+                JSONObject result = results.take();
+                if (result.containsKey("error"))
+                    errors++;
+                gamesPlayed.incrementAndGet();
+                writeLine(writer, result);
+            }
+            JSONObject summary = new JSONObject();
+            summary.put("job", job.id);
+            summary.put("done", true);
+            summary.put("games", nGames);
+            summary.put("errors", errors);
+            summary.put("millis", System.currentTimeMillis() - start);
+            writeLine(writer, summary);
+        } catch (IOException | InterruptedException e) {
+            // the client has gone, or the server is stopping, so there is no point playing the rest
+            for (Future<?> future : futures)
+                future.cancel(true);
+            if (e instanceof InterruptedException)
+                Thread.currentThread().interrupt();
+        } finally {
+            jobsRunning.decrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handleStatus(HttpExchange exchange) throws IOException {
+        try {
+            JSONObject status = new JSONObject();
+            status.put("threads", threads);
+            status.put("jobs", jobCounter.get());
+            status.put("jobsRunning", jobsRunning.get());
+            status.put("gamesPlayed", gamesPlayed.get());
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            respond(exchange, 200, status.toJSONString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void writeLine(Writer writer, JSONObject json) throws IOException {
+        writer.write(json.toJSONString());
+        writer.write('\n');
+        writer.flush();
+    }
+
+    private static void respond(HttpExchange exchange, int code, String message) throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
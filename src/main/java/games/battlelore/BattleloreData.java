@@ -16,8 +16,13 @@ public class BattleloreData extends AbstractGameData {
         units = Unit.loadUnits(dataPath + "units.json");
     }
 
+    /**
+     * @return - copies of the types of unit
+     */
     public List<Unit> getUnits() {
-        return units;
+        List<Unit> retValue = new ArrayList<>(units.size());
+        for (Unit u : units) retValue.add((Unit) u.copy());
+        return retValue;
     }
 
     public BattleloreData copy() {
@@ -1,6 +1,7 @@
 package games.battlelore;
 
 import core.AbstractForwardModel;
+import core.AbstractGameData;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.GridBoard;
@@ -23,8 +24,7 @@ public class BattleloreForwardModel extends AbstractForwardModel {
     protected void _setup(AbstractGameState initialState) {
         BattleloreGameParameters gameParams = (BattleloreGameParameters) initialState.getGameParameters();
         BattleloreGameState gameState = (BattleloreGameState) initialState;
-        BattleloreData _data = new BattleloreData();
-        _data.load(gameParams.getDataPath());
+        BattleloreData _data = AbstractGameData.getCached(gameParams.getDataPath(), BattleloreData::new);
 
         if (gameState.getNPlayers() != 2) {
             throw new IllegalArgumentException("3 or more players are not supported");
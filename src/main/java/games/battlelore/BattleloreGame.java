@@ -15,6 +15,7 @@ import players.rmhc.RMHCParams;
 import players.rmhc.RMHCPlayer;
 import players.simple.OSLAPlayer;
 import players.simple.RandomPlayer;
+import utilities.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -34,7 +35,7 @@ public class BattleloreGame extends Game {
 
     public static void generateNewSeeds(long[] arr, int repetitions) {
         for (int i = 0; i < repetitions; i++) {
-            arr[i] = new Random().nextInt();
+            arr[i] = new SplitMixRandom().nextInt();
         }
     }
 
@@ -1,6 +1,7 @@
 package games.battlelore.components;
 
 import core.components.Dice;
+import utilities.SplitMixRandom;
 import java.util.Random;
 
 public class CombatDice extends Dice {
@@ -13,7 +14,7 @@ public class CombatDice extends Dice {
     }
 
     public int getRandomNumberUsingNextInt (int min, int max) {
-        Random random = new Random();
+        Random random = new SplitMixRandom();
         return random.nextInt(max - min) + min;
     }
 
@@ -11,6 +11,7 @@ import games.battlelore.actions.PlayCommandCardAction;
 import games.battlelore.cards.CommandCard;
 import games.battlelore.components.MapTile;
 import games.battlelore.components.Unit;
+import utilities.SplitMixRandom;
 import java.util.List;
 import java.util.Random;
 
@@ -23,7 +24,7 @@ public class RuleBasedPlayer extends AbstractPlayer
     private final Random rnd;
 
     public RuleBasedPlayer() {
-        this.rnd = new Random();
+        this.rnd = new SplitMixRandom();
     }
 
     @Override
@@ -8,11 +8,17 @@ import core.components.FrenchCard;
 import core.components.PartialObservableDeck;
 import games.blackjack.actions.Hit;
 import games.blackjack.actions.Stand;
+import utilities.SplitMixRandom;
 import java.util.ArrayList;
 import java.util.*;
 
 
 public class BlackjackForwardModel extends AbstractForwardModel {
+
+    // The actions are immutable, so the same ones are used every turn
+    private final Stand standAction = new Stand();
+    private Hit[] hitActions;
+
     @Override
     protected void _setup(AbstractGameState firstState) {
         BlackjackGameState bjgs = (BlackjackGameState) firstState;
@@ -24,7 +30,7 @@ public class BlackjackForwardModel extends AbstractForwardModel {
         //create the playing deck
         bjgs.drawDeck = FrenchCard.generateDeck("DrawDeck", CoreConstants.VisibilityMode.HIDDEN_TO_ALL);
         //shuffle the cards
-        bjgs.drawDeck.shuffle(new Random((bjgs.getGameParameters().getRandomSeed())));
+        bjgs.drawDeck.shuffle(new SplitMixRandom((bjgs.getGameParameters().getRandomSeed())));
 
         bjgs.getTurnOrder().setStartingPlayer(0);
 
@@ -51,27 +57,37 @@ public class BlackjackForwardModel extends AbstractForwardModel {
 
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
-        BlackjackGameState bjgs = (BlackjackGameState) gameState;
         ArrayList<AbstractAction> actions = new ArrayList<>();
+        _computeAvailableActions(gameState, actions);
+        return actions;
+    }
+
+    @Override
+    protected void _computeAvailableActions(AbstractGameState gameState, List<AbstractAction> actions) {
+        BlackjackGameState bjgs = (BlackjackGameState) gameState;
         int player = bjgs.getCurrentPlayer();
+        if (hitActions == null || hitActions.length != bjgs.getNPlayers()) {
+            hitActions = new Hit[bjgs.getNPlayers()];
+            for (int p = 0; p < hitActions.length; p++)
+                hitActions[p] = new Hit(p, true, false);
+        }
 
         //Check if current player is the dealer
         //dealer must hit if score is <=16 otherwise must stand
         if (bjgs.getCurrentPlayer() == bjgs.dealerPlayer){
             if (bjgs.calculatePoints(bjgs.dealerPlayer) >= ((BlackjackParameters) bjgs.getGameParameters()).dealerStand){
 //                System.out.println("Stand");
-                actions.add(new Stand());
+                actions.add(standAction);
             }
             else {
 //                System.out.println("Hit");
-                actions.add(new Hit(player, true, false));
+                actions.add(hitActions[player]);
             }
         }
         else {
-            actions.add(new Hit(player, true, false));
-            actions.add(new Stand());
+            actions.add(hitActions[player]);
+            actions.add(standAction);
         }
-        return actions;
     }
 
 //    @Override
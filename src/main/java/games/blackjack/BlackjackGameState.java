@@ -8,6 +8,7 @@ import core.components.FrenchCard;
 import core.components.PartialObservableDeck;
 import core.interfaces.IPrintable;
 import games.GameType;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.ArrayList;
@@ -105,7 +106,7 @@ public class BlackjackGameState extends AbstractGameState implements IPrintable
                     copy.drawDeck.add(copy.playerDecks.get(dealerPlayer).pick(i));
                 }
             }
-            copy.drawDeck.shuffle(new Random(copy.gameParameters.getRandomSeed()));
+            copy.drawDeck.shuffle(new SplitMixRandom(copy.gameParameters.getRandomSeed()));
             for (int i = 0; i < copy.playerDecks.get(dealerPlayer).getSize(); i++) {
                 if (!copy.playerDecks.get(dealerPlayer).getVisibilityForPlayer(i, playerId)) {
                     copy.playerDecks.get(dealerPlayer).add(copy.drawDeck.draw());
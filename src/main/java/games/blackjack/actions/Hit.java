@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.FrenchCard;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.blackjack.BlackjackGameState;
 import games.blackjack.BlackjackParameters;
@@ -12,7 +13,7 @@ import utilities.Utils;
 import java.util.Arrays;
 import java.util.Objects;
 
-public class Hit extends AbstractAction implements IPrintable {
+public class Hit extends AbstractAction implements IPrintable, ICodedAction {
     private final int playerID;
     private final boolean advanceTurnOrder;
     private final boolean hidden;
@@ -89,6 +90,11 @@ public class Hit extends AbstractAction implements IPrintable {
         return hidden == hit.hidden && playerID == hit.playerID && advanceTurnOrder == hit.advanceTurnOrder;
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) playerID << 2 | (advanceTurnOrder ? 2 : 0) | (hidden ? 1 : 0);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(playerID, advanceTurnOrder, hidden);
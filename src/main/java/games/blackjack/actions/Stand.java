@@ -2,11 +2,12 @@ package games.blackjack.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 
 import java.util.Objects;
 
-public class Stand extends AbstractAction implements IPrintable {
+public class Stand extends AbstractAction implements IPrintable, ICodedAction {
 
     @Override
     public boolean execute(AbstractGameState gs) {
@@ -24,6 +25,11 @@ public class Stand extends AbstractAction implements IPrintable {
         return o instanceof Stand;
     }
 
+    @Override
+    public long getActionCode() {
+        return 0;
+    }
+
     @Override
     public int hashCode() {
         return 904344;
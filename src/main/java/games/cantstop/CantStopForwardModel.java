@@ -3,20 +3,27 @@ package games.cantstop;
 import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
-import core.components.Dice;
 import games.cantstop.actions.*;
 import utilities.Utils;
 
 import java.util.*;
 
-import static java.util.stream.Collectors.partitioningBy;
-import static java.util.stream.Collectors.toList;
-
 public class CantStopForwardModel extends AbstractForwardModel {
 
     private final Pass passAction = new Pass(false);
     private final RollDice rollAction = new RollDice();
     private final Pass bust = new Pass(true);
+    // AllocateDice is immutable, so one instance of each is shared by all states (this forward model is never copied)
+    private final AllocateDice[][] pairActions = new AllocateDice[13][13];
+    private final AllocateDice[] singleActions = new AllocateDice[13];
+
+    public CantStopForwardModel() {
+        for (int i = 0; i < pairActions.length; i++) {
+            singleActions[i] = new AllocateDice(i);
+            for (int j = 0; j < pairActions[i].length; j++)
+                pairActions[i][j] = new AllocateDice(i, j);
+        }
+    }
 
     @Override
     protected void _setup(AbstractGameState firstState) {
@@ -68,42 +75,71 @@ public class CantStopForwardModel extends AbstractForwardModel {
 
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
+        List<AbstractAction> retValue = new ArrayList<>();
+        _computeAvailableActions(gameState, retValue);
+        return retValue;
+    }
+
+    @Override
+    protected void _computeAvailableActions(AbstractGameState gameState, List<AbstractAction> actions) {
         CantStopGameState state = (CantStopGameState) gameState;
         CantStopGamePhase phase = (CantStopGamePhase) state.getGamePhase();
-        List<AbstractAction> retValue = new ArrayList<>();
         switch (phase) {
             case Decision:
                 // We just have two actions here
-                retValue.add(passAction);
-                retValue.add(rollAction);
+                actions.add(passAction);
+                actions.add(rollAction);
                 break;
             case Allocation:
-                List<Integer> values = state.dice.stream().map(Dice::getValue).collect(toList());
+                int v0 = state.dice.get(0).getValue();
+                int v1 = state.dice.get(1).getValue();
+                int v2 = state.dice.get(2).getValue();
+                int v3 = state.dice.get(3).getValue();
                 // we now need all combinations of values
                 // there are only three combinations - so we enumerate these, and then filter out the illegal ones
-                List<AllocateDice> temp = new ArrayList<>();
-                temp.add(new AllocateDice(values.get(0) + values.get(1), values.get(2) + values.get(3)));
-                temp.add(new AllocateDice(values.get(0) + values.get(2), values.get(1) + values.get(3)));
-                temp.add(new AllocateDice(values.get(0) + values.get(3), values.get(1) + values.get(2)));
-                Map<Boolean, List<AllocateDice>> legalSplit = temp.stream().distinct().collect(partitioningBy(ad -> ad.isLegal(state)));
-                retValue.addAll(legalSplit.getOrDefault(true, Collections.emptyList())); // legal actions go in directly
-                // then we splitup the legal actions, as we can use just one of the numbers
-                List<AllocateDice> legalSingleNumbers = legalSplit.getOrDefault(false, Collections.emptyList()).stream()
-                        .flatMapToInt(a -> Arrays.stream(a.getValues()))
-                        .mapToObj(AllocateDice::new)
-                        .distinct()
-                        .filter(a -> a.isLegal(state))
-                        .collect(toList());
-                retValue.addAll(legalSingleNumbers);
-                if (retValue.isEmpty()) {
+                AllocateDice first = pairActions[v0 + v1][v2 + v3];
+                AllocateDice second = pairActions[v0 + v2][v1 + v3];
+                AllocateDice third = pairActions[v0 + v3][v1 + v2];
+                boolean useSecond = !second.equals(first);
+                boolean useThird = !third.equals(first) && !third.equals(second);
+                boolean firstLegal = first.isLegal(state);
+                boolean secondLegal = useSecond && second.isLegal(state);
+                boolean thirdLegal = useThird && third.isLegal(state);
+                // legal actions go in directly
+                if (firstLegal) actions.add(first);
+                if (secondLegal) actions.add(second);
+                if (thirdLegal) actions.add(third);
+                // then we split up the illegal actions, as we can use just one of the numbers
+                int seen = 0;
+                if (!firstLegal)
+                    seen = addLegalSingleNumbers(state, v0 + v1, v2 + v3, seen, actions);
+                if (useSecond && !secondLegal)
+                    seen = addLegalSingleNumbers(state, v0 + v2, v1 + v3, seen, actions);
+                if (useThird && !thirdLegal)
+                    addLegalSingleNumbers(state, v0 + v3, v1 + v2, seen, actions);
+                if (actions.isEmpty()) {
                     // in this case we have gone bust - not really a decision, but lets the player know
-                    retValue.add(bust);
+                    actions.add(bust);
                 }
                 break;
             default:
                 throw new AssertionError("Unknown phase " + phase);
         }
-        return retValue;
+    }
+
+    /**
+     * Adds the actions to use just one of a pair of numbers, if legal and not already considered.
+     *
+     * @param seen - bit mask of the numbers already considered
+     * @return - the bit mask, with these numbers added
+     */
+    private int addLegalSingleNumbers(CantStopGameState state, int a, int b, int seen, List<AbstractAction> actions) {
+        if ((seen & (1 << a)) == 0 && singleActions[a].isLegal(state))
+            actions.add(singleActions[a]);
+        seen |= 1 << a;
+        if ((seen & (1 << b)) == 0 && singleActions[b].isLegal(state))
+            actions.add(singleActions[b]);
+        return seen | 1 << b;
     }
 
     @Override
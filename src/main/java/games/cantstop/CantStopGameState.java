@@ -7,6 +7,7 @@ import core.components.Dice;
 import core.interfaces.IPrintable;
 import core.turnorders.StandardTurnOrder;
 import games.GameType;
+import utilities.SplitMixRandom;
 
 import java.util.*;
 
@@ -36,9 +37,9 @@ public class CantStopGameState extends AbstractGameState implements IPrintable {
         temporaryMarkerPositions.putAll(copyFrom.temporaryMarkerPositions);
         dice = copyFrom.dice.stream().map(Dice::copy).collect(toList());
         if (rnd == null) {
-            rnd = new Random(System.currentTimeMillis());
+            rnd = new SplitMixRandom(System.currentTimeMillis());
         } else {
-            rnd = new Random(rnd.nextLong());
+            rnd = SplitMixRandom.split(rnd);
         }
     }
 
@@ -80,6 +81,10 @@ public class CantStopGameState extends AbstractGameState implements IPrintable {
         return new ArrayList<>(temporaryMarkerPositions.keySet());
     }
 
+    public int getNMarkersMoved() {
+        return temporaryMarkerPositions.size();
+    }
+
     public CantStopGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, new StandardTurnOrder(nPlayers), GameType.CantStop);
     }
@@ -129,9 +134,9 @@ public class CantStopGameState extends AbstractGameState implements IPrintable {
             dice.add(new Dice(params.DICE_SIDES));
         }
         if (rnd == null) {
-            rnd = new Random(System.currentTimeMillis());
+            rnd = new SplitMixRandom(System.currentTimeMillis());
         } else {
-            rnd = new Random(rnd.nextLong());
+            rnd = SplitMixRandom.split(rnd);
         }
         gamePhase = CantStopGamePhase.Decision;
     }
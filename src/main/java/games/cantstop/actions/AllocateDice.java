@@ -2,13 +2,12 @@ package games.cantstop.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import games.cantstop.*;
 
 import java.util.*;
 
-import static java.util.stream.Collectors.*;
-
-public class AllocateDice extends AbstractAction {
+public class AllocateDice extends AbstractAction implements ICodedAction {
 
     final int[] numberSplit;
 
@@ -22,20 +21,31 @@ public class AllocateDice extends AbstractAction {
         boolean retValue = true;
         // technically 7+7 is not valid if we have moved the 7 marker, and it is only one away from the top
         // in this case what will happen in the forward model is that we'll reduce this just 7.
-        Map<Integer, Long> numberCounts = Arrays.stream(numberSplit).boxed().collect(groupingBy(n -> n, counting()));
-        for (int n : numberSplit) {
+        // (this is called for every roll in every rollout, so counts the numbers without boxing them)
+        int distinctNumbers = 0;
+        for (int i = 0; i < numberSplit.length; i++) {
+            int n = numberSplit[i];
+            int count = 0;
+            boolean firstOccurrence = true;
+            for (int j = 0; j < numberSplit.length; j++) {
+                if (numberSplit[j] == n) {
+                    count++;
+                    if (j < i) firstOccurrence = false;
+                }
+            }
+            if (firstOccurrence) distinctNumbers++;
             int markerPosition = Math.max(state.getTemporaryMarkerPosition(n), state.getMarkerPosition(n, state.getCurrentPlayer()));
-            boolean canMoveOnTrack = !state.trackComplete(n) && (markerPosition + numberCounts.get(n) - 1) < params.maxValue(n);
+            boolean canMoveOnTrack = !state.trackComplete(n) && (markerPosition + count - 1) < params.maxValue(n);
             retValue = canMoveOnTrack && retValue;
         }
         // then each number must either have a marker already, or a spare marker is available
         if (retValue) {
-            int moveableMarkers = params.MARKERS - state.getMarkersMoved().size();
+            int moveableMarkers = params.MARKERS - state.getNMarkersMoved();
             for (int n : numberSplit) {
                 if (state.getTemporaryMarkerPosition(n) > 0)
                     moveableMarkers++; // we have a moveable marker on this one
             }
-            retValue = moveableMarkers >= numberCounts.size();
+            retValue = moveableMarkers >= distinctNumbers;
         }
         return retValue;
     }
@@ -77,6 +87,16 @@ public class AllocateDice extends AbstractAction {
         return false;
     }
 
+    @Override
+    public long getActionCode() {
+        // as in equals(), the order of the two numbers does not matter
+        if (numberSplit.length == 1)
+            return numberSplit[0];
+        if (numberSplit.length == 2)
+            return 1L << 32 | (long) Math.min(numberSplit[0], numberSplit[1]) << 16 | Math.max(numberSplit[0], numberSplit[1]);
+        throw new AssertionError("Not yet implemented for variants with three or more dice!");
+    }
+
     @Override
     public int hashCode() {
         if (numberSplit.length == 1)
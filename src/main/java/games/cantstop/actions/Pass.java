@@ -2,8 +2,9 @@ package games.cantstop.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 
-public class Pass extends AbstractAction {
+public class Pass extends AbstractAction implements ICodedAction {
 
     public final boolean bust;
 
@@ -27,6 +28,11 @@ public class Pass extends AbstractAction {
         return obj instanceof Pass && ((Pass) obj).bust == bust;
     }
 
+    @Override
+    public long getActionCode() {
+        return bust ? 1 : 0;
+    }
+
     @Override
     public int hashCode() {
         return 3927 + (bust ? 392 : 0);
@@ -2,10 +2,11 @@ package games.cantstop.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import games.cantstop.CantStopGamePhase;
 import games.cantstop.CantStopGameState;
 
-public class RollDice extends AbstractAction {
+public class RollDice extends AbstractAction implements ICodedAction {
     @Override
     public boolean execute(AbstractGameState gs) {
         CantStopGameState state = (CantStopGameState) gs;
@@ -24,6 +25,11 @@ public class RollDice extends AbstractAction {
         return obj instanceof RollDice;
     }
 
+    @Override
+    public long getActionCode() {
+        return 0;
+    }
+
     @Override
     public int hashCode() {
         return 929134894;
@@ -7,6 +7,7 @@ import core.components.Counter;
 import core.components.Deck;
 import games.catan.actions.*;
 import games.catan.components.Settlement;
+import utilities.SplitMixRandom;
 
 import java.util.*;
 
@@ -339,7 +340,7 @@ public class CatanActionFactory {
                 }
             } else {
                 // Current solution to memory issue, random picks cards to discard if player has over DISCARD_COMBINATION_LIMIT
-                Random rnd = new Random();
+                Random rnd = new SplitMixRandom();
                 CatanParameters.Resources[] cardsToDiscard = new CatanParameters.Resources[r];
                 int[] combination = new int[r];
                 for (int i = 0; i < combination.length; i++) {
@@ -14,6 +14,7 @@ import games.catan.actions.*;
 import games.catan.components.Graph;
 import games.catan.components.Road;
 import games.catan.components.Settlement;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -257,6 +258,12 @@ public class CatanForwardModel extends AbstractForwardModel {
         throw new AssertionError("GamePhase is not in the defined set of options");
     }
 
+    @Override
+    protected boolean cacheAvailableActions() {
+        // working out the actions available is expensive, and they are often asked for again in the same state
+        return true;
+    }
+
     @Override
     protected AbstractForwardModel _copy() {
         CatanForwardModel copy = new CatanForwardModel(params, nPlayers);
@@ -402,7 +409,7 @@ public class CatanForwardModel extends AbstractForwardModel {
 
         int radius = board.length / 2;
         // todo edge 4 can work, but random would be better, the math changes with different directions.
-        //Random random = new Random(params.getRandomSeed());
+        //Random random = new SplitMixRandom(params.getRandomSeed());
         //int edge = random.nextInt(HEX_SIDES);
         int edge = 4;
         // Get mid tile
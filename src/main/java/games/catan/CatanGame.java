@@ -20,6 +20,7 @@ import players.rmhc.RMHCPlayer;
 import players.simple.CatanRuleBasedPlayer;
 import players.simple.OSLAPlayer;
 import players.simple.RandomPlayer;
+import utilities.SplitMixRandom;
 
 import javax.swing.*;
 import java.util.ArrayList;
@@ -55,8 +56,8 @@ public class CatanGame extends Game {
         mctsParams.rolloutType = MCTSEnums.Strategies.RANDOM;
         agents.add(new MCTSPlayer(mctsParams));
 
-        agents.add(new RandomPlayer(new Random()));
-//        agents.add(new CatanRuleBasedPlayer(new Random()));
+        agents.add(new RandomPlayer(new SplitMixRandom()));
+//        agents.add(new CatanRuleBasedPlayer(new SplitMixRandom()));
 
         CatanParameters params = new CatanParameters("data/", System.currentTimeMillis());
         CatanForwardModel forwardModel = new CatanForwardModel(params, agents.size());
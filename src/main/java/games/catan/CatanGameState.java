@@ -14,6 +14,7 @@ import games.catan.components.Edge;
 import games.catan.components.Graph;
 import games.catan.components.Road;
 import games.catan.components.Settlement;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -97,7 +98,7 @@ public class CatanGameState extends AbstractGameState {
         largestArmy = -1;
         longestRoad = -1;
         if (rnd == null)
-            rnd = new Random(pp.getRandomSeed());
+            rnd = new SplitMixRandom(pp.getRandomSeed());
     }
 
     @Override
@@ -502,7 +503,7 @@ public class CatanGameState extends AbstractGameState {
         } else {
             copy.currentTradeOffer = (OfferPlayerTrade) this.currentTradeOffer.copy();
         }
-        copy.rnd = new Random(rnd.nextLong());
+        copy.rnd = SplitMixRandom.split(rnd);
         return copy;
     }
 
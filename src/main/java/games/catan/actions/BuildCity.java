@@ -3,6 +3,7 @@ package games.catan.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Counter;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
@@ -11,7 +12,7 @@ import games.catan.components.Settlement;
 
 import java.util.Objects;
 
-public class BuildCity extends AbstractAction {
+public class BuildCity extends AbstractAction implements ICodedAction {
     public final int row;
     public final int col;
     public final int vertex;
@@ -56,6 +57,11 @@ public class BuildCity extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (row & 0xFFFFL) << 32 | (col & 0xFFFFL) << 16 | (vertex & 0xFF) << 8 | (playerID & 0xFF);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof BuildCity){
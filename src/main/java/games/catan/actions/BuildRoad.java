@@ -3,6 +3,7 @@ package games.catan.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Counter;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
@@ -14,7 +15,7 @@ import games.catan.components.Settlement;
 
 import java.util.Objects;
 
-public class BuildRoad extends AbstractAction {
+public class BuildRoad extends AbstractAction implements ICodedAction {
     public final int x;
     public final int y;
     public final int edge;
@@ -72,6 +73,11 @@ public class BuildRoad extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (x & 0xFFFFL) << 32 | (y & 0xFFFFL) << 16 | (edge & 0xFF) << 8 | (playerID & 0x7F) << 1 | (free ? 1 : 0);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof BuildRoad) {
@@ -5,6 +5,7 @@ import core.actions.AbstractAction;
 import core.components.Card;
 import core.components.Counter;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
@@ -16,7 +17,7 @@ import java.util.Objects;
 import static core.CoreConstants.playerHandHash;
 import static games.catan.CatanConstants.resourceDeckHash;
 
-public class BuildSettlement extends AbstractAction {
+public class BuildSettlement extends AbstractAction implements ICodedAction {
     public final int x;
     public final int y;
     public final int vertex;
@@ -86,6 +87,11 @@ public class BuildSettlement extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (x & 0xFFFFL) << 32 | (y & 0xFFFFL) << 16 | (vertex & 0xFF) << 8 | (playerID & 0x7F) << 1 | (free ? 1 : 0);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof BuildSettlement){
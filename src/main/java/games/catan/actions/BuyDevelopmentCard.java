@@ -4,11 +4,12 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Card;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
 
-public class BuyDevelopmentCard extends AbstractAction {
+public class BuyDevelopmentCard extends AbstractAction implements ICodedAction {
 
     @Override
     public boolean execute(AbstractGameState gs) {
@@ -37,6 +38,12 @@ public class BuyDevelopmentCard extends AbstractAction {
         return new BuyDevelopmentCard();
     }
 
+    @Override
+    public long getActionCode() {
+        // all actions of this class are equal
+        return 0;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (this == other) return true;
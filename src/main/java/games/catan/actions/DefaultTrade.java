@@ -5,6 +5,7 @@ import core.CoreConstants;
 import core.actions.AbstractAction;
 import core.components.Card;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
@@ -16,7 +17,7 @@ import java.util.Objects;
 
 /* Player may trade any 4 resources of the same type of 1 resource of choice with the bank
 * This action also includes the Harbor trades using the exchangeRate*/
-public class DefaultTrade extends AbstractAction {
+public class DefaultTrade extends AbstractAction implements ICodedAction {
     public final Resources resourceOffer;
     public final Resources resourceToGet;
     public final int exchangeRate;
@@ -54,6 +55,11 @@ public class DefaultTrade extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) exchangeRate << 16 | resourceOffer.ordinal() << 8 | resourceToGet.ordinal();
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof DefaultTrade){
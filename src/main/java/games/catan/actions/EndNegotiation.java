@@ -3,9 +3,10 @@ package games.catan.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.DoNothing;
+import core.interfaces.ICodedAction;
 import games.catan.CatanGameState;
 
-public class EndNegotiation extends AbstractAction {
+public class EndNegotiation extends AbstractAction implements ICodedAction {
     // This is used as an indication that we are stopping this round of negotiation
 
     @Override
@@ -23,6 +24,12 @@ public class EndNegotiation extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        // all actions of this class are equal
+        return 0;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof EndNegotiation;
@@ -5,6 +5,7 @@ import core.CoreConstants;
 import core.actions.AbstractAction;
 import core.components.Card;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
@@ -14,7 +15,7 @@ import java.util.*;
 
 import static core.CoreConstants.playerHandHash;
 
-public class Monopoly extends AbstractAction {
+public class Monopoly extends AbstractAction implements ICodedAction {
     public final CatanParameters.Resources resource;
 
     public Monopoly(CatanParameters.Resources resource){
@@ -59,6 +60,11 @@ public class Monopoly extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return resource.ordinal();
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof Monopoly){
@@ -2,12 +2,13 @@ package games.catan.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import games.catan.CatanGameState;
 import games.catan.CatanTile;
 
 import java.util.Objects;
 
-public class MoveRobber extends AbstractAction {
+public class MoveRobber extends AbstractAction implements ICodedAction {
     public final int x;
     public final int y;
 
@@ -40,6 +41,11 @@ public class MoveRobber extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (x & 0xFFFFL) << 16 | (y & 0xFFFFL);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (this == other) return true;
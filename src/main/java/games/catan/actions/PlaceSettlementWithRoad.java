@@ -5,6 +5,7 @@ import core.CoreConstants;
 import core.actions.AbstractAction;
 import core.components.Card;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
 import games.catan.CatanTile;
@@ -18,7 +19,7 @@ import static games.catan.CatanConstants.*;
 /*
 * Class to execute both placing a settlement and a road at the same time instead of doing it as a 2 step process
 *  */
-public class PlaceSettlementWithRoad extends AbstractAction {
+public class PlaceSettlementWithRoad extends AbstractAction implements ICodedAction {
     public final int x;
     public final int y;
     public final int i;
@@ -87,6 +88,11 @@ public class PlaceSettlementWithRoad extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (x & 0xFFFFL) << 32 | (y & 0xFFFFL) << 16 | (i & 0xFF) << 8 | (player & 0xFF);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof PlaceSettlementWithRoad){
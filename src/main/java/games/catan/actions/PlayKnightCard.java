@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Card;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
@@ -12,7 +13,7 @@ import games.catan.CatanTurnOrder;
 import java.util.Objects;
 import java.util.Optional;
 
-public class PlayKnightCard extends AbstractAction {
+public class PlayKnightCard extends AbstractAction implements ICodedAction {
 
     public PlayKnightCard(){}
     @Override
@@ -46,6 +47,12 @@ public class PlayKnightCard extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        // all actions of this class are equal
+        return 0;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof PlayKnightCard){
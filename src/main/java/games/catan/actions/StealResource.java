@@ -5,10 +5,12 @@ import core.CoreConstants;
 import core.actions.AbstractAction;
 import core.components.Card;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
 import games.catan.CatanParameters.Resources;
+import utilities.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,7 +20,7 @@ import java.util.Random;
 /**
  * Player may steal a resource from a player when moving a robber or playing a knight card
  */
-public class StealResource extends AbstractAction {
+public class StealResource extends AbstractAction implements ICodedAction {
     public final int targetPlayerID;
 
     public StealResource(int targetPlayerID){
@@ -31,7 +33,7 @@ public class StealResource extends AbstractAction {
         CatanGameState cgs = (CatanGameState)gs;
         Deck<Card> currentPlayerResources = (Deck<Card>)cgs.getComponentActingPlayer(CoreConstants.playerHandHash);
         Deck<Card> targetPlayerResources = (Deck<Card>)cgs.getComponent(CoreConstants.playerHandHash, targetPlayerID);
-        Random random = new Random(gs.getGameParameters().getRandomSeed());
+        Random random = new SplitMixRandom(gs.getGameParameters().getRandomSeed());
         if (targetPlayerResources.getSize() == 0){
             return false;
         }
@@ -48,6 +50,11 @@ public class StealResource extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return targetPlayerID;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof StealResource){
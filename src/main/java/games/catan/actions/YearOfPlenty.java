@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Card;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.catan.CatanConstants;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
@@ -18,7 +19,7 @@ import static core.CoreConstants.playerHandHash;
 import static games.catan.CatanConstants.cardType;
 import static games.catan.CatanConstants.resourceDeckHash;
 
-public class YearOfPlenty extends AbstractAction {
+public class YearOfPlenty extends AbstractAction implements ICodedAction {
     public final CatanParameters.Resources resource1;
     public final CatanParameters.Resources resource2;
 
@@ -71,6 +72,11 @@ public class YearOfPlenty extends AbstractAction {
     @Override
     public AbstractAction copy() {return this;}
 
+    @Override
+    public long getActionCode() {
+        return resource1.ordinal() << 8 | resource2.ordinal();
+    }
+
     @Override
     public boolean equals(Object other) {
         if (this == other) return true;
@@ -15,6 +15,7 @@ import games.coltexpress.cards.RoundCard;
 import games.coltexpress.components.Compartment;
 import games.coltexpress.components.Loot;
 import utilities.Pair;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -56,7 +57,7 @@ public class ColtExpressGameState extends AbstractGameState implements IPrintabl
         gamePhase = ColtExpressGamePhase.PlanActions;
         trainCompartments = new LinkedList<>();
         playerPlayingBelle = -1;
-        rnd = new Random(gameParameters.getRandomSeed());
+        rnd = new SplitMixRandom(gameParameters.getRandomSeed());
     }
 
     @Override
@@ -135,7 +135,7 @@ public class ColtExpressTurnOrder extends TurnOrder {
 
         gameState.getPlayerTimer()[getCurrentPlayer(gameState)].incrementRound();
 
-        listeners.forEach(l -> l.onEvent(CoreConstants.GameEvents.ROUND_OVER, gameState, null));
+        publish(CoreConstants.GameEvents.ROUND_OVER, gameState, null);
 
         turnCounter = 0;
         fullPlayerTurnCounter++;
@@ -8,6 +8,7 @@ import games.coltexpress.ColtExpressGameState;
 import games.coltexpress.ColtExpressTypes;
 import games.coltexpress.cards.ColtExpressCard;
 import games.coltexpress.components.Loot;
+import utilities.SplitMixRandom;
 
 import java.util.Objects;
 import java.util.Random;
@@ -45,7 +46,7 @@ public class CollectMoneyAction extends DrawCard {
 
         // Choose random loot of type to collect
         if (possible.getSize() > 0) {
-            Loot available = possible.pick(new Random(gameState.getGameParameters().getRandomSeed()));
+            Loot available = possible.pick(new SplitMixRandom(gameState.getGameParameters().getRandomSeed()));
             ColtExpressCard card = (ColtExpressCard) getCard(gameState);
             ((ColtExpressGameState) gameState).addLoot(card.playerID, available);
             availableLootDeck.remove(available);
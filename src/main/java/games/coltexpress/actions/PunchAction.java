@@ -9,6 +9,7 @@ import games.coltexpress.ColtExpressTypes;
 import games.coltexpress.cards.ColtExpressCard;
 import games.coltexpress.components.Compartment;
 import games.coltexpress.components.Loot;
+import utilities.SplitMixRandom;
 
 import java.util.LinkedList;
 import java.util.Objects;
@@ -80,7 +81,7 @@ public class PunchAction  extends DrawCard {
             }
 
             if (potentialLoot.size() > 0){
-                Random r = new Random(gameState.getGameParameters().getRandomSeed());
+                Random r = new SplitMixRandom(gameState.getGameParameters().getRandomSeed());
                 Loot chosenLoot = potentialLoot.get(r.nextInt(potentialLoot.size()));
                 if (playerIsCheyenne && loot == ColtExpressTypes.LootType.Purse)
                     ((ColtExpressGameState) gameState).addLoot(card.playerID, chosenLoot);
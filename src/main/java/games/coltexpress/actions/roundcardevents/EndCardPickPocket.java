@@ -6,6 +6,7 @@ import games.coltexpress.ColtExpressGameState;
 import games.coltexpress.ColtExpressTypes;
 import games.coltexpress.components.Compartment;
 import games.coltexpress.components.Loot;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.LinkedList;
@@ -16,7 +17,7 @@ public class EndCardPickPocket extends RoundEvent {
     @Override
     public boolean execute(AbstractGameState gs) {
         ColtExpressGameState gameState = (ColtExpressGameState) gs;
-        Random random = new Random(gs.getGameParameters().getRandomSeed());
+        Random random = new SplitMixRandom(gs.getGameParameters().getRandomSeed());
 
         LinkedList<Compartment> train = gameState.getTrainCompartments();
         for (Compartment currentCompartment : train) {
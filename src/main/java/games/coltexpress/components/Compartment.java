@@ -5,6 +5,7 @@ import core.components.Deck;
 import core.interfaces.IComponentContainer;
 import games.coltexpress.ColtExpressParameters;
 import games.coltexpress.ColtExpressTypes;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -72,7 +73,7 @@ public class Compartment extends Component implements IComponentContainer<Deck<L
     }
 
     private int getRandomLootValue(ColtExpressParameters cep, ColtExpressTypes.LootType t, long seed) {
-        Random r = new Random(seed);
+        Random r = new SplitMixRandom(seed);
         if (stillAvailableIdx.get(t).size() > 0) {
             int idx = stillAvailableIdx.get(t).get(r.nextInt(stillAvailableIdx.get(t).size()));
             if (stillAvailableIdx.get(t).contains(idx)) {
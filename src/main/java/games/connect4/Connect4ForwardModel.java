@@ -3,6 +3,7 @@ import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.SetGridValueAction;
+import core.actions.SetGridValueActionCache;
 import core.components.GridBoard;
 import core.components.Token;
 import utilities.Pair;
@@ -16,6 +17,8 @@ import java.util.List;
 
 public class Connect4ForwardModel extends AbstractForwardModel {
 
+    private final SetGridValueActionCache<Token> actionCache = new SetGridValueActionCache<>(Connect4Constants.playerMapping);
+
     @Override
     protected void _setup(AbstractGameState firstState) {
         Connect4GameParameters c4gp = (Connect4GameParameters) firstState.getGameParameters();
@@ -26,8 +29,14 @@ public class Connect4ForwardModel extends AbstractForwardModel {
 
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
-        Connect4GameState c4gs = (Connect4GameState) gameState;
         ArrayList<AbstractAction> actions = new ArrayList<>();
+        _computeAvailableActions(gameState, actions);
+        return actions;
+    }
+
+    @Override
+    protected void _computeAvailableActions(AbstractGameState gameState, List<AbstractAction> actions) {
+        Connect4GameState c4gs = (Connect4GameState) gameState;
         int player = gameState.getTurnOrder().getCurrentPlayer(gameState);
 
         if (gameState.isNotTerminal())
@@ -38,7 +47,7 @@ public class Connect4ForwardModel extends AbstractForwardModel {
                 {
                     boolean newCol = false;
                     if (c4gs.gridBoard.getElement(x, y).getTokenType().equals(Connect4Constants.emptyCell)) {
-                        actions.add(new SetGridValueAction<>(c4gs.gridBoard.getComponentID(), x, y, Connect4Constants.playerMapping.get(player)));
+                        actions.add(actionCache.get(c4gs.gridBoard, x, y, player));
                         newCol = true;
                     }
 
@@ -46,7 +55,6 @@ public class Connect4ForwardModel extends AbstractForwardModel {
                     end = (--y <  0 || newCol);
                 }
             }
-        return actions;
     }
 
     @Override
@@ -70,6 +78,37 @@ public class Connect4ForwardModel extends AbstractForwardModel {
         currentState.getTurnOrder().endPlayerTurn(currentState);
     }
 
+    @Override
+    protected Object _nextWithUndo(AbstractGameState currentState, AbstractAction action) {
+        // other than the turn order and results, only the one cell and (at the end) the winning cells change
+        Connect4GameState c4gs = (Connect4GameState) currentState;
+        SetGridValueAction<?> move = (SetGridValueAction<?>) action;
+        MoveUndo undo = new MoveUndo();
+        undo.oldToken = c4gs.gridBoard.getElement(move.getX(), move.getY());
+        undo.oldWinnerCells = c4gs.winnerCells;
+        _next(currentState, action);
+        return undo;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState currentState, AbstractAction action, Object undoData) {
+        Connect4GameState c4gs = (Connect4GameState) currentState;
+        SetGridValueAction<?> move = (SetGridValueAction<?>) action;
+        MoveUndo undo = (MoveUndo) undoData;
+        c4gs.gridBoard.setElement(move.getX(), move.getY(), undo.oldToken);
+        c4gs.winnerCells = undo.oldWinnerCells;
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    private static class MoveUndo {
+        Token oldToken;
+        LinkedList<Pair<Integer, Integer>> oldWinnerCells;
+    }
+
     /**
      * Checks if the game ended.
      *
@@ -10,6 +10,7 @@ import games.diamant.actions.ExitFromCave;
 import games.diamant.actions.OutOfCave;
 import games.diamant.cards.DiamantCard;
 import games.diamant.components.ActionsPlayed;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.ArrayList;
@@ -20,10 +21,16 @@ import static core.CoreConstants.VisibilityMode.HIDDEN_TO_ALL;
 import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
 
 public class DiamantForwardModel extends AbstractForwardModel {
+
+    // The actions are immutable, so the same ones are used every turn
+    private static final ContinueInCave continueInCave = new ContinueInCave();
+    private static final ExitFromCave exitFromCave = new ExitFromCave();
+    private static final OutOfCave outOfCave = new OutOfCave();
+
     @Override
     protected void _setup(AbstractGameState firstState) {
         DiamantGameState dgs = (DiamantGameState) firstState;
-        Random r = new Random(dgs.getGameParameters().getRandomSeed());
+        Random r = new SplitMixRandom(dgs.getGameParameters().getRandomSeed());
 
         dgs.hands = new ArrayList<>();
         dgs.treasureChests = new ArrayList<>();
@@ -158,7 +165,7 @@ public class DiamantForwardModel extends AbstractForwardModel {
         if (dgs.nCave == dp.nCaves)
             EndGame(dgs);
         else {
-            Random r = new Random(dgs.getGameParameters().getRandomSeed());
+            Random r = new SplitMixRandom(dgs.getGameParameters().getRandomSeed());
 
             // Move path cards to maindeck and shuffle
             dgs.mainDeck.add(dgs.path);
@@ -225,17 +232,21 @@ public class DiamantForwardModel extends AbstractForwardModel {
      */
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
-        DiamantGameState dgs = (DiamantGameState) gameState;
         ArrayList<AbstractAction> actions = new ArrayList<>();
+        _computeAvailableActions(gameState, actions);
+        return actions;
+    }
+
+    @Override
+    protected void _computeAvailableActions(AbstractGameState gameState, List<AbstractAction> actions) {
+        DiamantGameState dgs = (DiamantGameState) gameState;
 
         // If the player is still in the cave
         if (dgs.playerInCave.get(gameState.getCurrentPlayer())) {
-            actions.add(new ContinueInCave());
-            actions.add(new ExitFromCave());
+            actions.add(continueInCave);
+            actions.add(exitFromCave);
         } else
-            actions.add(new OutOfCave());
-
-        return actions;
+            actions.add(outOfCave);
     }
 
     @Override
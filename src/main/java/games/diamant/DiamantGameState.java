@@ -10,6 +10,7 @@ import core.turnorders.StandardTurnOrder;
 import games.GameType;
 import games.diamant.cards.DiamantCard;
 import games.diamant.components.ActionsPlayed;
+import utilities.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -79,7 +80,7 @@ public class DiamantGameState extends AbstractGameState implements IPrintable {
     @Override
     protected AbstractGameState _copy(int playerId)
     {
-        Random r = new Random(getGameParameters().getRandomSeed());
+        Random r = new SplitMixRandom(getGameParameters().getRandomSeed());
 
         DiamantGameState dgs = new DiamantGameState(gameParameters.copy(), getNPlayers());
 
@@ -119,7 +120,7 @@ public class DiamantGameState extends AbstractGameState implements IPrintable {
         // mainDeck and is actionsPlayed are hidden.
         if (getCoreGameParameters().partialObservable && playerId != -1)
         {
-            dgs.mainDeck.shuffle(new Random(getGameParameters().getRandomSeed()));
+            dgs.mainDeck.shuffle(new SplitMixRandom(getGameParameters().getRandomSeed()));
 
             dgs.actionsPlayed.clear();
 
@@ -2,9 +2,10 @@ package games.diamant.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 
-public class ExitFromCave extends AbstractAction implements IPrintable {
+public class ExitFromCave extends AbstractAction implements IPrintable, ICodedAction {
     @Override
     public boolean execute(AbstractGameState gs) {
         // Nothing to be executed. The actions are executed in the ForwardModel
@@ -24,6 +25,11 @@ public class ExitFromCave extends AbstractAction implements IPrintable {
     }
 
 
+    @Override
+    public long getActionCode() {
+        return 0;
+    }
+
     @Override
     public int hashCode() {
         return 1;
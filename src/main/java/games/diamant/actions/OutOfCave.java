@@ -2,10 +2,11 @@ package games.diamant.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 
 // This action is used when the player is out of the Cave
-public class OutOfCave extends AbstractAction implements IPrintable {
+public class OutOfCave extends AbstractAction implements IPrintable, ICodedAction {
     @Override
     public boolean execute(AbstractGameState gs) {
         // Nothing to be executed. The actions are executed in the ForwardModel
@@ -23,6 +24,11 @@ public class OutOfCave extends AbstractAction implements IPrintable {
         return obj instanceof OutOfCave;
     }
 
+    @Override
+    public long getActionCode() {
+        return 0;
+    }
+
     @Override
     public int hashCode() {
         return 0;
@@ -40,8 +40,7 @@ public class DiceMonasteryForwardModel extends AbstractForwardModel {
     protected void _setup(AbstractGameState firstState) {
         DiceMonasteryGameState state = (DiceMonasteryGameState) firstState;
         DiceMonasteryParams params = (DiceMonasteryParams) state.getGameParameters();
-        AbstractGameData _data = new AbstractGameData();
-        _data.load(params.getDataPath());
+        AbstractGameData _data = AbstractGameData.getCached(params.getDataPath(), AbstractGameData::new);
 
         for (int p = 0; p < state.getNPlayers(); p++) {
             state.createMonk(4, p);
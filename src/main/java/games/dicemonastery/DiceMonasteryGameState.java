@@ -7,6 +7,7 @@ import core.components.Deck;
 import core.components.Token;
 import games.GameType;
 import games.dicemonastery.components.*;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -42,7 +43,7 @@ public class DiceMonasteryGameState extends AbstractGameState {
 
     public DiceMonasteryGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, new DiceMonasteryTurnOrder(nPlayers, (DiceMonasteryParams) gameParameters), GameType.DiceMonastery);
-        rnd = new Random(gameParameters.getRandomSeed());
+        rnd = new SplitMixRandom(gameParameters.getRandomSeed());
     }
 
     @Override
@@ -540,7 +541,7 @@ public class DiceMonasteryGameState extends AbstractGameState {
     protected DiceMonasteryGameState _copy(int playerId) {
         DiceMonasteryGameState retValue = new DiceMonasteryGameState(gameParameters.copy(), getNPlayers());
         DiceMonasteryTurnOrder dmto = (DiceMonasteryTurnOrder) turnOrder;
-        rnd = new Random(System.currentTimeMillis());
+        rnd = new SplitMixRandom(System.currentTimeMillis());
         for (ActionArea a : actionAreas.keySet()) {
             retValue.actionAreas.put(a, actionAreas.get(a).copy());
         }
@@ -61,7 +61,7 @@ public class DiceMonasteryTurnOrder extends TurnOrder {
 
     @Override
     public void endPlayerTurn(AbstractGameState gameState) {
-        listeners.forEach(l -> l.onEvent(CoreConstants.GameEvents.TURN_OVER, gameState, null));
+        publish(CoreConstants.GameEvents.TURN_OVER, gameState, null);
         DiceMonasteryGameState state = (DiceMonasteryGameState) gameState;
         switch (season) {
             case SPRING:
@@ -155,7 +155,7 @@ public class DiceMonasteryTurnOrder extends TurnOrder {
     @Override
     public void endRound(AbstractGameState gs) {
         DiceMonasteryGameState state = (DiceMonasteryGameState) gs;
-        listeners.forEach(l -> l.onEvent(CoreConstants.GameEvents.ROUND_OVER, state, null));
+        publish(CoreConstants.GameEvents.ROUND_OVER, state, null);
         switch (season) {
             case SPRING:
             case AUTUMN:
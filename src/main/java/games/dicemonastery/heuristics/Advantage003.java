@@ -5,6 +5,7 @@ import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import games.dicemonastery.DiceMonasteryGameState;
 import games.dicemonastery.DiceMonasteryStateAttributes;
+import utilities.SplitMixRandom;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -15,7 +16,7 @@ import static java.util.stream.Collectors.toList;
 
 public class Advantage003 extends AbstractPlayer implements ToDoubleBiFunction<AbstractAction, AbstractGameState> {
 
-    Random rnd = new Random(System.currentTimeMillis());
+    Random rnd = new SplitMixRandom(System.currentTimeMillis());
 
     private double RND_WEIGHT;
 
@@ -26,10 +27,10 @@ public class Advantage003 extends AbstractPlayer implements ToDoubleBiFunction<A
 
     Set<Integer> unknownHashCodes = new HashSet<>();
 
-    private Advantage003(Advantage003 toCopy) {
+    private Advantage003(Advantage003 toCopy, Random rnd) {
         //only used for copying
         this.RND_WEIGHT = toCopy.RND_WEIGHT;
-        this.rnd = new Random(toCopy.rnd.nextInt());
+        this.rnd = rnd;
         this.coefficients = toCopy.coefficients.clone();
         this.hashToRowIndex.putAll(toCopy.hashToRowIndex);
         this.features.addAll(toCopy.features);
@@ -143,6 +144,11 @@ public class Advantage003 extends AbstractPlayer implements ToDoubleBiFunction<A
 
     @Override
     public Advantage003 copy() {
-        return new Advantage003(this);
+        return new Advantage003(this, SplitMixRandom.split(rnd));
+    }
+
+    @Override
+    public Advantage003 copy(long seed) {
+        return new Advantage003(this, new SplitMixRandom(seed));
     }
 }
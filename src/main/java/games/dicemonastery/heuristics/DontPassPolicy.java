@@ -6,6 +6,7 @@ import core.actions.AbstractAction;
 import core.actions.DoNothing;
 import games.dicemonastery.DiceMonasteryGameState;
 import games.dicemonastery.actions.*;
+import utilities.SplitMixRandom;
 
 import java.util.Comparator;
 import java.util.List;
@@ -16,7 +17,7 @@ import static games.dicemonastery.DiceMonasteryConstants.Resource.*;
 
 public class DontPassPolicy extends AbstractPlayer {
 
-    Random rnd = new Random(System.currentTimeMillis());
+    Random rnd = new SplitMixRandom(System.currentTimeMillis());
 
     @Override
     public AbstractAction getAction(AbstractGameState gameState, List<AbstractAction> possibleActions) {
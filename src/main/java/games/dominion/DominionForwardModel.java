@@ -159,6 +159,36 @@ public class DominionForwardModel extends AbstractForwardModel {
         }
     }
 
+    @Override
+    protected boolean cacheAvailableActions() {
+        return true;
+    }
+
+    /**
+     * Once a card has been bought, the player can still buy the same cards as before, less any they can no longer
+     * afford, or of which none are left.
+     */
+    @Override
+    protected List<AbstractAction> _updateAvailableActions(AbstractGameState gameState, List<AbstractAction> previousActions,
+                                                           AbstractAction action) {
+        DominionGameState state = (DominionGameState) gameState;
+        int playerID = state.getCurrentPlayer();
+        if (!(action instanceof BuyCard) || ((BuyCard) action).buyingPlayer != playerID
+                || state.getGamePhase() != DominionGameState.DominionGamePhase.Buy)
+            return null;
+        int budget = state.availableSpend(playerID);
+        List<AbstractAction> retValue = new ArrayList<>(previousActions.size());
+        for (AbstractAction a : previousActions) {
+            if (a instanceof BuyCard) {
+                CardType type = ((BuyCard) a).cardType;
+                if (type.cost > budget || state.cardsOfType(type, -1, DeckType.SUPPLY) == 0)
+                    continue;
+            }
+            retValue.add(a);
+        }
+        return retValue;
+    }
+
     /**
      * Gets a copy of the FM with a new random number generator.
      *
@@ -14,6 +14,7 @@ import games.dominion.DominionConstants.DeckType;
 import games.dominion.actions.IDelayedAction;
 import games.dominion.cards.CardType;
 import games.dominion.cards.DominionCard;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -54,7 +55,7 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
      */
     public DominionGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, new StandardTurnOrder(nPlayers), GameType.Dominion);
-        rnd = new Random(gameParameters.getRandomSeed());
+        rnd = new SplitMixRandom(gameParameters.getRandomSeed());
         playerCount = nPlayers;
         defenceStatus = new boolean[nPlayers];  // defaults to false
         params = (DominionParameters) gameParameters;
@@ -64,6 +65,7 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
     public boolean removeCardFromTable(CardType type) {
         if (cardsIncludedInGame.getOrDefault(type, 0) > 0) {
             cardsIncludedInGame.put(type, cardsIncludedInGame.get(type) - 1);
+            markModified();
             return true;
         }
         return false;
@@ -159,6 +161,8 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
 
     public void changeActions(int delta) {
         actionsLeftForCurrentPlayer += delta;
+        // not a component, so the change is recorded for the actions cached by the forward model
+        markModified();
     }
 
     public int buysLeft() {
@@ -167,14 +171,17 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
 
     public void changeBuys(int delta) {
         buysLeftForCurrentPlayer += delta;
+        markModified();
     }
 
     public void spend(int delta) {
         spentSoFar += delta;
+        markModified();
     }
 
     public void changeAdditionalSpend(int delta) {
         additionalSpendAvailable += delta;
+        markModified();
     }
 
     public int availableSpend(int playerID) {
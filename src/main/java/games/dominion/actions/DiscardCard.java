@@ -3,6 +3,7 @@ package games.dominion.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Card;
+import core.interfaces.ICodedAction;
 import games.dominion.DominionConstants;
 import games.dominion.DominionGame;
 import games.dominion.DominionGameState;
@@ -15,7 +16,7 @@ import java.util.stream.Collectors;
 
 import static games.dominion.DominionConstants.*;
 
-public class DiscardCard extends AbstractAction {
+public class DiscardCard extends AbstractAction implements ICodedAction {
 
     final int player;
     final CardType type;
@@ -59,6 +60,11 @@ public class DiscardCard extends AbstractAction {
         return String.format("Player %d discards %s", player, type);
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) player << 8 | type.ordinal();
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof DiscardCard) {
@@ -3,12 +3,13 @@ package games.dominion.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.DoNothing;
+import core.interfaces.ICodedAction;
 
 
 /**
  * This is simply a new name for DoNothing when used to prematurely end a game phase
  */
-public class EndPhase extends AbstractAction {
+public class EndPhase extends AbstractAction implements ICodedAction {
 
 
     @Override
@@ -21,6 +22,12 @@ public class EndPhase extends AbstractAction {
         return new EndPhase();
     }
 
+    @Override
+    public long getActionCode() {
+        // all actions of this class are equal
+        return 0;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
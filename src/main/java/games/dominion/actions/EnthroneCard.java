@@ -2,6 +2,7 @@ package games.dominion.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import games.dominion.DominionConstants;
 import games.dominion.DominionGameState;
 import games.dominion.cards.CardType;
@@ -9,7 +10,7 @@ import games.dominion.cards.DominionCard;
 
 import java.util.Objects;
 
-public class EnthroneCard extends AbstractAction {
+public class EnthroneCard extends AbstractAction implements ICodedAction {
 
     final CardType enthronedCard;
     final int player;
@@ -45,6 +46,11 @@ public class EnthroneCard extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) player << 24 | (enthronedCard == null ? 0 : enthronedCard.ordinal() + 1) << 16 | cardExecutions;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof EnthroneCard) {
@@ -2,13 +2,14 @@ package games.dominion.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import games.dominion.DominionConstants;
 import games.dominion.DominionGameState;
 import games.dominion.cards.CardType;
 
 import java.util.Objects;
 
-public class GainCard extends AbstractAction {
+public class GainCard extends AbstractAction implements ICodedAction {
 
     public final CardType cardType;
     public final int buyingPlayer;
@@ -53,6 +54,11 @@ public class GainCard extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) buyingPlayer << 16 | cardType.ordinal() << 8 | destinationDeck.ordinal();
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof GainCard) {
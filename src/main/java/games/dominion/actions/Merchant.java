@@ -2,12 +2,13 @@ package games.dominion.actions;
 
 import core.actions.AbstractAction;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import games.dominion.DominionConstants;
 import games.dominion.DominionGameState;
 import games.dominion.cards.CardType;
 import games.dominion.cards.DominionCard;
 
-public class Merchant extends DominionAction {
+public class Merchant extends DominionAction implements ICodedAction {
     public Merchant(int playerId) {
         super(CardType.MERCHANT, playerId);
     }
@@ -24,6 +25,11 @@ public class Merchant extends DominionAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) player << 8 | type.ordinal();
+    }
+
 }
 
 
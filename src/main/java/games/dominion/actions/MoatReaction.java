@@ -3,6 +3,7 @@ package games.dominion.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import games.dominion.DominionConstants;
 import games.dominion.DominionGameState;
 import games.dominion.cards.CardType;
@@ -10,7 +11,7 @@ import games.dominion.cards.DominionCard;
 
 import java.util.Arrays;
 
-public class MoatReaction extends AbstractAction implements IDominionReaction {
+public class MoatReaction extends AbstractAction implements IDominionReaction, ICodedAction {
 
     final int player;
 
@@ -40,6 +41,11 @@ public class MoatReaction extends AbstractAction implements IDominionReaction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return player;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof MoatReaction && ((MoatReaction) obj).player == player;
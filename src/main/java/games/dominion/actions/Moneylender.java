@@ -1,13 +1,14 @@
 package games.dominion.actions;
 
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import games.dominion.DominionGameState;
 import games.dominion.cards.CardType;
 
 
 import static games.dominion.DominionConstants.*;
 
-public class Moneylender extends DominionAction {
+public class Moneylender extends DominionAction implements ICodedAction {
 
     public Moneylender(int playerId) {
         super(CardType.MONEYLENDER, playerId);
@@ -41,4 +42,9 @@ public class Moneylender extends DominionAction {
         // no mutable state
         return this;
     }
+
+    @Override
+    public long getActionCode() {
+        return (long) player << 8 | type.ordinal();
+    }
 }
@@ -3,6 +3,7 @@ package games.dominion.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import games.dominion.*;
 import games.dominion.cards.*;
 
@@ -10,7 +11,7 @@ import java.util.*;
 
 import static games.dominion.DominionConstants.*;
 
-public class MoveCard extends AbstractAction {
+public class MoveCard extends AbstractAction implements ICodedAction {
 
     final int playerFrom;
     final int playerTo;
@@ -75,11 +76,17 @@ public class MoveCard extends AbstractAction {
                 playerFrom, type, fromDeck, toDeck, playerTo, isPubliclyVisible);
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) playerFrom << 40 | (long) playerTo << 32 | type.ordinal() << 24 | fromDeck.ordinal() << 16
+                | toDeck.ordinal() << 8 | (isPubliclyVisible ? 1 : 0);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof MoveCard) {
             MoveCard dc = (MoveCard) other;
-            return dc.playerFrom == playerFrom && dc.type == type && dc.playerTo == playerFrom
+            return dc.playerFrom == playerFrom && dc.type == type && dc.playerTo == playerTo
                     && dc.toDeck == toDeck && dc.fromDeck == fromDeck && dc.isPubliclyVisible == isPubliclyVisible;
         }
         return false;
@@ -3,6 +3,7 @@ package games.dominion.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import games.dominion.*;
 import games.dominion.cards.DominionCard;
 
@@ -10,7 +11,7 @@ import java.util.Objects;
 
 import static games.dominion.DominionConstants.*;
 
-public class RevealHand extends AbstractAction {
+public class RevealHand extends AbstractAction implements ICodedAction {
 
     final int player;
 
@@ -36,6 +37,11 @@ public class RevealHand extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return player;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof RevealHand) {
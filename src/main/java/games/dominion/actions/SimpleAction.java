@@ -1,9 +1,10 @@
 package games.dominion.actions;
 
+import core.interfaces.ICodedAction;
 import games.dominion.DominionGameState;
 import games.dominion.cards.CardType;
 
-public class SimpleAction extends DominionAction {
+public class SimpleAction extends DominionAction implements ICodedAction {
 
     public SimpleAction(CardType type, int playerId) {
         super(type, playerId);
@@ -19,4 +20,9 @@ public class SimpleAction extends DominionAction {
     boolean _execute(DominionGameState state) {
         return true;
     }
+
+    @Override
+    public long getActionCode() {
+        return (long) player << 8 | type.ordinal();
+    }
 }
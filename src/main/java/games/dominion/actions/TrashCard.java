@@ -2,6 +2,7 @@ package games.dominion.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import games.dominion.DominionGameState;
 import games.dominion.cards.CardType;
 import games.dominion.cards.DominionCard;
@@ -11,7 +12,7 @@ import java.util.*;
 import static games.dominion.DominionConstants.*;
 import static java.util.stream.Collectors.*;
 
-public class TrashCard extends AbstractAction {
+public class TrashCard extends AbstractAction implements ICodedAction {
 
     final int player;
     final CardType trashedCard;
@@ -58,6 +59,11 @@ public class TrashCard extends AbstractAction {
         return this;
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) player << 16 | trashedCard.ordinal() << 8 | fromDeck.ordinal();
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof TrashCard) {
@@ -2,11 +2,12 @@ package games.dotsboxes;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 
 import java.util.HashSet;
 import java.util.Objects;
 
-public class AddGridCellEdge extends AbstractAction {
+public class AddGridCellEdge extends AbstractAction implements ICodedAction {
     DBEdge edge;  // Normally not good practice to keep references, as they wouldn't match the copies. But our equals should match.
 
     public AddGridCellEdge(DBEdge edge) {
@@ -19,14 +20,14 @@ public class AddGridCellEdge extends AbstractAction {
         DBGameState dbgs = (DBGameState) gs;
 
         // Mark this edge as complete by current player and check if connected cells are complete too
-        dbgs.edgeToOwnerMap.put(edge, gs.getCurrentPlayer());
+        dbgs.setEdgeOwner(edge, gs.getCurrentPlayer());
 
         HashSet<DBCell> cells = dbgs.edgeToCellMap.get(edge);
         for (DBCell c : cells) {
             int nEdgesComplete = dbgs.countCompleteEdges(c);
             if (nEdgesComplete == 4) {  // A cell has 4 sides
                 // All edges complete, this box complete
-                dbgs.cellToOwnerMap.put(c, gs.getCurrentPlayer());
+                dbgs.setCellOwner(c, gs.getCurrentPlayer());
                 dbgs.nCellsPerPlayer[gs.getCurrentPlayer()]++;
             }
         }
@@ -47,6 +48,14 @@ public class AddGridCellEdge extends AbstractAction {
         return Objects.equals(edge, that.edge);
     }
 
+    @Override
+    public long getActionCode() {
+        // as in DBEdge.equals(), the order of the two ends does not matter
+        long from = (edge.from.getX() & 0xFFFFL) << 16 | (edge.from.getY() & 0xFFFFL);
+        long to = (edge.to.getX() & 0xFFFFL) << 16 | (edge.to.getY() & 0xFFFFL);
+        return Math.min(from, to) << 32 | Math.max(from, to);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(edge);
@@ -10,9 +10,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class DBForwardModel extends AbstractForwardModel {
 
+    // One action per edge, in the order of DBGameState.edges, shared by all states that share that set of edges
+    private Set<DBEdge> actionEdges;
+    private AddGridCellEdge[] edgeActions;
+
     @Override
     protected void _setup(AbstractGameState firstState) {
         DBGameState dbgs = (DBGameState) firstState;
@@ -87,20 +92,59 @@ public class DBForwardModel extends AbstractForwardModel {
         }
     }
 
+    @Override
+    protected Object _nextWithUndo(AbstractGameState currentState, AbstractAction action) {
+        // Everything needed to undo the action can be worked out from the edge, so nothing else needs keeping
+        _next(currentState, action);
+        return null;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState currentState, AbstractAction action, Object undoData) {
+        DBGameState dbgs = (DBGameState) currentState;
+        DBEdge edge = ((AddGridCellEdge) action).edge;
+        dbgs.removeEdgeOwner(edge);
+        // Neighbouring cells could not have been complete without this edge, so any that are now owned were completed by it
+        for (DBCell c : dbgs.edgeToCellMap.get(edge)) {
+            Integer owner = dbgs.cellToOwnerMap.get(c);
+            if (owner != null) {
+                dbgs.removeCellOwner(c);
+                dbgs.nCellsPerPlayer[owner]--;
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
-        HashSet<AbstractAction> actions = new HashSet<>();  // Same edge may appear in multiple cells, ensure unique actions
+        ArrayList<AbstractAction> actions = new ArrayList<>();
+        _computeAvailableActions(gameState, actions);
+        return actions;
+    }
+
+    @Override
+    protected void _computeAvailableActions(AbstractGameState gameState, List<AbstractAction> actions) {
         DBGameState dbgs = (DBGameState) gameState;
+        if (dbgs.edges != actionEdges) {
+            // The set of edges is created once per game, and shared by all copies of the state
+            actionEdges = dbgs.edges;
+            edgeActions = new AddGridCellEdge[actionEdges.size()];
+            int i = 0;
+            for (DBEdge e : actionEdges)
+                edgeActions[i++] = new AddGridCellEdge(e);
+        }
 
         // Actions in this game are adding edges to the board (that don't already exist)
-        for (DBEdge e: dbgs.edges) {
-            if (!dbgs.edgeToOwnerMap.containsKey(e)) {
+        for (AddGridCellEdge action : edgeActions) {
+            if (!dbgs.edgeToOwnerMap.containsKey(action.edge)) {
                 // Can add this edge
-                actions.add(new AddGridCellEdge(e));
+                actions.add(action);
             }
         }
-
-        return new ArrayList<>(actions);
     }
 
     @Override
@@ -3,6 +3,7 @@ package games.dotsboxes;
 import core.AbstractGameState;
 import core.AbstractParameters;
 import core.components.Component;
+import core.components.Zobrist;
 import core.interfaces.IStateHeuristic;
 import core.turnorders.AlternatingTurnOrder;
 import games.GameType;
@@ -26,6 +27,7 @@ public class DBGameState extends AbstractGameState {
     int[] nCellsPerPlayer;
     HashMap<DBCell, Integer> cellToOwnerMap;  // Mapping from each cell to its owner, if complete
     HashMap<DBEdge, Integer> edgeToOwnerMap;  // Mapping from each edge to its owner, if placed
+    long ownerHash;  // Zobrist hash of the two maps above, updated as they are
 
     /**
      * Constructor. Initialises some generic game state variables.
@@ -53,6 +55,7 @@ public class DBGameState extends AbstractGameState {
         dbgs.nCellsPerPlayer = nCellsPerPlayer.clone();
         dbgs.cellToOwnerMap = (HashMap<DBCell, Integer>) cellToOwnerMap.clone();
         dbgs.edgeToOwnerMap = (HashMap<DBEdge, Integer>) edgeToOwnerMap.clone();
+        dbgs.ownerHash = ownerHash;
         return dbgs;
     }
 
@@ -79,6 +82,32 @@ public class DBGameState extends AbstractGameState {
         nCellsPerPlayer = null;
         cellToOwnerMap = null;
         edgeToOwnerMap = null;
+        ownerHash = 0;
+    }
+
+    @Override
+    protected long _getZobristHash() {
+        return ownerHash;
+    }
+
+    void setEdgeOwner(DBEdge edge, int player) {
+        edgeToOwnerMap.put(edge, player);
+        ownerHash ^= Zobrist.key(0, edge.hashCode(), player);
+    }
+
+    void setCellOwner(DBCell cell, int player) {
+        cellToOwnerMap.put(cell, player);
+        ownerHash ^= Zobrist.key(1, cell.hashCode(), player);
+    }
+
+    void removeEdgeOwner(DBEdge edge) {
+        int player = edgeToOwnerMap.remove(edge);
+        ownerHash ^= Zobrist.key(0, edge.hashCode(), player);
+    }
+
+    void removeCellOwner(DBCell cell) {
+        int player = cellToOwnerMap.remove(cell);
+        ownerHash ^= Zobrist.key(1, cell.hashCode(), player);
     }
 
     @Override
@@ -12,6 +12,7 @@ import games.explodingkittens.actions.reactions.GiveCard;
 import games.explodingkittens.actions.reactions.PassAction;
 import games.explodingkittens.actions.reactions.PlaceExplodingKitten;
 import games.explodingkittens.cards.ExplodingKittensCard;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -26,7 +27,7 @@ public class ExplodingKittensForwardModel extends AbstractForwardModel {
      * @param firstState - the state to be modified to the initial game state.
      */
     protected void _setup(AbstractGameState firstState) {
-        Random rnd = new Random(firstState.getGameParameters().getRandomSeed());
+        Random rnd = new SplitMixRandom(firstState.getGameParameters().getRandomSeed());
 
         ExplodingKittensGameState ekgs = (ExplodingKittensGameState)firstState;
         ExplodingKittensParameters ekp = (ExplodingKittensParameters)firstState.getGameParameters();
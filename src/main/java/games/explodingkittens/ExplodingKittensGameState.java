@@ -10,6 +10,7 @@ import core.interfaces.IGamePhase;
 import core.interfaces.IPrintable;
 import games.GameType;
 import games.explodingkittens.cards.ExplodingKittensCard;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -88,7 +89,7 @@ public class ExplodingKittensGameState extends AbstractGameState implements IPri
                     }
                 }
             }
-            Random r = new Random(ekgs.gameParameters.getRandomSeed());
+            Random r = new SplitMixRandom(ekgs.gameParameters.getRandomSeed());
 
             // Shuffles only hidden cards in draw pile, if player knows what's on top those will stay in place
             ekgs.drawPile.shuffleVisible(r, playerId, false);
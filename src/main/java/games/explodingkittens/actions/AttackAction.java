@@ -4,6 +4,7 @@ import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.AbstractGameState;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.explodingkittens.ExplodingKittensTurnOrder;
 import games.explodingkittens.cards.ExplodingKittensCard;
@@ -12,7 +13,7 @@ import java.util.Arrays;
 import java.util.Objects;
 
 
-public class AttackAction extends DrawCard implements IsNopeable, IPrintable {
+public class AttackAction extends DrawCard implements IsNopeable, IPrintable, ICodedAction {
     int attackTargetID;
 
     public AttackAction(int deckFrom, int deckTo, int index, int attackTargetID) {
@@ -58,6 +59,12 @@ public class AttackAction extends DrawCard implements IsNopeable, IPrintable {
         System.out.println(this.toString());
     }
 
+    @Override
+    public long getActionCode() {
+        // cards are always played onto the discard pile
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (attackTargetID & 0xFFFFL);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
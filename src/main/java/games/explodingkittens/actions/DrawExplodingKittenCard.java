@@ -4,6 +4,7 @@ import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.AbstractGameState;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.explodingkittens.ExplodingKittensTurnOrder;
 import games.explodingkittens.ExplodingKittensGameState;
@@ -11,7 +12,7 @@ import games.explodingkittens.cards.ExplodingKittensCard;
 
 import static games.explodingkittens.ExplodingKittensGameState.ExplodingKittensGamePhase.Defuse;
 
-public class DrawExplodingKittenCard extends DrawCard implements IPrintable {
+public class DrawExplodingKittenCard extends DrawCard implements IPrintable, ICodedAction {
 
     public DrawExplodingKittenCard(int deckFrom, int deckTo) {
         super(deckFrom, deckTo);
@@ -74,4 +75,10 @@ public class DrawExplodingKittenCard extends DrawCard implements IPrintable {
     public AbstractAction copy() {
         return new DrawExplodingKittenCard(deckFrom, deckTo);
     }
+
+    @Override
+    public long getActionCode() {
+        // the top card of the draw pile is always the one drawn, so only the hand it goes to counts
+        return deckTo & 0xFFFFFFFFL;
+    }
 }
@@ -4,6 +4,7 @@ import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.AbstractGameState;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.explodingkittens.ExplodingKittensTurnOrder;
 import games.explodingkittens.ExplodingKittensGameState;
@@ -14,7 +15,7 @@ import java.util.Objects;
 
 import static games.explodingkittens.ExplodingKittensGameState.ExplodingKittensGamePhase.Favor;
 
-public class FavorAction extends DrawCard implements IsNopeable, IPrintable {
+public class FavorAction extends DrawCard implements IsNopeable, IPrintable, ICodedAction {
     final int target;
 
     public FavorAction(int deckFrom, int deckTo, int index, int target) {
@@ -64,6 +65,12 @@ public class FavorAction extends DrawCard implements IsNopeable, IPrintable {
         System.out.println(this.toString());
     }
 
+    @Override
+    public long getActionCode() {
+        // cards are always played onto the discard pile
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (target & 0xFFFFL);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,9 +3,10 @@ package games.explodingkittens.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.DrawCard;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 
-public class NopeAction extends DrawCard implements IPrintable, IsNopeable {
+public class NopeAction extends DrawCard implements IPrintable, IsNopeable, ICodedAction {
 
     public NopeAction(int deckFrom, int deckTo, int index) {
         super(deckFrom, deckTo, index);
@@ -40,4 +41,10 @@ public class NopeAction extends DrawCard implements IPrintable, IsNopeable {
     public void actionPlayed(AbstractGameState gs) {
         // Doesn't need to do anything, this card is played automatically.
     }
+
+    @Override
+    public long getActionCode() {
+        // cards are always played onto the discard pile
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16;
+    }
 }
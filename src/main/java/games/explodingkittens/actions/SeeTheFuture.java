@@ -4,6 +4,7 @@ import core.actions.AbstractAction;
 import core.AbstractGameState;
 import core.actions.DrawCard;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.explodingkittens.ExplodingKittensGameState;
 import games.explodingkittens.ExplodingKittensParameters;
@@ -13,7 +14,7 @@ import java.util.Arrays;
 
 import static games.explodingkittens.ExplodingKittensGameState.ExplodingKittensGamePhase.SeeTheFuture;
 
-public class SeeTheFuture extends DrawCard implements IsNopeable, IPrintable {
+public class SeeTheFuture extends DrawCard implements IsNopeable, IPrintable, ICodedAction {
 
     int playerID;
 
@@ -76,6 +77,12 @@ public class SeeTheFuture extends DrawCard implements IsNopeable, IPrintable {
         return new SeeTheFuture(deckFrom, deckTo, fromIndex, playerID);
     }
 
+    @Override
+    public long getActionCode() {
+        // as in equals(), only the player counts
+        return playerID;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof SeeTheFuture && ((SeeTheFuture) obj).playerID == playerID;
@@ -4,14 +4,16 @@ import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.AbstractGameState;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.explodingkittens.ExplodingKittensGameState;
 import games.explodingkittens.cards.ExplodingKittensCard;
+import utilities.SplitMixRandom;
 
 import java.util.Arrays;
 import java.util.Random;
 
-public class ShuffleAction extends DrawCard implements IsNopeable, IPrintable {
+public class ShuffleAction extends DrawCard implements IsNopeable, IPrintable, ICodedAction {
 
     public ShuffleAction(int deckFrom, int deckTo, int fromIndex) {
         super(deckFrom, deckTo, fromIndex);
@@ -19,7 +21,7 @@ public class ShuffleAction extends DrawCard implements IsNopeable, IPrintable {
 
     @Override
     public boolean execute(AbstractGameState gs) {
-        ((ExplodingKittensGameState)gs).getDrawPile().shuffle(new Random(gs.getGameParameters().getRandomSeed()));
+        ((ExplodingKittensGameState)gs).getDrawPile().shuffle(new SplitMixRandom(gs.getGameParameters().getRandomSeed()));
         return super.execute(gs);
     }
 
@@ -56,4 +58,10 @@ public class ShuffleAction extends DrawCard implements IsNopeable, IPrintable {
     public AbstractAction copy() {
         return new ShuffleAction(deckFrom, deckTo, fromIndex);
     }
+
+    @Override
+    public long getActionCode() {
+        // cards are always played onto the discard pile
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16;
+    }
 }
@@ -4,13 +4,14 @@ import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.AbstractGameState;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.explodingkittens.ExplodingKittensTurnOrder;
 import games.explodingkittens.cards.ExplodingKittensCard;
 
 import java.util.Arrays;
 
-public class SkipAction extends DrawCard implements IsNopeable, IPrintable {
+public class SkipAction extends DrawCard implements IsNopeable, IPrintable, ICodedAction {
 
     public SkipAction(int deckFrom, int deckTo, int index) {
         super(deckFrom, deckTo, index);
@@ -59,4 +60,10 @@ public class SkipAction extends DrawCard implements IsNopeable, IPrintable {
     public AbstractAction copy() {
         return new SkipAction(deckFrom, deckTo, fromIndex);
     }
+
+    @Override
+    public long getActionCode() {
+        // cards are always played onto the discard pile
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16;
+    }
 }
@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.RearrangeDeckOfCards;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.explodingkittens.ExplodingKittensGameState;
 import games.explodingkittens.cards.ExplodingKittensCard;
@@ -11,7 +12,7 @@ import games.explodingkittens.cards.ExplodingKittensCard;
 import java.util.Arrays;
 
 
-public class ChooseSeeTheFutureOrder extends RearrangeDeckOfCards implements IPrintable {
+public class ChooseSeeTheFutureOrder extends RearrangeDeckOfCards implements IPrintable, ICodedAction {
 
     public ChooseSeeTheFutureOrder(int deckFrom, int deckTo, int fromIndex, int rearrangeDeck, int[] newCardOrder) {
         super(deckFrom, deckTo, fromIndex, rearrangeDeck, newCardOrder);
@@ -39,6 +40,18 @@ public class ChooseSeeTheFutureOrder extends RearrangeDeckOfCards implements IPr
         return true;
     }
 
+    @Override
+    public long getActionCode() {
+        // the discard pile and draw pile are the same for every action, and the order is a permutation of up to
+        // seven cards, so each position takes three bits
+        if (newCardOrder.length > 7 || fromIndex > 0xFF)
+            throw new AssertionError("Too many cards to code the order of : " + Arrays.toString(newCardOrder));
+        long retValue = (deckFrom & 0xFFFFFFFFL) << 32 | (long) fromIndex << 24 | (long) newCardOrder.length << 21;
+        for (int i = 0; i < newCardOrder.length; i++)
+            retValue |= (long) newCardOrder[i] << (3 * i);
+        return retValue;
+    }
+
     public String toString(){
         return "Chosen card order: " + Arrays.toString(newCardOrder);
     }
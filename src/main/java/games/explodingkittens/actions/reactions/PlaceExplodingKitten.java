@@ -3,10 +3,11 @@ package games.explodingkittens.actions.reactions;
 import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.AbstractGameState;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.explodingkittens.ExplodingKittensTurnOrder;
 
-public class PlaceExplodingKitten extends DrawCard implements IPrintable {
+public class PlaceExplodingKitten extends DrawCard implements IPrintable, ICodedAction {
 
     public PlaceExplodingKitten(int deckFrom, int deckTo, int index, int targetIndex) {
         super(deckFrom, deckTo, index, targetIndex);
@@ -40,4 +41,10 @@ public class PlaceExplodingKitten extends DrawCard implements IPrintable {
     public AbstractAction copy() {
         return new PlaceExplodingKitten(deckFrom, deckTo, fromIndex, toIndex);
     }
+
+    @Override
+    public long getActionCode() {
+        // the kitten always goes back into the draw pile, so only where it comes from and goes to count
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (toIndex & 0xFFFFL);
+    }
 }
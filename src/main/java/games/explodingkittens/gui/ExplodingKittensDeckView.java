@@ -5,6 +5,7 @@ import games.explodingkittens.cards.ExplodingKittensCard;
 import gui.views.CardView;
 import gui.views.DeckView;
 import utilities.ImageIO;
+import utilities.SplitMixRandom;
 
 import java.awt.*;
 import java.io.File;
@@ -25,7 +26,7 @@ public class ExplodingKittensDeckView extends DeckView<ExplodingKittensCard> {
     // Card images
     HashMap<Integer, Image> cardCatImageMapping;
     ArrayList<String> catImages;
-    Random rnd = new Random();  // This doesn't need to use the game random seed
+    Random rnd = new SplitMixRandom();  // This doesn't need to use the game random seed
 
     /**
      * Constructor initialising information and adding key/mouse listener for card highlight (left click or ALT + hover
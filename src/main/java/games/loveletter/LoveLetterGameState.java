@@ -9,6 +9,7 @@ import core.components.PartialObservableDeck;
 import core.interfaces.IPrintable;
 import games.GameType;
 import games.loveletter.cards.LoveLetterCard;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -101,7 +102,7 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
                     llgs.drawPile.add(llgs.reserveCards.get(i));
                 }
             }
-            Random r = new Random(llgs.getGameParameters().getRandomSeed());
+            Random r = new SplitMixRandom(llgs.getGameParameters().getRandomSeed());
             llgs.drawPile.shuffle(r);
             for (int i = 0; i < getNPlayers(); i++) {
                 if (i != playerId) {
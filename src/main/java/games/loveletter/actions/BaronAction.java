@@ -3,6 +3,7 @@ package games.loveletter.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.loveletter.LoveLetterGameState;
 import games.loveletter.cards.LoveLetterCard;
@@ -14,7 +15,7 @@ import java.util.Objects;
 /**
  * The Baron lets two players compare their hand card. The player with the lesser valued card is removed from the game.
  */
-public class BaronAction extends core.actions.DrawCard implements IPrintable {
+public class BaronAction extends core.actions.DrawCard implements IPrintable, ICodedAction {
     private final int opponentID;
 
     public BaronAction(int deckFrom, int deckTo, int fromIndex, int opponentID) {
@@ -63,6 +64,12 @@ public class BaronAction extends core.actions.DrawCard implements IPrintable {
         System.out.println(this.toString());
     }
 
+    @Override
+    public long getActionCode() {
+        // the card is always discarded to the pile of the player whose hand it is from
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (opponentID & 0xFFFFL);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
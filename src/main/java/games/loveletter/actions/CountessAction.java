@@ -2,13 +2,14 @@ package games.loveletter.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 
 /**
  * The Countess needs to be discarded in case the player also hold a King or a Prince card.
  * Despite its high value, the Countess has no other effect.
  */
-public class CountessAction extends core.actions.DrawCard implements IPrintable {
+public class CountessAction extends core.actions.DrawCard implements IPrintable, ICodedAction {
 
     public CountessAction(int deckFrom, int deckTo, int fromIndex) {
         super(deckFrom, deckTo, fromIndex);
@@ -34,6 +35,12 @@ public class CountessAction extends core.actions.DrawCard implements IPrintable
         return new CountessAction(deckFrom, deckTo, fromIndex);
     }
 
+    @Override
+    public long getActionCode() {
+        // the card is always discarded to the pile of the player whose hand it is from
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
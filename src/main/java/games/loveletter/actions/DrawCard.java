@@ -3,6 +3,7 @@ package games.loveletter.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.PartialObservableDeck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.loveletter.LoveLetterGameState;
 import games.loveletter.cards.LoveLetterCard;
@@ -10,7 +11,7 @@ import games.loveletter.cards.LoveLetterCard;
 /**
  * At the beginning of each round the player draws a card and loses its protection status.
  */
-public class DrawCard extends AbstractAction implements IPrintable {
+public class DrawCard extends AbstractAction implements IPrintable, ICodedAction {
 
     @Override
     public boolean execute(AbstractGameState gs) {
@@ -42,6 +43,12 @@ public class DrawCard extends AbstractAction implements IPrintable {
         return this; // immutable
     }
 
+    @Override
+    public long getActionCode() {
+        // all actions of this class are equal
+        return 0;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof DrawCard;
@@ -3,6 +3,7 @@ package games.loveletter.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.loveletter.LoveLetterGameState;
 import games.loveletter.cards.LoveLetterCard;
@@ -13,7 +14,7 @@ import java.util.Objects;
  * The guard allows to attempt guessing another player's card. If the guess is correct, the targeted opponent
  * is removed from the game.
  */
-public class GuardAction extends core.actions.DrawCard implements IPrintable {
+public class GuardAction extends core.actions.DrawCard implements IPrintable, ICodedAction {
 
     private final int opponentID;
     private final LoveLetterCard.CardType cardType;
@@ -54,6 +55,12 @@ public class GuardAction extends core.actions.DrawCard implements IPrintable {
         System.out.println(this.toString());
     }
 
+    @Override
+    public long getActionCode() {
+        // the card is always discarded to the pile of the player whose hand it is from
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (opponentID & 0xFFL) << 8 | cardType.ordinal();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
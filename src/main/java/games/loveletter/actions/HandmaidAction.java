@@ -2,13 +2,14 @@ package games.loveletter.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.loveletter.LoveLetterGameState;
 
 /**
  * The handmaid protects the player from any targeted effects until the next turn.
  */
-public class HandmaidAction extends core.actions.DrawCard implements IPrintable {
+public class HandmaidAction extends core.actions.DrawCard implements IPrintable, ICodedAction {
 
     public HandmaidAction(int deckFrom, int deckTo, int fromIndex) {
         super(deckFrom, deckTo, fromIndex);
@@ -41,6 +42,12 @@ public class HandmaidAction extends core.actions.DrawCard implements IPrintable
         return new HandmaidAction(deckFrom, deckTo, fromIndex);
     }
 
+    @Override
+    public long getActionCode() {
+        // the card is always discarded to the pile of the player whose hand it is from
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.CoreConstants.VisibilityMode;
 import core.actions.AbstractAction;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.loveletter.LoveLetterGameState;
 import games.loveletter.cards.LoveLetterCard;
@@ -13,7 +14,7 @@ import java.util.Objects;
 /**
  * The King lets two players swap their hand cards.
  */
-public class KingAction extends core.actions.DrawCard implements IPrintable {
+public class KingAction extends core.actions.DrawCard implements IPrintable, ICodedAction {
 
     private final int opponentID;
 
@@ -60,6 +61,12 @@ public class KingAction extends core.actions.DrawCard implements IPrintable {
         System.out.println(toString());
     }
 
+    @Override
+    public long getActionCode() {
+        // the card is always discarded to the pile of the player whose hand it is from
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (opponentID & 0xFFFFL);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -2,6 +2,7 @@ package games.loveletter.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.loveletter.LoveLetterGameState;
 import core.components.PartialObservableDeck;
@@ -13,7 +14,7 @@ import java.util.Objects;
  * The Priest allows a player to see another player's hand cards.
  * This has no effect in case the game is fully observable.
  */
-public class PriestAction extends core.actions.DrawCard implements IPrintable {
+public class PriestAction extends core.actions.DrawCard implements IPrintable, ICodedAction {
 
     private final int opponentID;
 
@@ -52,6 +53,12 @@ public class PriestAction extends core.actions.DrawCard implements IPrintable {
         System.out.println(toString());
     }
 
+    @Override
+    public long getActionCode() {
+        // the card is always discarded to the pile of the player whose hand it is from
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (opponentID & 0xFFFFL);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,6 +3,7 @@ package games.loveletter.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.loveletter.LoveLetterGameState;
 import games.loveletter.cards.LoveLetterCard;
@@ -13,7 +14,7 @@ import java.util.Objects;
  * The targeted player discards its current and draws a new one.
  * In case the discarded card is a princess, the targeted player is removed from the game.
  */
-public class PrinceAction extends core.actions.DrawCard implements IPrintable {
+public class PrinceAction extends core.actions.DrawCard implements IPrintable, ICodedAction {
 
     private final int opponentID;
 
@@ -51,6 +52,12 @@ public class PrinceAction extends core.actions.DrawCard implements IPrintable {
         return super.execute(gs);
     }
 
+    @Override
+    public long getActionCode() {
+        // the card is always discarded to the pile of the player whose hand it is from
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (opponentID & 0xFFFFL);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -26,6 +26,7 @@ import games.pandemic.rules.gameOver.*;
 import games.pandemic.rules.rules.*;
 import gui.GameFlowDiagram;
 import utilities.Hash;
+import utilities.SplitMixRandom;
 
 import java.util.*;
 
@@ -58,7 +59,7 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
         RuleNode infectCities = new InfectCities(pp.infectionRate, pp.maxCubesPerCity, pp.nCubesInfection);
         RuleNode forceDiscardReaction1 = new ForceDiscardReaction();
         RuleNode forceDiscardReaction2 = new ForceDiscardReaction();
-        RuleNode epidemic2 = new EpidemicIntensify(new Random(pp.getRandomSeed()));
+        RuleNode epidemic2 = new EpidemicIntensify(new SplitMixRandom(pp.getRandomSeed()));
         RuleNode forceRPreaction = new ForceRPReaction();
         RuleNode epidemic1 = new EpidemicInfect(pp.maxCubesPerCity, pp.nCubesEpidemic);
         RuleNode drawCards = new DrawCards();
@@ -149,13 +150,12 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
      */
     @Override
     protected void _setup(AbstractGameState firstState) {
-        Random rnd = new Random(firstState.getGameParameters().getRandomSeed());
+        Random rnd = new SplitMixRandom(firstState.getGameParameters().getRandomSeed());
 
         PandemicGameState state = (PandemicGameState) firstState;
         PandemicParameters pp = (PandemicParameters) state.getGameParameters();
 
-        AbstractGameData _data = new AbstractGameData();
-        _data.load(pp.getDataPath());
+        AbstractGameData _data = AbstractGameData.getCached(pp.getDataPath(), AbstractGameData::new);
 
         state.tempDeck = new Deck<>("Temp Deck", VISIBLE_TO_ALL);
         state.areas = new HashMap<>();
@@ -337,7 +337,7 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
             }
         }
         if (subset.getSize() > 0) {
-            subset.shuffle(new Random(pp.getRandomSeed()));
+            subset.shuffle(new SplitMixRandom(pp.getRandomSeed()));
             return subset.draw();
         }
         return null;
@@ -364,6 +364,12 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
         else return getPlayerActions(pgs);
     }
 
+    @Override
+    protected boolean cacheAvailableActions() {
+        // working out the actions available is expensive, and they are often asked for again in the same state
+        return true;
+    }
+
     @Override
     protected AbstractForwardModel _copy() {
         return new PandemicForwardModel(copyRoot());
@@ -9,6 +9,7 @@ import core.components.Area;
 import core.AbstractParameters;
 import games.GameType;
 import utilities.Hash;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -226,7 +227,7 @@ public class PandemicGameState extends AbstractGameState implements IFeatureRepr
                 HashMap<Integer, Component> oldComponents = areas.get(key).getComponentsMap();
                 for (Map.Entry<Integer, Component> e: oldComponents.entrySet()) {
                     if (gs.getCoreGameParameters().partialObservable && (e.getKey() == playerDeckHash || e.getKey() == infectionHash)) {
-                        Random r = new Random(gs.getGameParameters().getRandomSeed());
+                        Random r = new SplitMixRandom(gs.getGameParameters().getRandomSeed());
                         Deck<Card> hiddenDeck = (Deck<Card>) e.getValue().copy();
                         if (gamePhase == Forecast && e.getKey() == infectionHash) {
                             // Top N cards should be left the same, the rest shuffled
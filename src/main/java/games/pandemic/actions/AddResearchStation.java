@@ -3,6 +3,7 @@ package games.pandemic.actions;
 import core.actions.AbstractAction;
 import core.components.BoardNode;
 import core.components.Counter;
+import core.interfaces.ICodedAction;
 import core.properties.PropertyBoolean;
 import core.AbstractGameState;
 import core.properties.PropertyString;
@@ -13,7 +14,7 @@ import java.util.Objects;
 
 import static core.CoreConstants.nameHash;
 
-public class AddResearchStation extends AbstractAction {
+public class AddResearchStation extends AbstractAction implements ICodedAction {
     protected String city;
 
     public AddResearchStation(String city) {
@@ -39,6 +40,11 @@ public class AddResearchStation extends AbstractAction {
         return new AddResearchStation(this.city);
     }
 
+    @Override
+    public long getActionCode() {
+        return ICodedAction.stringCode(city);
+    }
+
     @Override
     public boolean equals(Object other)
     {
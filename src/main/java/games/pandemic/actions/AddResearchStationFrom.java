@@ -4,6 +4,7 @@ import core.actions.AbstractAction;
 import core.components.BoardNode;
 import core.properties.PropertyBoolean;
 import core.AbstractGameState;
+import core.interfaces.ICodedAction;
 import core.properties.PropertyString;
 import games.pandemic.PandemicGameState;
 
@@ -36,6 +37,11 @@ public class AddResearchStationFrom extends AddResearchStation {
         return success;
     }
 
+    @Override
+    public long getActionCode() {
+        return ICodedAction.stringCode(fromCity);
+    }
+
     @Override
     public boolean equals(Object other)
     {
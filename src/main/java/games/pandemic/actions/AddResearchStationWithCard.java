@@ -42,6 +42,11 @@ public class AddResearchStationWithCard extends AddResearchStation {
         return (Card) gs.getComponentById(cardId);
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) cardIdx << 32 | super.getActionCode();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,9 +3,10 @@ package games.pandemic.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.DrawCard;
+import core.interfaces.ICodedAction;
 
 @SuppressWarnings("unchecked")
-public class Forecast extends DrawCard {
+public class Forecast extends DrawCard implements ICodedAction {
 
     public Forecast(int deckFrom, int deckTo, int fromIndex) {
         super(deckFrom, deckTo, fromIndex);
@@ -22,6 +23,12 @@ public class Forecast extends DrawCard {
         return new Forecast(deckFrom, deckTo, fromIndex);
     }
 
+    @Override
+    public long getActionCode() {
+        // all actions of this class are equal
+        return 0;
+    }
+
     @Override
     public boolean equals(Object other)
     {
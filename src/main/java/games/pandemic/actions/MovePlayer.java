@@ -3,6 +3,7 @@ package games.pandemic.actions;
 import core.actions.AbstractAction;
 import core.components.BoardNode;
 import core.components.Card;
+import core.interfaces.ICodedAction;
 import core.properties.*;
 import core.AbstractGameState;
 import games.pandemic.PandemicGameState;
@@ -14,7 +15,7 @@ import static core.CoreConstants.nameHash;
 import static core.CoreConstants.playersHash;
 
 
-public class MovePlayer extends AbstractAction {
+public class MovePlayer extends AbstractAction implements ICodedAction {
     int playerToMove;
     String destination;
     MoveType moveType;
@@ -73,6 +74,11 @@ public class MovePlayer extends AbstractAction {
     }
 
 
+    @Override
+    public long getActionCode() {
+        return (long) playerToMove << 32 | ICodedAction.stringCode(destination);
+    }
+
     @Override
     public boolean equals(Object other)
     {
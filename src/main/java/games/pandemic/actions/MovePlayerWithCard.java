@@ -47,6 +47,11 @@ public class MovePlayerWithCard extends MovePlayer {
         return (Card) gs.getComponentById(cardId);
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) cardIdx << 40 | super.getActionCode();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,9 +3,10 @@ package games.pandemic.actions;
 import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.AbstractGameState;
+import core.interfaces.ICodedAction;
 
 @SuppressWarnings("unchecked")
-public class QuietNight extends DrawCard {
+public class QuietNight extends DrawCard implements ICodedAction {
 
     public QuietNight(int deckFrom, int deckTo, int fromIndex) {
         super(deckFrom, deckTo, fromIndex);
@@ -22,6 +23,12 @@ public class QuietNight extends DrawCard {
         return new QuietNight(deckFrom, deckTo, fromIndex);
     }
 
+    @Override
+    public long getActionCode() {
+        // all actions of this class are equal
+        return 0;
+    }
+
     @Override
     public boolean equals(Object other)
     {
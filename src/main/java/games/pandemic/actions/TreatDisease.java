@@ -3,6 +3,7 @@ package games.pandemic.actions;
 import core.actions.AbstractAction;
 import core.components.BoardNode;
 import core.components.Counter;
+import core.interfaces.ICodedAction;
 import core.properties.PropertyIntArray;
 import core.AbstractGameState;
 import games.pandemic.PandemicGameState;
@@ -14,7 +15,7 @@ import java.util.Objects;
 import static games.pandemic.PandemicConstants.*;
 import static core.CoreConstants.nameHash;
 
-public class TreatDisease extends AbstractAction {
+public class TreatDisease extends AbstractAction implements ICodedAction {
 
     private int initialDiseaseCubes;
     private String color;
@@ -73,6 +74,12 @@ public class TreatDisease extends AbstractAction {
         return new TreatDisease(initialDiseaseCubes, color, city, treatAll);
     }
 
+    @Override
+    public long getActionCode() {
+        return (long) ICodedAction.stringCode(city) << 32 | (ICodedAction.stringCode(color) & 0xFFFFL) << 16
+                | (initialDiseaseCubes & 0x7FFF) << 1 | (treatAll ? 1 : 0);
+    }
+
     @Override
     public boolean equals(Object other)
     {
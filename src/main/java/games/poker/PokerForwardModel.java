@@ -10,6 +10,7 @@ import games.poker.actions.*;
 import games.poker.actions.Fold;
 import games.poker.components.MoneyPot;
 import utilities.Pair;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -55,7 +56,7 @@ public class PokerForwardModel extends AbstractForwardModel {
      */
     private void setupRound(PokerGameState pgs) {
         PokerGameParameters params = (PokerGameParameters) pgs.getGameParameters();
-        Random r = new Random(params.getRandomSeed() + pgs.getTurnOrder().getRoundCounter());
+        Random r = new SplitMixRandom(params.getRandomSeed() + pgs.getTurnOrder().getRoundCounter());
 
         pgs.moneyPots.clear();
         pgs.moneyPots.add(new MoneyPot());
@@ -16,6 +16,7 @@ import core.interfaces.IPrintable;
 import games.GameType;
 import games.poker.components.MoneyPot;
 import utilities.Pair;
+import utilities.SplitMixRandom;
 
 import static utilities.Utils.generateCombinations;
 
@@ -193,7 +194,7 @@ public class PokerGameState extends AbstractGameState implements IPrintable {
                     copy.playerDecks.get(i).clear();
                 }
             }
-            copy.drawDeck.shuffle(new Random(copy.gameParameters.getRandomSeed()));
+            copy.drawDeck.shuffle(new SplitMixRandom(copy.gameParameters.getRandomSeed()));
             for (int i = 0; i < getNPlayers(); i++) {
                 if (i != playerId) {
                     for (int j = 0; j < playerDecks.get(i).getSize(); j++) {
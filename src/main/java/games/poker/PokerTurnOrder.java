@@ -24,7 +24,7 @@ public class PokerTurnOrder extends AlternatingTurnOrder {
     @Override
     public void endPlayerTurn(AbstractGameState gameState) {
         if (gameState.getGameStatus() != GAME_ONGOING) return;
-        listeners.forEach(l -> l.onEvent(CoreConstants.GameEvents.TURN_OVER, gameState, null));
+        publish(CoreConstants.GameEvents.TURN_OVER, gameState, null);
 
         turnCounter++;
         moveToNextPlayer(gameState, nextPlayer(gameState));
@@ -72,7 +72,7 @@ public class PokerTurnOrder extends AlternatingTurnOrder {
 
         gameState.getPlayerTimer()[getCurrentPlayer(gameState)].incrementRound();
 
-        listeners.forEach(l -> l.onEvent(CoreConstants.GameEvents.ROUND_OVER, gameState, null));
+        publish(CoreConstants.GameEvents.ROUND_OVER, gameState, null);
 
         PokerGameState pgs = (PokerGameState) gameState;
         Arrays.fill(pgs.playerFold, false);
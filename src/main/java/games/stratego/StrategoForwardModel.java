@@ -6,6 +6,7 @@ import core.actions.AbstractAction;
 import core.components.GridBoard;
 import games.stratego.actions.Move;
 import games.stratego.components.Piece;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.ArrayList;
@@ -20,7 +21,7 @@ public class StrategoForwardModel extends AbstractForwardModel {
         StrategoParams params = (StrategoParams) firstState.getGameParameters();
         StrategoGameState state = (StrategoGameState) firstState;
         state.gridBoard = new GridBoard<>(params.gridSize, params.gridSize);
-        Random random = new Random(params.getRandomSeed());
+        Random random = new SplitMixRandom(params.getRandomSeed());
 
         StrategoConstants.PieceSetups[] setups = StrategoConstants.PieceSetups.values();
         StrategoConstants.PieceSetups RedSetup = setups[random.nextInt(setups.length)];
@@ -92,6 +93,50 @@ public class StrategoForwardModel extends AbstractForwardModel {
         }
     }
 
+    @Override
+    protected Object _nextWithUndo(AbstractGameState currentState, AbstractAction action) {
+        // A move only changes the two cells involved, and the position and known flag of the pieces in them
+        StrategoGameState state = (StrategoGameState) currentState;
+        Move move = (Move) action;
+        MoveUndo undo = new MoveUndo();
+        undo.from = move.from(state);
+        undo.to = move.to(state).clone();
+        undo.movedPiece = state.gridBoard.getElement(undo.from[0], undo.from[1]);
+        undo.otherPiece = state.gridBoard.getElement(undo.to[0], undo.to[1]);
+        undo.movedPieceKnown = undo.movedPiece.isPieceKnown();
+        undo.otherPieceKnown = undo.otherPiece != null && undo.otherPiece.isPieceKnown();
+        undo.revealedHash = state.revealedHash;
+        _next(currentState, action);
+        return undo;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState currentState, AbstractAction action, Object undoData) {
+        StrategoGameState state = (StrategoGameState) currentState;
+        MoveUndo undo = (MoveUndo) undoData;
+        state.gridBoard.setElement(undo.from[0], undo.from[1], undo.movedPiece);
+        state.gridBoard.setElement(undo.to[0], undo.to[1], undo.otherPiece);
+        undo.movedPiece.setPiecePosition(undo.from);
+        undo.movedPiece.setPieceKnown(undo.movedPieceKnown);
+        if (undo.otherPiece != null) {
+            undo.otherPiece.setPiecePosition(undo.to);
+            undo.otherPiece.setPieceKnown(undo.otherPieceKnown);
+        }
+        state.revealedHash = undo.revealedHash;
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    private static class MoveUndo {
+        int[] from, to;
+        Piece movedPiece, otherPiece;
+        boolean movedPieceKnown, otherPieceKnown;
+        long revealedHash;
+    }
+
     @Override
     protected AbstractForwardModel _copy() {
         return new StrategoForwardModel();
@@ -4,9 +4,11 @@ import core.AbstractGameState;
 import core.AbstractParameters;
 import core.components.Component;
 import core.components.GridBoard;
+import core.components.Zobrist;
 import core.turnorders.AlternatingTurnOrder;
 import games.GameType;
 import games.stratego.components.Piece;
+import utilities.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +16,8 @@ import java.util.Random;
 
 public class StrategoGameState extends AbstractGameState {
     GridBoard<Piece> gridBoard;
+    // Zobrist hash of which pieces have been revealed, as this is changed in place and not captured by the board
+    long revealedHash;
 
     /**
      * Constructor. Initialises some generic game state variables.
@@ -37,6 +41,7 @@ public class StrategoGameState extends AbstractGameState {
     protected AbstractGameState _copy(int playerId) {
         StrategoGameState s = new StrategoGameState(gameParameters);
         s.gridBoard = gridBoard.emptyCopy();
+        s.revealedHash = revealedHash;
         Piece.Alliance playerAlliance = null;
 
         // All piece types that will be hidden for opponent
@@ -51,7 +56,7 @@ public class StrategoGameState extends AbstractGameState {
             }
         }
 
-        Random random = new Random(gameParameters.getRandomSeed());
+        Random random = new SplitMixRandom(gameParameters.getRandomSeed());
         for (Piece piece : gridBoard.getComponents()){
             if (piece != null) {
                 if (playerId != -1 && getCoreGameParameters().partialObservable && playerAlliance != piece.getPieceAlliance() && !piece.isPieceKnown()){
@@ -84,6 +89,23 @@ public class StrategoGameState extends AbstractGameState {
     @Override
     protected void _reset() {
         gridBoard = null;
+        revealedHash = 0;
+    }
+
+    @Override
+    protected long _getZobristHash() {
+        return revealedHash;
+    }
+
+    /**
+     * Marks the piece as known to both players.
+     * @param piece - piece that has been revealed
+     */
+    public void revealPiece(Piece piece) {
+        if (!piece.isPieceKnown()) {
+            piece.setPieceKnown(true);
+            revealedHash ^= Zobrist.key(piece.getComponentID());
+        }
     }
 
     @Override
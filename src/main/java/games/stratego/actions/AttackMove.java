@@ -29,8 +29,9 @@ public class AttackMove extends Move {
         Piece attackedPiece = (Piece) gs.getComponentById(attackedPieceID);
         int movedPieceRank = movedPiece.getPieceRank();
         int attackedPieceRank = attackedPiece.getPieceRank();
-        movedPiece.setPieceKnown(true);
-        attackedPiece.setPieceKnown(true);
+        StrategoGameState state = (StrategoGameState) gs;
+        state.revealPiece(movedPiece);
+        state.revealPiece(attackedPiece);
 
         if (attackedPiece.getPieceType() == Piece.PieceType.FLAG){
             gs.setGameStatus(Utils.GameResult.GAME_END);
@@ -9,6 +9,7 @@ import games.sushigo.actions.ChopSticksAction;
 import games.sushigo.actions.NigiriWasabiAction;
 import games.sushigo.actions.PlayCardAction;
 import games.sushigo.cards.SGCard;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.ArrayList;
@@ -118,7 +119,7 @@ public class SGForwardModel extends AbstractForwardModel {
         for (int i = 0; i < parameters.nPuddingCards; i++) {
             SGGS.drawPile.add(new SGCard(SGCard.SGCardType.Pudding));
         }
-        SGGS.drawPile.shuffle(new Random());
+        SGGS.drawPile.shuffle(new SplitMixRandom());
     }
 
     @Override
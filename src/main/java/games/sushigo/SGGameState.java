@@ -8,6 +8,7 @@ import core.components.Component;
 import core.components.Deck;
 import games.GameType;
 import games.sushigo.cards.SGCard;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -42,7 +43,7 @@ public class SGGameState extends AbstractGameState {
      */
     public SGGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, new SGTurnOrder(nPlayers), GameType.SushiGo);
-        rnd = new Random(gameParameters.getRandomSeed());
+        rnd = new SplitMixRandom(gameParameters.getRandomSeed());
     }
 
     @Override
@@ -4,6 +4,7 @@ import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.SetGridValueAction;
+import core.actions.SetGridValueActionCache;
 import core.components.GridBoard;
 import core.components.Token;
 import utilities.Utils;
@@ -15,6 +16,8 @@ import java.util.List;
 
 public class TicTacToeForwardModel extends AbstractForwardModel {
 
+    private final SetGridValueActionCache<Token> actionCache = new SetGridValueActionCache<>(TicTacToeConstants.playerMapping);
+
     @Override
     protected void _setup(AbstractGameState firstState) {
         TicTacToeGameParameters tttgp = (TicTacToeGameParameters) firstState.getGameParameters();
@@ -25,18 +28,23 @@ public class TicTacToeForwardModel extends AbstractForwardModel {
 
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
-        TicTacToeGameState tttgs = (TicTacToeGameState) gameState;
         ArrayList<AbstractAction> actions = new ArrayList<>();
+        _computeAvailableActions(gameState, actions);
+        return actions;
+    }
+
+    @Override
+    protected void _computeAvailableActions(AbstractGameState gameState, List<AbstractAction> actions) {
+        TicTacToeGameState tttgs = (TicTacToeGameState) gameState;
         int player = gameState.getTurnOrder().getCurrentPlayer(gameState);
 
         if (gameState.isNotTerminal())
             for (int x = 0; x < tttgs.gridBoard.getWidth(); x++) {
                 for (int y = 0; y < tttgs.gridBoard.getHeight(); y++) {
                     if (tttgs.gridBoard.getElement(x, y).getTokenType().equals(TicTacToeConstants.emptyCell))
-                        actions.add(new SetGridValueAction<>(tttgs.gridBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player)));
+                        actions.add(actionCache.get(tttgs.gridBoard, x, y, player));
                 }
             }
-        return actions;
     }
 
     @Override
@@ -60,6 +68,26 @@ public class TicTacToeForwardModel extends AbstractForwardModel {
         currentState.getTurnOrder().endPlayerTurn(currentState);
     }
 
+    @Override
+    protected Object _nextWithUndo(AbstractGameState currentState, AbstractAction action) {
+        // the only change other than to the turn order and results is to the one cell, so we keep its old value
+        SetGridValueAction<?> move = (SetGridValueAction<?>) action;
+        Token old = ((TicTacToeGameState) currentState).getGridBoard().getElement(move.getX(), move.getY());
+        _next(currentState, action);
+        return old;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState currentState, AbstractAction action, Object undoData) {
+        SetGridValueAction<?> move = (SetGridValueAction<?>) action;
+        ((TicTacToeGameState) currentState).getGridBoard().setElement(move.getX(), move.getY(), (Token) undoData);
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
     /**
      * Checks if the game ended.
      *
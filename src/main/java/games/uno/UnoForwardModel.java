@@ -8,6 +8,7 @@ import games.uno.UnoGameParameters.UnoScoring;
 import games.uno.actions.NoCards;
 import games.uno.actions.PlayCard;
 import games.uno.cards.UnoCard;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -100,7 +101,7 @@ public class UnoForwardModel extends AbstractForwardModel {
      * @param ugs - current game state.
      */
     private void setupRound(UnoGameState ugs) {
-        Random r = new Random(ugs.getGameParameters().getRandomSeed() + ugs.getTurnOrder().getRoundCounter());
+        Random r = new SplitMixRandom(ugs.getGameParameters().getRandomSeed() + ugs.getTurnOrder().getRoundCounter());
 
         // Refresh player decks
         for (int i = 0; i < ugs.getNPlayers(); i++) {
@@ -179,7 +180,7 @@ public class UnoForwardModel extends AbstractForwardModel {
         int roundWinner = -1;
         for (int playerID = 0; playerID < ugs.getNPlayers(); playerID++) {
             if (ugs.getPlayerResults()[playerID] == GAME_ONGOING) {
-                if (ugs.playerDecks.get(playerID).getComponents().size() == 0) {
+                if (ugs.playerDecks.get(playerID).getSize() == 0) {
                     roundEnd = true;
                     roundWinner = playerID;
                     break;
@@ -331,8 +332,8 @@ public class UnoForwardModel extends AbstractForwardModel {
         int player = ugs.getCurrentPlayer();
 
         Deck<UnoCard> playerHand = ugs.playerDecks.get(player);
-        for (UnoCard card : playerHand.getComponents()) {
-            int cardIdx = playerHand.getComponents().indexOf(card);
+        for (int cardIdx = 0; cardIdx < playerHand.getSize(); cardIdx++) {
+            UnoCard card = playerHand.get(cardIdx);
             if (card.isPlayable(ugs)) {
                 if (ugs.isWildCard(card)) {
                     for (String color : ((UnoGameParameters) ugs.getGameParameters()).colors) {
@@ -7,6 +7,7 @@ import core.AbstractGameState;
 import core.interfaces.IPrintable;
 import games.GameType;
 import games.uno.cards.*;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -98,7 +99,9 @@ public class UnoGameState extends AbstractGameState implements IPrintable {
         int nPoints = 0;
         for (int otherPlayer = 0; otherPlayer < getNPlayers(); otherPlayer++) {
             if ((selfOnly && otherPlayer == playerID) || (!selfOnly && otherPlayer != playerID)) {
-                for (UnoCard card : playerDecks.get(otherPlayer).getComponents()) {
+                Deck<UnoCard> hand = playerDecks.get(otherPlayer);
+                for (int i = 0; i < hand.getSize(); i++) {
+                    UnoCard card = hand.get(i);
                     switch (card.type) {
                         case Number:
                             nPoints += card.number;
@@ -136,7 +139,7 @@ public class UnoGameState extends AbstractGameState implements IPrintable {
         if (getCoreGameParameters().partialObservable && playerId != -1) {
             // Other player cards and the draw deck are unknown.
             // Combine all into one deck, shuffle, then deal random cards to the other players (hand size kept)
-            Random r = new Random(copy.gameParameters.getRandomSeed());
+            Random r = new SplitMixRandom(copy.gameParameters.getRandomSeed());
             for (int i = 0; i < getNPlayers(); i++) {
                 if (i != playerId) {
                     copy.drawDeck.add(copy.playerDecks.get(i));
@@ -261,7 +264,9 @@ public class UnoGameState extends AbstractGameState implements IPrintable {
         StringBuilder sb = new StringBuilder();
         sb.append("Player Hand : ");
 
-        for (UnoCard card : playerDecks.get(getCurrentPlayer()).getComponents()) {
+        Deck<UnoCard> hand = playerDecks.get(getCurrentPlayer());
+        for (int i = 0; i < hand.getSize(); i++) {
+            UnoCard card = hand.get(i);
             sb.append(card.toString());
             sb.append(" ");
         }
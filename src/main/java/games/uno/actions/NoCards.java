@@ -4,14 +4,16 @@ package games.uno.actions;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.uno.UnoGameState;
 import games.uno.cards.UnoCard;
+import utilities.SplitMixRandom;
 
 import java.util.Random;
 
 
-public class NoCards extends AbstractAction implements IPrintable {
+public class NoCards extends AbstractAction implements IPrintable, ICodedAction {
 
     // If the card drawn is playable, then play it
     @Override
@@ -21,7 +23,7 @@ public class NoCards extends AbstractAction implements IPrintable {
         Deck<UnoCard> discardDeck = ugs.getDiscardDeck();
         Deck<UnoCard> playerDeck = ugs.getPlayerDecks().get(ugs.getTurnOrder().getCurrentPlayer(gs));
 
-        Random r = new Random(ugs.getGameParameters().getRandomSeed() + ugs.getTurnOrder().getRoundCounter());
+        Random r = new SplitMixRandom(ugs.getGameParameters().getRandomSeed() + ugs.getTurnOrder().getRoundCounter());
 
         if (drawDeck.getSize() == 0) {
             drawDeck.add(discardDeck);
@@ -56,6 +58,12 @@ public class NoCards extends AbstractAction implements IPrintable {
         return new NoCards();
     }
 
+    @Override
+    public long getActionCode() {
+        // all actions of this class are equal
+        return 0;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof NoCards;
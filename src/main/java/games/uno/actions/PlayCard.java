@@ -6,11 +6,13 @@ import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.components.Card;
 import core.components.Deck;
+import core.interfaces.ICodedAction;
 import core.interfaces.IPrintable;
 import games.uno.UnoGameParameters;
 import games.uno.UnoTurnOrder;
 import games.uno.cards.UnoCard;
 import games.uno.UnoGameState;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.List;
@@ -19,7 +21,7 @@ import java.util.Random;
 
 import static games.uno.UnoGameParameters.UnoScoring.CHALLENGE;
 
-public class PlayCard extends DrawCard implements IPrintable {
+public class PlayCard extends DrawCard implements IPrintable, ICodedAction {
 
     private String color;
 
@@ -38,7 +40,7 @@ public class PlayCard extends DrawCard implements IPrintable {
         UnoGameParameters ugp = (UnoGameParameters) gameState.getGameParameters();
         super.execute(gameState);
 
-        Random r = new Random(ugp.getRandomSeed() + ugs.getTurnOrder().getRoundCounter());
+        Random r = new SplitMixRandom(ugp.getRandomSeed() + ugs.getTurnOrder().getRoundCounter());
 
         UnoCard cardToBePlayed = (UnoCard) gameState.getComponentById(cardId);
         ugs.updateCurrentCard(cardToBePlayed);
@@ -142,6 +144,12 @@ public class PlayCard extends DrawCard implements IPrintable {
         return (UnoCard) gs.getComponentById(cardId);
     }
 
+    @Override
+    public long getActionCode() {
+        // cards are always played onto the discard deck, so only the hand, card and colour chosen count
+        return (deckFrom & 0xFFFFFFFFL) << 32 | (fromIndex & 0xFFFFL) << 16 | (ICodedAction.stringCode(color) & 0xFFFFL);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
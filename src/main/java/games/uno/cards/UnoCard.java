@@ -74,8 +74,8 @@ public class UnoCard extends Card {
                 if (this.drawN >= 1) {
                     int playerID = gameState.getCurrentPlayer();
                     Deck<UnoCard> playerHand = gameState.getPlayerDecks().get(playerID);
-                    for (UnoCard card : playerHand.getComponents()) {
-                        if (card.color.equals(gameState.getCurrentColor()))
+                    for (int i = 0; i < playerHand.getSize(); i++) {
+                        if (playerHand.get(i).color.equals(gameState.getCurrentColor()))
                             return false;
                     }
                 }
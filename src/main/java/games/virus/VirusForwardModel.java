@@ -8,6 +8,7 @@ import games.virus.actions.*;
 import games.virus.cards.VirusCard;
 import games.virus.cards.VirusTreatmentCard;
 import games.virus.components.VirusBody;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.*;
@@ -39,7 +40,7 @@ public class VirusForwardModel extends AbstractForwardModel {
         vgs.drawDeck = new Deck<>("DrawDeck", -1, VisibilityMode.HIDDEN_TO_ALL);
         createCards(vgs);
 
-        vgs.drawDeck.shuffle(new Random(vgs.getGameParameters().getRandomSeed()));
+        vgs.drawDeck.shuffle(new SplitMixRandom(vgs.getGameParameters().getRandomSeed()));
 
         // Create the discard deck, at the beginning it is empty
         vgs.discardDeck = new Deck<>("DiscardDeck", -1, VisibilityMode.VISIBLE_TO_ALL);
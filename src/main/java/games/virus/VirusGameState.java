@@ -10,6 +10,7 @@ import games.GameType;
 import games.virus.cards.*;
 import games.virus.components.VirusBody;
 import games.virus.components.VirusOrgan;
+import utilities.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -56,7 +57,7 @@ public class VirusGameState extends AbstractGameState implements IPrintable {
                     vgs.playerDecks.get(i).clear();
                 }
             }
-            vgs.drawDeck.shuffle(new Random(getGameParameters().getRandomSeed()));
+            vgs.drawDeck.shuffle(new SplitMixRandom(getGameParameters().getRandomSeed()));
             for (int i = 0; i < getNPlayers(); i++) {
                 if (playerId != i) {
                     for (int j = 0; j < playerDecks.get(i).getSize(); j++) {
@@ -8,6 +8,7 @@ import games.virus.VirusGameParameters;
 import games.virus.VirusGameState;
 import games.virus.cards.VirusCard;
 import games.virus.components.VirusBody;
+import utilities.SplitMixRandom;
 
 import java.util.Objects;
 import java.util.Random;
@@ -46,7 +47,7 @@ public class DrawNewPlayerHand extends AbstractAction implements IPrintable {
             VirusCard card = vgs.getDiscardDeck().draw();
             vgs.getDrawDeck().add(card);
         }
-        vgs.getDrawDeck().shuffle(new Random(vgs.getGameParameters().getRandomSeed()));
+        vgs.getDrawDeck().shuffle(new SplitMixRandom(vgs.getGameParameters().getRandomSeed()));
     }
 
     @Override
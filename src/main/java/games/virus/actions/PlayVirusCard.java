@@ -6,6 +6,7 @@ import core.actions.DrawCard;
 import games.virus.VirusGameState;
 import games.virus.cards.VirusCard;
 import games.virus.components.VirusBody;
+import utilities.SplitMixRandom;
 
 import java.util.Objects;
 import java.util.Random;
@@ -60,7 +61,7 @@ public class PlayVirusCard extends DrawCard {
     public void discardToDraw(VirusGameState vgs) {
         vgs.getDrawDeck().add(vgs.getDiscardDeck());
         vgs.getDiscardDeck().clear();
-        vgs.getDrawDeck().shuffle(new Random(vgs.getGameParameters().getRandomSeed()));
+        vgs.getDrawDeck().shuffle(new SplitMixRandom(vgs.getGameParameters().getRandomSeed()));
     }
 
     @Override
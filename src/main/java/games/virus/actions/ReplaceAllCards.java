@@ -6,6 +6,7 @@ import core.actions.DrawComponents;
 import core.components.Deck;
 import games.virus.VirusGameState;
 import games.virus.cards.VirusCard;
+import utilities.SplitMixRandom;
 
 import java.util.Objects;
 import java.util.Random;
@@ -59,7 +60,7 @@ public class ReplaceAllCards extends DrawComponents {
     public void discardToDraw(VirusGameState vgs) {
         vgs.getDrawDeck().add(vgs.getDiscardDeck());
         vgs.getDiscardDeck().clear();
-        vgs.getDrawDeck().shuffle(new Random(vgs.getGameParameters().getRandomSeed()));
+        vgs.getDrawDeck().shuffle(new SplitMixRandom(vgs.getGameParameters().getRandomSeed()));
     }
 
     @Override
@@ -6,6 +6,7 @@ import core.actions.DrawComponents;
 import core.components.Deck;
 import games.virus.VirusGameState;
 import games.virus.cards.VirusCard;
+import utilities.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.Objects;
@@ -64,7 +65,7 @@ public class ReplaceCards extends DrawComponents {
             VirusCard card = vgs.getDiscardDeck().draw();
             vgs.getDrawDeck().add(card);
         }
-        vgs.getDrawDeck().shuffle(new Random(vgs.getGameParameters().getRandomSeed()));
+        vgs.getDrawDeck().shuffle(new SplitMixRandom(vgs.getGameParameters().getRandomSeed()));
     }
 
     @Override
@@ -7,6 +7,7 @@ import core.actions.DrawCard;
 import core.components.Deck;
 import games.virus.VirusGameState;
 import games.virus.cards.VirusCard;
+import utilities.SplitMixRandom;
 
 import java.util.Objects;
 import java.util.Random;
@@ -44,7 +45,7 @@ public class ReplaceOneCard extends DrawCard {
             VirusCard card = vgs.getDiscardDeck().draw();
             vgs.getDrawDeck().add(card);
         }
-        vgs.getDrawDeck().shuffle(new Random(vgs.getGameParameters().getRandomSeed()));
+        vgs.getDrawDeck().shuffle(new SplitMixRandom(vgs.getGameParameters().getRandomSeed()));
     }
 
 
@@ -0,0 +1,296 @@
+package gui;
+
+import io.humble.video.*;
+import io.humble.video.awt.MediaPictureConverter;
+import io.humble.video.awt.MediaPictureConverterFactory;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records a video of the GUI of a game.
+ *
+ * Capturing a frame only paints the GUI into an image from a small pool, and hands it to a queue. A separate thread
+ * converts each image to YUV and encodes it, so whoever captures the frames never waits for the codec. If the
+ * encoder falls behind and no image is free, the frame is dropped; frames identical to the one before are skipped,
+ * as nothing on the board has changed. The counts of each are kept, so it is possible to tell whether the queue is
+ * big enough (see getStatistics()).
+ */
+public class VideoRecorder {
+
+    /**
+     * Where the frames end up. The default encodes them to a file with Humble Video.
+     */
+    public interface FrameSink {
+        /**
+         * @param image     - the frame, which must not be kept after this returns
+         * @param timestamp - the time of the frame, in units of the frame rate
+         */
+        void encode(BufferedImage image, long timestamp);
+
+        /**
+         * Called once all frames have been encoded.
+         */
+        void finish();
+    }
+
+    // One captured frame waiting to be encoded (or with image null, the end of the video)
+    private static class Frame {
+        final BufferedImage image;
+        final long timestamp;
+
+        Frame(BufferedImage image, long timestamp) {
+            this.image = image;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private final int width, height;
+    private final FrameSink sink;
+    private final BlockingQueue<Frame> queue;
+    // Images not in use, so no image is allocated for each frame
+    private final BlockingQueue<BufferedImage> pool;
+    private final Thread encoderThread;
+    private volatile RuntimeException failure;
+
+    // Only used by the capturing thread
+    private byte[] lastFrame;
+    private long lastTimestamp = -1;
+
+    private final AtomicInteger captured = new AtomicInteger(), unchanged = new AtomicInteger(), dropped = new AtomicInteger(),
+            encoded = new AtomicInteger(), maxQueued = new AtomicInteger();
+    private final AtomicLong encodingNanos = new AtomicLong();
+
+    /**
+     * @param width     - width of the video (frames are cropped or padded to this)
+     * @param height    - height of the video
+     * @param queueSize - the number of frames that can wait to be encoded before more are dropped
+     * @param sink      - where the frames are encoded
+     */
+    public VideoRecorder(int width, int height, int queueSize, FrameSink sink) {
+        if (queueSize < 1)
+            throw new IllegalArgumentException("Queue size must be at least 1: " + queueSize);
+        this.width = width;
+        this.height = height;
+        this.sink = sink;
+        queue = new ArrayBlockingQueue<>(queueSize + 1);
+        // one more image than the queue can hold, for the frame being encoded
+        pool = new ArrayBlockingQueue<>(queueSize + 1);
+        for (int i = 0; i <= queueSize; i++)
+            pool.add(new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR));
+        encoderThread = new Thread(this::encodeFrames, "VideoRecorder");
+        encoderThread.setDaemon(true);
+        encoderThread.start();
+    }
+
+    /**
+     * Records to a file, with Humble Video.
+     *
+     * @param fileName        - the file to write
+     * @param formatName      - the container format (null to guess from the file name)
+     * @param codecName       - the codec (null for the default of the format)
+     * @param framesPerSecond - frames per second of the video
+     * @param width           - width of the video
+     * @param height          - height of the video
+     * @param queueSize       - the number of frames that can wait to be encoded before more are dropped
+     */
+    public VideoRecorder(String fileName, String formatName, String codecName, int framesPerSecond, int width, int height, int queueSize) {
+        this(width, height, queueSize, new HumbleSink(fileName, formatName, codecName, framesPerSecond, width, height));
+    }
+
+    /**
+     * Captures the current look of the component as the next frame. This does not wait for any encoding.
+     *
+     * @param component - the component (usually the frame of the GUI)
+     * @param timestamp - time of the frame, in units of the frame rate; frames with a timestamp no later than the
+     *                  one before are moved on to the next unit
+     * @return - true if the frame is to be encoded, false if it was dropped or the same as the one before
+     */
+    public boolean captureFrame(Component component, long timestamp) {
+        checkFailure();
+        captured.incrementAndGet();
+        BufferedImage image = pool.poll();
+        if (image == null) {
+            // the encoder is behind, and every image is waiting to be encoded
+            dropped.incrementAndGet();
+            return false;
+        }
+        Graphics2D g = image.createGraphics();
+        g.setColor(component.getBackground() == null ? Color.WHITE : component.getBackground());
+        g.fillRect(0, 0, width, height);
+        component.printAll(g);
+        g.dispose();
+
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        if (lastFrame != null && Arrays.equals(pixels, lastFrame)) {
+            unchanged.incrementAndGet();
+            pool.add(image);
+            return false;
+        }
+        if (lastFrame == null)
+            lastFrame = new byte[pixels.length];
+        System.arraycopy(pixels, 0, lastFrame, 0, pixels.length);
+
+        lastTimestamp = Math.max(timestamp, lastTimestamp + 1);
+        if (!queue.offer(new Frame(image, lastTimestamp))) {
+            // cannot happen, as there are no more images than places in the queue
+            dropped.incrementAndGet();
+            pool.add(image);
+            return false;
+        }
+        maxQueued.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    /**
+     * Encodes any frames still waiting, and finishes the video. This waits for the encoder.
+     */
+    public void close() {
+        try {
+            queue.put(new Frame(null, 0));
+            encoderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while finishing the video", e);
+        }
+        checkFailure();
+    }
+
+    private void encodeFrames() {
+        try {
+            while (true) {
+                Frame frame = queue.take();
+                if (frame.image == null)
+                    break;
+                long start = System.nanoTime();
+                try {
+                    if (failure == null)
+                        sink.encode(frame.image, frame.timestamp);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                encodingNanos.addAndGet(System.nanoTime() - start);
+                encoded.incrementAndGet();
+                pool.add(frame.image);
+            }
+            if (failure == null)
+                sink.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+
+    private void checkFailure() {
+        RuntimeException e = failure;
+        if (e != null)
+            throw new RuntimeException("Video encoding failed", e);
+    }
+
+    public int getFramesCaptured() {
+        return captured.get();
+    }
+    public int getFramesUnchanged() {
+        return unchanged.get();
+    }
+    public int getFramesDropped() {
+        return dropped.get();
+    }
+    public int getFramesEncoded() {
+        return encoded.get();
+    }
+    public int getMaxQueued() {
+        return maxQueued.get();
+    }
+
+    /**
+     * @return - a one-line summary of what happened to the frames captured
+     */
+    public String getStatistics() {
+        int n = encoded.get();
+        return String.format("%d frames captured: %d encoded (%.1f ms each), %d unchanged, %d dropped; at most %d waiting",
+                captured.get(), n, n == 0 ? 0.0 : encodingNanos.get() / 1e6 / n, unchanged.get(), dropped.get(), maxQueued.get());
+    }
+
+    /**
+     * Encodes frames to a file with Humble Video
+     */
+    private static class HumbleSink implements FrameSink {
+        private final Muxer muxer;
+        private final Encoder encoder;
+        private final MediaPicture picture;
+        private final MediaPacket packet;
+        private MediaPictureConverter converter;
+
+        HumbleSink(String fileName, String formatName, String codecName, int framesPerSecond, int width, int height) {
+            final Rational framerate = Rational.make(1, framesPerSecond);
+            // First we create a muxer using the passed in filename and formatname if given.
+            muxer = Muxer.make(fileName, null, formatName);
+
+            // Muxers have limited sets of codecs they can use. We pick the default one of the format, unless a
+            // codec name is given
+            final MuxerFormat format = muxer.getFormat();
+            final Codec codec = codecName != null
+                    ? Codec.findEncodingCodecByName(codecName)
+                    : Codec.findEncodingCodec(format.getDefaultVideoCodecId());
+
+            // Video encoders need to know at a minimum the width, height and pixel format. Some also need the
+            // frame rate. We use 420P as the format because that's what most video formats these days use
+            encoder = Encoder.make(codec);
+            encoder.setWidth(width);
+            encoder.setHeight(height);
+            final PixelFormat.Type pixelformat = PixelFormat.Type.PIX_FMT_YUV420P;
+            encoder.setPixelFormat(pixelformat);
+            encoder.setTimeBase(framerate);
+
+            // Some formats need global (rather than per-stream) headers, and in that case you have to tell the encoder
+            if (format.getFlag(MuxerFormat.Flag.GLOBAL_HEADER))
+                encoder.setFlag(Encoder.Flag.FLAG_GLOBAL_HEADER, true);
+
+            encoder.open(null, null);
+            muxer.addNewStream(encoder);
+            try {
+                muxer.open(null, null);
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException("Could not open " + fileName + " for the video", e);
+            }
+
+            // The screen captures are RGB, and the codec uses YUV, so each picture is converted (see encode())
+            picture = MediaPicture.make(encoder.getWidth(), encoder.getHeight(), pixelformat);
+            picture.setTimeBase(framerate);
+            packet = MediaPacket.make();
+        }
+
+        @Override
+        public void encode(BufferedImage image, long timestamp) {
+            if (converter == null)
+                converter = MediaPictureConverterFactory.createConverter(image, picture);
+            converter.toPicture(picture, image, timestamp);
+            do {
+                encoder.encode(packet, picture);
+                if (packet.isComplete())
+                    muxer.write(packet, false);
+            } while (packet.isComplete());
+        }
+
+        @Override
+        public void finish() {
+            // Encoders sometimes cache pictures for key-frame optimisations, so they need to be flushed, by passing
+            // in a null input until the output is not complete
+            do {
+                encoder.encode(packet, null);
+                if (packet.isComplete())
+                    muxer.write(packet, false);
+            } while (packet.isComplete());
+            muxer.close();
+        }
+    }
+}
@@ -10,6 +10,7 @@ import players.rmhc.RMHCParams;
 import players.rmhc.RMHCPlayer;
 import players.simple.OSLAPlayer;
 import players.simple.RandomPlayer;
+import utilities.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -71,7 +72,7 @@ public enum PlayerType {
      */
     public AbstractPlayer createPlayerInstance(long seed, ActionController ac, PlayerParameters params) {
         AbstractPlayer player = null;
-        Random r = new Random(seed);
+        Random r = new SplitMixRandom(seed);
         if (params != null) {
             params.setRandomSeed(seed);
         }
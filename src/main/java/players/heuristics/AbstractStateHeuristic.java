@@ -1,10 +1,12 @@
 package players.heuristics;
 
+import core.AbstractGameState;
 import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 
 import java.io.*;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Provides a wrapper around an IStateFeatureVector and an array of coefficients
@@ -14,6 +16,8 @@ public abstract class AbstractStateHeuristic implements IStateHeuristic {
     protected IStateFeatureVector features;
     protected double[] coefficients;
     protected IStateHeuristic defaultHeuristic;
+    // Features of the states being evaluated, one row after another, re-used for each evaluation on a thread
+    private final ThreadLocal<double[]> featureMatrix = ThreadLocal.withInitial(() -> new double[0]);
 
     public AbstractStateHeuristic(String featureVectorClassName, String coefficientsFile, String defaultHeuristicClassName) {
         try {
@@ -64,4 +68,64 @@ public abstract class AbstractStateHeuristic implements IStateHeuristic {
         }
     }
 
+    // The feature matrix of this thread, with room for the given number of rows
+    private double[] featureMatrix(int rows) {
+        double[] retValue = featureMatrix.get();
+        int needed = rows * (coefficients.length - 1);
+        if (retValue.length < needed) {
+            retValue = new double[Math.max(needed, retValue.length * 2)];
+            featureMatrix.set(retValue);
+        }
+        return retValue;
+    }
+
+    /**
+     * @param state    - game state
+     * @param playerId - player to evaluate the state for
+     * @return - the bias plus the sum of the coefficients times the features of the state (coefficients must not be null)
+     */
+    protected double linearPredictor(AbstractGameState state, int playerId) {
+        double[] matrix = featureMatrix(1);
+        features.featureVector(state, playerId, matrix, 0);
+        return dot(matrix, 0, coefficients);
+    }
+
+    /**
+     * Works out linearPredictor() for many states at once. The features of all the states are written to one
+     * matrix first, and then multiplied by the coefficients.
+     *
+     * @param states   - game states
+     * @param playerId - player to evaluate the states for
+     * @param results  - filled with the linear predictor of each state
+     */
+    protected void linearPredictors(List<? extends AbstractGameState> states, int playerId, double[] results) {
+        int columns = coefficients.length - 1;
+        double[] matrix = featureMatrix(states.size());
+        for (int row = 0; row < states.size(); row++)
+            features.featureVector(states.get(row), playerId, matrix, row * columns);
+        for (int row = 0; row < states.size(); row++)
+            results[row] = dot(matrix, row * columns, coefficients);
+    }
+
+    /**
+     * @param matrix       - features, starting at offset
+     * @param offset       - index in the matrix of the first feature
+     * @param coefficients - the bias, followed by one coefficient per feature
+     * @return - the bias plus the dot product of the coefficients and the features
+     */
+    static double dot(double[] matrix, int offset, double[] coefficients) {
+        int columns = coefficients.length - 1;
+        // four separate sums, so that each addition need not wait for the one before
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int i = 0;
+        for (; i + 3 < columns; i += 4) {
+            s0 += matrix[offset + i] * coefficients[i + 1];
+            s1 += matrix[offset + i + 1] * coefficients[i + 2];
+            s2 += matrix[offset + i + 2] * coefficients[i + 3];
+            s3 += matrix[offset + i + 3] * coefficients[i + 4];
+        }
+        for (; i < columns; i++)
+            s0 += matrix[offset + i] * coefficients[i + 1];
+        return coefficients[0] + (s0 + s1) + (s2 + s3);
+    }
 }
@@ -3,6 +3,7 @@ package players.heuristics;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
+import utilities.SplitMixRandom;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -15,7 +16,7 @@ import static java.util.stream.Collectors.toList;
 
 public class ActionValueHeuristic extends AbstractPlayer implements ToDoubleBiFunction<AbstractAction, AbstractGameState> {
 
-    Random rnd = new Random(System.currentTimeMillis());
+    Random rnd = new SplitMixRandom(System.currentTimeMillis());
 
     String filename;
 
@@ -52,10 +53,19 @@ public class ActionValueHeuristic extends AbstractPlayer implements ToDoubleBiFu
 
     @Override
     public ActionValueHeuristic copy() {
+        return copy(SplitMixRandom.split(rnd));
+    }
+
+    @Override
+    public ActionValueHeuristic copy(long seed) {
+        return copy(new SplitMixRandom(seed));
+    }
+
+    private ActionValueHeuristic copy(Random random) {
         ActionValueHeuristic retValue = new ActionValueHeuristic(new HashMap<>(), RND_WEIGHT, bucketFunction, defaultValue);
         retValue.actionValues.putAll(this.actionValues);
         retValue.filename = this.filename;
-        retValue.rnd = new Random(rnd.nextInt());
+        retValue.rnd = random;
         retValue.actionNames.putAll(this.actionNames);
         return retValue;
     }
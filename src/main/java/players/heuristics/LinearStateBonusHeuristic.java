@@ -5,6 +5,8 @@ import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 import utilities.Utils;
 
+import java.util.List;
+
 
 public class LinearStateBonusHeuristic extends LinearStateHeuristic {
 
@@ -24,13 +26,26 @@ public class LinearStateBonusHeuristic extends LinearStateHeuristic {
             return super.evaluateState(state, playerId);
         }
 
+        return bonus(state, playerId) * super.evaluateState(state, playerId);
+    }
+
+    @Override
+    public void evaluateStates(List<? extends AbstractGameState> states, int playerId, double[] results) {
+        super.evaluateStates(states, playerId, results);
+        for (int i = 0; i < states.size(); i++) {
+            if (!states.get(i).isNotTerminalForPlayer(playerId))
+                results[i] *= bonus(states.get(i), playerId);
+        }
+    }
+
+    private static double bonus(AbstractGameState state, int playerId) {
         switch (state.getPlayerResults()[playerId]) {
             case WIN:
-                return 1.5 * super.evaluateState(state, playerId);
+                return 1.5;
             case LOSE:
-                return 0.75 * super.evaluateState(state, playerId);
+                return 0.75;
             case DRAW:
-                return super.evaluateState(state, playerId);
+                return 1.0;
             default:
                 throw new AssertionError("Not reachable for " + state.getPlayerResults()[playerId]);
         }
@@ -5,6 +5,8 @@ import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 import utilities.Utils;
 
+import java.util.List;
+
 
 public class LinearStateHeuristic extends AbstractStateHeuristic {
 
@@ -25,11 +27,17 @@ public class LinearStateHeuristic extends AbstractStateHeuristic {
     public double evaluateState(AbstractGameState state, int playerId) {
         if (coefficients == null)
             return defaultHeuristic.evaluateState(state, playerId);
-        double[] phi = features.featureVector(state, playerId);
-        double retValue = coefficients[0]; // the bias term
-        for (int i = 0; i < phi.length; i++) {
-            retValue += phi[i] * coefficients[i+1];
+        return Utils.range(linearPredictor(state, playerId), minValue, maxValue);
+    }
+
+    @Override
+    public void evaluateStates(List<? extends AbstractGameState> states, int playerId, double[] results) {
+        if (coefficients == null) {
+            defaultHeuristic.evaluateStates(states, playerId, results);
+            return;
         }
-        return Utils.range(retValue, minValue, maxValue);
+        linearPredictors(states, playerId, results);
+        for (int i = 0; i < states.size(); i++)
+            results[i] = Utils.range(results[i], minValue, maxValue);
     }
 }
@@ -5,6 +5,8 @@ import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 import utilities.Utils;
 
+import java.util.List;
+
 
 public class LinearStateOrdHeuristic extends LinearStateHeuristic {
 
@@ -28,4 +30,17 @@ public class LinearStateOrdHeuristic extends LinearStateHeuristic {
 
         return -state.getOrdinalPosition(playerId);
     }
+
+    @Override
+    public void evaluateStates(List<? extends AbstractGameState> states, int playerId, double[] results) {
+        if (states.isEmpty())
+            return;
+        minValue = -states.get(0).getNPlayers();
+        maxValue = -1.0;
+        super.evaluateStates(states, playerId, results);
+        for (int i = 0; i < states.size(); i++) {
+            if (!states.get(i).isNotTerminalForPlayer(playerId))
+                results[i] = -states.get(i).getOrdinalPosition(playerId);
+        }
+    }
 }
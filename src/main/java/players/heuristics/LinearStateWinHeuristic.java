@@ -5,6 +5,8 @@ import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 import utilities.Utils;
 
+import java.util.List;
+
 
 public class LinearStateWinHeuristic extends LinearStateHeuristic {
 
@@ -26,6 +28,21 @@ public class LinearStateWinHeuristic extends LinearStateHeuristic {
             return super.evaluateState(state, playerId);
         }
 
+        return resultValue(state, playerId);
+    }
+
+    @Override
+    public void evaluateStates(List<? extends AbstractGameState> states, int playerId, double[] results) {
+        minValue = 0.0;
+        maxValue = 1.0;
+        super.evaluateStates(states, playerId, results);
+        for (int i = 0; i < states.size(); i++) {
+            if (!states.get(i).isNotTerminalForPlayer(playerId))
+                results[i] = resultValue(states.get(i), playerId);
+        }
+    }
+
+    private static double resultValue(AbstractGameState state, int playerId) {
         switch (state.getPlayerResults()[playerId]) {
             case WIN:
                 return 1.0;
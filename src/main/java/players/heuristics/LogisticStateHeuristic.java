@@ -4,6 +4,8 @@ import core.AbstractGameState;
 import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 
+import java.util.List;
+
 
 public class LogisticStateHeuristic extends AbstractStateHeuristic {
 
@@ -21,11 +23,17 @@ public class LogisticStateHeuristic extends AbstractStateHeuristic {
     public double evaluateState(AbstractGameState state, int playerId) {
         if (coefficients == null)
             return defaultHeuristic.evaluateState(state, playerId);
-        double[] phi = features.featureVector(state, playerId);
-        double retValue = coefficients[0];  // the bias term
-        for (int i = 0; i < phi.length; i++) {
-            retValue += phi[i] * coefficients[i+1];
+        return 1.0 / ( 1.0 + Math.exp(-linearPredictor(state, playerId)));
+    }
+
+    @Override
+    public void evaluateStates(List<? extends AbstractGameState> states, int playerId, double[] results) {
+        if (coefficients == null) {
+            defaultHeuristic.evaluateStates(states, playerId, results);
+            return;
         }
-        return 1.0 / ( 1.0 + Math.exp(-retValue));
+        linearPredictors(states, playerId, results);
+        for (int i = 0; i < states.size(); i++)
+            results[i] = 1.0 / (1.0 + Math.exp(-results[i]));
     }
 }
@@ -5,6 +5,8 @@ import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 import utilities.Utils;
 
+import java.util.List;
+
 
 public class LogisticStateWinHeuristic extends LogisticStateHeuristic {
 
@@ -24,6 +26,19 @@ public class LogisticStateWinHeuristic extends LogisticStateHeuristic {
             return super.evaluateState(state, playerId);
         }
 
+        return resultValue(state, playerId);
+    }
+
+    @Override
+    public void evaluateStates(List<? extends AbstractGameState> states, int playerId, double[] results) {
+        super.evaluateStates(states, playerId, results);
+        for (int i = 0; i < states.size(); i++) {
+            if (!states.get(i).isNotTerminalForPlayer(playerId))
+                results[i] = resultValue(states.get(i), playerId);
+        }
+    }
+
+    private static double resultValue(AbstractGameState state, int playerId) {
         switch (state.getPlayerResults()[playerId]) {
             case WIN:
                 return 1.0;
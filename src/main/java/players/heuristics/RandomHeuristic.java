@@ -3,6 +3,7 @@ package players.heuristics;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.interfaces.IActionHeuristic;
+import utilities.SplitMixRandom;
 
 import java.util.Random;
 
@@ -11,7 +12,7 @@ public class RandomHeuristic implements IActionHeuristic {
     private Random rnd;
 
     public RandomHeuristic(int seed) {
-        rnd = new Random(seed);
+        rnd = new SplitMixRandom(seed);
     }
 
     @Override
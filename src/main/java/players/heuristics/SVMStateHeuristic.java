@@ -14,6 +14,8 @@ public class SVMStateHeuristic implements IStateHeuristic {
     IStateFeatureVector features;
     svm_model model;
     IStateHeuristic defaultHeuristic;
+    // The input to the model, re-used for each evaluation on a thread (svm_predict() only reads it)
+    private final ThreadLocal<svm_node[]> nodes = ThreadLocal.withInitial(() -> new svm_node[0]);
 
     public SVMStateHeuristic(String featureVectorClassName, String svmModelLocation, String defaultHeuristicClassName) {
         try {
@@ -65,16 +67,25 @@ public class SVMStateHeuristic implements IStateHeuristic {
         if (model == null)
             return defaultHeuristic.evaluateState(state, playerId);
         double[] phi = features.featureVector(state, playerId);
-        svm_node[] data = new svm_node[phi.length + 1];
-        data[0] = new svm_node(); // bias
-        data[0].index = 0;
-        data[0].value = 1.0;
-        for (int i = 0; i < phi.length; i++) {
-            data[i + 1] = new svm_node();
-            data[i + 1].index = i + 1;
+        svm_node[] data = nodes(phi.length + 1);
+        data[0].value = 1.0; // bias
+        for (int i = 0; i < phi.length; i++)
             data[i + 1].value = phi[i];
-        }
         double result = svm.svm_predict(model, data);
         return result;
     }
+
+    // The nodes of this thread, indexed 0 to length - 1
+    private svm_node[] nodes(int length) {
+        svm_node[] retValue = nodes.get();
+        if (retValue.length != length) {
+            retValue = new svm_node[length];
+            for (int i = 0; i < length; i++) {
+                retValue[i] = new svm_node();
+                retValue[i].index = i;
+            }
+            nodes.set(retValue);
+        }
+        return retValue;
+    }
 }
@@ -1,13 +1,11 @@
 package players.learners;
 
 import core.interfaces.ILearner;
+import utilities.SplitMixRandom;
 import weka.core.Attribute;
 import weka.core.DenseInstance;
 import weka.core.Instances;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -21,9 +19,10 @@ public abstract class AbstractLearner implements ILearner {
     protected double[][] currentScore;
     protected ArrayList<Attribute> attributes;
     protected boolean addNoise = false;
+    protected boolean cacheData = false;
     protected double noiseLevel = 0.01;
     String[] descriptions;
-    private final Random rnd = new Random(System.currentTimeMillis());
+    private final Random rnd = new SplitMixRandom(System.currentTimeMillis());
     double gamma;
     Target targetType;
 
@@ -56,27 +55,71 @@ public abstract class AbstractLearner implements ILearner {
         targetType = newTarget;
     }
 
+    /**
+     * @param cache - true to cache the parsed data of each file in a binary file alongside it, and read that instead
+     *              for as long as the file is unchanged (see TSVDataReader)
+     */
+    public void setCacheData(boolean cache) {
+        cacheData = cache;
+    }
+
+    protected interface DataConsumer {
+        /**
+         * @param features     - the BIAS term (1.0) followed by the game-specific features of one record. This array
+         *                     is re-used for the next record, so must be copied if it is to be kept.
+         * @param target       - the value to learn for the record (discounted as set by gamma and the Target)
+         * @param currentScore - the score of the player at the time of the record
+         */
+        void accept(double[] features, double target, double currentScore);
+    }
+
+    /**
+     * Reads the records in the files one at a time, without keeping them, so that data much larger than the heap can
+     * be learned from. The header, descriptions and attributes are set from the first file, and all the others must
+     * have the same columns.
+     *
+     * @param consumer - is given each record in turn
+     * @param files    - data files, as written by a StateFeatureListener
+     * @return - the number of records read
+     */
+    protected long streamData(DataConsumer consumer, String... files) {
+        TSVDataReader reader = new TSVDataReader(cacheData);
+        long retValue = 0;
+        for (int f = 0; f < files.length; f++) {
+            String[] fileHeader = reader.header(files[f]);
+            if (f == 0)
+                setHeader(fileHeader);
+            else if (!Arrays.equals(header, fileHeader))
+                throw new AssertionError("Columns of " + files[f] + " do not match those of " + files[0]);
+            double[] features = new double[header.length - 9];
+            features[0] = 1.0; // the bias term
+            retValue += reader.forEachRow(files[f], allData -> {
+                System.arraycopy(allData, 5, features, 1, features.length - 1);
+                consumer.accept(features, target(allData), allData[4]);
+            });
+        }
+        return retValue;
+    }
+
     protected void loadData(String... files) {
         List<double[]> data = new ArrayList<>();
-        for (String file : files) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                header = reader.readLine().split("\\t");
-                descriptions = new String[header.length - 10];
-                System.arraycopy(header, 5, descriptions, 0, descriptions.length);
-                while (reader.ready()) {
-                    double[] datum = Arrays.stream(reader.readLine().split("\\t")).mapToDouble(Double::parseDouble).toArray();
-                    data.add(datum);
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-                throw new AssertionError("Problem reading file " + file);
-            } catch (NumberFormatException e) {
-                e.printStackTrace();
-                throw new AssertionError("Problem parsing data as numeric : " + file);
-            }
+        List<double[]> targetAndScore = new ArrayList<>();
+        streamData((features, target, currentScore) -> {
+            data.add(features.clone());
+            targetAndScore.add(new double[]{target, currentScore});
+        }, files);
+
+        dataArray = data.toArray(new double[0][]);
+        target = new double[data.size()][1];
+        currentScore = new double[data.size()][1];
+        for (int i = 0; i < dataArray.length; i++) {
+            target[i][0] = targetAndScore.get(i)[0];
+            currentScore[i][0] = targetAndScore.get(i)[1];
         }
+    }
 
-        // now convert data to [][]
+    private void setHeader(String[] fileHeader) {
+        header = fileHeader;
         // we assume (for the moment) that the columns are: GameID, Player, Round, Turn, CurrentScore... Win, Ordinal, FinalScore
         // with ... representing the game specific features
         if (!header[0].equals("GameID") || !header[1].equals("Player") || !header[2].equals("Round") || !header[3].equals("Turn") || !header[4].equals("CurrentScore")) {
@@ -87,35 +130,35 @@ public abstract class AbstractLearner implements ILearner {
                 || !header[header.length - 5].equals("PlayerCount")) {
             throw new AssertionError("Unexpected final header entries " + String.join("", header));
         }
+        descriptions = new String[header.length - 10];
+        System.arraycopy(header, 5, descriptions, 0, descriptions.length);
         attributes = new ArrayList<>();
         attributes.add(new Attribute("BIAS"));
         for (int i = 5; i < header.length - 5; i++)
             attributes.add(new Attribute(header[i]));
-        dataArray = new double[data.size()][];
-        target = new double[data.size()][1];
-        currentScore = new double[data.size()][1];
-        for (int i = 0; i < dataArray.length; i++) {
-            double[] allData = data.get(i);
-            // calculate the number of turns from this point until the end of the game
-            double turns = allData[header.length - 4] - allData[2];
-            // discount target (towards expected result where relevant)
-            double expectedAverage = 0.0;
-            if (targetType == Target.WIN_MEAN)
-                expectedAverage = 1.0 / allData[header.length - 5];
-            if (targetType == Target.ORD_MEAN)
-                expectedAverage = (1.0 + allData[header.length - 5]) / 2.0;
-            if (targetType == Target.SCORE_DELTA)
-                target[i][0] = (allData[header.length - targetType.indexOffset] - allData[4]) * Math.pow(gamma, turns);
-            else
-                target[i][0] = (allData[header.length - targetType.indexOffset] - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
-            if (targetType == Target.ORDINAL || targetType == Target.ORD_MEAN)
-                target[i][0] = -target[i][0];  // if we are targeting the Ordinal position, then high is bad!
-            currentScore[i][0] = allData[4];
-            double[] regressionData = new double[header.length - 9];
-            regressionData[0] = 1.0; // the bias term
-            System.arraycopy(allData, 5, regressionData, 1, regressionData.length - 1);
-            dataArray[i] = regressionData;
-        }
+    }
+
+    /**
+     * @param allData - one row of a data file
+     * @return - the value to learn for the row
+     */
+    protected double target(double[] allData) {
+        // calculate the number of turns from this point until the end of the game
+        double turns = allData[header.length - 4] - allData[2];
+        // discount target (towards expected result where relevant)
+        double expectedAverage = 0.0;
+        if (targetType == Target.WIN_MEAN)
+            expectedAverage = 1.0 / allData[header.length - 5];
+        if (targetType == Target.ORD_MEAN)
+            expectedAverage = (1.0 + allData[header.length - 5]) / 2.0;
+        double retValue;
+        if (targetType == Target.SCORE_DELTA)
+            retValue = (allData[header.length - targetType.indexOffset] - allData[4]) * Math.pow(gamma, turns);
+        else
+            retValue = (allData[header.length - targetType.indexOffset] - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
+        if (targetType == Target.ORDINAL || targetType == Target.ORD_MEAN)
+            retValue = -retValue;  // if we are targeting the Ordinal position, then high is bad!
+        return retValue;
     }
 
     protected Instances createInstances(boolean includeBias) {
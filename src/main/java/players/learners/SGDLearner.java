@@ -0,0 +1,115 @@
+package players.learners;
+
+import java.io.FileWriter;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * A linear model (with a link function) learned by mini-batch stochastic gradient descent. The data are read from
+ * the files again for each epoch (see streamData()), and only the coefficients and the gradient of the current batch
+ * are kept in memory, so that there is no limit on the amount of data other than the time taken to read it. Use
+ * setCacheData(true) to read the files from a binary cache after the first epoch.
+ * <p>
+ * The loss is the one for which the link is canonical (squared error for the identity, and log loss for the
+ * logistic function), so that the gradient for each record is (link(x.beta) - y) * x. The step for each coefficient
+ * is scaled by AdaGrad, as the features are not standardised and may have very different scales.
+ */
+public abstract class SGDLearner extends AbstractLearner {
+
+    double[] coefficients;
+    int epochs = 20;
+    int batchSize = 64;
+    double learningRate = 0.1;
+    // L2 regularisation (not applied to the BIAS term)
+    double ridge = 1e-4;
+
+    private double[] gradient;
+    private double[] sumSquaredGradients;
+    private int inBatch;
+
+    public SGDLearner() {
+        super();
+    }
+
+    /**
+     * @param epochs       - number of passes through the data
+     * @param batchSize    - number of records in each step
+     * @param learningRate - size of the first step, before it is scaled down by AdaGrad
+     */
+    public SGDLearner(int epochs, int batchSize, double learningRate) {
+        super();
+        if (epochs < 1 || batchSize < 1 || learningRate <= 0.0)
+            throw new IllegalArgumentException(String.format("Epochs (%d), batch size (%d) and learning rate (%.3g) must all be positive",
+                    epochs, batchSize, learningRate));
+        this.epochs = epochs;
+        this.batchSize = batchSize;
+        this.learningRate = learningRate;
+    }
+
+    /**
+     * @param linearPredictor - x.beta for a record
+     * @return - the predicted value of the record
+     */
+    protected abstract double link(double linearPredictor);
+
+    @Override
+    public void learnFrom(String... files) {
+        coefficients = null;
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            streamData(this::addRecord, files);
+            if (inBatch > 0)
+                step();
+        }
+        if (coefficients == null)
+            throw new AssertionError("No data to learn from in " + String.join(", ", files));
+    }
+
+    private void addRecord(double[] x, double y, double currentScore) {
+        if (coefficients == null) {
+            coefficients = new double[x.length];
+            gradient = new double[x.length];
+            sumSquaredGradients = new double[x.length];
+            inBatch = 0;
+        }
+        double error = link(predictor(x)) - y;
+        for (int i = 0; i < x.length; i++)
+            gradient[i] += error * x[i];
+        if (++inBatch == batchSize)
+            step();
+    }
+
+    private void step() {
+        for (int i = 0; i < coefficients.length; i++) {
+            double g = gradient[i] / inBatch + (i == 0 ? 0.0 : ridge * coefficients[i]);
+            sumSquaredGradients[i] += g * g;
+            if (sumSquaredGradients[i] > 0.0)
+                coefficients[i] -= learningRate * g / Math.sqrt(sumSquaredGradients[i]);
+            gradient[i] = 0.0;
+        }
+        inBatch = 0;
+    }
+
+    /**
+     * @param x - the BIAS term and features of a record
+     * @return - x.beta with the coefficients learned so far
+     */
+    double predictor(double[] x) {
+        double retValue = 0.0;
+        for (int i = 0; i < x.length; i++)
+            retValue += coefficients[i] * x[i];
+        return retValue;
+    }
+
+    @Override
+    public boolean writeToFile(String file) {
+        try (FileWriter writer = new FileWriter(file, false)) {
+            writer.write("BIAS\t" + String.join("\t", descriptions) + "\n");
+            writer.write(Arrays.stream(coefficients).mapToObj(d -> String.format("%.4g", d)).collect(Collectors.joining("\t")));
+            writer.write("\n");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+        return true;
+    }
+}
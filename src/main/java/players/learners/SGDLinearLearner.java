@@ -0,0 +1,27 @@
+package players.learners;
+
+/**
+ * Linear regression by mini-batch SGD (see SGDLearner), for a LinearStateHeuristic (or, with Target.ORDINAL, a
+ * LinearStateOrdHeuristic). This gives much the same coefficients as SimpleRegressionLearner, which is exact, but can
+ * be stopped after a fixed number of passes through the data.
+ */
+public class SGDLinearLearner extends SGDLearner {
+
+    public SGDLinearLearner() {
+        super();
+    }
+
+    public SGDLinearLearner(int epochs, int batchSize, double learningRate) {
+        super(epochs, batchSize, learningRate);
+    }
+
+    @Override
+    protected double link(double linearPredictor) {
+        return linearPredictor;
+    }
+
+    @Override
+    public String name() {
+        return "SGD-OLS";
+    }
+}
@@ -0,0 +1,27 @@
+package players.learners;
+
+/**
+ * Logistic regression by mini-batch SGD (see SGDLearner), for a LogisticStateHeuristic. Unlike WekaLogisticLearner,
+ * this does not need all the data in memory at once. The target should be between 0 and 1 (as for Target.WIN or
+ * WIN_MEAN), and the coefficients give the probability of a win as for WekaLogisticLearner.
+ */
+public class SGDLogisticLearner extends SGDLearner {
+
+    public SGDLogisticLearner() {
+        super();
+    }
+
+    public SGDLogisticLearner(int epochs, int batchSize, double learningRate) {
+        super(epochs, batchSize, learningRate);
+    }
+
+    @Override
+    protected double link(double linearPredictor) {
+        return 1.0 / (1.0 + Math.exp(-linearPredictor));
+    }
+
+    @Override
+    public String name() {
+        return "SGD-Logistic";
+    }
+}
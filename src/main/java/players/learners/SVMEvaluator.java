@@ -22,6 +22,7 @@ import java.util.stream.IntStream;
 
 import libsvm.*;
 import utilities.Pair;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import static java.util.stream.Collectors.joining;
@@ -55,7 +56,7 @@ public class SVMEvaluator implements SolutionEvaluator {
         this.searchSpace = parametersToTune;
         this.nPlayers = nPlayers;
         this.opponent = opponent;
-        this.rnd = new Random(seed);
+        this.rnd = new SplitMixRandom(seed);
         this.phiFn = statePhi;
         this.trainingData = trainingData;
         this.gamesPerEval = gamesPerEval;
@@ -1,6 +1,5 @@
 package players.learners;
 
-import weka.core.matrix.LinearRegression;
 import weka.core.matrix.Matrix;
 
 import java.io.FileWriter;
@@ -10,16 +9,51 @@ import java.util.stream.Collectors;
 public class SimpleRegressionLearner extends AbstractLearner {
 
     double[] coefficients;
+    double ridge = 0.1;
+    // X'X (upper triangle only) and X'Y, added up one record at a time
+    private double[][] xTx;
+    private double[] xTy;
 
     @Override
     public void learnFrom(String... files) {
-        loadData(files);
-        // We now have all the data loaded, so can run regression
-        Matrix X = new Matrix(dataArray);
-        Matrix Y = new Matrix(target);
+        // The regression only needs X'X and X'Y, so we add these up as we read the data rather than load it all
+        xTx = null;
+        streamData((x, y, currentScore) -> {
+            if (xTx == null) {
+                xTx = new double[x.length][x.length];
+                xTy = new double[x.length];
+            }
+            for (int i = 0; i < x.length; i++) {
+                double xi = x[i];
+                if (xi == 0.0)
+                    continue;
+                double[] row = xTx[i];
+                for (int j = i; j < x.length; j++)
+                    row[j] += xi * x[j];
+                xTy[i] += xi * y;
+            }
+        }, files);
+        if (xTx == null)
+            throw new AssertionError("No data to learn from in " + String.join(", ", files));
+        for (int i = 0; i < xTx.length; i++)
+            for (int j = 0; j < i; j++)
+                xTx[i][j] = xTx[j][i];
+        coefficients = solve(new Matrix(xTx), new Matrix(xTy, xTy.length), ridge);
+    }
 
-        LinearRegression regression = new LinearRegression(X, Y, 0.1);
-        coefficients = regression.getCoefficients();
+    // As weka.core.matrix.LinearRegression does: the ridge is added to the diagonal, and increased if that is not
+    // enough to make X'X invertible
+    private static double[] solve(Matrix xTx, Matrix xTy, double ridge) {
+        while (true) {
+            Matrix ridged = xTx.copy();
+            for (int i = 0; i < ridged.getRowDimension(); i++)
+                ridged.set(i, i, ridged.get(i, i) + ridge);
+            try {
+                return ridged.solve(xTy).getColumnPackedCopy();
+            } catch (Exception e) {
+                ridge *= 10.0;
+            }
+        }
     }
 
     @Override
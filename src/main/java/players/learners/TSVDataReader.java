@@ -0,0 +1,308 @@
+package players.learners;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the rows of a file of tab-separated numbers (with a header line of column names, as written by
+ * FileStatsLogger) one at a time, so that a file much larger than the heap can be read in bounded memory.
+ * The file is memory-mapped a window at a time, and the numbers parsed straight from the mapped bytes, with
+ * nothing allocated per row or per number (except for the few numbers that the fast path cannot parse exactly,
+ * which are handed to Double.parseDouble()).
+ * <p>
+ * Optionally, the parsed rows of each file are cached in a binary file alongside it (with CACHE_SUFFIX appended
+ * to the name), which is then read instead of the text for as long as the original file is unchanged. This is
+ * worth doing when the same files are read many times, as by the epochs of an SGDLearner.
+ * <p>
+ * It is not thread-safe.
+ */
+public class TSVDataReader {
+
+    public interface RowConsumer {
+        /**
+         * @param row - the numbers in one row of the file. This array is re-used for the next row, so must be
+         *            copied if it is to be kept.
+         */
+        void accept(double[] row);
+    }
+
+    public static final String CACHE_SUFFIX = ".bin";
+    private static final int CACHE_VERSION = 0x54535601;
+    // version, length and modification time of the original file, and number of columns
+    private static final int CACHE_HEADER = 4 + 8 + 8 + 4;
+    // largest window of a file mapped at once
+    private static final int WINDOW = 1 << 26;
+    // powers of ten that are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+    }
+
+    private final boolean cache;
+    private final int window;
+
+    /**
+     * @param cache - true to cache the parsed rows of each file in a binary file, and read that if it is up to date
+     */
+    public TSVDataReader(boolean cache) {
+        this(cache, WINDOW);
+    }
+
+    /**
+     * @param cache  - as above
+     * @param window - most bytes of a file to map at once (a window smaller than the default is only useful in
+     *               testing the joins between windows)
+     */
+    public TSVDataReader(boolean cache, int window) {
+        if (window < 1)
+            throw new IllegalArgumentException("The window must be at least one byte, not " + window);
+        this.cache = cache;
+        this.window = window;
+    }
+
+    /**
+     * @param file - file to read
+     * @return - the column names in the header line of the file
+     */
+    public String[] header(String file) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            if (line == null)
+                throw new AssertionError("No header in file " + file);
+            return line.split("\\t");
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem reading file " + file);
+        }
+    }
+
+    /**
+     * Reads every row of a file, in order.
+     *
+     * @param file     - file to read
+     * @param consumer - is given each row in turn
+     * @return - the number of rows read
+     */
+    public long forEachRow(String file, RowConsumer consumer) {
+        int columns = header(file).length;
+        Path source = Paths.get(file);
+        Path cacheFile = Paths.get(file + CACHE_SUFFIX);
+        try {
+            if (cache && cacheIsCurrent(source, cacheFile, columns))
+                return readCache(cacheFile, columns, consumer);
+            if (!cache)
+                return readText(source, columns, consumer);
+            // the cache is written to a temporary file first, so that it is never left incomplete
+            Path temporary = Paths.get(file + CACHE_SUFFIX + ".tmp");
+            long rows;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(CACHE_VERSION);
+                out.writeLong(Files.size(source));
+                out.writeLong(Files.getLastModifiedTime(source).toMillis());
+                out.writeInt(columns);
+                rows = readText(source, columns, row -> {
+                    try {
+                        for (double d : row)
+                            out.writeDouble(d);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    consumer.accept(row);
+                });
+            }
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            return rows;
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem reading file " + file);
+        } catch (NumberFormatException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem parsing data as numeric : " + file);
+        }
+    }
+
+    private static boolean cacheIsCurrent(Path source, Path cacheFile, int columns) throws IOException {
+        if (!Files.exists(cacheFile) || Files.size(cacheFile) < CACHE_HEADER)
+            return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            return in.readInt() == CACHE_VERSION
+                    && in.readLong() == Files.size(source)
+                    && in.readLong() == Files.getLastModifiedTime(source).toMillis()
+                    && in.readInt() == columns
+                    && (Files.size(cacheFile) - CACHE_HEADER) % (8L * columns) == 0;
+        }
+    }
+
+    private long readCache(Path cacheFile, int columns, RowConsumer consumer) throws IOException {
+        double[] row = new double[columns];
+        long rowBytes = 8L * columns;
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long rowsPerWindow = Math.max(1, window / rowBytes);
+            for (long position = CACHE_HEADER; position < size; ) {
+                long length = Math.min(rowsPerWindow * rowBytes, size - position);
+                DoubleBuffer doubles = channel.map(FileChannel.MapMode.READ_ONLY, position, length).asDoubleBuffer();
+                while (doubles.remaining() >= columns) {
+                    doubles.get(row);
+                    consumer.accept(row);
+                    rows++;
+                }
+                position += length;
+            }
+        }
+        return rows;
+    }
+
+    private long readText(Path source, int columns, RowConsumer consumer) throws IOException {
+        double[] row = new double[columns];
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            int windowSize = window;
+            boolean inHeader = true;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastWindow = position + length == size;
+                // start and end of the line being read
+                int start = 0;
+                while (start < length) {
+                    int end = start;
+                    while (end < length && buffer.get(end) != '\n')
+                        end++;
+                    if (end == length && !lastWindow)
+                        break;  // the line carries on into the next window
+                    if (inHeader) {
+                        inHeader = false;
+                    } else if (parseLine(buffer, start, end, row, source)) {
+                        consumer.accept(row);
+                        rows++;
+                    }
+                    start = end + 1;
+                }
+                if (start == 0 && !lastWindow) {
+                    // a line longer than the whole window, so we map it again with a bigger one
+                    if (windowSize == Integer.MAX_VALUE)
+                        throw new AssertionError("Line too long in file " + source);
+                    windowSize = (int) Math.min(Integer.MAX_VALUE, 2L * windowSize);
+                    continue;
+                }
+                position += Math.min(start, length);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Parses one line of numbers into row.
+     *
+     * @return - true if there was a row, false if the line was blank
+     */
+    private static boolean parseLine(ByteBuffer buffer, int start, int end, double[] row, Path source) {
+        if (end > start && buffer.get(end - 1) == '\r')
+            end--;
+        if (end == start)
+            return false;
+        int column = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == '\t') {
+                if (column == row.length)
+                    throw new AssertionError(String.format("More than %d columns in a row of file %s", row.length, source));
+                row[column++] = parseDouble(buffer, fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        if (column != row.length)
+            throw new AssertionError(String.format("Only %d of %d columns in a row of file %s", column, row.length, source));
+        return true;
+    }
+
+    /**
+     * Parses a number in decimal notation (with an optional exponent, as written by %g). When there are at most 15
+     * significant digits, and the exponent is small, the digits and the power of ten are both exact as doubles and
+     * so their product or quotient is the correctly rounded result, exactly as Double.parseDouble() would give.
+     * Anything else is handed to Double.parseDouble().
+     *
+     * @param buffer - bytes holding the number
+     * @param start  - index of its first byte
+     * @param end    - index after its last byte
+     * @return - the number
+     */
+    static double parseDouble(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long digits = 0;
+        int significant = 0, exponent = 0;
+        boolean anyDigits = false;
+        for (; i < end && isDigit(buffer.get(i)); i++) {
+            digits = digits * 10 + (buffer.get(i) - '0');
+            if (digits > 0)
+                significant++;
+            anyDigits = true;
+        }
+        if (i < end && buffer.get(i) == '.') {
+            for (i++; i < end && isDigit(buffer.get(i)); i++) {
+                digits = digits * 10 + (buffer.get(i) - '0');
+                if (digits > 0)
+                    significant++;
+                exponent--;
+                anyDigits = true;
+            }
+        }
+        if (anyDigits && i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            int explicit = 0;
+            boolean anyExponentDigits = false;
+            for (; i < end && isDigit(buffer.get(i)) && explicit < 10000; i++) {
+                explicit = explicit * 10 + (buffer.get(i) - '0');
+                anyExponentDigits = true;
+            }
+            if (!anyExponentDigits)
+                return slowParse(buffer, start, end);
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        if (!anyDigits || i != end || significant > 15)
+            return slowParse(buffer, start, end);
+        if (digits == 0)
+            return negative ? -0.0 : 0.0;
+        if (exponent < -22 || exponent > 22)
+            return slowParse(buffer, start, end);
+        double retValue = exponent < 0 ? digits / POWERS_OF_TEN[-exponent] : digits * POWERS_OF_TEN[exponent];
+        return negative ? -retValue : retValue;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static double slowParse(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = buffer.get(start + i);
+        return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII).trim());
+    }
+}
@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
+import utilities.SplitMixRandom;
 
 import java.util.List;
 import java.util.Random;
@@ -29,7 +30,7 @@ public class BasicMCTSPlayer extends AbstractPlayer {
 
     public BasicMCTSPlayer(long seed) {
         this.params = new MCTSParams(seed);
-        rnd = new Random(seed);
+        rnd = new SplitMixRandom(seed);
         setName("Basic MCTS");
 
         // These parameters can be changed, and will impact the Basic MCTS algorithm
@@ -49,7 +50,7 @@ public class BasicMCTSPlayer extends AbstractPlayer {
 
     public BasicMCTSPlayer(MCTSParams params) {
         this.params = params;
-        rnd = new Random(params.getRandomSeed());
+        rnd = new SplitMixRandom(params.getRandomSeed());
         setName("Basic MCTS");
     }
 
@@ -5,6 +5,7 @@ import core.actions.AbstractAction;
 import players.PlayerConstants;
 import players.simple.RandomPlayer;
 import utilities.ElapsedCpuTimer;
+import utilities.SplitMixRandom;
 
 import java.util.*;
 
@@ -150,7 +151,7 @@ class BasicTreeNode {
      */
     private BasicTreeNode expand() {
         // Find random child not already created
-        Random r = new Random(player.params.getRandomSeed());
+        Random r = new SplitMixRandom(player.params.getRandomSeed());
         // pick a random unchosen action
         List<AbstractAction> notChosen = unexpandedActions();
         AbstractAction chosen = notChosen.get(r.nextInt(notChosen.size()));
@@ -0,0 +1,689 @@
+package players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.UndoToken;
+import core.actions.AbstractAction;
+import core.actions.ActionMap;
+import core.interfaces.IActionHeuristic;
+import core.interfaces.IStateHeuristic;
+import core.interfaces.IStatisticLogger;
+import utilities.ElapsedCpuTimer;
+import utilities.Utils;
+
+import java.util.*;
+
+import static players.PlayerConstants.BUDGET_TIME;
+import static players.mcts.MCTSEnums.Information.Information_Set;
+import static players.mcts.MCTSEnums.Information.Open_Loop;
+import static players.mcts.MCTSEnums.OpponentTreePolicy.*;
+import static players.mcts.MCTSEnums.RolloutTermination.DEFAULT;
+import static utilities.Utils.noise;
+
+/**
+ * An MCTS tree that keeps its nodes in arrays of primitives rather than as SingleTreeNode objects, for large budgets
+ * with which a tree of SingleTreeNodes takes up too much memory (see MCTSParams.compactTree).
+ * <p>
+ * A node is an index into these arrays, which hold its visits, the sums of the values (and their squares) for each
+ * player, and the indices of its parent, first child and next sibling. Each node also has the action that reaches it
+ * and the player to act in it, which together identify it among its siblings (as with the nodeArray of a
+ * SingleTreeNode). Nothing else is kept, and in particular no state: with open loop search the state is that of the
+ * iteration in progress. With two players a node takes up about 80 bytes, a SingleTreeNode several hundred.
+ * <p>
+ * The arrays grow as needed up to MCTSParams.maxTreeNodes nodes. Once they are full, each new node recycles a leaf
+ * that has not been visited in the current iteration: the one with fewest visits among the next few found by a sweep
+ * through the arrays. So a search can go on for as long as the budget allows in a fixed amount of memory, forgetting
+ * the parts of the tree that are least visited.
+ * <p>
+ * With MCTSParams.reuseTree the tree is kept from one decision to the next. The node reached from the old root by the
+ * actions taken since (as recorded in the history of the state) becomes the new root, and the rest of the tree is
+ * discarded. With SelfOnly only our own action is in the tree, and the opponents' moves since are averaged over.
+ * <p>
+ * Only some of the options of SingleTreeNode are supported (see supported()), and MCTSPlayer searches with
+ * SingleTreeNode otherwise. With these the search is that of SingleTreeNode, except that the valid visits of an action
+ * (used in the exploration term) are only counted from when it is expanded.
+ */
+final class CompactTree {
+
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+    private static final int INITIAL_CAPACITY = 1024;
+    // number of leaves the sweep looks at to choose one to recycle
+    private static final int RECYCLE_CANDIDATES = 8;
+
+    private final MCTSPlayer player;
+    private final MCTSParams params;
+
+    private int nPlayers;
+    private int size;
+    private int[] parent, firstChild, nextSibling, actor, visits, validVisits, lastVisit;
+    private AbstractAction[] actionToReach;
+    // indexed by node * nPlayers + player
+    private double[] totValue, totSquares;
+    private double lowReward, highReward;
+    // where the sweep for a node to recycle carries on from
+    private int hand;
+    // the iteration that visits to nodes are stamped with; this only ever increases
+    private int stamp;
+    // the size of the history of the state at the root, to find the actions taken since
+    private int rootHistory;
+    private int rootPlayer;
+
+    // for the search in progress
+    private AbstractForwardModel forwardModel;
+    private IStateHeuristic heuristic;
+    private AbstractPlayer[] opponentModels;
+    private Random rnd;
+    private int fmCalls, copies, rolloutActionsTaken, recycled, reusedVisits;
+    private ArrayDeque<UndoToken> undoStack;
+    private int[] path = new int[64];
+    private int pathLength;
+    private double[] startingValues;
+    private final List<AbstractAction> actionBuffer = new ArrayList<>();
+    private final ActionMap<Integer> actionIndex = new ActionMap<>();
+    // statistics of the actions in actionBuffer at the node being selected from. canonical is the index of the first
+    // action equal to each one, as the statistics of equal actions are only kept once
+    private int[] canonical = new int[16], actionVisits = new int[16], actionValidVisits = new int[16];
+    private double[] actionValue = new double[16], actionSquares = new double[16];
+    private boolean[] expanded = new boolean[16];
+
+    CompactTree(MCTSPlayer player) {
+        this.player = player;
+        this.params = player.params;
+    }
+
+    /**
+     * @param params - parameters of the search
+     * @return - true if the search these set out can be done on a CompactTree
+     */
+    static boolean supported(MCTSParams params) {
+        return (params.information == Open_Loop || params.information == Information_Set)
+                && (params.opponentTreePolicy == SelfOnly || params.opponentTreePolicy == Paranoid || params.opponentTreePolicy == MaxN)
+                && (params.treePolicy == MCTSEnums.TreePolicy.UCB || params.treePolicy == MCTSEnums.TreePolicy.AlphaGo
+                || params.treePolicy == MCTSEnums.TreePolicy.UCB_Tuned)
+                && !params.useMAST && params.biasVisits == 0 && params.progressiveWideningConstant < 1.0
+                && (params.advantageFunction == null || params.advantageFunction == IActionHeuristic.nullReturn)
+                && params.threads == 1 && !params.gatherExpertIterationData;
+    }
+
+    /**
+     * Searches from the given state, re-using the tree from the last search if MCTSParams.reuseTree is set.
+     *
+     * @param state       - the state to search from
+     * @param statsLogger - for statistics on the search (may be null)
+     * @return - the best action found
+     */
+    AbstractAction search(AbstractGameState state, IStatisticLogger statsLogger) {
+        if (params.maxTreeNodes < 2)
+            throw new IllegalArgumentException("maxTreeNodes must be at least 2, not " + params.maxTreeNodes);
+        forwardModel = player.getForwardModel();
+        heuristic = player.heuristic;
+        rnd = player.rnd;
+        rootPlayer = state.getCurrentPlayer();
+        opponentModels = new AbstractPlayer[state.getNPlayers()];
+        for (int p = 0; p < opponentModels.length; p++)
+            opponentModels[p] = p == rootPlayer ? player.rolloutStrategy : player.getOpponentModel(p);
+        fmCalls = 0;
+        copies = 0;
+        rolloutActionsTaken = 0;
+        recycled = 0;
+        reusedVisits = 0;
+
+        List<AbstractAction> taken = params.reuseTree && size > 0 && nPlayers == state.getNPlayers()
+                ? player.actionsSince(state, rootHistory) : null;
+        int newRoot = taken != null && !taken.isEmpty()
+                ? descendant(ROOT, params.opponentTreePolicy == SelfOnly ? taken.subList(0, 1) : taken)
+                : NONE;
+        if (newRoot == NONE) {
+            clear(state.getNPlayers());
+        } else {
+            // children for actions that are not available in state were expanded from other states, and are dropped
+            forwardModel.computeAvailableActions(state, actionBuffer);
+            actionIndex.clear();
+            for (int i = 0; i < actionBuffer.size(); i++)
+                actionIndex.put(actionBuffer.get(i), i);
+            int previous = NONE;
+            for (int child = firstChild[newRoot]; child != NONE; child = nextSibling[child]) {
+                if (actionIndex.containsKey(actionToReach[child]))
+                    previous = child;
+                else if (previous == NONE)
+                    firstChild[newRoot] = nextSibling[child];
+                else
+                    nextSibling[previous] = nextSibling[child];
+            }
+            reroot(newRoot);
+            reusedVisits = visits[ROOT];
+        }
+        rootHistory = state.getHistorySize();
+        startingValues = new double[nPlayers];
+
+        double acumTimeTaken = 0;
+        ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
+        if (params.budgetType == BUDGET_TIME)
+            elapsedTimer.setMaxTimeMillis(params.budget);
+        int numIters = 0;
+        AbstractGameState undoState = null;
+        if (params.information == Open_Loop && forwardModel.supportsUndo()) {
+            undoState = state.copy();
+            undoState.setSimulation(true);
+            undoStack = new ArrayDeque<>();
+            copies++;
+        }
+        boolean stop = false;
+        while (!stop) {
+            AbstractGameState iterationState;
+            if (undoStack != null) {
+                iterationState = undoState;
+            } else {
+                iterationState = params.information == Open_Loop ? state.copy() : state.copy(rootPlayer);
+                iterationState.setSimulation(true);
+                copies++;
+            }
+            ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
+            oneSearchIteration(iterationState);
+            if (undoStack != null) {
+                while (!undoStack.isEmpty())
+                    forwardModel.undo(undoState, undoStack.pop());
+            }
+            numIters++;
+            acumTimeTaken += elapsedTimerIteration.elapsedMillis();
+            stop = SingleTreeNode.budgetExhausted(params, numIters, fmCalls, copies, acumTimeTaken / numIters, elapsedTimer);
+        }
+        undoStack = null;
+
+        List<AbstractAction> rootActions = new ArrayList<>();
+        AbstractAction bestAction = bestAction(rootActions);
+        if (statsLogger != null)
+            logTreeStatistics(statsLogger, state, rootActions, bestAction, numIters, elapsedTimer.elapsedMillis());
+        return bestAction;
+    }
+
+    // The node reached from node by the actions taken (in which it is the turn of rootPlayer), or NONE if not in the tree
+    private int descendant(int node, List<AbstractAction> taken) {
+        if (taken.isEmpty())
+            return actor[node] == rootPlayer ? node : NONE;
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (actionToReach[child].equals(taken.get(0))) {
+                int retValue = descendant(child, taken.subList(1, taken.size()));
+                if (retValue != NONE)
+                    return retValue;
+            }
+        }
+        return NONE;
+    }
+
+    private void clear(int players) {
+        nPlayers = players;
+        allocate(Math.min(INITIAL_CAPACITY, params.maxTreeNodes));
+        size = 0;
+        hand = 0;
+        lowReward = Double.POSITIVE_INFINITY;
+        highReward = Double.NEGATIVE_INFINITY;
+        initialiseNode(ROOT, NONE, null, rootPlayer);
+        size = 1;
+    }
+
+    private void allocate(int capacity) {
+        parent = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        actor = new int[capacity];
+        visits = new int[capacity];
+        validVisits = new int[capacity];
+        lastVisit = new int[capacity];
+        actionToReach = new AbstractAction[capacity];
+        totValue = new double[capacity * nPlayers];
+        totSquares = new double[capacity * nPlayers];
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(params.maxTreeNodes, parent.length * 2L);
+        parent = Arrays.copyOf(parent, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        actor = Arrays.copyOf(actor, capacity);
+        visits = Arrays.copyOf(visits, capacity);
+        validVisits = Arrays.copyOf(validVisits, capacity);
+        lastVisit = Arrays.copyOf(lastVisit, capacity);
+        actionToReach = Arrays.copyOf(actionToReach, capacity);
+        totValue = Arrays.copyOf(totValue, capacity * nPlayers);
+        totSquares = Arrays.copyOf(totSquares, capacity * nPlayers);
+    }
+
+    /**
+     * Makes node the root, copying it and its descendants (in breadth-first order) into new arrays. Everything else
+     * is discarded.
+     */
+    private void reroot(int node) {
+        int[] order = new int[size];
+        int[] newIndex = new int[size];
+        int n = 0;
+        order[n++] = node;
+        for (int i = 0; i < n; i++) {
+            for (int child = firstChild[order[i]]; child != NONE; child = nextSibling[child]) {
+                newIndex[child] = n;
+                order[n++] = child;
+            }
+        }
+        int[] oldParent = parent, oldFirstChild = firstChild, oldNextSibling = nextSibling, oldActor = actor,
+                oldVisits = visits, oldValidVisits = validVisits, oldLastVisit = lastVisit;
+        AbstractAction[] oldActionToReach = actionToReach;
+        double[] oldTotValue = totValue, oldTotSquares = totSquares;
+        allocate((int) Math.min(params.maxTreeNodes, Math.max(INITIAL_CAPACITY, n * 2L)));
+        for (int i = 0; i < n; i++) {
+            int old = order[i];
+            parent[i] = i == ROOT ? NONE : newIndex[oldParent[old]];
+            firstChild[i] = oldFirstChild[old] == NONE ? NONE : newIndex[oldFirstChild[old]];
+            nextSibling[i] = i == ROOT || oldNextSibling[old] == NONE ? NONE : newIndex[oldNextSibling[old]];
+            actor[i] = oldActor[old];
+            visits[i] = oldVisits[old];
+            validVisits[i] = oldValidVisits[old];
+            lastVisit[i] = oldLastVisit[old];
+            actionToReach[i] = i == ROOT ? null : oldActionToReach[old];
+            System.arraycopy(oldTotValue, old * nPlayers, totValue, i * nPlayers, nPlayers);
+            System.arraycopy(oldTotSquares, old * nPlayers, totSquares, i * nPlayers, nPlayers);
+        }
+        size = n;
+        hand = 0;
+    }
+
+    private void initialiseNode(int node, int parentNode, AbstractAction action, int player) {
+        parent[node] = parentNode;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        if (parentNode != NONE) {
+            nextSibling[node] = firstChild[parentNode];
+            firstChild[parentNode] = node;
+        }
+        actor[node] = player;
+        visits[node] = 0;
+        // the action is available in the iteration that expands it
+        validVisits[node] = 1;
+        lastVisit[node] = stamp;
+        actionToReach[node] = action;
+        Arrays.fill(totValue, node * nPlayers, (node + 1) * nPlayers, 0.0);
+        Arrays.fill(totSquares, node * nPlayers, (node + 1) * nPlayers, 0.0);
+    }
+
+    /**
+     * Adds a child to parentNode, recycling a node if the tree is as large as it is allowed to be.
+     *
+     * @return - the new node, or NONE if there is no node that can be recycled
+     */
+    private int newNode(int parentNode, AbstractAction action, int player) {
+        int node;
+        if (size < parent.length || parent.length < params.maxTreeNodes) {
+            if (size == parent.length)
+                grow();
+            node = size++;
+        } else {
+            node = recycle();
+            if (node == NONE)
+                return NONE;
+        }
+        initialiseNode(node, parentNode, action, player);
+        return node;
+    }
+
+    // Takes the least visited of the next few leaves not on the path of the current iteration out of the tree
+    private int recycle() {
+        int retValue = NONE;
+        int found = 0;
+        for (int scanned = 0; scanned < size && found < RECYCLE_CANDIDATES; scanned++) {
+            int node = hand;
+            hand = hand + 1 == size ? 0 : hand + 1;
+            if (node != ROOT && firstChild[node] == NONE && lastVisit[node] != stamp) {
+                found++;
+                if (retValue == NONE || visits[node] < visits[retValue])
+                    retValue = node;
+            }
+        }
+        if (retValue != NONE) {
+            int p = parent[retValue];
+            if (firstChild[p] == retValue) {
+                firstChild[p] = nextSibling[retValue];
+            } else {
+                int sibling = firstChild[p];
+                while (nextSibling[sibling] != retValue)
+                    sibling = nextSibling[sibling];
+                nextSibling[sibling] = nextSibling[retValue];
+            }
+            recycled++;
+        }
+        return retValue;
+    }
+
+    private void visit(int node) {
+        if (pathLength == path.length)
+            path = Arrays.copyOf(path, pathLength * 2);
+        path[pathLength++] = node;
+        lastVisit[node] = stamp;
+    }
+
+    private void oneSearchIteration(AbstractGameState state) {
+        stamp++;
+        pathLength = 0;
+        for (int p = 0; p < nPlayers; p++)
+            startingValues[p] = heuristic.evaluateState(state, p);
+        treePolicy(state);
+        double[] delta = rollOut(state);
+        backUp(delta);
+    }
+
+    // the player to act in the node reached in state
+    private int nextActor(AbstractGameState state) {
+        return params.opponentTreePolicy == SelfOnly ? rootPlayer : state.getCurrentPlayer();
+    }
+
+    /**
+     * Selection and expansion, as in SingleTreeNode.treePolicy(). The nodes passed through (including any added) are
+     * left in path, and the state is advanced to that of the last of these.
+     */
+    private void treePolicy(AbstractGameState state) {
+        int cur = ROOT;
+        int depth = 0;
+        visit(cur);
+        while (state.isNotTerminalForPlayer(rootPlayer) && depth < params.maxTreeDepth) {
+            forwardModel.computeAvailableActions(state, actionBuffer);
+            if (actionBuffer.isEmpty())
+                break;
+            int unexpanded = actionStatistics(cur);
+            if (unexpanded > 0) {
+                // expand a random one of the unexpanded actions
+                int k = rnd.nextInt(unexpanded);
+                AbstractAction chosen = null;
+                for (int i = 0; chosen == null; i++) {
+                    if (canonical[i] == i && !expanded[i] && k-- == 0)
+                        chosen = actionBuffer.get(i);
+                }
+                advance(state, chosen);
+                int child = newNode(cur, chosen, nextActor(state));
+                if (child != NONE)
+                    visit(child);
+                return;
+            }
+            AbstractAction chosen = actionBuffer.size() == 1 ? actionBuffer.get(0) : ucb(actor[cur]);
+            advance(state, chosen);
+            int player = nextActor(state);
+            int next = NONE;
+            for (int child = firstChild[cur]; child != NONE && next == NONE; child = nextSibling[child]) {
+                if (actor[child] == player && actionToReach[child].equals(chosen))
+                    next = child;
+            }
+            if (next == NONE) {
+                // a different player is to act than when this action was expanded
+                next = newNode(cur, chosen, player);
+                if (next == NONE)
+                    return;
+            }
+            visit(next);
+            cur = next;
+            depth++;
+        }
+    }
+
+    /**
+     * Sums up the statistics of the children of node for each action in actionBuffer, and counts a valid visit for
+     * each of these children.
+     *
+     * @return - the number of distinct actions in actionBuffer that have not been expanded
+     */
+    private int actionStatistics(int node) {
+        int n = actionBuffer.size();
+        if (canonical.length < n) {
+            int length = Math.max(n, canonical.length * 2);
+            canonical = new int[length];
+            actionVisits = new int[length];
+            actionValidVisits = new int[length];
+            actionValue = new double[length];
+            actionSquares = new double[length];
+            expanded = new boolean[length];
+        }
+        actionIndex.clear();
+        for (int i = 0; i < n; i++) {
+            Integer previous = actionIndex.putIfAbsent(actionBuffer.get(i), i);
+            canonical[i] = previous == null ? i : previous;
+            actionVisits[i] = 0;
+            actionValidVisits[i] = 0;
+            actionValue[i] = 0.0;
+            actionSquares[i] = 0.0;
+            expanded[i] = false;
+        }
+        int decider = actor[node];
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            Integer index = actionIndex.get(actionToReach[child]);
+            if (index != null) {
+                int i = index;
+                expanded[i] = true;
+                actionVisits[i] += visits[child];
+                actionValue[i] += totValue[child * nPlayers + decider];
+                actionSquares[i] += totSquares[child * nPlayers + decider];
+                actionValidVisits[i] = Math.max(actionValidVisits[i], validVisits[child]);
+                validVisits[child]++;
+            }
+        }
+        int unexpanded = 0;
+        for (int i = 0; i < n; i++) {
+            if (canonical[i] == i && !expanded[i])
+                unexpanded++;
+        }
+        return unexpanded;
+    }
+
+    // As SingleTreeNode.ucb(), on the statistics from actionStatistics()
+    private AbstractAction ucb(int decider) {
+        AbstractAction bestAction = null;
+        double bestValue = -Double.MAX_VALUE;
+        for (int i = 0; i < actionBuffer.size(); i++) {
+            if (canonical[i] != i)
+                continue;
+            int visits = actionVisits[i];
+            double childValue = actionValue[i] / (visits + params.epsilon);
+            if (params.normaliseRewards)
+                childValue = Utils.normalise(childValue, lowReward, highReward);
+
+            int effectiveTotalVisits = actionValidVisits[i] + 1;
+            double explorationTerm = params.K * Math.sqrt(Math.log(effectiveTotalVisits) / (visits + params.epsilon));
+            switch (params.treePolicy) {
+                case AlphaGo:
+                    explorationTerm = params.K * Math.sqrt(effectiveTotalVisits) / (visits + 1.0);
+                    break;
+                case UCB_Tuned:
+                    double range = highReward - lowReward;
+                    if (range < 1e-6) range = 1e-6;
+                    double meanSq = actionSquares[i] / (visits + params.epsilon);
+                    double standardVar = 0.25;
+                    if (params.normaliseRewards) {
+                        meanSq = (meanSq + lowReward * lowReward
+                                - 2 * lowReward * actionValue[i] / (visits + params.epsilon)) / (range * range);
+                    } else {
+                        standardVar = Math.sqrt(range / 2.0);
+                    }
+                    double variance = Math.max(0.0, meanSq - childValue * childValue);
+                    double minTerm = Math.min(standardVar, variance + Math.sqrt(2 * Math.log(effectiveTotalVisits) / (visits + params.epsilon)));
+                    explorationTerm = params.K * Math.sqrt(Math.log(effectiveTotalVisits) / (visits + params.epsilon) * minTerm);
+                    break;
+                default:
+                    // keep default
+            }
+            double uctValue = noise(childValue + explorationTerm, params.epsilon, rnd.nextDouble());
+            if (Double.isNaN(uctValue))
+                throw new AssertionError("Numeric error calculating uctValue");
+            if (uctValue > bestValue) {
+                bestAction = actionBuffer.get(i);
+                bestValue = uctValue;
+            }
+        }
+        if (bestAction == null)
+            throw new AssertionError("We have a null value in UCT : shouldn't really happen!");
+        return bestAction;
+    }
+
+    // As SingleTreeNode.advance()
+    private void advance(AbstractGameState state, AbstractAction action) {
+        next(state, action.copy());
+        fmCalls++;
+        if (params.opponentTreePolicy == SelfOnly && state.getCurrentPlayer() != rootPlayer) {
+            while (state.getCurrentPlayer() != rootPlayer && state.isNotTerminalForPlayer(rootPlayer)) {
+                forwardModel.computeAvailableActions(state, actionBuffer);
+                if (actionBuffer.isEmpty())
+                    throw new AssertionError("Should always have at least one action possible...");
+                next(state, opponentModels[state.getCurrentPlayer()].getAction(state, actionBuffer));
+                fmCalls++;
+            }
+        }
+    }
+
+    private void next(AbstractGameState state, AbstractAction action) {
+        if (undoStack != null)
+            undoStack.push(forwardModel.nextWithUndo(state, action));
+        else
+            forwardModel.next(state, action);
+    }
+
+    // As SingleTreeNode.rollOut(), from the state reached by treePolicy()
+    private double[] rollOut(AbstractGameState state) {
+        if (params.rolloutLength > 0 || params.rolloutTermination != DEFAULT) {
+            int rolloutDepth = 0;
+            int roundAtStartOfRollout = state.getTurnOrder().getRoundCounter();
+            int lastActor = rootPlayer;
+            while (!finishRollout(state, rolloutDepth, lastActor, roundAtStartOfRollout)) {
+                forwardModel.computeAvailableActions(state, actionBuffer);
+                if (actionBuffer.isEmpty())
+                    break;
+                lastActor = state.getCurrentPlayer();
+                AbstractAction next = opponentModels[lastActor].getAction(state, actionBuffer);
+                rolloutActionsTaken++;
+                int startingFMCalls = fmCalls;
+                advance(state, next);
+                rolloutDepth += fmCalls - startingFMCalls;
+            }
+        }
+        double[] retValue = new double[nPlayers];
+        for (int i = 0; i < nPlayers; i++)
+            retValue[i] = heuristic.evaluateState(state, i) - startingValues[i];
+        return retValue;
+    }
+
+    private boolean finishRollout(AbstractGameState state, int depth, int lastActor, int roundAtStartOfRollout) {
+        if (!state.isNotTerminal())
+            return true;
+        int currentActor = state.getCurrentPlayer();
+        if (depth >= params.rolloutLength) {
+            switch (params.rolloutTermination) {
+                case DEFAULT:
+                    return true;
+                case END_TURN:
+                    return lastActor == rootPlayer && currentActor != rootPlayer;
+                case START_TURN:
+                    return lastActor != rootPlayer && currentActor == rootPlayer;
+                case END_ROUND:
+                    return state.getTurnOrder().getRoundCounter() != roundAtStartOfRollout;
+            }
+        }
+        return false;
+    }
+
+    // As SingleTreeNode.backUp(), along path
+    private void backUp(double[] result) {
+        if (params.normaliseRewards || params.treePolicy == MCTSEnums.TreePolicy.UCB_Tuned) {
+            for (double r : result) {
+                lowReward = Math.min(lowReward, r);
+                highReward = Math.max(highReward, r);
+            }
+        }
+        for (int i = 0; i < pathLength; i++) {
+            int node = path[i];
+            int base = node * nPlayers;
+            visits[node]++;
+            for (int j = 0; j < nPlayers; j++) {
+                double value;
+                switch (params.opponentTreePolicy) {
+                    case SelfOnly:
+                        value = result[rootPlayer];
+                        break;
+                    case Paranoid:
+                        value = j == rootPlayer ? result[rootPlayer] : -result[rootPlayer];
+                        break;
+                    default:
+                        value = result[j];
+                }
+                totValue[base + j] += value;
+                totSquares[base + j] += value * value;
+            }
+        }
+    }
+
+    // As SingleTreeNode.bestAction(), with the actions of the children of the root added to rootActions
+    private AbstractAction bestAction(List<AbstractAction> rootActions) {
+        actionIndex.clear();
+        List<int[]> rootVisits = new ArrayList<>();
+        List<double[]> rootValues = new ArrayList<>();
+        for (int child = firstChild[ROOT]; child != NONE; child = nextSibling[child]) {
+            Integer index = actionIndex.get(actionToReach[child]);
+            if (index == null) {
+                index = rootActions.size();
+                actionIndex.put(actionToReach[child], index);
+                rootActions.add(actionToReach[child]);
+                rootVisits.add(new int[1]);
+                rootValues.add(new double[1]);
+            }
+            rootVisits.get(index)[0] += visits[child];
+            rootValues.get(index)[0] += totValue[child * nPlayers + rootPlayer];
+        }
+
+        MCTSEnums.SelectionPolicy policy = params.selectionPolicy;
+        if (policy == MCTSEnums.SelectionPolicy.ROBUST && rootVisits.stream().mapToInt(v -> v[0]).distinct().count() == 1)
+            policy = MCTSEnums.SelectionPolicy.SIMPLE;
+
+        double bestValue = -Double.MAX_VALUE;
+        AbstractAction bestAction = null;
+        for (int i = 0; i < rootActions.size(); i++) {
+            double childValue = rootVisits.get(i)[0];
+            if (policy == MCTSEnums.SelectionPolicy.SIMPLE)
+                childValue = rootValues.get(i)[0] / (rootVisits.get(i)[0] + params.epsilon);
+            childValue = noise(childValue, params.epsilon, rnd.nextDouble());
+            if (childValue > bestValue) {
+                bestValue = childValue;
+                bestAction = rootActions.get(i);
+            }
+        }
+        if (bestAction == null)
+            throw new AssertionError("Unexpected - no selection made.");
+        return bestAction;
+    }
+
+    private void logTreeStatistics(IStatisticLogger statsLogger, AbstractGameState state, List<AbstractAction> rootActions,
+                                   AbstractAction bestAction, int numIters, long timeTaken) {
+        int bestVisits = 0, maxVisits = 0;
+        double bestTotValue = 0.0;
+        for (int child = firstChild[ROOT]; child != NONE; child = nextSibling[child]) {
+            maxVisits = Math.max(maxVisits, visits[child]);
+            if (actionToReach[child].equals(bestAction)) {
+                bestVisits += visits[child];
+                bestTotValue += totValue[child * nPlayers + rootPlayer];
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("round", state.getTurnOrder().getRoundCounter());
+        stats.put("turn", state.getTurnOrder().getTurnCounter());
+        stats.put("turnOwner", state.getTurnOrder().getTurnOwner());
+        stats.put("iterations", numIters);
+        stats.put("fmCalls", fmCalls);
+        stats.put("copyCalls", copies);
+        stats.put("time", timeTaken);
+        stats.put("totalNodes", size);
+        stats.put("recycledNodes", recycled);
+        stats.put("reusedVisits", reusedVisits);
+        stats.put("nActionsRoot", rootActions.size());
+        stats.put("maxVisitProportion", maxVisits / (double) numIters);
+        stats.put("bestAction", bestAction);
+        stats.put("bestValue", bestTotValue / bestVisits);
+        stats.put("normalisedBestValue", Utils.normalise(bestTotValue / bestVisits, lowReward, highReward));
+        stats.put("lowReward", lowReward);
+        stats.put("highReward", highReward);
+        stats.put("rolloutActions", rolloutActionsTaken / numIters);
+        statsLogger.record(stats);
+    }
+}
@@ -3,63 +3,74 @@ package players.mcts;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
-import utilities.Pair;
+import utilities.SplitMixRandom;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
 public class MASTPlayer extends AbstractPlayer {
 
     Random rnd;
-    List<Map<AbstractAction, Pair<Integer, Double>>> MASTStatistics;
+    MASTStatistics MASTStats;
     double temperature = 0.1;
+    // Re-used from one action to the next
+    private double[] pdf = new double[16];
 
     public MASTPlayer(Random rnd) {
         this.rnd = rnd;
     }
 
-    public void setStats(List<Map<AbstractAction, Pair<Integer, Double>>> MASTStatistics) {
-        this.MASTStatistics = MASTStatistics;
+    public void setStats(MASTStatistics MASTStats) {
+        this.MASTStats = MASTStats;
     }
 
     @Override
     public AbstractAction getAction(AbstractGameState gameState, List<AbstractAction> possibleActions) {
-        double[] pdf = new double[possibleActions.size()];
-        for (int i = 0; i < possibleActions.size(); i++) {
-            AbstractAction a = possibleActions.get(i);
-            double actionValue = 10.0; // arbitrary and non-zero
-            int p = gameState.getCurrentPlayer();
-            if (MASTStatistics.get(p).containsKey(a)) {
-                Pair<Integer, Double> stats = MASTStatistics.get(p).get(a);
-                actionValue = stats.a > 0 ? stats.b / stats.a : 0.0;
-            }
-            pdf[i] = actionValue;
+        int n = possibleActions.size();
+        if (n == 0)
+            throw new AssertionError("Nothing in pdf!");
+        if (pdf.length < n)
+            pdf = new double[Math.max(n, pdf.length * 2)];
+        int p = gameState.getCurrentPlayer();
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            // an action never seen has an arbitrary non-zero value
+            pdf[i] = MASTStats.meanValue(p, possibleActions.get(i), 0.0, 10.0);
+            max = Math.max(max, pdf[i]);
         }
 
-        double max = Arrays.stream(pdf).max().orElseThrow(() -> new AssertionError("Nothing in pdf!"));
-        for (int i = 0; i < pdf.length; i++)
+        // a Boltzmann distribution, with the cdf sampled without normalising it first
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
             pdf[i] = Math.exp((pdf[i] - max) / temperature);
-        double sum = Arrays.stream(pdf).sum();
-        for (int i = 0; i < pdf.length; i++)
-            pdf[i] /= sum; // and normalise to a pdf
-
+            sum += pdf[i];
+        }
         // TODO: Use the same code here as in EXP3 and RM with a utility function?
-        double cdfSample = rnd.nextDouble();
+        double cdfSample = rnd.nextDouble() * sum;
         double cdf = 0.0;
-        for (int i = 0; i < pdf.length; i++) {
+        for (int i = 0; i < n; i++) {
             cdf += pdf[i];
             if (cdf >= cdfSample)
                 return possibleActions.get(i);
         }
-        throw new AssertionError("If we reach here, then something has gone wrong in the above code");
+        // rounding can leave the last cdf just below the sample
+        return possibleActions.get(n - 1);
     }
 
     @Override
     public MASTPlayer copy() {
-        MASTPlayer retValue = new MASTPlayer(new Random(rnd.nextInt()));
-        retValue.setStats(MASTStatistics);
+        return copy(SplitMixRandom.split(rnd));
+    }
+
+    @Override
+    public MASTPlayer copy(long seed) {
+        return copy(new SplitMixRandom(seed));
+    }
+
+    private MASTPlayer copy(Random random) {
+        MASTPlayer retValue = new MASTPlayer(random);
+        retValue.setStats(MASTStats);
+        retValue.temperature = temperature;
         return retValue;
     }
 }
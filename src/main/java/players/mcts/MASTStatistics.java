@@ -0,0 +1,139 @@
+package players.mcts;
+
+import core.actions.AbstractAction;
+import core.actions.ActionMap;
+
+import java.util.Arrays;
+
+/**
+ * Move-Average Sampling Technique (MAST) statistics: the number of visits to, and the total value of, each action
+ * for each player, over all the rollouts (or tree paths) of a search, and those of earlier searches decayed by a
+ * discount. These are updated at every step of every rollout, so are kept in arrays of primitives (in the order
+ * the actions were first seen) with an ActionMap from each action to its position, and nothing is allocated to
+ * update an action once it has been seen.
+ * It is not thread-safe.
+ */
+public class MASTStatistics {
+
+    private final ActionMap<Integer>[] index;
+    private int[][] visits;
+    private double[][] totals;
+    private final int[] size;
+
+    /**
+     * @param nPlayers - number of players in the game
+     */
+    @SuppressWarnings("unchecked")
+    public MASTStatistics(int nPlayers) {
+        index = new ActionMap[nPlayers];
+        visits = new int[nPlayers][16];
+        totals = new double[nPlayers][16];
+        size = new int[nPlayers];
+        for (int p = 0; p < nPlayers; p++)
+            index[p] = new ActionMap<>(16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MASTStatistics(MASTStatistics other) {
+        int nPlayers = other.index.length;
+        index = new ActionMap[nPlayers];
+        visits = new int[nPlayers][];
+        totals = new double[nPlayers][];
+        size = other.size.clone();
+        for (int p = 0; p < nPlayers; p++) {
+            index[p] = new ActionMap<>(other.index[p]);
+            visits[p] = other.visits[p].clone();
+            totals[p] = other.totals[p].clone();
+        }
+    }
+
+    /**
+     * @return - a copy of these statistics, which can then be updated independently of them
+     */
+    public MASTStatistics copy() {
+        return new MASTStatistics(this);
+    }
+
+    /**
+     * Adds one visit to an action.
+     *
+     * @param player - player who took the action
+     * @param action - action taken (copied if it has not been seen before)
+     * @param value  - value to the player of the rollout (or iteration) the action was taken in
+     */
+    public void update(int player, AbstractAction action, double value) {
+        Integer i = index[player].get(action);
+        if (i == null) {
+            i = size[player]++;
+            if (i == visits[player].length) {
+                visits[player] = Arrays.copyOf(visits[player], i * 2);
+                totals[player] = Arrays.copyOf(totals[player], i * 2);
+            }
+            index[player].put(action.copy(), i);
+        }
+        visits[player][i]++;
+        totals[player][i] += value;
+    }
+
+    /**
+     * @param player  - player who takes the action
+     * @param action  - action
+     * @param epsilon - added to the number of visits, to favour actions seen more often (0 for the plain mean)
+     * @param unknown - value of an action that has never been seen
+     * @return - the mean value of the action to the player (or 0 if all its visits have been decayed away)
+     */
+    public double meanValue(int player, AbstractAction action, double epsilon, double unknown) {
+        Integer i = index[player].get(action);
+        if (i == null)
+            return unknown;
+        double n = visits[player][i] + epsilon;
+        return n > 0.0 ? totals[player][i] / n : 0.0;
+    }
+
+    /**
+     * @param player - player who takes the action
+     * @param action - action
+     * @return - the number of visits to the action (after decay), which is 0 if it has never been seen
+     */
+    public int visits(int player, AbstractAction action) {
+        Integer i = index[player].get(action);
+        return i == null ? 0 : visits[player][i];
+    }
+
+    /**
+     * @param player - player who takes the action
+     * @param action - action
+     * @return - the total value of the action (after decay), which is 0 if it has never been seen
+     */
+    public double totalValue(int player, AbstractAction action) {
+        Integer i = index[player].get(action);
+        return i == null ? 0.0 : totals[player][i];
+    }
+
+    /**
+     * Decays all the statistics in place, as Utils.decay() does. The number of visits is multiplied by gamma (and
+     * rounded down), and the total value scaled to keep the mean the same.
+     *
+     * @param gamma - discount, between 0 and 1 (with anything else, the statistics are left as they are)
+     */
+    public void decay(double gamma) {
+        if (gamma < 0.0 || gamma >= 1.0)
+            return;
+        for (int p = 0; p < index.length; p++) {
+            for (int i = 0; i < size[p]; i++) {
+                int oldCount = visits[p][i];
+                int newCount = (int) (oldCount * gamma);
+                totals[p][i] = oldCount == 0 ? 0.0 : totals[p][i] * newCount / oldCount;
+                visits[p][i] = newCount;
+            }
+        }
+    }
+
+    /**
+     * @param player - player
+     * @return - the number of different actions seen for the player
+     */
+    public int size(int player) {
+        return size[player];
+    }
+}
@@ -7,7 +7,13 @@ public class MCTSEnums {
     }
 
     public enum Information {
-        Closed_Loop, Open_Loop, Information_Set
+        Closed_Loop(true), Open_Loop(false), Information_Set(false),
+        Transposition(true);  // Closed Loop, but with nodes shared between transpositions of the same state
+
+        boolean closedLoop;  // true if each node holds a single fixed state
+        Information(boolean closedLoop) {
+            this.closedLoop = closedLoop;
+        }
     }
 
     public enum MASTType {
@@ -22,6 +28,11 @@ public class MCTSEnums {
         UCB, EXP3, AlphaGo, RegretMatching, UCB_Tuned
     }
 
+    public enum Parallelisation {
+        Root,  // each thread searches its own tree, and the trees are merged at the end
+        Tree   // all threads search the same tree
+    }
+
     public enum RolloutTermination {
         DEFAULT, END_TURN, START_TURN, END_ROUND;
     }
@@ -9,6 +9,7 @@ import evaluation.TunableParameters;
 import org.json.simple.JSONObject;
 import players.PlayerParameters;
 import players.simple.RandomPlayer;
+import utilities.SplitMixRandom;
 import utilities.Utils;
 
 import java.util.Arrays;
@@ -62,6 +63,13 @@ public class MCTSParams extends PlayerParameters {
     public boolean normaliseRewards = true;
     public boolean nodesStoreScoreDelta = true;
     public boolean maintainMasterState = false;
+    public int transpositionTableSize = 100000;  // maximum number of states tracked with Information.Transposition
+    public int threads = 1;  // number of threads to search with
+    public MCTSEnums.Parallelisation parallelisation = MCTSEnums.Parallelisation.Root;  // how to search with more than one thread
+    public double virtualLoss = 1.0;  // with Tree parallelisation, the value taken off nodes while a thread rolls out from them
+    public boolean compactTree = false;  // search on a CompactTree, where the options allow it
+    public int maxTreeNodes = 1000000;  // maximum size of a CompactTree, beyond which nodes are recycled
+    public boolean reuseTree = false;  // keep the subtree for the state reached from one decision to the next
     public MCTSEnums.RolloutTermination rolloutTermination = DEFAULT;
     public IStateHeuristic heuristic = AbstractGameState::getHeuristicScore;
     public IStateHeuristic opponentHeuristic = AbstractGameState::getHeuristicScore;
@@ -108,6 +116,13 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("maintainMasterState", false);
         addTunableParameter("advantageFunction", IActionHeuristic.nullReturn);
         addTunableParameter("omaVisits", 0);
+        addTunableParameter("transpositionTableSize", 100000);
+        addTunableParameter("threads", 1);
+        addTunableParameter("parallelisation", MCTSEnums.Parallelisation.Root, Arrays.asList(MCTSEnums.Parallelisation.values()));
+        addTunableParameter("virtualLoss", 1.0);
+        addTunableParameter("compactTree", false);
+        addTunableParameter("maxTreeNodes", 1000000);
+        addTunableParameter("reuseTree", false);
     }
 
     @Override
@@ -156,6 +171,13 @@ public class MCTSParams extends PlayerParameters {
         normaliseRewards = (boolean) getParameterValue("normaliseRewards");
         nodesStoreScoreDelta = (boolean) getParameterValue("nodesStoreScoreDelta");
         maintainMasterState = (boolean) getParameterValue("maintainMasterState");
+        transpositionTableSize = (int) getParameterValue("transpositionTableSize");
+        threads = (int) getParameterValue("threads");
+        parallelisation = (MCTSEnums.Parallelisation) getParameterValue("parallelisation");
+        virtualLoss = (double) getParameterValue("virtualLoss");
+        compactTree = (boolean) getParameterValue("compactTree");
+        maxTreeNodes = (int) getParameterValue("maxTreeNodes");
+        reuseTree = (boolean) getParameterValue("reuseTree");
         if (expansionPolicy == MCTSEnums.Strategies.MAST || rolloutType == MCTSEnums.Strategies.MAST
                 || (biasVisits > 0 && advantageFunction == null)) {
             useMAST = true;
@@ -254,6 +276,13 @@ public class MCTSParams extends PlayerParameters {
         retValue.normaliseRewards = normaliseRewards;
         retValue.nodesStoreScoreDelta = nodesStoreScoreDelta;
         retValue.maintainMasterState = maintainMasterState;
+        retValue.transpositionTableSize = transpositionTableSize;
+        retValue.threads = threads;
+        retValue.parallelisation = parallelisation;
+        retValue.virtualLoss = virtualLoss;
+        retValue.compactTree = compactTree;
+        retValue.maxTreeNodes = maxTreeNodes;
+        retValue.reuseTree = reuseTree;
         retValue.rolloutTermination = rolloutTermination;
         retValue.heuristic = heuristic;
         retValue.opponentHeuristic = opponentHeuristic;
@@ -280,9 +309,9 @@ public class MCTSParams extends PlayerParameters {
     private AbstractPlayer constructStrategy(MCTSEnums.Strategies type, String details) {
         switch (type) {
             case RANDOM:
-                return new RandomPlayer(new Random(getRandomSeed()));
+                return new RandomPlayer(new SplitMixRandom(getRandomSeed()));
             case MAST:
-                return new MASTPlayer(new Random(getRandomSeed()));
+                return new MASTPlayer(new SplitMixRandom(getRandomSeed()));
             case CLASS:
                 // we have a bespoke Class to instantiate
                 return Utils.loadClassFromString(details);
@@ -9,12 +9,12 @@ import core.interfaces.IActionHeuristic;
 import core.interfaces.IGameListener;
 import core.interfaces.IStateHeuristic;
 import games.dicemonastery.DiceMonasteryStateAttributes;
-import utilities.Pair;
-import utilities.Utils;
+import utilities.SplitMixRandom;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.ToDoubleBiFunction;
-import java.util.stream.Collectors;
 
 import static players.mcts.MCTSEnums.OpponentTreePolicy.*;
 import static players.mcts.MCTSEnums.OpponentTreePolicy.MultiTree;
@@ -31,9 +31,21 @@ public class MCTSPlayer extends AbstractPlayer {
     protected AbstractPlayer rolloutStrategy;
     protected boolean debug = false;
     protected SingleTreeNode root;
-    List<Map<AbstractAction, Pair<Integer, Double>>> MASTStats;
+    // The size of the history of the state at the root, to find the actions taken since (see MCTSParams.reuseTree)
+    private int rootHistorySize;
+    // The action chosen at the last decision, or null if this player has been given an observation since without
+    // being asked for an action (see actionsSince())
+    private AbstractAction lastAction;
+    MASTStatistics MASTStats;
     private AbstractPlayer opponentModel;
     private IActionHeuristic advantageFunction;
+    // Threads for parallel search (see MCTSParams.threads), created when first needed
+    private ExecutorService executor;
+    private int executorThreads;
+    // With MCTSParams.compactTree, kept from one decision to the next for MCTSParams.reuseTree
+    private CompactTree compactTree;
+    // The number of copies made with copy(), each of which is given its own random seed
+    private int copies;
 
     public MCTSPlayer() {
         this(System.currentTimeMillis());
@@ -49,7 +61,7 @@ public class MCTSPlayer extends AbstractPlayer {
 
     public MCTSPlayer(MCTSParams params, String name) {
         this.params = params;
-        rnd = new Random(this.params.getRandomSeed());
+        rnd = new SplitMixRandom(this.params.getRandomSeed());
         rolloutStrategy = params.getRolloutStrategy();
         opponentModel = params.getOpponentModel();
         heuristic = params.getHeuristic();
@@ -65,26 +77,35 @@ public class MCTSPlayer extends AbstractPlayer {
         if (advantageFunction instanceof AbstractPlayer)
             ((AbstractPlayer) advantageFunction).initializePlayer(state);
         MASTStats = null;
+        compactTree = null;
+        root = null;
+        rootHistorySize = 0;
+        lastAction = null;
+    }
+
+    @Override
+    public void registerUpdatedObservation(AbstractGameState gameState) {
+        // the game has taken an action for this player, which actionsSince() cannot know about without the history
+        lastAction = null;
     }
 
     @Override
     public AbstractAction getAction(AbstractGameState gameState, List<AbstractAction> actions) {
         // Search for best action from the root
-        if (params.opponentTreePolicy == MultiTree || params.opponentTreePolicy == MultiTreeParanoid)
-            root = new MultiTreeNode(this, gameState, rnd);
-        else
-            root = SingleTreeNode.createRootNode(this, gameState, rnd);
-
-        if (MASTStats != null)
-            root.MASTStatistics = MASTStats.stream()
-                    .map(m -> Utils.decay(m, params.MASTGamma))
-                    .collect(Collectors.toList());
-
-        if (rolloutStrategy instanceof MASTPlayer) {
-            ((MASTPlayer) rolloutStrategy).setStats(root.MASTStatistics);
-            ((MASTPlayer) rolloutStrategy).temperature = params.MASTBoltzmann;
+        if (params.compactTree && compactTreeSupported()) {
+            if (compactTree == null)
+                compactTree = new CompactTree(this);
+            root = null;
+            lastAction = compactTree.search(gameState, getStatsLogger());
+            return lastAction;
+        }
+        boolean multiTree = params.opponentTreePolicy == MultiTree || params.opponentTreePolicy == MultiTreeParanoid;
+        if (params.threads > 1 && !multiTree) {
+            root = ParallelSearch.search(this, gameState, getStatsLogger());
+        } else {
+            root = createRoot(gameState);
+            root.mctsSearch(getStatsLogger());
         }
-        root.mctsSearch(getStatsLogger());
         if (params.gatherExpertIterationData) {
             ExpertIterationDataGatherer eidg = new ExpertIterationDataGatherer(
                     params.expertIterationFileStem,
@@ -104,13 +125,117 @@ public class MCTSPlayer extends AbstractPlayer {
         if (debug)
             System.out.println(root.toString());
 
-        MASTStats = root.MASTStatistics;
+        MASTStats = root.MASTStats;
         // Return best action
         if (root.children.size() > 2 * actions.size())
             throw new AssertionError(String.format("Unexpectedly large number of children: %d with action size of %d", root.children.size(), actions.size()) );
-        return root.bestAction();
+        lastAction = root.bestAction();
+        return lastAction;
+    }
+
+
+    // A CompactTree has no nodes to give to an ITreeProcessor
+    private boolean compactTreeSupported() {
+        return CompactTree.supported(params) && !(advantageFunction instanceof ITreeProcessor)
+                && !(rolloutStrategy instanceof ITreeProcessor) && !(heuristic instanceof ITreeProcessor)
+                && !(opponentModel instanceof ITreeProcessor);
     }
 
+    /**
+     * Creates the root node to search from, with the MAST statistics carried over from the last search. With
+     * MCTSParams.reuseTree this is the node for the state in the tree of the last search, if there is one.
+     */
+    SingleTreeNode createRoot(AbstractGameState gameState) {
+        SingleTreeNode reused = reusedRoot(gameState);
+        SingleTreeNode retValue;
+        if (params.opponentTreePolicy == MultiTree || params.opponentTreePolicy == MultiTreeParanoid) {
+            retValue = new MultiTreeNode(this, gameState, rnd);
+            if (reused != null)
+                ((MultiTreeNode) retValue).reuseRoot(reused);
+        } else {
+            retValue = reused != null ? reused : SingleTreeNode.createRootNode(this, gameState, rnd);
+        }
+
+        // the statistics of the last search are decayed in place, as its root is no longer needed
+        if (MASTStats != null) {
+            MASTStats.decay(params.MASTGamma);
+            retValue.MASTStats = MASTStats;
+        }
+
+        if (rolloutStrategy instanceof MASTPlayer) {
+            ((MASTPlayer) rolloutStrategy).setStats(retValue.MASTStats);
+            ((MASTPlayer) rolloutStrategy).temperature = params.MASTBoltzmann;
+        }
+        return retValue;
+    }
+
+    // The subtree of the last search (of the tree of this player with MultiTree) for the state now reached
+    private SingleTreeNode reusedRoot(AbstractGameState gameState) {
+        if (!params.reuseTree)
+            return null;
+        SingleTreeNode previous = root instanceof MultiTreeNode
+                ? ((MultiTreeNode) root).getRoot(gameState.getCurrentPlayer()) : root;
+        SingleTreeNode retValue = null;
+        if (previous != null && params.opponentTreePolicy != OMA && params.opponentTreePolicy != OMA_All) {
+            List<AbstractAction> taken = actionsSince(gameState, rootHistorySize);
+            // with none known, the subtree can still be found in a transposition table
+            retValue = previous.reuseSubtree(this, gameState, taken == null ? Collections.emptyList() : taken, rnd);
+        }
+        rootHistorySize = gameState.getHistorySize();
+        return retValue;
+    }
+
+    /**
+     * The actions taken since the last decision of this player, to find the subtree to reuse with
+     * MCTSParams.reuseTree. In competition mode players are given no history, so the only one known is the action
+     * this player chose, which is all that is needed to descend a tree holding just the decisions of this player.
+     *
+     * @param gameState   - the state now reached.
+     * @param historySize - the size of the history of the state at the last decision.
+     * @return - the actions taken, or null if they are not known.
+     */
+    List<AbstractAction> actionsSince(AbstractGameState gameState, int historySize) {
+        if (gameState.getCoreGameParameters().competitionMode) {
+            if (lastAction == null || !params.opponentTreePolicy.selfOnlyTree)
+                return null;
+            return Collections.singletonList(lastAction);
+        }
+        if (gameState.getHistorySize() < historySize)
+            return null;
+        return gameState.getHistorySince(historySize);
+    }
+
+    /**
+     * Creates a player for one of the other threads of a parallel search. This shares the parameters and heuristics
+     * of this player, but has its own copies of the forward model, rollout and opponent models, and Random.
+     */
+    MCTSPlayer createWorker() {
+        MCTSPlayer retValue = new MCTSPlayer(params, toString());
+        retValue.rnd = SplitMixRandom.split(rnd);
+        retValue.rolloutStrategy = rolloutStrategy.copy();
+        retValue.opponentModel = opponentModel.copy();
+        retValue.heuristic = heuristic;
+        retValue.opponentHeuristic = opponentHeuristic;
+        retValue.MASTStats = MASTStats == null ? null : MASTStats.copy();
+        retValue.setForwardModel(getForwardModel().copy());
+        return retValue;
+    }
+
+    ExecutorService executor() {
+        if (executor != null && executorThreads != params.threads) {
+            executor.shutdown();
+            executor = null;
+        }
+        if (executor == null) {
+            executorThreads = params.threads;
+            executor = Executors.newFixedThreadPool(params.threads, r -> {
+                Thread thread = new Thread(r, this + " search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
 
     public AbstractPlayer getOpponentModel(int playerID) {
         return opponentModel;
@@ -126,12 +251,24 @@ public class MCTSPlayer extends AbstractPlayer {
             ((IGameListener) heuristic).onEvent(CoreConstants.GameEvents.GAME_OVER, state, null);
         if (advantageFunction instanceof IGameListener)
             ((IGameListener) advantageFunction).onEvent(CoreConstants.GameEvents.GAME_OVER, state, null);
-
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
     }
 
     @Override
     public MCTSPlayer copy() {
-        return new MCTSPlayer((MCTSParams) params.copy());
+        // each copy has a stream of its own, derived without taking numbers from rnd, so that making copies does not
+        // change the choices of this player
+        return copy(SplitMixRandom.stream(params.getRandomSeed(), ++copies).nextLong());
+    }
+
+    @Override
+    public MCTSPlayer copy(long seed) {
+        MCTSParams newParams = (MCTSParams) params.copy();
+        newParams.setRandomSeed(seed);
+        return new MCTSPlayer(newParams);
     }
 
     @Override
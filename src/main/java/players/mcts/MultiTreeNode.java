@@ -34,7 +34,7 @@ public class MultiTreeNode extends SingleTreeNode {
     MCTSPlayer mctsPlayer;
 
     public MultiTreeNode(MCTSPlayer player, AbstractGameState state, Random rnd) {
-        if (player.params.information == MCTSEnums.Information.Closed_Loop)
+        if (player.params.information.closedLoop)
             player.params.information = MCTSEnums.Information.Open_Loop;
         // Closed Loop is not yet supported for MultiTree search
         // TODO: implement this (not too difficult, but some tricky bits as we shift from tree to rollout and back again)
@@ -53,17 +53,8 @@ public class MultiTreeNode extends SingleTreeNode {
                 opponentModels[p] = player.getOpponentModel(p);
         }
         // only root node maintains MAST statistics
-        MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < state.getNPlayers(); i++)
-            MASTStatistics.add(new HashMap<>());
-        MASTFunction = (a, s) -> {
-            Map<AbstractAction, Pair<Integer, Double>> MAST = MASTStatistics.get(decisionPlayer);
-            if (MAST.containsKey(a)) {
-                Pair<Integer, Double> stats = MAST.get(a);
-                return stats.b / (stats.a + params.epsilon);
-            }
-            return 0.0;
-        };
+        MASTStats = new MASTStatistics(state.getNPlayers());
+        MASTFunction = (a, s) -> MASTStats.meanValue(decisionPlayer, a, params.epsilon, 0.0);
         instantiate(null, null, state);
 
         roots = new SingleTreeNode[state.getNPlayers()];
@@ -208,6 +199,17 @@ public class MultiTreeNode extends SingleTreeNode {
         }
     }
 
+    /**
+     * Replaces the tree of the deciding player with the subtree of the last search for the state reached
+     * (see SingleTreeNode.reuseSubtree()). The trees of the other players are started afresh.
+     */
+    void reuseRoot(SingleTreeNode node) {
+        if (params.opponentTreePolicy == MCTSEnums.OpponentTreePolicy.MultiTreeParanoid)
+            node.paranoidPlayer = decisionPlayer;
+        roots[decisionPlayer] = node;
+        currentLocation[decisionPlayer] = node;
+    }
+
     @Override
     public AbstractAction bestAction() {
         return roots[decisionPlayer].bestAction();
@@ -227,6 +229,7 @@ public class MultiTreeNode extends SingleTreeNode {
         stats.put("iterations", numIters);
         stats.put("rolloutActions", rolloutActionsTaken / numIters);
         stats.put("time", timeTaken);
+        stats.put("reusedVisits", roots[decisionPlayer].reusedVisits);
         int validRoots = (int) Arrays.stream(roots).filter(Objects::nonNull).count();
         for (SingleTreeNode node : roots) {
             if (node == null) continue;
@@ -0,0 +1,130 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.interfaces.IStatisticLogger;
+import utilities.ElapsedCpuTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static players.mcts.MCTSEnums.OpponentTreePolicy.OMA;
+import static players.mcts.MCTSEnums.OpponentTreePolicy.OMA_All;
+
+/**
+ * Runs an MCTS search on MCTSParams.threads threads, as set out by MCTSParams.parallelisation.
+ * <p>
+ * Root: each thread searches its own tree, with its own copy of the forward model, rollout and opponent models and
+ * Random. The statistics of the roots (and their children) are then merged into the first tree, so that the action
+ * chosen is the one with the most visits over all the trees.
+ * <p>
+ * Tree: all threads search the same tree, with virtual loss to spread them over different parts of it. Each thread
+ * plays its iterations out on its own copy of the state, and only locks one node at a time to read or update its
+ * statistics (see SingleTreeNode.treeParallelIteration()). This is only supported with Open_Loop or
+ * Information_Set, and without MAST or OMA, as otherwise the rollouts would read statistics that other threads are
+ * updating. Root parallelisation is used instead if these do not hold.
+ * <p>
+ * In both cases the budget applies to the search as a whole (see SearchBudget). Each thread can overshoot the budget
+ * by the iteration in progress when another thread uses it up.
+ */
+final class ParallelSearch {
+
+    private ParallelSearch() {
+    }
+
+    static boolean treeParallelSupported(MCTSParams params) {
+        return (params.information == MCTSEnums.Information.Open_Loop || params.information == MCTSEnums.Information.Information_Set)
+                && !params.useMAST && params.opponentTreePolicy != OMA && params.opponentTreePolicy != OMA_All;
+    }
+
+    /**
+     * @param player      - the player searching. Its own forward model, policies and Random are used by the first thread.
+     * @param gameState   - the state to search from
+     * @param statsLogger - for statistics on the search (may be null)
+     * @return - the root of the searched tree
+     */
+    static SingleTreeNode search(MCTSPlayer player, AbstractGameState gameState, IStatisticLogger statsLogger) {
+        MCTSParams params = player.params;
+        int threads = params.threads;
+        SearchBudget budget = new SearchBudget(threads);
+        long startTime = System.currentTimeMillis();
+
+        // the roots (and with them the copies of the state) are all created here, and not on the worker threads
+        MCTSPlayer[] workers = new MCTSPlayer[threads];
+        workers[0] = player;
+        for (int i = 1; i < threads; i++)
+            workers[i] = player.createWorker();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        SingleTreeNode result;
+        if (params.parallelisation == MCTSEnums.Parallelisation.Tree && treeParallelSupported(params)) {
+            result = player.createRoot(gameState);
+            result.sharedBudget = budget;
+            result.treeParallel = true;
+            SingleTreeNode[] rolloutNodes = new SingleTreeNode[threads];
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                SingleTreeNode rolloutNode = SingleTreeNode.createRootNode(workers[i], gameState, workers[i].rnd);
+                rolloutNodes[i] = rolloutNode;
+                tasks.add(() -> {
+                    long threadStart = System.currentTimeMillis();
+                    double acumTimeTaken = 0;
+                    int numIters = 0;
+                    do {
+                        ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
+                        result.treeParallelIteration(rolloutNode);
+                        numIters++;
+                        acumTimeTaken += elapsedTimerIteration.elapsedMillis();
+                    } while (!result.budgetExhausted(numIters, acumTimeTaken, null));
+                    budget.threadDone(thread, numIters, System.currentTimeMillis() - threadStart);
+                    return null;
+                });
+            }
+            run(player, tasks);
+            result.treeParallel = false;
+            // each thread counted its own work
+            for (SingleTreeNode rolloutNode : rolloutNodes) {
+                result.fmCallsCount += rolloutNode.fmCallsCount;
+                result.copyCount += rolloutNode.copyCount;
+                result.rolloutActionsTaken += rolloutNode.rolloutActionsTaken;
+            }
+        } else {
+            SingleTreeNode[] roots = new SingleTreeNode[threads];
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                roots[i] = workers[i].createRoot(gameState);
+                roots[i].sharedBudget = budget;
+                tasks.add(() -> {
+                    long threadStart = System.currentTimeMillis();
+                    int visitsBefore = roots[thread].getVisits();
+                    roots[thread].mctsSearch(null);
+                    budget.threadDone(thread, roots[thread].getVisits() - visitsBefore, System.currentTimeMillis() - threadStart);
+                    return null;
+                });
+            }
+            run(player, tasks);
+            result = roots[0];
+            for (int i = 1; i < threads; i++)
+                result.mergeRootStatistics(roots[i]);
+        }
+        if (statsLogger != null)
+            result.logTreeStatistics(statsLogger, budget.iterations(), System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private static void run(MCTSPlayer player, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : player.executor().invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted during parallel MCTS search", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new AssertionError("Parallel MCTS search failed", e.getCause());
+        }
+    }
+}
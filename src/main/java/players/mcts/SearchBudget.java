@@ -0,0 +1,67 @@
+package players.mcts;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The budget shared by the threads of a parallel search (see ParallelSearch), so that budgets on iterations, forward
+ * model calls and copies apply to the search as a whole, rather than to each thread. A time budget runs from the
+ * start of the search (when this is created), and not from when each thread happens to start.
+ *
+ * This also records how much work each thread did, for logTreeStatistics().
+ */
+class SearchBudget {
+
+    private final AtomicInteger iterations = new AtomicInteger();
+    private final AtomicInteger fmCalls = new AtomicInteger();
+    private final AtomicInteger copyCalls = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    final int[] threadIterations;
+    final long[] threadMillis;
+
+    SearchBudget(int threads) {
+        threadIterations = new int[threads];
+        threadMillis = new long[threads];
+    }
+
+    /**
+     * Called by each thread after each iteration.
+     * @param fmCallsUsed - forward model calls used by the iteration
+     * @param copyCallsUsed - state copies made by the iteration
+     */
+    void iterationDone(int fmCallsUsed, int copyCallsUsed) {
+        fmCalls.addAndGet(fmCallsUsed);
+        copyCalls.addAndGet(copyCallsUsed);
+        iterations.incrementAndGet();
+    }
+
+    /**
+     * @param budgetMillis       - time budget for the whole search
+     * @param breakMillis        - time to leave spare at the end
+     * @param avgIterationMillis - average time taken by an iteration of the thread asking
+     * @return - true if there is not enough time left for the thread to start another iteration
+     */
+    boolean timeExhausted(int budgetMillis, int breakMillis, double avgIterationMillis) {
+        double remaining = budgetMillis - (System.nanoTime() - startNanos) / 1e6;
+        return remaining <= 2 * avgIterationMillis || remaining <= breakMillis;
+    }
+
+    int iterations() {
+        return iterations.get();
+    }
+
+    int fmCalls() {
+        return fmCalls.get();
+    }
+
+    int copyCalls() {
+        return copyCalls.get();
+    }
+
+    /**
+     * Records the work done by a thread once it has finished.
+     */
+    void threadDone(int thread, int iterationsDone, long millis) {
+        threadIterations[thread] = iterationsDone;
+        threadMillis[thread] = millis;
+    }
+}
@@ -3,9 +3,12 @@ package players.mcts;
 import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.AbstractPlayer;
+import core.UndoToken;
 import core.actions.AbstractAction;
+import core.actions.ActionMap;
 import core.interfaces.IStateHeuristic;
 import core.interfaces.IStatisticLogger;
+import core.metrics.Metrics;
 import players.PlayerConstants;
 import utilities.ElapsedCpuTimer;
 import utilities.Pair;
@@ -19,7 +22,7 @@ import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.*;
 import static players.PlayerConstants.*;
-import static players.mcts.MCTSEnums.Information.Closed_Loop;
+import static players.mcts.MCTSEnums.Information.Transposition;
 import static players.mcts.MCTSEnums.OpponentTreePolicy.*;
 import static players.mcts.MCTSEnums.RolloutTermination.DEFAULT;
 import static players.mcts.MCTSEnums.Strategies.MAST;
@@ -33,7 +36,7 @@ public class SingleTreeNode {
     // State in this node (open loop - this is updated by onward trajectory....be very careful about using)
     protected AbstractGameState openLoopState;
     List<AbstractAction> actionsFromOpenLoopState = new ArrayList<>();
-    Map<AbstractAction, Double> advantagesOfActionsFromOLS = new HashMap<>();
+    Map<AbstractAction, Double> advantagesOfActionsFromOLS = new ActionMap<>();
     // Parameters guiding the search
     protected MCTSParams params;
     protected AbstractForwardModel forwardModel;
@@ -49,7 +52,7 @@ public class SingleTreeNode {
     int depth;
     // the id of the player who makes the decision at this node
     int decisionPlayer;
-    private final Map<AbstractAction, Integer> nValidVisits = new HashMap<>();
+    private final Map<AbstractAction, Integer> nValidVisits = new ActionMap<>();
     // Action taken to reach this node
     // In vanilla MCTS this will likely be an action taken by some other player (not the decisionPlayer at this node)
     protected AbstractAction actionToReach;
@@ -59,19 +62,38 @@ public class SingleTreeNode {
     // Number of visits to this node
     protected int nVisits;
     protected int rolloutActionsTaken;
-    double highReward = Double.NEGATIVE_INFINITY;
-    double lowReward = Double.POSITIVE_INFINITY;
+    // Visits to this node carried over from the search before, if it was made the root (see reuseSubtree())
+    int reusedVisits;
+    // volatile, as with Tree parallelisation these are read by threads that do not hold the lock on the root
+    volatile double highReward = Double.NEGATIVE_INFINITY;
+    volatile double lowReward = Double.POSITIVE_INFINITY;
     // Root node of tree
     SingleTreeNode root;
     // Parent of this node
     SingleTreeNode parent;
+    // Parent of this node on the current iteration. This is always the same as parent, except with transpositions,
+    // where a node can be reached from more than one parent
+    SingleTreeNode pathParent;
     // Children of this node. The value is an Array because we have to cater for the possibility that the next decision
     // could be by any player - each of which would transition to a different Node OpenLoop search. (Closed Loop will
     // only ever have one position in the array populated: and similarly if we are using a SelfOnly tree).
-    Map<AbstractAction, SingleTreeNode[]> children = new HashMap<>();
-    List<Map<AbstractAction, Pair<Integer, Double>>> MASTStatistics; // a list of one Map per player. Action -> (visits, totValue)
+    Map<AbstractAction, SingleTreeNode[]> children = new ActionMap<>();
+    MASTStatistics MASTStats;
     ToDoubleBiFunction<AbstractAction, AbstractGameState> advantageFunction = (a, s) -> advantagesOfActionsFromOLS.getOrDefault(a, 0.0);
     ToDoubleBiFunction<AbstractAction, AbstractGameState> MASTFunction;
+    // Nodes by Zobrist hash of their state (only on the root node, and only with Information.Transposition)
+    Map<Long, SingleTreeNode> transpositionTable;
+    int transpositionHits;
+    // With Open_Loop and a forward model that supports undo, the single state that is re-used for every iteration, and
+    // the tokens to restore it at the end of the current iteration (only on the root node)
+    private AbstractGameState undoState;
+    private ArrayDeque<UndoToken> undoStack;
+    // Budget shared with the other threads of a parallel search, if there are any (only on the root node)
+    SearchBudget sharedBudget;
+    // True if several threads search this tree at once (only on the root node, see treeParallelIteration())
+    boolean treeParallel;
+    // Re-used for the actions available at each step of advanceToTurnOfPlayer() and rollOut() (only on the root node)
+    private List<AbstractAction> actionBuffer;
     // Total value of this node
 
 
@@ -83,35 +105,144 @@ public class SingleTreeNode {
     public static SingleTreeNode createRootNode(MCTSPlayer player, AbstractGameState state, Random rnd) {
         SingleTreeNode retValue = (player.params.opponentTreePolicy == OMA || player.params.opponentTreePolicy == OMA_All)
                 ? new OMATreeNode() : new SingleTreeNode();
-        retValue.decisionPlayer = state.getCurrentPlayer();
-        retValue.params = player.params;
-        retValue.forwardModel = player.getForwardModel();
-        retValue.heuristic = player.heuristic;
-        retValue.opponentHeuristic = player.opponentHeuristic;
-        retValue.rnd = rnd;
-        retValue.opponentModels = new AbstractPlayer[state.getNPlayers()];
-        for (int p = 0; p < retValue.opponentModels.length; p++) {
-            if (p == retValue.decisionPlayer)
-                retValue.opponentModels[p] = player.rolloutStrategy;
+        retValue.initialiseRoot(player, state, rnd);
+        retValue.instantiate(null, null, state);
+        return retValue;
+    }
+
+    // Sets up what only the root node has
+    private void initialiseRoot(MCTSPlayer player, AbstractGameState state, Random rnd) {
+        decisionPlayer = state.getCurrentPlayer();
+        params = player.params;
+        forwardModel = player.getForwardModel();
+        heuristic = player.heuristic;
+        opponentHeuristic = player.opponentHeuristic;
+        this.rnd = rnd;
+        opponentModels = new AbstractPlayer[state.getNPlayers()];
+        for (int p = 0; p < opponentModels.length; p++) {
+            if (p == decisionPlayer)
+                opponentModels[p] = player.rolloutStrategy;
             else
-                retValue.opponentModels[p] = player.getOpponentModel(p);
+                opponentModels[p] = player.getOpponentModel(p);
         }
+        actionBuffer = new ArrayList<>();
         // only root node maintains MAST statistics
-        retValue.MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < state.getNPlayers(); i++)
-            retValue.MASTStatistics.add(new HashMap<>());
-        retValue.MASTFunction = (a, s) -> {
-            Map<AbstractAction, Pair<Integer, Double>> MAST = retValue.MASTStatistics.get(retValue.decisionPlayer);
-            if (MAST.containsKey(a)) {
-                Pair<Integer, Double> stats = MAST.get(a);
-                return stats.b / (stats.a + retValue.params.epsilon);
+        MASTStats = new MASTStatistics(state.getNPlayers());
+        MASTFunction = (a, s) -> MASTStats.meanValue(decisionPlayer, a, params.epsilon, 0.0);
+        transpositionTable = null;
+        if (player.params.information == Transposition && !(this instanceof OMATreeNode)) {
+            // OMA statistics depend on the (unique) path to each node, so we cannot share nodes with OMA
+            int maxSize = player.params.transpositionTableSize;
+            transpositionTable = new LinkedHashMap<Long, SingleTreeNode>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, SingleTreeNode> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+    }
+
+    /**
+     * Makes the node for state in this tree the root of a new search (see MCTSParams.reuseTree), so that the search
+     * starts with the statistics already gathered for it. The node is found by following the actions taken since the
+     * state of this root (only the first of these in a SelfOnly or MultiTree tree, which have no nodes for the other
+     * players), or failing that by the hash of the state in the transposition table. The rest of the tree is dropped,
+     * as are any children of the new root for actions that are not available in state.
+     * <p>
+     * This is not supported with OMA, as the OMA statistics of a node are kept on an ancestor.
+     *
+     * @param player - the player searching
+     * @param state  - the state to search from
+     * @param taken  - the actions taken since the state of this root
+     * @param rnd    - random number generator for the new search
+     * @return - the new root, or null if there is no node for state in this tree
+     */
+    SingleTreeNode reuseSubtree(MCTSPlayer player, AbstractGameState state, List<AbstractAction> taken, Random rnd) {
+        if (this instanceof OMATreeNode)
+            throw new IllegalArgumentException("Trees cannot be re-used with OMA");
+        int actingPlayer = state.getCurrentPlayer();
+        SingleTreeNode retValue = null;
+        if (!taken.isEmpty())
+            retValue = descendant(params.opponentTreePolicy.selfOnlyTree ? taken.subList(0, 1) : taken, actingPlayer);
+        if (retValue == null && transpositionTable != null) {
+            SingleTreeNode node = transpositionTable.get(state.getZobristHash());
+            if (node != null && node.decisionPlayer == actingPlayer)
+                retValue = node;
+        }
+        if (retValue == null || retValue == this)
+            return null;
+
+        int depthOffset = retValue.depth;
+        retValue.parent = null;
+        retValue.pathParent = null;
+        retValue.actionToReach = null;
+        retValue.initialiseRoot(player, state, rnd);
+        retValue.lowReward = lowReward;
+        retValue.highReward = highReward;
+        retValue.reusedVisits = retValue.nVisits;
+        retValue.fmCallsCount = 0;
+        retValue.copyCount = 0;
+        retValue.rolloutActionsTaken = 0;
+        retValue.transpositionHits = 0;
+
+        // with transpositions a node can have more than one parent
+        Set<SingleTreeNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<SingleTreeNode> queue = new ArrayDeque<>();
+        queue.add(retValue);
+        while (!queue.isEmpty()) {
+            SingleTreeNode node = queue.poll();
+            if (!seen.add(node))
+                continue;
+            node.root = retValue;
+            node.depth -= depthOffset;
+            node.forwardModel = retValue.forwardModel;
+            node.heuristic = retValue.heuristic;
+            node.opponentModels = retValue.opponentModels;
+            node.rnd = rnd;
+            if (retValue.transpositionTable != null && node != retValue)
+                retValue.transpositionTable.put(node.state.getZobristHash(), node);
+            for (SingleTreeNode[] nodeArray : node.children.values()) {
+                if (nodeArray != null)
+                    for (SingleTreeNode child : nodeArray)
+                        if (child != null)
+                            queue.add(child);
             }
-            return 0.0;
-        };
-        retValue.instantiate(null, null, state);
+        }
+
+        // as in instantiate()
+        if (!params.information.closedLoop) {
+            retValue.copyCount++;
+            retValue.state = state.copy();
+        } else {
+            retValue.state = state;
+        }
+        if (retValue.transpositionTable != null)
+            retValue.transpositionTable.put(state.getZobristHash(), retValue);
+        retValue.setActionsFromOpenLoopState(state);
+        Map<AbstractAction, SingleTreeNode[]> available = new ActionMap<>(retValue.actionsFromOpenLoopState.size());
+        for (AbstractAction action : retValue.actionsFromOpenLoopState)
+            available.put(action, retValue.children.get(action));
+        retValue.children = available;
         return retValue;
     }
 
+    // The node reached from this one by the actions, in which it is the turn of player, or null if there is none
+    private SingleTreeNode descendant(List<AbstractAction> actions, int player) {
+        if (actions.isEmpty())
+            return decisionPlayer == player ? this : null;
+        SingleTreeNode[] nodeArray = children.get(actions.get(0));
+        if (nodeArray == null)
+            return null;
+        for (SingleTreeNode child : nodeArray) {
+            if (child != null) {
+                SingleTreeNode retValue = child.descendant(actions.subList(1, actions.size()), player);
+                if (retValue != null)
+                    return retValue;
+            }
+        }
+        return null;
+    }
+
     public static SingleTreeNode createChildNode(SingleTreeNode parent, AbstractAction actionToReach, AbstractGameState state) {
         SingleTreeNode retValue = (parent instanceof OMATreeNode) ? new OMATreeNode() : new SingleTreeNode();
         retValue.instantiate(parent, actionToReach, state);
@@ -121,6 +252,7 @@ public class SingleTreeNode {
     protected void instantiate(SingleTreeNode parent, AbstractAction actionToReach, AbstractGameState state) {
         this.fmCallsCount = 0;
         this.parent = parent;
+        this.pathParent = parent;
         this.root = parent == null ? this : parent.root;
         this.params = root.params;
         this.heuristic = root.heuristic;
@@ -139,18 +271,26 @@ public class SingleTreeNode {
 
         totValue = new double[state.getNPlayers()];
         totSquares = new double[state.getNPlayers()];
-        if (params.information != Closed_Loop && (params.maintainMasterState || depth == 0)) {
+        if (!params.information.closedLoop && (params.maintainMasterState || depth == 0)) {
             // if we're using open loop, then we need to make sure the reference state is never changed
             // however this is only used at the root - and we can switch the copy off for other nodes for performance
             // these master copies *are* required if we want to do something funky with the final tree, and gather
             // features from the nodes - if we are gathering Expert Iteration data or Learning an Advantage function
-            root.copyCount++;
+            // (with Tree parallelisation the thread creating the node counts the copy itself)
+            if (!root.treeParallel)
+                root.copyCount++;
             this.state = state.copy();
+            // nothing in the search needs the history of the states it creates from this one
+            this.state.setSimulation(true);
         } else {
             this.state = state;
         }
         // then set up available actions, and set openLoopState = state
-        setActionsFromOpenLoopState(state);
+        // (with Tree parallelisation, each thread sets the actions it finds when it reaches the node)
+        if (root.treeParallel)
+            openLoopState = state;
+        else
+            setActionsFromOpenLoopState(state);
 
     }
 
@@ -171,22 +311,27 @@ public class SingleTreeNode {
         // so check the MCTSParams as well
         openLoopState = actionState;
         if (actionState.getCurrentPlayer() == this.decisionPlayer) {
-            actionsFromOpenLoopState = forwardModel.computeAvailableActions(actionState);
+            setAvailableActions(actionState, forwardModel.computeAvailableActions(actionState));
             //      System.out.printf("Setting OLS actions for P%d (%d)%n%s%n", decisionPlayer, actionState.getCurrentPlayer(),
 //                actionsFromOpenLoopState.stream().map(a -> "\t" + a.toString() + "\n").collect(joining()));
-            if (params.expansionPolicy == MAST) {
+        }
+    }
+
+    // Sets the actions available in actionState (which must be openLoopState), and adds any new ones to the children
+    private void setAvailableActions(AbstractGameState actionState, List<AbstractAction> actions) {
+        actionsFromOpenLoopState = actions;
+        if (params.expansionPolicy == MAST) {
+            advantagesOfActionsFromOLS = actionsFromOpenLoopState.stream()
+                    .collect(toMap(a -> a, a -> root.MASTFunction.applyAsDouble(a, actionState), (a, b) -> a, ActionMap::new));
+        } else {
+            if (params.advantageFunction != null)
                 advantagesOfActionsFromOLS = actionsFromOpenLoopState.stream()
-                        .collect(toMap(a -> a, a -> root.MASTFunction.applyAsDouble(a, actionState)));
-            } else {
-                if (params.advantageFunction != null)
-                    advantagesOfActionsFromOLS = actionsFromOpenLoopState.stream()
-                            .collect(toMap(a -> a, a -> params.advantageFunction.evaluateAction(a, actionState)));
-            }
-            for (AbstractAction action : actionsFromOpenLoopState) {
-                if (!children.containsKey(action)) {
-                    children.put(action, null); // mark a new node to be expanded
-                    // This *does* rely on a good equals method being implemented for Actions
-                }
+                        .collect(toMap(a -> a, a -> params.advantageFunction.evaluateAction(a, actionState), (a, b) -> a, ActionMap::new));
+        }
+        for (AbstractAction action : actionsFromOpenLoopState) {
+            if (!children.containsKey(action)) {
+                children.put(action, null); // mark a new node to be expanded
+                // This *does* rely on a good equals method being implemented for Actions
             }
         }
     }
@@ -197,10 +342,7 @@ public class SingleTreeNode {
     public void mctsSearch(IStatisticLogger statsLogger) {
 
         // Variables for tracking time budget
-        double avgTimeTaken;
         double acumTimeTaken = 0;
-        long remaining;
-        int remainingLimit = params.breakMS;
         ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
         if (params.budgetType == BUDGET_TIME) {
             elapsedTimer.setMaxTimeMillis(params.budget);
@@ -210,14 +352,26 @@ public class SingleTreeNode {
         int numIters = 0;
         rolloutActionsTaken = 0;
         boolean stop = false;
+        if (params.information == MCTSEnums.Information.Open_Loop && forwardModel.supportsUndo()) {
+            undoState = state.copy();
+            undoStack = new ArrayDeque<>();
+            copyCount++;
+        }
         while (!stop) {
+            int fmCallsBefore = fmCallsCount;
+            int copiesBefore = copyCount;
             switch (params.information) {
                 case Closed_Loop:
+                case Transposition:
                     openLoopState = state;
                     break;
                 case Open_Loop:
-                    openLoopState = state.copy();
-                    copyCount++;
+                    if (undoStack != null) {
+                        openLoopState = undoState;
+                    } else {
+                        openLoopState = state.copy();
+                        copyCount++;
+                    }
                     break;
                 case Information_Set:
                     openLoopState = state.copy(decisionPlayer);
@@ -230,36 +384,198 @@ public class SingleTreeNode {
 
             // Selection + expansion: navigate tree until a node not fully expanded is found, add a new node to the tree
             oneSearchIteration();
+            if (undoStack != null) {
+                while (!undoStack.isEmpty())
+                    forwardModel.undo(undoState, undoStack.pop());
+            }
 
             // Finished iteration
             numIters++;
+            if (sharedBudget != null)
+                sharedBudget.iterationDone(fmCallsCount - fmCallsBefore, copyCount - copiesBefore);
             //       System.out.printf("MCTS Iteration %d, timeLeft: %d\n", numIters, elapsedTimer.remainingTimeMillis());
             // Check stopping condition
-            PlayerConstants budgetType = params.budgetType;
-            if (budgetType == BUDGET_TIME) {
-                // Time budget
-                acumTimeTaken += (elapsedTimerIteration.elapsedMillis());
-                avgTimeTaken = acumTimeTaken / numIters;
-                remaining = elapsedTimer.remainingTimeMillis();
-                stop = remaining <= 2 * avgTimeTaken || remaining <= remainingLimit;
-            } else if (budgetType == BUDGET_ITERATIONS) {
-                // Iteration budget
-                stop = numIters >= params.budget;
-            } else if (budgetType == BUDGET_FM_CALLS) {
-                // FM calls budget
-                stop = fmCallsCount > params.budget || numIters > params.budget;
-            } else if (budgetType == BUDGET_COPY_CALLS) {
-                stop = copyCount > params.budget || numIters > params.budget;
-            } else if (budgetType == BUDGET_FMANDCOPY_CALLS) {
-                stop = (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
-            }
+            acumTimeTaken += (elapsedTimerIteration.elapsedMillis());
+            stop = budgetExhausted(numIters, acumTimeTaken, elapsedTimer);
         }
 
+        undoState = null;
+        undoStack = null;
+        if (Metrics.isEnabled())
+            Metrics.histogram(Metrics.MCTS_ITERATIONS, state.getGameType(), decisionPlayer, null, state.getGamePhase()).record(numIters);
         if (statsLogger != null) {
             logTreeStatistics(statsLogger, numIters, elapsedTimer.elapsedMillis());
         }
     }
 
+    /**
+     * Checks the stopping condition after an iteration. If the search is one of several in parallel, then the budget
+     * applies to them all (see SearchBudget).
+     *
+     * @param numIters      - iterations completed by this search
+     * @param acumTimeTaken - time taken by these iterations
+     * @param elapsedTimer  - timer started at the beginning of this search (not used in a parallel search)
+     * @return - true if the search should stop
+     */
+    boolean budgetExhausted(int numIters, double acumTimeTaken, ElapsedCpuTimer elapsedTimer) {
+        if (sharedBudget != null && params.budgetType == BUDGET_TIME)
+            return sharedBudget.timeExhausted(params.budget, params.breakMS, acumTimeTaken / numIters);
+        int iterations = sharedBudget == null ? numIters : sharedBudget.iterations();
+        int fmCalls = sharedBudget == null ? fmCallsCount : sharedBudget.fmCalls();
+        int copies = sharedBudget == null ? copyCount : sharedBudget.copyCalls();
+        return budgetExhausted(params, iterations, fmCalls, copies, acumTimeTaken / numIters, elapsedTimer);
+    }
+
+    /**
+     * @param params       - parameters of the search, with the budget
+     * @param iterations   - iterations completed
+     * @param fmCalls      - forward model calls made
+     * @param copies       - copies of the state made
+     * @param avgTimeTaken - average time taken by an iteration
+     * @param elapsedTimer - timer started at the beginning of the search
+     * @return - true if the search should stop
+     */
+    static boolean budgetExhausted(MCTSParams params, int iterations, int fmCalls, int copies, double avgTimeTaken,
+                                   ElapsedCpuTimer elapsedTimer) {
+        PlayerConstants budgetType = params.budgetType;
+        if (budgetType == BUDGET_TIME) {
+            // Time budget
+            long remaining = elapsedTimer.remainingTimeMillis();
+            return remaining <= 2 * avgTimeTaken || remaining <= params.breakMS;
+        } else if (budgetType == BUDGET_ITERATIONS) {
+            // Iteration budget
+            return iterations >= params.budget;
+        } else if (budgetType == BUDGET_FM_CALLS) {
+            // FM calls budget
+            return fmCalls > params.budget || iterations > params.budget;
+        } else if (budgetType == BUDGET_COPY_CALLS) {
+            return copies > params.budget || iterations > params.budget;
+        } else if (budgetType == BUDGET_FMANDCOPY_CALLS) {
+            return (copies + fmCalls) > params.budget || iterations > params.budget;
+        }
+        return false;
+    }
+
+    /**
+     * One iteration of Tree parallelisation, run by one of several threads that share this tree (see ParallelSearch).
+     * <p>
+     * Each thread plays the iteration out on its own copy of the state, with its own forward model, policies, Random
+     * and counters (those of rolloutNode, which is outside the tree), so the copy, the heuristic, the forward model
+     * and the rollout all run without any lock. Locks are only held on one node at a time, and only to read or update
+     * its statistics:
+     * - The children of a node, and the fields it keeps for the current iteration (openLoopState and the actions
+     * available), are guarded by the node itself. A thread sets the latter for its own iteration, and uses them,
+     * while it holds the lock.
+     * - The visits and value of a node are guarded by its parent (the root by itself), so that when a child is chosen
+     * the statistics of all the children are read consistently under one lock. The visits to the node itself may be
+     * a little out of date, as they are in any lock-free search.
+     * Virtual loss is added to each node as it is chosen, to steer the other threads elsewhere, and removed when the
+     * result is backed up.
+     *
+     * @param rolloutNode - node outside the tree that holds this thread's forward model and policies
+     */
+    void treeParallelIteration(SingleTreeNode rolloutNode) {
+        int fmCallsBefore = rolloutNode.fmCallsCount;
+        int copiesBefore = rolloutNode.copyCount;
+        AbstractGameState iterationState = params.information == MCTSEnums.Information.Information_Set
+                ? state.copy(decisionPlayer) : state.copy();
+        rolloutNode.copyCount++;
+        double[] startingValues = IntStream.range(0, iterationState.getNPlayers())
+                .mapToDouble(i -> heuristic.evaluateState(iterationState, i)).toArray();
+
+        List<SingleTreeNode> path = new ArrayList<>();
+        List<Pair<Integer, AbstractAction>> treeActions = new ArrayList<>();
+        SingleTreeNode cur = this;
+        path.add(cur);
+        while (iterationState.isNotTerminalForPlayer(decisionPlayer) && cur.depth < params.maxTreeDepth
+                && iterationState.getCurrentPlayer() == cur.decisionPlayer) {
+            List<AbstractAction> available = rolloutNode.forwardModel.computeAvailableActions(iterationState);
+            if (available.isEmpty())
+                break;
+            AbstractAction chosen;
+            boolean expanding;
+            synchronized (cur) {
+                cur.openLoopState = iterationState;
+                cur.setAvailableActions(iterationState, available);
+                List<AbstractAction> unexpanded = cur.unexpandedActions();
+                expanding = !unexpanded.isEmpty();
+                if (expanding) {
+                    chosen = cur.expand(unexpanded);
+                    // reserved, so that no other thread expands it as well
+                    cur.children.put(chosen, new SingleTreeNode[iterationState.getNPlayers()]);
+                } else {
+                    chosen = cur.treePolicyAction(rolloutNode.rnd);
+                }
+                for (AbstractAction action : available)
+                    cur.nValidVisits.merge(action, 1, Integer::sum);
+            }
+            rolloutNode.advanceFrom(cur, iterationState, chosen);
+            SingleTreeNode next;
+            synchronized (cur) {
+                next = cur.childFor(chosen, iterationState, rolloutNode);
+                next.nVisits++;
+                next.totValue[cur.decisionPlayer] -= params.virtualLoss;
+            }
+            path.add(next);
+            cur = next;
+            if (expanding)
+                break;
+            treeActions.add(new Pair<>(decisionPlayer, chosen));
+        }
+
+        List<Pair<Integer, AbstractAction>> rolloutActions = new ArrayList<>();
+        int lastActorInTree = treeActions.isEmpty() ? decisionPlayer : treeActions.get(treeActions.size() - 1).a;
+        rolloutNode.openLoopState = iterationState;
+        double[] delta = rolloutNode.rollOut(rolloutActions, startingValues, decisionPlayer, lastActorInTree);
+        rolloutNode.rolloutActionsTaken += rolloutActions.size();
+
+        double[] squaredDelta = new double[delta.length];
+        for (int i = 0; i < delta.length; i++)
+            squaredDelta[i] = delta[i] * delta[i];
+        if (params.normaliseRewards || params.treePolicy == MCTSEnums.TreePolicy.UCB_Tuned) {
+            synchronized (this) {
+                updateRewardRange(delta);
+            }
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            SingleTreeNode n = path.get(i);
+            SingleTreeNode guard = i == 0 ? n : path.get(i - 1);
+            synchronized (guard) {
+                if (i > 0) {
+                    // the virtual loss comes off as the real result goes on
+                    n.nVisits--;
+                    n.totValue[guard.decisionPlayer] += params.virtualLoss;
+                }
+                n.addResult(delta, squaredDelta);
+            }
+        }
+        sharedBudget.iterationDone(rolloutNode.fmCallsCount - fmCallsBefore, rolloutNode.copyCount - copiesBefore);
+    }
+
+    // With Tree parallelisation, applies an action chosen at node to this thread's state, as node.advance() would
+    private void advanceFrom(SingleTreeNode node, AbstractGameState gs, AbstractAction act) {
+        forwardModel.next(gs, act.copy());
+        fmCallsCount++;
+        if (params.opponentTreePolicy == SelfOnly && gs.getCurrentPlayer() != node.decisionPlayer)
+            advanceToTurnOfPlayer(gs, node.decisionPlayer);
+    }
+
+    // With Tree parallelisation, the child reached by an action that has been applied to gs, which is created if need
+    // be (as nextNodeInTree() does), counting any copy of the state against rolloutNode. The lock on this node must
+    // be held.
+    private SingleTreeNode childFor(AbstractAction chosen, AbstractGameState gs, SingleTreeNode rolloutNode) {
+        SingleTreeNode[] nodeArray = children.get(chosen);
+        int nextPlayer = params.opponentTreePolicy.selfOnlyTree ? decisionPlayer : gs.getCurrentPlayer();
+        SingleTreeNode retValue = nodeArray[nextPlayer];
+        if (retValue == null || (params.opponentTreePolicy.selfOnlyTree && retValue.decisionPlayer != decisionPlayer)) {
+            retValue = SingleTreeNode.createChildNode(this, chosen.copy(), gs);
+            nodeArray[nextPlayer] = retValue;
+            if (params.maintainMasterState)
+                rolloutNode.copyCount++;
+        }
+        return retValue;
+    }
+
     /**
      * oneSearchIteration() implements the strategy for tree search (plus expansion, rollouts, backup and so on)
      * Its result is purely stored in the tree generated from root
@@ -327,6 +643,21 @@ public class SingleTreeNode {
         stats.put("lowReward", this.lowReward);
         stats.put("highReward", this.highReward);
         stats.put("rolloutActions", this.rolloutActionsTaken / numIters);
+        stats.put("reusedVisits", reusedVisits);
+        if (transpositionTable != null)
+            stats.put("transpositionHits", transpositionHits);
+        if (sharedBudget != null) {
+            // throughput of each thread in a parallel search
+            int threads = sharedBudget.threadIterations.length;
+            double[] itersPerSecond = new double[threads];
+            for (int i = 0; i < threads; i++)
+                itersPerSecond[i] = sharedBudget.threadIterations[i] * 1000.0 / Math.max(sharedBudget.threadMillis[i], 1);
+            stats.put("threads", threads);
+            stats.put("minThreadIterations", Arrays.stream(sharedBudget.threadIterations).min().orElse(0));
+            stats.put("maxThreadIterations", Arrays.stream(sharedBudget.threadIterations).max().orElse(0));
+            stats.put("meanThreadItersPerSecond", Arrays.stream(itersPerSecond).average().orElse(0.0));
+            stats.put("minThreadItersPerSecond", Arrays.stream(itersPerSecond).min().orElse(0.0));
+        }
         statsLogger.record(stats);
     }
 
@@ -347,7 +678,7 @@ public class SingleTreeNode {
     }
 
     private int validVisitsFor(AbstractAction action) {
-        if (params.information == Closed_Loop)
+        if (params.information.closedLoop)
             return nVisits;
         return nValidVisits.getOrDefault(action, 1);
     }
@@ -410,9 +741,10 @@ public class SingleTreeNode {
                 // We have an unexpanded action
                 AbstractAction chosen = cur.expand(unexpanded);
                 AbstractGameState nextState = cur.openLoopState;
-                if (params.information == Closed_Loop) {
+                if (params.information.closedLoop) {
                     root.copyCount++;
                     nextState = nextState.copy();
+                    nextState.setSimulation(true);
                     // In Closed Loop why do we do this?
                     // Because OLS = state in this case, so we need to copy it before updating it and
                     // using it to populate a new node.
@@ -423,13 +755,15 @@ public class SingleTreeNode {
             } else {
                 // Move to next child given by UCT function
                 AbstractAction chosen = cur.treePolicyAction();
-                if (params.information != Closed_Loop) {
+                if (!params.information.closedLoop) {
                     // We do not need to copy the state, as we advance this as we descend the tree.
                     // In open loop we never re-use the state...the only purpose of storing it on the Node is
                     // to pick it up in the next uct() call as we descend the tree
                     cur.advance(cur.openLoopState, chosen);
                 }
-                cur = cur.nextNodeInTree(chosen);
+                SingleTreeNode next = cur.nextNodeInTree(chosen);
+                next.pathParent = cur;
+                cur = next;
                 // else we keep cur, but will exit immediately
                 treeActions.add(new Pair<>(actingPlayer, chosen));
             }
@@ -497,9 +831,23 @@ public class SingleTreeNode {
     }
 
     protected SingleTreeNode expandNode(AbstractAction actionCopy, AbstractGameState nextState) {
-        // then instantiate a new node
         int nextPlayer = params.opponentTreePolicy.selfOnlyTree ? decisionPlayer : nextState.getCurrentPlayer();
-        SingleTreeNode tn = SingleTreeNode.createChildNode(this, actionCopy, nextState);
+        SingleTreeNode tn;
+        if (root.transpositionTable != null) {
+            long hash = nextState.getZobristHash();
+            tn = root.transpositionTable.get(hash);
+            // we only share nodes at the same depth, which also guarantees that there are no cycles
+            if (tn != null && tn.depth == depth + 1) {
+                tn.pathParent = this;
+                root.transpositionHits++;
+            } else {
+                tn = SingleTreeNode.createChildNode(this, actionCopy, nextState);
+                root.transpositionTable.put(hash, tn);
+            }
+        } else {
+            // then instantiate a new node
+            tn = SingleTreeNode.createChildNode(this, actionCopy, nextState);
+        }
         SingleTreeNode[] nodeArray = new SingleTreeNode[nextState.getNPlayers()];
         nodeArray[nextPlayer] = tn; // we store this by id of the player who will take their turn next
         children.put(actionCopy, nodeArray);
@@ -518,12 +866,20 @@ public class SingleTreeNode {
      */
     protected void advance(AbstractGameState gs, AbstractAction act) {
         // we execute a copy(), because this can change the action, so we then don't find the node later!
-        forwardModel.next(gs, act.copy());
+        next(gs, act.copy());
         root.fmCallsCount++;
         if (params.opponentTreePolicy == SelfOnly && gs.getCurrentPlayer() != decisionPlayer)
             advanceToTurnOfPlayer(gs, decisionPlayer);
     }
 
+    // Applies the action, and if we are re-using a single state (see mctsSearch) keeps the token to undo it later
+    private void next(AbstractGameState gs, AbstractAction act) {
+        if (root.undoStack != null)
+            root.undoStack.push(forwardModel.nextWithUndo(gs, act));
+        else
+            forwardModel.next(gs, act);
+    }
+
     /**
      * Advance the game state to the next point at which it is the turn of the specified player.
      * This is used when we are only tracking our ourselves in the tree.
@@ -535,21 +891,35 @@ public class SingleTreeNode {
         while (gs.getCurrentPlayer() != id && gs.isNotTerminalForPlayer(id)) {
             //       AbstractGameState preGS = gs.copy();
             AbstractPlayer oppModel = opponentModels[gs.getCurrentPlayer()];
-            List<AbstractAction> availableActions = forwardModel.computeAvailableActions(gs);
+            List<AbstractAction> availableActions = availableActions(gs);
             if (availableActions.isEmpty())
                 throw new AssertionError("Should always have at least one action possible...");
             AbstractAction action = oppModel.getAction(gs, availableActions);
-            forwardModel.next(gs, action);
+            next(gs, action);
             root.fmCallsCount++;
         }
     }
 
+    // The actions available in gs, in the buffer on the root, so only valid until the next call
+    private List<AbstractAction> availableActions(AbstractGameState gs) {
+        forwardModel.computeAvailableActions(gs, root.actionBuffer);
+        return root.actionBuffer;
+    }
+
     /**
      * Apply relevant policy to choose a child.
      *
      * @return - child node according to the tree policy
      */
     protected AbstractAction treePolicyAction() {
+        return treePolicyAction(rnd);
+    }
+
+    /**
+     * @param random - for breaking ties or sampling (with Tree parallelisation, that of the thread)
+     * @return - the action chosen by the tree policy
+     */
+    private AbstractAction treePolicyAction(Random random) {
 
         if (params.opponentTreePolicy == SelfOnly && openLoopState.getCurrentPlayer() != decisionPlayer)
             throw new AssertionError("An error has occurred. SelfOnly should only call uct when we are moving.");
@@ -566,12 +936,12 @@ public class SingleTreeNode {
                 case AlphaGo:
                 case UCB_Tuned:
                     // These just vary on the form of the exploration term in a UCB algorithm
-                    actionChosen = ucb(availableActions);
+                    actionChosen = ucb(availableActions, random);
                     break;
                 case EXP3:
                 case RegretMatching:
                     // These construct a distribution over possible actions and then sample from it
-                    actionChosen = sampleFromDistribution(availableActions);
+                    actionChosen = sampleFromDistribution(availableActions, random);
                     break;
                 default:
                     throw new AssertionError("Unknown treepolicy: " + params.treePolicy);
@@ -584,7 +954,7 @@ public class SingleTreeNode {
     protected SingleTreeNode nextNodeInTree(AbstractAction actionChosen) {
         // Only advance the state if this is open loop
         SingleTreeNode[] nodeArray = children.get(actionChosen);
-        if (params.information == Closed_Loop) {
+        if (params.information.closedLoop) {
             // in this case we have determinism...there should just be a single child node in the array...so we get that
             Optional<SingleTreeNode> next = Arrays.stream(nodeArray).filter(Objects::nonNull).findFirst();
             if (next.isPresent()) {
@@ -613,7 +983,7 @@ public class SingleTreeNode {
         }
     }
 
-    private AbstractAction ucb(List<AbstractAction> availableActions) {
+    private AbstractAction ucb(List<AbstractAction> availableActions, Random random) {
         // Find child with highest UCB value
         AbstractAction bestAction = null;
         double bestValue = -Double.MAX_VALUE;
@@ -702,7 +1072,7 @@ public class SingleTreeNode {
             uctValue = childValue + explorationTerm;
 
             // Apply small noise to break ties randomly
-            uctValue = noise(uctValue, params.epsilon, rnd.nextDouble());
+            uctValue = noise(uctValue, params.epsilon, random.nextDouble());
             if (Double.isNaN(uctValue))
                 throw new AssertionError("Numeric error calculating uctValue");
 
@@ -749,7 +1119,7 @@ public class SingleTreeNode {
         return Math.max(0.0, regret);
     }
 
-    private AbstractAction sampleFromDistribution(List<AbstractAction> availableActions) {
+    private AbstractAction sampleFromDistribution(List<AbstractAction> availableActions, Random random) {
         // first we get a value for each of them
         Function<AbstractAction, Double> valueFn;
         switch (params.treePolicy) {
@@ -773,7 +1143,7 @@ public class SingleTreeNode {
                 toMap(Map.Entry::getKey, e -> e.getValue() * (1.0 - params.exploreEpsilon) + exploreBonus));
 
         // then we sample a uniform variable in [0, 1] and ascend the cdf to find the selection
-        double cdfSample = rnd.nextDouble();
+        double cdfSample = random.nextDouble();
         double cdf = 0.0;
         for (AbstractAction action : probabilityOfSelection.keySet()) {
             cdf += probabilityOfSelection.get(action);
@@ -797,7 +1167,7 @@ public class SingleTreeNode {
         AbstractGameState rolloutState = openLoopState;
         if (params.rolloutLength > 0 || params.rolloutTermination != DEFAULT) {
             // even if rollout length is zero, we may rollout a few actions to reach the end of our turn, or the start of our next turn
-            if (params.information == Closed_Loop) {
+            if (params.information.closedLoop) {
                 // the thinking here is that in openLoop we copy the state right at the root, and then use the forward
                 // model at each action. Hence the current state on the node is the one we have been using up to now.
                 /// Hence we do not need to copy it.
@@ -806,7 +1176,7 @@ public class SingleTreeNode {
             }
 
             while (!finishRollout(rolloutState, rolloutDepth, decisionPlayer, lastActor, roundAtStartOfRollout)) {
-                List<AbstractAction> availableActions = forwardModel.computeAvailableActions(rolloutState);
+                List<AbstractAction> availableActions = availableActions(rolloutState);
                 if (availableActions.isEmpty())
                     break;
                 AbstractAction next = opponentModels[rolloutState.getCurrentPlayer()].getAction(rolloutState, availableActions);
@@ -860,73 +1230,121 @@ public class SingleTreeNode {
      * @param result - value of rollout to backup
      */
     protected void backUp(double[] result) {
-        SingleTreeNode n = this;
+        countValidVisits();
         double[] squaredResults = new double[result.length];
         for (int i = 0; i < result.length; i++)
             squaredResults[i] = result[i] * result[i];
 
-        if (params.normaliseRewards || params.treePolicy == MCTSEnums.TreePolicy.UCB_Tuned) {
-            DoubleSummaryStatistics stats = Arrays.stream(result).summaryStatistics();
-            if (n.root.lowReward > stats.getMin())
-                n.root.lowReward = stats.getMin();
-            if (n.root.highReward < stats.getMax())
-                n.root.highReward = stats.getMax();
+        if (params.normaliseRewards || params.treePolicy == MCTSEnums.TreePolicy.UCB_Tuned)
+            root.updateRewardRange(result);
+        for (SingleTreeNode n = this; n != null; n = n.pathParent)
+            n.addResult(result, squaredResults);
+    }
+
+    // Widens the range of rewards seen (on the root) to include the result
+    private void updateRewardRange(double[] result) {
+        DoubleSummaryStatistics stats = Arrays.stream(result).summaryStatistics();
+        if (root.lowReward > stats.getMin())
+            root.lowReward = stats.getMin();
+        if (root.highReward < stats.getMax())
+            root.highReward = stats.getMax();
+    }
+
+    // Adds one visit with the result to the statistics of this node
+    private void addResult(double[] result, double[] squaredResults) {
+        nVisits++;
+        switch (params.opponentTreePolicy) {
+            case SelfOnly:
+                for (int j = 0; j < result.length; j++) {
+                    totValue[j] += result[root.decisionPlayer];
+                    totSquares[j] += squaredResults[root.decisionPlayer];
+                }
+                break;
+            case Paranoid:
+            case MultiTreeParanoid:
+                int paranoid = root.paranoidPlayer == -1 ? root.decisionPlayer : root.paranoidPlayer;
+                for (int j = 0; j < result.length; j++) {
+                    if (j == paranoid) {
+                        totValue[j] += result[paranoid];
+                        totSquares[j] += squaredResults[paranoid];
+                    } else {
+                        totValue[j] -= result[paranoid];
+                        totSquares[j] += squaredResults[paranoid];
+                    }
+                }
+                break;
+            case MaxN:
+            case MultiTree:
+            case OMA_All:
+            case OMA:
+                for (int j = 0; j < result.length; j++) {
+                    totValue[j] += result[j];
+                    totSquares[j] += squaredResults[j];
+                }
+                break;
         }
-        while (n != null) {
-            n.nVisits++;
-            // Here we look at actionsFromOpenLoopState to see which ones were valid
-            // when we passed through, and keep track of valid visits
-            if (params.information != Closed_Loop)
-                for (AbstractAction action : n.actionsFromOpenLoopState) {
-                    if (!n.nValidVisits.containsKey(action))
-                        n.nValidVisits.put(action, 1);
+    }
+
+
+    // Here we look at actionsFromOpenLoopState to see which ones were valid when we passed through on this iteration,
+    // and keep track of valid visits
+    private void countValidVisits() {
+        if (params.information.closedLoop)
+            return;
+        for (SingleTreeNode n = this; n != null; n = n.pathParent) {
+            for (AbstractAction action : n.actionsFromOpenLoopState) {
+                if (!n.nValidVisits.containsKey(action))
+                    n.nValidVisits.put(action, 1);
+                else
+                    n.nValidVisits.put(action, n.nValidVisits.get(action) + 1);
+            }
+        }
+    }
+
+    /**
+     * Used by Root parallelisation to merge the results of a search of another tree into this one (see
+     * ParallelSearch). Only the statistics of the root and its children are merged, which is all that is needed by
+     * bestAction(). Children only found by the other search are taken over, together with their subtrees.
+     *
+     * @param other - root of another tree searched from the same state
+     */
+    void mergeRootStatistics(SingleTreeNode other) {
+        addStatistics(other);
+        fmCallsCount += other.fmCallsCount;
+        copyCount += other.copyCount;
+        rolloutActionsTaken += other.rolloutActionsTaken;
+        lowReward = Math.min(lowReward, other.lowReward);
+        highReward = Math.max(highReward, other.highReward);
+        other.nValidVisits.forEach((action, visits) -> nValidVisits.merge(action, visits, Integer::sum));
+        for (Map.Entry<AbstractAction, SingleTreeNode[]> entry : other.children.entrySet()) {
+            SingleTreeNode[] theirs = entry.getValue();
+            SingleTreeNode[] ours = children.get(entry.getKey());
+            if (ours == null) {
+                children.put(entry.getKey(), theirs);
+            } else if (theirs != null) {
+                for (int i = 0; i < ours.length; i++) {
+                    if (theirs[i] == null)
+                        continue;
+                    if (ours[i] == null)
+                        ours[i] = theirs[i];
                     else
-                        n.nValidVisits.put(action, n.nValidVisits.get(action) + 1);
+                        ours[i].addStatistics(theirs[i]);
                 }
-            switch (params.opponentTreePolicy) {
-                case SelfOnly:
-                    for (int j = 0; j < result.length; j++) {
-                        n.totValue[j] += result[root.decisionPlayer];
-                        n.totSquares[j] += squaredResults[root.decisionPlayer];
-                    }
-                    break;
-                case Paranoid:
-                case MultiTreeParanoid:
-                    int paranoid = root.paranoidPlayer == -1 ? root.decisionPlayer : root.paranoidPlayer;
-                    for (int j = 0; j < result.length; j++) {
-                        if (j == paranoid) {
-                            n.totValue[j] += result[paranoid];
-                            n.totSquares[j] += squaredResults[paranoid];
-                        } else {
-                            n.totValue[j] -= result[paranoid];
-                            n.totSquares[j] += squaredResults[paranoid];
-                        }
-                    }
-                    break;
-                case MaxN:
-                case MultiTree:
-                case OMA_All:
-                case OMA:
-                    for (int j = 0; j < result.length; j++) {
-                        n.totValue[j] += result[j];
-                        n.totSquares[j] += squaredResults[j];
-                    }
-                    break;
             }
-            n = n.parent;
         }
     }
 
+    private void addStatistics(SingleTreeNode other) {
+        nVisits += other.nVisits;
+        for (int i = 0; i < totValue.length; i++) {
+            totValue[i] += other.totValue[i];
+            totSquares[i] += other.totSquares[i];
+        }
+    }
 
     protected void MASTBackup(List<Pair<Integer, AbstractAction>> rolloutActions, double[] delta) {
-        for (Pair<Integer, AbstractAction> pair : rolloutActions) {
-            AbstractAction action = pair.b;
-            int player = pair.a;
-            Pair<Integer, Double> stats = MASTStatistics.get(player).getOrDefault(action, new Pair<>(0, 0.0));
-            stats.a++;  // visits
-            stats.b += delta[player];   // value
-            MASTStatistics.get(player).put(action.copy(), stats);
-        }
+        for (Pair<Integer, AbstractAction> pair : rolloutActions)
+            MASTStats.update(pair.a, pair.b, delta[pair.a]);
     }
 
 
@@ -1038,10 +1456,13 @@ public class SingleTreeNode {
 
     public List<SingleTreeNode> allNodesInTree() {
         List<SingleTreeNode> retValue = new ArrayList<>();
+        Set<SingleTreeNode> seen = new HashSet<>();  // with transpositions a node can have more than one parent
         Queue<SingleTreeNode> nodeQueue = new ArrayDeque<>();
         nodeQueue.add(this);
         while (!nodeQueue.isEmpty()) {
             SingleTreeNode node = nodeQueue.poll();
+            if (!seen.add(node))
+                continue;
             retValue.add(node);
             nodeQueue.addAll(node.getChildren().values().stream()
                     .filter(Objects::nonNull)
@@ -32,8 +32,11 @@ public class TreeStatistics {
         int greatestDepth = 0;
         int maxActions = 0;
         int totalActions = 0;
+        Set<SingleTreeNode> seen = new HashSet<>();  // with transpositions a node can have more than one parent
         while (!nodeQueue.isEmpty()) {
             SingleTreeNode node = nodeQueue.poll();
+            if (!seen.add(node))
+                continue;
             if (node.depth < maxDepth) {
                 nodesAtDepth[node.depth]++;
                 if (!node.getState().isNotTerminal())
@@ -7,6 +7,7 @@ import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import utilities.Pair;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -22,6 +23,7 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
     IStateHeuristic heuristic;
     AbstractPlayer rolloutPolicy;
     private Random gen;               // Random generator
+    private final List<AbstractAction> actionBuffer = new ArrayList<>();  // Re-used for the actions available at each step
 
     RHEAIndividual(int L, double discountFactor, AbstractForwardModel fm, AbstractGameState gs,
                    int playerID, Random gen, IStateHeuristic heuristic,
@@ -36,6 +38,7 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
 
         // Rollout with random actions and assign fitness value
         gameStates[0] = gs.copy();
+        gameStates[0].setSimulation(true);
         rollout(fm, 0, playerID, true);
     }
 
@@ -73,7 +76,8 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
         for (int mutation = 0; mutation < mutationCount; mutation++) {
             int position = gen.nextInt(length); // we only consider actions up to the end of the game (which will therefore increase mutation rate towards game end)
             if (gameStates[position] != null) {
-                List<AbstractAction> available = fm.computeAvailableActions(gameStates[position]);
+                fm.computeAvailableActions(gameStates[position], actionBuffer);
+                List<AbstractAction> available = actionBuffer;
                 actions[position] = available.get(gen.nextInt(available.size()));
                 if (position < startIndex)
                     startIndex = position;  // start the rollout from the first mutation
@@ -103,7 +107,8 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
         double delta = 0;
         double previousScore = 0;
         int fmCalls = 0, copyCalls = 0;
-        AbstractGameState gs = gameStates[startIndex].copy();
+        // gs itself is never modified, as we copy it before each step
+        AbstractGameState gs = gameStates[startIndex];
 
         for (int i = 0; i < startIndex; i++) {
             double score;
@@ -120,7 +125,8 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
                 AbstractAction action;
                 AbstractGameState gsCopy = gs.copy();
                 copyCalls++;
-                List<AbstractAction> currentActions = fm.computeAvailableActions(gsCopy);
+                fm.computeAvailableActions(gsCopy, actionBuffer);
+                List<AbstractAction> currentActions = actionBuffer;
                 boolean illegalAction = !currentActions.contains(actions[i]);
                 if (illegalAction || actions[i] == null) {
                     action = rolloutPolicy.getAction(gsCopy, currentActions);
@@ -141,7 +147,8 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
                 while (gsCopy.isNotTerminal() && !(gsCopy.getCurrentPlayer() == playerID)) {
                     // now we fast forward through any opponent moves with a random OM
                     // TODO: Add in other opponent model options, and record other player moves for MAST
-                    List<AbstractAction> moves = fm.computeAvailableActions(gsCopy);
+                    fm.computeAvailableActions(gsCopy, actionBuffer);
+                    List<AbstractAction> moves = actionBuffer;
                     if (moves.isEmpty()) {
                         throw new AssertionError("No moves found in state " + gsCopy);
                     }
@@ -5,19 +5,19 @@ import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import players.PlayerConstants;
 import players.mcts.MASTPlayer;
+import players.mcts.MASTStatistics;
 import players.simple.RandomPlayer;
 import utilities.ElapsedCpuTimer;
 import utilities.Pair;
-import utilities.Utils;
+import utilities.SplitMixRandom;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class RHEAPlayer extends AbstractPlayer {
     private static final AbstractPlayer randomPlayer = new RandomPlayer();
     private final Random randomGenerator;
     RHEAParams params;
-    List<Map<AbstractAction, Pair<Integer, Double>>> MASTStatistics; // a list of one Map per player. Action -> (visits, totValue)
+    MASTStatistics MASTStats;
     private List<RHEAIndividual> population = new ArrayList<>();
     // Budgets
     private double timePerIteration = 0, timeTaken = 0, initTime = 0;
@@ -32,7 +32,7 @@ public class RHEAPlayer extends AbstractPlayer {
     }
 
     public RHEAPlayer(RHEAParams params) {
-        randomGenerator = new Random(params.getRandomSeed());
+        randomGenerator = new SplitMixRandom(params.getRandomSeed());
         this.params = params;
         setName("rhea");
     }
@@ -43,9 +43,7 @@ public class RHEAPlayer extends AbstractPlayer {
 
     @Override
     public void initializePlayer(AbstractGameState state) {
-        MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < state.getNPlayers(); i++)
-            MASTStatistics.add(new HashMap<>());
+        MASTStats = new MASTStatistics(state.getNPlayers());
         population = new ArrayList<>();
     }
 
@@ -60,17 +58,12 @@ public class RHEAPlayer extends AbstractPlayer {
         nonRepairCount = 0;
 
         if (params.useMAST) {
-            if (MASTStatistics == null) {
-                MASTStatistics = new ArrayList<>();
-                for (int i = 0; i < stateObs.getNPlayers(); i++)
-                    MASTStatistics.add(new HashMap<>());
-            } else {
-                MASTStatistics = MASTStatistics.stream()
-                        .map(m -> Utils.decay(m, params.discountFactor))
-                        .collect(Collectors.toList());
-            }
-            mastPlayer = new MASTPlayer(new Random(params.getRandomSeed()));
-            mastPlayer.setStats(MASTStatistics);
+            if (MASTStats == null)
+                MASTStats = new MASTStatistics(stateObs.getNPlayers());
+            else
+                MASTStats.decay(params.discountFactor);
+            mastPlayer = new MASTPlayer(new SplitMixRandom(params.getRandomSeed()));
+            mastPlayer.setStats(MASTStats);
         }
         // Initialise individuals
         if (params.shiftLeft && !population.isEmpty()) {
@@ -80,6 +73,7 @@ public class RHEAPlayer extends AbstractPlayer {
                 System.arraycopy(genome.actions, 1, genome.actions, 0, genome.actions.length - 1);
                 // we shift all actions along, and then rollout with repair
                 genome.gameStates[0] = stateObs.copy();
+                genome.gameStates[0].setSimulation(true);
                 Pair<Integer, Integer> calls = genome.rollout(getForwardModel(), 0, getPlayerID(), true);
                 fmCalls += calls.a;
                 copyCalls += calls.b;
@@ -131,8 +125,13 @@ public class RHEAPlayer extends AbstractPlayer {
 
     @Override
     public RHEAPlayer copy() {
+        return copy(randomGenerator.nextInt());
+    }
+
+    @Override
+    public RHEAPlayer copy(long seed) {
         RHEAParams newParams = (RHEAParams) params.copy();
-        newParams.setRandomSeed(randomGenerator.nextInt());
+        newParams.setRandomSeed(seed);
         return new RHEAPlayer(newParams);
     }
 
@@ -282,10 +281,7 @@ public class RHEAPlayer extends AbstractPlayer {
             AbstractAction action = rolloutActions[i];
             if (action == null)
                 break;
-            Pair<Integer, Double> stats = MASTStatistics.get(player).getOrDefault(action, new Pair<>(0, 0.0));
-            stats.a++;  // visits
-            stats.b += delta;   // value
-            MASTStatistics.get(player).put(action.copy(), stats);
+            MASTStats.update(player, action, delta);
         }
     }
 
@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -16,6 +17,7 @@ public class Individual implements Comparable {
     double discountFactor;            // Discount factor for calculating rewards
 
     private Random gen;               // Random generator
+    private final List<AbstractAction> actionBuffer = new ArrayList<>();  // Re-used for the actions available at each step
     IStateHeuristic heuristic;
 
     Individual(int L, double discountFactor, AbstractForwardModel fm, AbstractGameState gs, int playerID, Random gen, IStateHeuristic heuristic) {
@@ -25,10 +27,11 @@ public class Individual implements Comparable {
         actions = new AbstractAction[L];
         gameStates = new AbstractGameState[L+1];
         gameStates[0] = gs.copy();
+        gameStates[0].setSimulation(true);
         this.heuristic = heuristic;
 
         // Rollout with random actions and assign fitness value
-        rollout(gs, fm, 0, L, playerID);  // TODO: cheating, init should also count FM calls
+        rollout(gameStates[0], fm, 0, L, playerID);  // TODO: cheating, init should also count FM calls
     }
 
     // Copy constructor
@@ -87,6 +90,8 @@ public class Individual implements Comparable {
         length = 0;
         int fmCalls = 0;
         double delta = 0;
+        // gs is only copied before it is advanced if it is stored in gameStates, otherwise it can be advanced in place
+        boolean gsStored = true;
         for (int i = 0; i < startIndex; i++) {
             double score;
             if (this.heuristic != null){
@@ -102,8 +107,9 @@ public class Individual implements Comparable {
             // Length of individual is updated depending on if it reaches a terminal game state
             if (gs.isNotTerminal()) {
                 // Copy the game state
-                AbstractGameState gsCopy = gs.copy();
-                List<AbstractAction> currentActions = fm.computeAvailableActions(gsCopy);
+                AbstractGameState gsCopy = gsStored ? gs.copy() : gs;
+                fm.computeAvailableActions(gsCopy, actionBuffer);
+                List<AbstractAction> currentActions = actionBuffer;
                 AbstractAction action = null;
                 if (currentActions.size() > 0) {
                     action = currentActions.get(gen.nextInt(currentActions.size()));
@@ -135,6 +141,7 @@ public class Individual implements Comparable {
                 }
 
                 gs = gsCopy;
+                gsStored = iAmMoving;
             } else {
                 break;
             }
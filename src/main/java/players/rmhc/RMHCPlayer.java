@@ -6,6 +6,7 @@ import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import players.PlayerConstants;
 import utilities.ElapsedCpuTimer;
+import utilities.SplitMixRandom;
 
 import java.util.*;
 
@@ -28,7 +29,7 @@ public class RMHCPlayer extends AbstractPlayer {
     }
 
     public RMHCPlayer(RMHCParams params) {
-        randomGenerator = new Random(params.getRandomSeed());
+        randomGenerator = new SplitMixRandom(params.getRandomSeed());
         this.params = params;
         heuristic = params.gameHeuristic;
         setName("RMHC");
@@ -92,8 +93,13 @@ public class RMHCPlayer extends AbstractPlayer {
 
     @Override
     public RMHCPlayer copy() {
+        return copy(randomGenerator.nextInt());
+    }
+
+    @Override
+    public RMHCPlayer copy(long seed) {
         RMHCParams newParams = (RMHCParams) params.copy();
-        newParams.setRandomSeed(randomGenerator.nextInt());
+        newParams.setRandomSeed(seed);
         return new RMHCPlayer(newParams);
     }
 
@@ -131,7 +137,7 @@ public class RMHCPlayer extends AbstractPlayer {
 //
 //        /* 3. Set up players for the game */
 //        ArrayList<AbstractPlayer> players = new ArrayList<>();
-//        players.add(new RandomPlayer(new Random()));
+//        players.add(new RandomPlayer(new SplitMixRandom()));
 //        players.add(new RMHC());
 //
 //        /* 4. Run! */
@@ -8,6 +8,7 @@ import core.components.Card;
 import games.catan.*;
 import games.catan.actions.*;
 import games.catan.components.Settlement;
+import utilities.SplitMixRandom;
 
 
 import java.util.*;
@@ -58,7 +59,7 @@ public class CatanRuleBasedPlayer extends AbstractPlayer {
         currentResources = new int[5];
     }
 
-    public CatanRuleBasedPlayer() {this(new Random());}
+    public CatanRuleBasedPlayer() {this(new SplitMixRandom());}
 
     @Override
     public AbstractAction getAction(AbstractGameState gameState, List<AbstractAction> possibleActions) {
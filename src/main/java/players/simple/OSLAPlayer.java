@@ -3,10 +3,14 @@ package players.simple;
 import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.AbstractPlayer;
+import core.UndoToken;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import core.turnorders.StandardTurnOrder;
+import utilities.SplitMixRandom;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -18,6 +22,8 @@ public class OSLAPlayer extends AbstractPlayer {
     public double epsilon = 1e-6;
     // Heuristics used for the agent
     IStateHeuristic heuristic;
+    // Re-used for the actions available at each step of the random rollouts
+    private final List<AbstractAction> actionBuffer = new ArrayList<>();
 
     public OSLAPlayer(Random random) {
         this.random = random;
@@ -25,11 +31,11 @@ public class OSLAPlayer extends AbstractPlayer {
     }
 
     public OSLAPlayer() {
-        this(new Random());
+        this(new SplitMixRandom());
     }
 
     public OSLAPlayer(IStateHeuristic heuristic) {
-        this(heuristic, new Random());
+        this(heuristic, new SplitMixRandom());
     }
 
     public OSLAPlayer(IStateHeuristic heuristic, Random random) {
@@ -44,25 +50,46 @@ public class OSLAPlayer extends AbstractPlayer {
         double maxQ = Double.NEGATIVE_INFINITY;
         AbstractAction bestAction = null;
         int playerID = gs.getCurrentPlayer();
+        // If the forward model can undo actions, then we only need the one copy, and undo everything after each action
+        ArrayDeque<UndoToken> undoStack = getForwardModel().supportsUndo() ? new ArrayDeque<>() : null;
+        AbstractGameState sharedCopy = undoStack != null ? gs.copy() : null;
 
         double[] valState = new double[actions.size()];
+        double[] noiseSamples = new double[actions.size()];
+        // Without undo each action has its own copy of the state, so the heuristic can evaluate them all at once
+        List<AbstractGameState> states = undoStack == null && heuristic != null ? new ArrayList<>(actions.size()) : null;
         for (int actionIndex = 0; actionIndex < actions.size(); actionIndex++) {
             AbstractAction action = actions.get(actionIndex);
-            AbstractGameState gsCopy = gs.copy();
+            AbstractGameState gsCopy = undoStack != null ? sharedCopy : gs.copy();
+            gsCopy.setSimulation(true);
 
-            getForwardModel().next(gsCopy, action);
+            next(gsCopy, action, undoStack);
 
             if (gsCopy.getTurnOrder() instanceof StandardTurnOrder) {
-                advanceToEndOfRoundWithRandomActions(gsCopy, playerID);
+                advanceToEndOfRoundWithRandomActions(gsCopy, playerID, undoStack);
             }
 
-            if (heuristic != null) {
+            if (states != null) {
+                states.add(gsCopy);
+            } else if (heuristic != null) {
                 valState[actionIndex] = heuristic.evaluateState(gsCopy, playerID);
             } else {
                 valState[actionIndex] = gsCopy.getHeuristicScore(playerID);
             }
 
-            double Q = noise(valState[actionIndex], this.epsilon, this.random.nextDouble());
+            if (undoStack != null) {
+                while (!undoStack.isEmpty())
+                    getForwardModel().undo(gsCopy, undoStack.pop());
+            }
+            // drawn here, in between the random actions of each rollout, as it was before states were batched
+            noiseSamples[actionIndex] = this.random.nextDouble();
+        }
+        if (states != null)
+            heuristic.evaluateStates(states, playerID, valState);
+
+        for (int actionIndex = 0; actionIndex < actions.size(); actionIndex++) {
+            AbstractAction action = actions.get(actionIndex);
+            double Q = noise(valState[actionIndex], this.epsilon, noiseSamples[actionIndex]);
             //     System.out.println(Arrays.stream(valState).mapToObj(v -> String.format("%1.3f", v)).collect(Collectors.joining("\t")));
 
             if (Q > maxQ) {
@@ -76,18 +103,35 @@ public class OSLAPlayer extends AbstractPlayer {
 
     @Override
     public OSLAPlayer copy() {
-        return new OSLAPlayer(heuristic, new Random(random.nextInt()));
+        return new OSLAPlayer(heuristic, SplitMixRandom.split(random));
+    }
+
+    @Override
+    public OSLAPlayer copy(long seed) {
+        return new OSLAPlayer(heuristic, new SplitMixRandom(seed));
+    }
+
+    private void next(AbstractGameState gsCopy, AbstractAction action, ArrayDeque<UndoToken> undoStack) {
+        if (undoStack != null)
+            undoStack.push(getForwardModel().nextWithUndo(gsCopy, action));
+        else
+            getForwardModel().next(gsCopy, action);
+    }
+
+    private AbstractAction randomAction(RandomPlayer rnd, AbstractForwardModel fm, AbstractGameState gsCopy) {
+        fm.computeAvailableActions(gsCopy, actionBuffer);
+        return rnd.getAction(gsCopy, actionBuffer);
     }
 
-    private void advanceToEndOfRoundWithRandomActions(AbstractGameState gsCopy, int startingPlayer) {
+    private void advanceToEndOfRoundWithRandomActions(AbstractGameState gsCopy, int startingPlayer, ArrayDeque<UndoToken> undoStack) {
         // we assume that every other player now has to make a decision
         RandomPlayer rnd = new RandomPlayer(random);
         AbstractForwardModel fm = getForwardModel();
         if (gsCopy.getCurrentPlayer() == startingPlayer) {
             // first get to the end of our actions
             while (gsCopy.getCurrentPlayer() == startingPlayer && gsCopy.isNotTerminal()) {
-                AbstractAction action = rnd.getAction(gsCopy, fm.computeAvailableActions(gsCopy));
-                fm.next(gsCopy, action);
+                AbstractAction action = randomAction(rnd, fm, gsCopy);
+                next(gsCopy, action, undoStack);
             }
         }
         // then each other player gets their round
@@ -98,8 +142,8 @@ public class OSLAPlayer extends AbstractPlayer {
                     throw new AssertionError("Not expecting to return to player " + getPlayerID());
                 }
                 while (gsCopy.getCurrentPlayer() == currentPlayer && gsCopy.isNotTerminal()) {
-                    AbstractAction action = rnd.getAction(gsCopy, fm.computeAvailableActions(gsCopy));
-                    fm.next(gsCopy, action);
+                    AbstractAction action = randomAction(rnd, fm, gsCopy);
+                    next(gsCopy, action, undoStack);
                 }
             }
         }
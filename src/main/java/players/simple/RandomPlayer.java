@@ -4,6 +4,7 @@ import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
+import utilities.SplitMixRandom;
 
 import java.util.List;
 import java.util.Random;
@@ -21,7 +22,7 @@ public class RandomPlayer extends AbstractPlayer {
 
     public RandomPlayer()
     {
-        this(new Random());
+        this(new SplitMixRandom());
     }
 
     @Override
@@ -37,6 +38,11 @@ public class RandomPlayer extends AbstractPlayer {
 
     @Override
     public RandomPlayer copy() {
-        return new RandomPlayer(new Random(rnd.nextInt()));
+        return new RandomPlayer(SplitMixRandom.split(rnd));
+    }
+
+    @Override
+    public RandomPlayer copy(long seed) {
+        return new RandomPlayer(new SplitMixRandom(seed));
     }
 }
@@ -34,6 +34,11 @@ public class ActionListener implements IGameListener {
         this.attributesToRecord = attributes;
     }
 
+    @Override
+    public Payload payload(CoreConstants.GameEvents type) {
+        return type == ACTION_CHOSEN || type == GAME_EVENT ? Payload.STATE : Payload.NONE;
+    }
+
     @Override
     public void onGameEvent(CoreConstants.GameEvents type, Game game) {
         // Here we do nothing, as we are only interested in Action events
@@ -0,0 +1,489 @@
+package utilities;
+
+import core.interfaces.IStatisticLogger;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A logger for large volumes of data, such as the feature vectors recorded by StateFeatureListener.
+ *
+ * Unlike FileStatsLogger, nothing is formatted as text while recording. Each thread fills its own batch of rows, held
+ * as one primitive array per column, and a full batch is written to the file in one go with a FileChannel. Batches
+ * from different threads never interleave, so this can be shared by games played at once on different threads.
+ *
+ * The file is binary. Each batch lists its own columns, so new keys can appear at any point. Use toCSV() (or run this
+ * class with the binary and CSV file names as arguments) to convert it to text, or read() to process it directly.
+ *
+ * File format (big-endian): int MAGIC, int VERSION, then batches, each of:
+ * int rows, int columns, and for each column: UTF-8 name (short length, bytes), byte type, a bitmap of the rows
+ * with a value (one long per 64 rows), then the values - a long or double for every row, or for TEXT an int length
+ * and UTF-8 bytes for each row with a value.
+ */
+public class ColumnarStatsLogger implements IStatisticLogger {
+
+    public static final int MAGIC = 0x54414743;  // "TAGC"
+    public static final int VERSION = 1;
+    static final byte LONG = 1, DOUBLE = 2, TEXT = 3;
+
+    private final String fileName;
+    private final FileChannel channel;
+    private final int batchSize;
+    // Every batch created, so that all can be written out at the end, whichever thread they belong to
+    private final List<Batch> batches = new ArrayList<>();
+    private final ThreadLocal<Batch> threadBatch = ThreadLocal.withInitial(this::newBatch);
+    // Reused for writing each batch (only while holding the lock on this logger)
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+    /**
+     * @param fileName  - the file to write to
+     * @param append    - if true, data is added to the end of the file (which must be in this format)
+     * @param batchSize - the number of rows each thread collects before writing them out
+     */
+    public ColumnarStatsLogger(String fileName, boolean append, int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        this.fileName = fileName;
+        this.batchSize = batchSize;
+        try {
+            channel = append
+                    ? FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                    : FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(8);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                writeFully(header);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem opening file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    public ColumnarStatsLogger(String fileName) {
+        this(fileName, true, 4096);
+    }
+
+    private Batch newBatch() {
+        Batch batch = new Batch(batchSize);
+        synchronized (batches) {
+            batches.add(batch);
+        }
+        return batch;
+    }
+
+    /**
+     * Records one row. Integers (of any size) are stored as longs, floating point numbers as doubles, and anything
+     * else as text (using toString()).
+     *
+     * @param data A map of name -> value pairs
+     */
+    @Override
+    public void record(Map<String, ?> data) {
+        Batch batch = threadBatch.get();
+        synchronized (batch) {
+            for (Map.Entry<String, ?> entry : data.entrySet()) {
+                if (entry.getValue() != null)
+                    batch.column(entry.getKey()).set(batch.rows, entry.getValue());
+            }
+            batch.rows++;
+            if (batch.rows == batchSize)
+                write(batch);
+        }
+    }
+
+    /**
+     * Records a row with just this one value
+     */
+    @Override
+    public void record(String key, Object datum) {
+        record(Collections.singletonMap(key, datum));
+    }
+
+    /**
+     * Writes out all the rows recorded so far, on any thread, and closes the file.
+     */
+    @Override
+    public void processDataAndFinish() {
+        processDataAndNotFinish();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes out all the rows recorded so far, on any thread.
+     */
+    @Override
+    public void processDataAndNotFinish() {
+        List<Batch> all;
+        synchronized (batches) {
+            all = new ArrayList<>(batches);
+        }
+        for (Batch batch : all) {
+            synchronized (batch) {
+                if (batch.rows > 0)
+                    write(batch);
+            }
+        }
+    }
+
+    /**
+     * This always returns an empty Map, as the data is only kept until it is written to file
+     *
+     * @return A summary of the data
+     */
+    @Override
+    public Map<String, TAGStatSummary> summary() {
+        return new HashMap<>();
+    }
+
+    // Writes out the batch and empties it, so that it can be filled again. The caller holds the lock on the batch.
+    private void write(Batch batch) {
+        int rows = batch.rows;
+        int words = (rows + 63) / 64;
+        List<Column> columns = new ArrayList<>();
+        List<byte[]> names = new ArrayList<>();
+        long size = 8;
+        for (Column c : batch.columns.values()) {
+            if (c.type == 0)
+                continue;  // no values in this batch
+            byte[] name = c.name.getBytes(StandardCharsets.UTF_8);
+            columns.add(c);
+            names.add(name);
+            size += 2 + name.length + 1 + 8L * words;
+            if (c.type == TEXT) {
+                for (int r = 0; r < rows; r++) {
+                    if (c.isPresent(r)) {
+                        c.encoded[r] = c.texts[r].getBytes(StandardCharsets.UTF_8);
+                        size += 4 + c.encoded[r].length;
+                    }
+                }
+            } else {
+                size += 8L * rows;
+            }
+        }
+        synchronized (this) {
+            if (buffer.capacity() < size)
+                buffer = ByteBuffer.allocate((int) Math.max(size, 2L * buffer.capacity()));
+            buffer.clear();
+            buffer.putInt(rows).putInt(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                Column c = columns.get(i);
+                buffer.putShort((short) names.get(i).length).put(names.get(i)).put(c.type);
+                for (int w = 0; w < words; w++)
+                    buffer.putLong(c.present[w]);
+                switch (c.type) {
+                    case LONG:
+                        for (int r = 0; r < rows; r++)
+                            buffer.putLong(c.longs[r]);
+                        break;
+                    case DOUBLE:
+                        for (int r = 0; r < rows; r++)
+                            buffer.putDouble(c.doubles[r]);
+                        break;
+                    default:
+                        for (int r = 0; r < rows; r++) {
+                            if (c.isPresent(r))
+                                buffer.putInt(c.encoded[r].length).put(c.encoded[r]);
+                        }
+                }
+            }
+            buffer.flip();
+            try {
+                writeFully(buffer);
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new AssertionError("Problem writing to file " + fileName + " : " + e.getMessage());
+            }
+        }
+        for (Column c : batch.columns.values())
+            c.clear(rows);
+        batch.rows = 0;
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining())
+            channel.write(data);
+    }
+
+    // The rows recorded by one thread since the last write
+    private static class Batch {
+        final int capacity;
+        final Map<String, Column> columns = new LinkedHashMap<>();
+        int rows;
+
+        Batch(int capacity) {
+            this.capacity = capacity;
+        }
+
+        Column column(String name) {
+            Column c = columns.get(name);
+            if (c == null) {
+                c = new Column(name, capacity);
+                columns.put(name, c);
+            }
+            return c;
+        }
+    }
+
+    // The values for one key. The arrays for each type are only created once a value of that type is seen.
+    private static class Column {
+        final String name;
+        final long[] present;
+        byte type;  // 0 until there is a value
+        long[] longs;
+        double[] doubles;
+        String[] texts;
+        byte[][] encoded;
+
+        Column(String name, int capacity) {
+            this.name = name;
+            present = new long[(capacity + 63) / 64];
+        }
+
+        boolean isPresent(int row) {
+            return (present[row >>> 6] & (1L << row)) != 0;
+        }
+
+        void set(int row, Object datum) {
+            present[row >>> 6] |= 1L << row;
+            if (datum instanceof Double || datum instanceof Float) {
+                if (type == 0 || type == LONG)
+                    changeType(DOUBLE, row);
+                if (type == DOUBLE) {
+                    doubles[row] = ((Number) datum).doubleValue();
+                    return;
+                }
+            } else if (datum instanceof Long || datum instanceof Integer || datum instanceof Short || datum instanceof Byte) {
+                if (type == 0)
+                    changeType(LONG, row);
+                if (type == LONG) {
+                    longs[row] = ((Number) datum).longValue();
+                    return;
+                }
+                if (type == DOUBLE) {
+                    doubles[row] = ((Number) datum).doubleValue();
+                    return;
+                }
+            } else if (type != TEXT) {
+                changeType(TEXT, row);
+            }
+            texts[row] = datum.toString();
+        }
+
+        // Converts the values in the rows before this one to the new type
+        private void changeType(byte newType, int row) {
+            int capacity = present.length * 64;
+            switch (newType) {
+                case LONG:
+                    if (longs == null)
+                        longs = new long[capacity];
+                    break;
+                case DOUBLE:
+                    if (doubles == null)
+                        doubles = new double[capacity];
+                    if (type == LONG) {
+                        for (int r = 0; r < row; r++)
+                            doubles[r] = longs[r];
+                    }
+                    break;
+                default:
+                    if (texts == null) {
+                        texts = new String[capacity];
+                        encoded = new byte[capacity][];
+                    }
+                    for (int r = 0; r < row; r++) {
+                        if (isPresent(r))
+                            texts[r] = type == LONG ? Long.toString(longs[r]) : Double.toString(doubles[r]);
+                    }
+            }
+            type = newType;
+        }
+
+        void clear(int rows) {
+            Arrays.fill(present, 0L);
+            if (texts != null) {
+                Arrays.fill(texts, 0, rows, null);
+                Arrays.fill(encoded, 0, rows, null);
+            }
+            type = 0;
+        }
+    }
+
+    /**
+     * Reads a file written by this logger, one row at a time. Each row is given as a map from the keys with a value
+     * in that row to the value (a Long, Double or String).
+     *
+     * @param fileName - the file to read
+     * @param rows     - called with each row, in the order they were written
+     */
+    public static void read(String fileName, Consumer<Map<String, Object>> rows) {
+        readBatches(fileName, batch -> {
+            for (int r = 0; r < batch.rows; r++) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int c = 0; c < batch.names.length; c++) {
+                    if (batch.isPresent(c, r))
+                        row.put(batch.names[c], batch.value(c, r));
+                }
+                rows.accept(row);
+            }
+        });
+    }
+
+    /**
+     * Converts a file written by this logger to a delimited text file, with a header line. The columns are all the
+     * keys in the file, in the order they first appear; rows without a value for a key have an empty entry for it.
+     *
+     * @param fileName  - the file to read
+     * @param csvFile   - the text file to write
+     * @param delimiter - the delimiter between values (entries that contain it are quoted)
+     */
+    public static void toCSV(String fileName, String csvFile, String delimiter) {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        readBatches(fileName, batch -> {
+            for (String name : batch.names)
+                index.putIfAbsent(name, index.size());
+        });
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csvFile), StandardCharsets.UTF_8))) {
+            List<String> header = new ArrayList<>();
+            for (String name : index.keySet())
+                header.add(quote(name, delimiter));
+            writer.write(String.join(delimiter, header));
+            writer.write("\n");
+            String[] line = new String[index.size()];
+            readBatches(fileName, batch -> {
+                int[] position = new int[batch.names.length];
+                for (int c = 0; c < batch.names.length; c++)
+                    position[c] = index.get(batch.names[c]);
+                try {
+                    for (int r = 0; r < batch.rows; r++) {
+                        Arrays.fill(line, "");
+                        for (int c = 0; c < batch.names.length; c++) {
+                            if (batch.isPresent(c, r))
+                                line[position[c]] = quote(String.valueOf(batch.value(c, r)), delimiter);
+                        }
+                        writer.write(String.join(delimiter, line));
+                        writer.write("\n");
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem writing to file " + csvFile + " : " + e.getMessage());
+        }
+    }
+
+    private static String quote(String text, String delimiter) {
+        if (!text.contains(delimiter) && text.indexOf('"') < 0 && text.indexOf('\n') < 0)
+            return text;
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    // One batch as read back from a file
+    private static class ReadBatch {
+        int rows;
+        String[] names;
+        byte[] types;
+        long[][] present;
+        long[][] longs;
+        double[][] doubles;
+        String[][] texts;
+
+        boolean isPresent(int column, int row) {
+            return (present[column][row >>> 6] & (1L << row)) != 0;
+        }
+
+        Object value(int column, int row) {
+            switch (types[column]) {
+                case LONG:
+                    return longs[column][row];
+                case DOUBLE:
+                    return doubles[column][row];
+                default:
+                    return texts[column][row];
+            }
+        }
+    }
+
+    private static void readBatches(String fileName, Consumer<ReadBatch> batches) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName), 1 << 16))) {
+            if (in.readInt() != MAGIC)
+                throw new IllegalArgumentException(fileName + " was not written by ColumnarStatsLogger");
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IllegalArgumentException("Unknown version " + version + " of " + fileName);
+            while (true) {
+                ReadBatch batch = new ReadBatch();
+                try {
+                    batch.rows = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                int columns = in.readInt();
+                int words = (batch.rows + 63) / 64;
+                batch.names = new String[columns];
+                batch.types = new byte[columns];
+                batch.present = new long[columns][words];
+                batch.longs = new long[columns][];
+                batch.doubles = new double[columns][];
+                batch.texts = new String[columns][];
+                for (int c = 0; c < columns; c++) {
+                    byte[] name = new byte[in.readShort()];
+                    in.readFully(name);
+                    batch.names[c] = new String(name, StandardCharsets.UTF_8);
+                    batch.types[c] = in.readByte();
+                    for (int w = 0; w < words; w++)
+                        batch.present[c][w] = in.readLong();
+                    switch (batch.types[c]) {
+                        case LONG:
+                            batch.longs[c] = new long[batch.rows];
+                            for (int r = 0; r < batch.rows; r++)
+                                batch.longs[c][r] = in.readLong();
+                            break;
+                        case DOUBLE:
+                            batch.doubles[c] = new double[batch.rows];
+                            for (int r = 0; r < batch.rows; r++)
+                                batch.doubles[c][r] = in.readDouble();
+                            break;
+                        case TEXT:
+                            batch.texts[c] = new String[batch.rows];
+                            for (int r = 0; r < batch.rows; r++) {
+                                if (batch.isPresent(c, r)) {
+                                    byte[] text = new byte[in.readInt()];
+                                    in.readFully(text);
+                                    batch.texts[c][r] = new String(text, StandardCharsets.UTF_8);
+                                }
+                            }
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown column type " + batch.types[c] + " in " + fileName);
+                    }
+                }
+                batches.accept(batch);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem reading file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: ColumnarStatsLogger <file written by the logger> <CSV file to write> [delimiter, default ,]");
+            return;
+        }
+        toCSV(args[0], args[1], args.length > 2 ? args[2] : ",");
+    }
+}
@@ -31,6 +31,12 @@ public abstract class FeatureListener implements IGameListener {
         this.frequency = frequency;
     }
 
+    @Override
+    public Payload payload(CoreConstants.GameEvents type) {
+        // features are extracted straight away, so there is no need for a copy of the state
+        return type == frequency || type == CoreConstants.GameEvents.GAME_OVER ? Payload.STATE : Payload.NONE;
+    }
+
     @Override
     public void onGameEvent(CoreConstants.GameEvents type, Game game) {
         if (type == CoreConstants.GameEvents.GAME_OVER) {
@@ -25,6 +25,11 @@ public class GameResultListener implements IGameListener {
         this.logger = null;
     }
 
+    @Override
+    public Payload payload(CoreConstants.GameEvents type) {
+        return type == GAME_OVER ? Payload.STATE : Payload.NONE;
+    }
+
     @Override
     public void onGameEvent(CoreConstants.GameEvents type, Game game) {
         if (type == GAME_OVER) {
@@ -30,6 +30,11 @@ public class GameStatisticsListener implements IGameListener {
         this.logger = null;
     }
 
+    @Override
+    public Payload payload(CoreConstants.GameEvents type) {
+        return type == ACTION_CHOSEN || type == ABOUT_TO_START || type == GAME_OVER ? Payload.STATE : Payload.NONE;
+    }
+
     @Override
     public void onEvent(CoreConstants.GameEvents type, AbstractGameState state, AbstractAction actionChosen) {
         if (type == ACTION_CHOSEN) {
@@ -0,0 +1,136 @@
+package utilities;
+
+import java.util.Random;
+
+/**
+ * A fast random number generator (SplitMix64, as in java.util.SplittableRandom) that can be used wherever a Random is.
+ *
+ * Unlike Random, this is not thread-safe: each thread should have its own, which is what lets it avoid the atomic
+ * update Random makes for every number. A generator can be split into a new one with an independent stream (for a
+ * copy of a player, or a search thread), and stream() derives a generator from a master seed and a list of IDs (such
+ * as the index of a game and the number of a player), which is the same however and in whatever order the streams are
+ * created. Runs on several threads can then be reproduced exactly.
+ */
+public class SplitMixRandom extends Random {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+    // Added to the state for each number; always odd
+    private long gamma;
+
+    public SplitMixRandom() {
+        this(mix64(System.nanoTime()) ^ mix64(Thread.currentThread().getId() + GOLDEN_GAMMA));
+    }
+
+    public SplitMixRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplitMixRandom(long seed, long gamma) {
+        super(0);
+        this.state = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * @param masterSeed - seed of the whole run
+     * @param ids        - what the stream is for (for example the index of the game, the player and the search thread)
+     * @return - a generator that depends only on the seed and the IDs
+     */
+    public static SplitMixRandom stream(long masterSeed, long... ids) {
+        long seed = mix64(masterSeed);
+        for (long id : ids)
+            seed = mix64(seed + GOLDEN_GAMMA * (id + 1));
+        return new SplitMixRandom(seed, mixGamma(seed + GOLDEN_GAMMA));
+    }
+
+    /**
+     * @param rnd - generator to split
+     * @return - a new generator with a stream independent of this one (from which it takes one number)
+     */
+    public static Random split(Random rnd) {
+        return rnd instanceof SplitMixRandom ? ((SplitMixRandom) rnd).split() : new SplitMixRandom(rnd.nextLong());
+    }
+
+    /**
+     * @return - a new generator with a stream independent of this one (from which it takes two numbers)
+     */
+    public SplitMixRandom split() {
+        return new SplitMixRandom(nextLong(), mixGamma(nextState()));
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        // called by the constructor of Random, before any fields here are set
+        super.setSeed(seed);
+        state = seed;
+        gamma = GOLDEN_GAMMA;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public int nextInt() {
+        return mix32(nextState());
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("bound must be positive");
+        int r = mix32(nextState());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            // a power of two
+            r &= m;
+        } else {
+            // rejects values from the part of the range that would make some results more likely than others
+            for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextState()) >>> 1)
+                ;
+        }
+        return r;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextState());
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return mix32(nextState()) < 0;
+    }
+
+    private long nextState() {
+        return state += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        // gammas with too few bit transitions give poor streams
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
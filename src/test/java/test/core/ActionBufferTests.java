@@ -0,0 +1,88 @@
+package test.core;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ActionBufferTests {
+
+    // Plays a random game, checking at each step that the buffer gives the same actions as the list, and (if
+    // interned) that each action is the same instance every time it is available
+    private void play(GameType gameType, int nPlayers, long seed, boolean interned) {
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(seed);
+
+        List<AbstractAction> buffer = new ArrayList<>();
+        Map<String, AbstractAction> seen = new HashMap<>();
+        for (int i = 0; i < 500 && state.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            buffer.add(null);  // anything already in the buffer is discarded
+            fm.computeAvailableActions(state, buffer);
+            assertEquals(actions, buffer);
+            if (interned) {
+                for (AbstractAction action : buffer) {
+                    // equal actions are not always interchangeable (in CantStop the order of the numbers differs)
+                    AbstractAction previous = seen.putIfAbsent(action.hashCode() + action.toString(), action);
+                    if (previous != null && previous.equals(action))
+                        assertSame(previous, action);
+                }
+            }
+            fm.next(state, buffer.get(rnd.nextInt(buffer.size())));
+        }
+    }
+
+    private void checkShared(GameType gameType, int nPlayers) {
+        for (int seed = 0; seed < 5; seed++)
+            play(gameType, nPlayers, seed, true);
+    }
+
+    @Test
+    public void ticTacToe() {
+        checkShared(GameType.TicTacToe, 2);
+    }
+
+    @Test
+    public void connect4() {
+        checkShared(GameType.Connect4, 2);
+    }
+
+    @Test
+    public void dotsAndBoxes() {
+        checkShared(GameType.DotsAndBoxes, 3);
+    }
+
+    @Test
+    public void cantStop() {
+        checkShared(GameType.CantStop, 3);
+    }
+
+    @Test
+    public void blackjack() {
+        checkShared(GameType.Blackjack, 3);
+    }
+
+    @Test
+    public void diamant() {
+        checkShared(GameType.Diamant, 4);
+    }
+
+    @Test
+    public void defaultUsesListOfActions() {
+        // Uno does not override the buffer version, so this just checks that it matches
+        for (int seed = 0; seed < 3; seed++)
+            play(GameType.Uno, 3, seed, false);
+    }
+}
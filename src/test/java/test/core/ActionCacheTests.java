@@ -0,0 +1,189 @@
+package test.core;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.CoreConstants.VisibilityMode;
+import core.Game;
+import core.actions.AbstractAction;
+import core.components.Component;
+import core.components.Counter;
+import core.components.Deck;
+import games.GameType;
+import games.dominion.DominionConstants.DeckType;
+import games.dominion.DominionForwardModel;
+import games.dominion.DominionGame;
+import games.dominion.DominionGameState;
+import games.dominion.DominionGameState.DominionGamePhase;
+import games.dominion.DominionParameters;
+import games.dominion.actions.BuyCard;
+import games.dominion.cards.CardType;
+import games.dominion.cards.DominionCard;
+import games.pandemic.PandemicConstants;
+import games.pandemic.PandemicGameState;
+import org.junit.Before;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ActionCacheTests {
+
+    private final DominionForwardModel fm = new DominionForwardModel();
+    private DominionGameState state;
+
+    @Before
+    public void setUp() {
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(), new RandomPlayer(), new RandomPlayer());
+        DominionGame game = new DominionGame(players, DominionParameters.firstGame(42));
+        state = (DominionGameState) game.getGameState();
+    }
+
+    // Actions worked out afresh, for a state equal to the given one
+    private List<AbstractAction> uncached(AbstractGameState state) {
+        AbstractGameState copy = state.copy();
+        copy.markModified();
+        return fm.computeAvailableActions(copy);
+    }
+
+    private static void assertSameActions(List<AbstractAction> expected, List<AbstractAction> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+            assertSame(expected.get(i), actual.get(i));
+    }
+
+    @Test
+    public void actionsAreOnlyWorkedOutOnceForAState() {
+        List<AbstractAction> first = fm.computeAvailableActions(state);
+        List<AbstractAction> second = fm.computeAvailableActions(state);
+        assertNotSame(first, second);
+        assertSameActions(first, second);
+
+        List<AbstractAction> buffer = new ArrayList<>();
+        fm.computeAvailableActions(state, buffer);
+        assertSameActions(first, buffer);
+
+        // a full copy is the same state, while a player's copy may not be
+        assertSameActions(first, fm.computeAvailableActions(state.copy()));
+        assertNotSame(first.get(0), fm.computeAvailableActions(state.copy(1)).get(0));
+    }
+
+    @Test
+    public void changesToTheStateAreNoticed() {
+        List<AbstractAction> before = fm.computeAvailableActions(state);
+        // reading the components is not a change
+        state.getDeck(DeckType.HAND, 0).stream().count();
+        state.getDeck(DeckType.HAND, 0).sumInt(DominionCard::treasureValue);
+        assertSameActions(before, fm.computeAvailableActions(state));
+
+        // changes to a deck, and to the rest of the state, are
+        state.getDeck(DeckType.HAND, 0).add(DominionCard.create(CardType.VILLAGE));
+        List<AbstractAction> after = fm.computeAvailableActions(state);
+        assertEquals(before.size() + 1, after.size());
+        assertEquals(uncached(state), after);
+
+        state.setGamePhase(DominionGamePhase.Buy);
+        assertEquals(uncached(state), fm.computeAvailableActions(state));
+        state.spend(-3);
+        assertEquals(uncached(state), fm.computeAvailableActions(state));
+
+        long version = state.getVersion();
+        state.getDeck(DeckType.DRAW, 1).shuffle(new Random(1));
+        assertNotEquals(version, state.getVersion());
+    }
+
+    @Test
+    public void changesToComponentsInAnAreaAreNoticed() {
+        // Pandemic keeps its decks and counters in Areas, which do not count the changes made to them
+        Game game = GameType.Pandemic.createGameInstance(2, 42);
+        AbstractGameState pandemic = game.getGameState();
+        AbstractForwardModel pandemicFM = game.getForwardModel();
+        List<AbstractAction> before = pandemicFM.computeAvailableActions(pandemic);
+        assertSame(before.get(0), pandemicFM.computeAvailableActions(pandemic).get(0));
+
+        long version = pandemic.getVersion();
+        ((Counter) ((PandemicGameState) pandemic).getComponent(PandemicConstants.outbreaksHash)).increment(1);
+        assertNotEquals(version, pandemic.getVersion());
+        assertNotSame(before.get(0), pandemicFM.computeAvailableActions(pandemic).get(0));
+
+        version = pandemic.getVersion();
+        ((Deck<?>) ((PandemicGameState) pandemic).getComponent(PandemicConstants.playerDeckHash)).shuffle(new Random(1));
+        assertNotEquals(version, pandemic.getVersion());
+    }
+
+    @Test
+    public void countersCountTheirChanges() {
+        Counter counter = new Counter(0, 0, 10, "test");
+        int count = counter.getModificationCount();
+        counter.getValue();
+        assertEquals(count, counter.getModificationCount());
+        counter.increment(1);
+        counter.setValue(3);
+        assertEquals(count + 2, counter.getModificationCount());
+
+        Deck<DominionCard> deck = new Deck<>("test", VisibilityMode.VISIBLE_TO_ALL);
+        deck.add(DominionCard.create(CardType.COPPER));
+        count = deck.getModificationCount();
+        deck.getSize();
+        deck.stream().count();
+        assertEquals(count, deck.getModificationCount());
+        deck.draw();
+        assertTrue(deck.getModificationCount() > count);
+    }
+
+    @Test
+    public void readingDecksDoesNotChangeTheVersion() {
+        for (GameType gameType : new GameType[]{GameType.Dominion, GameType.Uno, GameType.LoveLetter}) {
+            Game game = gameType.createGameInstance(3, 42);
+            AbstractGameState gs = game.getGameState();
+            AbstractForwardModel gameFM = game.getForwardModel();
+            AbstractGameState copy = gs.copy();
+            long version = gs.getVersion();
+
+            for (Component c : gs.getAllComponents().getComponents()) {
+                if (c instanceof Deck && ((Deck<?>) c).getSize() > 0) {
+                    Deck<?> deck = (Deck<?>) c;
+                    deck.peek();
+                    deck.get(deck.getSize() - 1);
+                    deck.stream().count();
+                }
+            }
+            assertEquals(gameType.name(), version, gs.getVersion());
+            // both of these walk all the components
+            gs.equals(copy);
+            assertEquals(gameType.name(), gs.hashCode(), gs.hashCode());
+            gs.getZobristHash();
+            gameFM.computeAvailableActions(gs);
+            assertEquals(gameType.name(), version, gs.getVersion());
+
+            // while a change is still noticed
+            gameFM.next(gs, gameFM.computeAvailableActions(gs).get(0));
+            assertNotEquals(gameType.name(), version, gs.getVersion());
+        }
+    }
+
+    @Test
+    public void actionsAreUpdatedAfterEachBuy() {
+        state.setGamePhase(DominionGamePhase.Buy);
+        state.changeBuys(2);
+        state.spend(-4);
+        List<AbstractAction> before = fm.computeAvailableActions(state);
+        BuyCard silver = (BuyCard) before.stream()
+                .filter(a -> a instanceof BuyCard && ((BuyCard) a).cardType == CardType.SILVER)
+                .findFirst().orElseThrow(AssertionError::new);
+
+        fm.next(state, silver);
+        assertEquals(DominionGamePhase.Buy, state.getGamePhase());
+        List<AbstractAction> after = fm.computeAvailableActions(state);
+        assertEquals(uncached(state), after);
+        assertTrue(after.size() < before.size());
+        // the actions still available are the same ones as before
+        for (AbstractAction action : after)
+            assertTrue(before.stream().anyMatch(a -> a == action));
+    }
+}
@@ -0,0 +1,121 @@
+package test.core;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import core.actions.ActionMap;
+import core.actions.DoNothing;
+import core.actions.DrawCard;
+import core.actions.SetGridValueAction;
+import core.components.Token;
+import core.interfaces.ICodedAction;
+import games.GameType;
+import games.blackjack.actions.Stand;
+import games.cantstop.actions.AllocateDice;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ActionMapTests {
+
+    @Test
+    public void codedActionsAreFoundByCode() {
+        Token x = new Token("x");
+        ActionMap<Integer> map = new ActionMap<>();
+        map.put(new SetGridValueAction<>(1, 0, 2, x), 3);
+        assertEquals(3, (int) map.get(new SetGridValueAction<>(1, 0, 2, x)));
+        assertNull(map.get(new SetGridValueAction<>(1, 2, 0, x)));
+        assertNull(map.get(new AllocateDice(5, 7)));
+
+        // equal in either order, and not equal to another class with the same code
+        map.put(new AllocateDice(5, 7), 1);
+        assertEquals(1, (int) map.get(new AllocateDice(7, 5)));
+        map.put(new Stand(), 10);
+        map.put(new DoNothing(), 20);
+        assertEquals(10, (int) map.get(new Stand()));
+        assertEquals(20, (int) map.get(new DoNothing()));
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    public void behavesAsHashMap() {
+        // DrawCard is not coded, and so is found with equals() and hashCode()
+        Map<AbstractAction, Integer> expected = new HashMap<>();
+        ActionMap<Integer> map = new ActionMap<>();
+        List<AbstractAction> order = new ArrayList<>();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            AbstractAction action = i % 3 == 0
+                    ? new AllocateDice(2 + rnd.nextInt(11), 2 + rnd.nextInt(11))
+                    : new DrawCard(rnd.nextInt(3), rnd.nextInt(3), rnd.nextInt(20));
+            if (!map.containsKey(action))
+                order.add(action);
+            map.merge(action, 1, Integer::sum);
+            expected.merge(action, 1, Integer::sum);
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+        // iteration is in the order the actions were added
+        assertEquals(order, new ArrayList<>(map.keySet()));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(order.get(0)));
+    }
+
+    // Checks that in random games actions of the same class have the same code if and only if they are equal, and
+    // if allCoded that every action is coded (otherwise that at least some are)
+    private void checkCodes(GameType gameType, int nPlayers, boolean allCoded) {
+        for (int seed = 0; seed < 5; seed++) {
+            Game game = gameType.createGameInstance(nPlayers, seed);
+            AbstractGameState state = game.getGameState();
+            AbstractForwardModel fm = game.getForwardModel();
+            Random rnd = new Random(seed);
+            Set<AbstractAction> seen = new HashSet<>();
+            for (int i = 0; i < 300 && state.isNotTerminal(); i++) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                seen.addAll(actions);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+            List<AbstractAction> coded = new ArrayList<>();
+            for (AbstractAction a : seen) {
+                if (allCoded)
+                    assertTrue(a.toString(), a instanceof ICodedAction);
+                if (a instanceof ICodedAction)
+                    coded.add(a);
+            }
+            assertFalse(gameType.name(), coded.isEmpty());
+            for (AbstractAction a : coded) {
+                for (AbstractAction b : coded) {
+                    if (a.getClass() != b.getClass())
+                        continue;
+                    boolean sameCode = ((ICodedAction) a).getActionCode() == ((ICodedAction) b).getActionCode();
+                    assertEquals(a + " and " + b, a.equals(b), sameCode);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void codesMatchEquality() {
+        checkCodes(GameType.TicTacToe, 2, true);
+        checkCodes(GameType.Connect4, 2, true);
+        checkCodes(GameType.DotsAndBoxes, 3, true);
+        checkCodes(GameType.CantStop, 3, true);
+        checkCodes(GameType.Blackjack, 3, true);
+        checkCodes(GameType.Diamant, 4, true);
+    }
+
+    @Test
+    public void codesOfCardGameActionsMatchEquality() {
+        checkCodes(GameType.Uno, 4, true);
+        checkCodes(GameType.LoveLetter, 4, true);
+        checkCodes(GameType.ExplodingKittens, 4, false);
+        checkCodes(GameType.Dominion, 3, false);
+        checkCodes(GameType.Catan, 3, false);
+        checkCodes(GameType.Pandemic, 2, false);
+    }
+}
@@ -0,0 +1,150 @@
+package test.core;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.CoreParameters;
+import core.Game;
+import core.actions.AbstractAction;
+import core.components.Component;
+import core.components.ComponentRegistry;
+import core.components.Deck;
+import core.components.Token;
+import core.interfaces.IComponentContainer;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.*;
+
+import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
+import static org.junit.Assert.*;
+
+public class ComponentRegistryTests {
+
+    @Test
+    public void findsComponentsWithAnyID() {
+        ComponentRegistry registry = new ComponentRegistry();
+        Map<Integer, Component> expected = new HashMap<>();
+        Random rnd = new Random(7);
+        // mostly close together, with a few far away (and some negative)
+        for (int i = 0; i < 2000; i++) {
+            int id = i % 50 == 0 ? rnd.nextInt(Integer.MAX_VALUE) - Integer.MAX_VALUE / 4 : 100000 + rnd.nextInt(3000);
+            Token token = new Token("t" + i, id);
+            registry.put(token);
+            expected.put(id, token);
+        }
+        assertEquals(expected.size(), registry.size());
+        for (Map.Entry<Integer, Component> e : expected.entrySet())
+            assertSame(e.getValue(), registry.get(e.getKey()));
+        for (int i = 0; i < 1000; i++) {
+            int id = rnd.nextInt();
+            assertEquals(expected.get(id), registry.get(id));
+        }
+
+        ComponentRegistry copy = registry.emptyCopy();
+        assertEquals(0, copy.size());
+        assertNull(copy.get(expected.keySet().iterator().next()));
+        registry.clear();
+        assertEquals(0, registry.size());
+        for (int id : expected.keySet())
+            assertNull(registry.get(id));
+    }
+
+    @Test
+    public void containedComponentsAreAdded() {
+        Deck<Token> deck = new Deck<>("deck", VISIBLE_TO_ALL);
+        for (int i = 0; i < 10; i++)
+            deck.add(new Token("t" + i));
+        ComponentRegistry registry = new ComponentRegistry();
+        registry.putAll(Collections.singletonList(deck));
+        assertEquals(11, registry.size());
+        assertSame(deck, registry.get(deck.getComponentID()));
+        for (Token t : deck.getComponents())
+            assertSame(t, registry.get(t.getComponentID()));
+    }
+
+    @Test
+    public void fillingTheRegistryDoesNotChangeTheDecks() {
+        for (boolean copyOnWrite : new boolean[]{false, true}) {
+            Game game = GameType.Dominion.createGameInstance(3, 3);
+            CoreParameters params = new CoreParameters();
+            params.copyOnWrite = copyOnWrite;
+            game.setCoreParameters(params);
+            AbstractGameState state = game.getGameState();
+            long version = state.getVersion();
+            AbstractGameState copy = state.copy();
+            // a copy starts with no changes, and the registry of a copy-on-write copy is filled as IDs are looked up
+            List<Component> all = new ArrayList<>();
+            for (Component c : copy.getAllTopLevelComponents()) {
+                if (c instanceof Deck) {
+                    all.add(c);
+                    if (((Deck<?>) c).getSize() > 0)
+                        copy.getComponentById(((Deck<?>) c).get(0).getComponentID());
+                }
+            }
+            assertFalse(all.isEmpty());
+            for (Component c : all)
+                assertEquals(c.getComponentName(), 0, c.getModificationCount());
+            assertEquals(version, state.getVersion());
+        }
+    }
+
+    // Every component in the state is found by its ID, as the very object in the state if it has just been copied and
+    // is the only one with that ID (games may keep equal components in more than one place, or replace them)
+    private void checkLookup(AbstractGameState state, boolean copied) {
+        List<Component> all = new ArrayList<>();
+        addAll(state.getAllTopLevelComponents(), all);
+        Map<Integer, Integer> count = new HashMap<>();
+        all.forEach(c -> count.merge(c.getComponentID(), 1, Integer::sum));
+        for (Component c : all) {
+            if (copied && count.get(c.getComponentID()) == 1)
+                assertSame(c, state.getComponentById(c.getComponentID()));
+            else
+                assertEquals(c, state.getComponentById(c.getComponentID()));
+        }
+    }
+
+    private void addAll(List<? extends Component> components, List<Component> all) {
+        for (Component c : components) {
+            if (c == null)
+                continue;
+            all.add(c);
+            if (c instanceof IComponentContainer)
+                addAll(((IComponentContainer<?>) c).getComponents(), all);
+        }
+    }
+
+    private void checkGame(GameType gameType, int nPlayers, boolean copyOnWrite) {
+        Game game = gameType.createGameInstance(nPlayers, 3);
+        if (copyOnWrite) {
+            CoreParameters params = new CoreParameters();
+            params.copyOnWrite = true;
+            game.setCoreParameters(params);
+        }
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(3);
+        checkLookup(state, false);
+        for (int i = 0; i < 50 && state.isNotTerminal(); i++) {
+            checkLookup(state.copy(i % nPlayers), true);
+            AbstractGameState copy = state.copy();
+            checkLookup(copy, true);
+            // including any components created by the action
+            List<AbstractAction> actions = fm.computeAvailableActions(copy);
+            fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+            checkLookup(copy, false);
+
+            actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    @Test
+    public void copiesFindTheirOwnComponents() {
+        for (boolean copyOnWrite : new boolean[]{false, true}) {
+            checkGame(GameType.Diamant, 3, copyOnWrite);
+            checkGame(GameType.Dominion, 3, copyOnWrite);
+            checkGame(GameType.Uno, 4, copyOnWrite);
+            checkGame(GameType.CantStop, 2, copyOnWrite);
+        }
+    }
+}
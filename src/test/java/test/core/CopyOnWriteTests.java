@@ -0,0 +1,136 @@
+package test.core;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.CoreParameters;
+import core.Game;
+import core.actions.AbstractAction;
+import core.components.Card;
+import core.components.CopyOnWrite;
+import core.components.Deck;
+import games.dominion.DominionGame;
+import games.dominion.DominionParameters;
+import games.tictactoe.TicTacToeGame;
+import games.tictactoe.TicTacToeGameParameters;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
+import static org.junit.Assert.*;
+
+public class CopyOnWriteTests {
+
+    private Game withCopyOnWrite(Game game) {
+        CoreParameters params = new CoreParameters();
+        params.copyOnWrite = true;
+        game.setCoreParameters(params);
+        return game;
+    }
+
+    private void playRandomActions(AbstractForwardModel fm, AbstractGameState state, int n, Random rnd) {
+        for (int i = 0; i < n && state.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    // copied parameters are re-seeded from the clock, which would otherwise make the hashes differ
+    private void sameSeed(AbstractGameState from, AbstractGameState to) {
+        to.getGameParameters().setRandomSeed(from.getGameParameters().getRandomSeed());
+    }
+
+    @Test
+    public void deckCopiesAreIndependent() {
+        Deck<Card> original = new Deck<>("Test", VISIBLE_TO_ALL);
+        for (int i = 0; i < 5; i++)
+            original.add(new Card("Card" + i));
+        Card top = original.peek();
+
+        CopyOnWrite.enable();
+        Deck<Card> firstCopy = original.copy();
+        Deck<Card> secondCopy = firstCopy.copy();
+        CopyOnWrite.disable();
+
+        assertEquals(original, firstCopy);
+        assertEquals(5, secondCopy.getSize());
+
+        // the original keeps its own Card objects, and the copies see the contents at the time of copying
+        original.draw();
+        assertEquals(4, original.getSize());
+        assertEquals(5, firstCopy.getSize());
+        assertEquals(top, firstCopy.peek());
+        assertNotSame(top, firstCopy.peek());
+
+        firstCopy.draw();
+        firstCopy.draw();
+        assertEquals(3, firstCopy.getSize());
+        assertEquals(5, secondCopy.getSize());
+        assertEquals(top, secondCopy.draw());
+        assertEquals(4, original.getSize());
+    }
+
+    @Test
+    public void dominionCopiesAreIndependent() {
+        Game game = withCopyOnWrite(new DominionGame(new DominionParameters(36), 4));
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(42);
+        playRandomActions(fm, state, 20, rnd);
+
+        int startHash = state.hashCode();
+        AbstractGameState copy = state.copy();
+        AbstractGameState copyOfCopy = copy.copy();
+        assertEquals(startHash, copy.hashCode());
+
+        playRandomActions(fm, state, 50, rnd);
+        assertEquals(startHash, copy.hashCode());
+        assertEquals(startHash, copyOfCopy.hashCode());
+
+        int midHash = state.hashCode();
+        playRandomActions(fm, copy, 50, rnd);
+        assertEquals(midHash, state.hashCode());
+        assertEquals(startHash, copyOfCopy.hashCode());
+    }
+
+    @Test
+    public void copyOnWriteMatchesFullCopy() {
+        Game dominion = new DominionGame(new DominionParameters(36), 3);
+        AbstractGameState state = dominion.getGameState();
+        playRandomActions(dominion.getForwardModel(), state, 30, new Random(3));
+        AbstractGameState fullCopy = state.copy();
+        withCopyOnWrite(dominion);
+        AbstractGameState lazyCopy = state.copy();
+        sameSeed(fullCopy, lazyCopy);
+        assertEquals(fullCopy.hashCode(), lazyCopy.hashCode());
+    }
+
+    @Test
+    public void copyOnWriteCopiesPlayTheSame() {
+        // TicTacToe has no randomness, so the same actions should have the same effect on both copies
+        Game game = new TicTacToeGame(new TicTacToeGameParameters(36));
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        playRandomActions(fm, state, 2, new Random(3));
+
+        AbstractGameState fullCopy = state.copy();
+        withCopyOnWrite(game);
+        AbstractGameState lazyCopy = state.copy();
+        sameSeed(fullCopy, lazyCopy);
+        assertEquals(fullCopy.hashCode(), lazyCopy.hashCode());
+
+        Random rnd = new Random(7);
+        while (fullCopy.isNotTerminal()) {
+            List<AbstractAction> fullActions = fm.computeAvailableActions(fullCopy);
+            List<AbstractAction> lazyActions = fm.computeAvailableActions(lazyCopy);
+            assertEquals(fullActions, lazyActions);
+            int index = rnd.nextInt(fullActions.size());
+            fm.next(fullCopy, fullActions.get(index));
+            fm.next(lazyCopy, lazyActions.get(index));
+            assertEquals(fullCopy.hashCode(), lazyCopy.hashCode());
+        }
+        assertEquals(fullCopy.getGameStatus(), lazyCopy.getGameStatus());
+        assertNotEquals(state.hashCode(), lazyCopy.hashCode());
+    }
+}
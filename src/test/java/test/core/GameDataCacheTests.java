@@ -0,0 +1,69 @@
+package test.core;
+
+import core.AbstractGameData;
+import core.components.BoardNode;
+import core.components.Counter;
+import core.components.GraphBoard;
+import core.properties.PropertyIntArray;
+import games.GameType;
+import games.pandemic.PandemicGameState;
+import org.junit.After;
+import org.junit.Test;
+
+import static games.pandemic.PandemicConstants.infectionHash;
+import static org.junit.Assert.*;
+
+public class GameDataCacheTests {
+
+    private static final String PANDEMIC = "data/pandemic/";
+
+    @After
+    public void cleanUp() {
+        AbstractGameData.clearCache();
+    }
+
+    @Test
+    public void dataIsOnlyReadOnce() {
+        AbstractGameData first = AbstractGameData.getCached(PANDEMIC, AbstractGameData::new);
+        assertSame(first, AbstractGameData.getCached(PANDEMIC, AbstractGameData::new));
+        // the same path written differently
+        assertSame(first, AbstractGameData.getCached("data/../data/pandemic", AbstractGameData::new));
+        // data of another type from the same directory is kept separately
+        assertNotSame(first, AbstractGameData.getCached(PANDEMIC, () -> new AbstractGameData() {
+        }));
+
+        AbstractGameData.clearCache();
+        assertNotSame(first, AbstractGameData.getCached(PANDEMIC, AbstractGameData::new));
+    }
+
+    @Test
+    public void changesToComponentsDoNotReachTheCache() {
+        AbstractGameData data = AbstractGameData.getCached(PANDEMIC, AbstractGameData::new);
+        Counter outbreaks = data.findCounter("Outbreaks");
+        int initial = outbreaks.getValue();
+        outbreaks.increment(1);
+        assertEquals(initial, data.findCounter("Outbreaks").getValue());
+
+        GraphBoard world = data.findGraphBoard("cities");
+        BoardNode city = world.getBoardNodes().get(0);
+        int[] infection = ((PropertyIntArray) city.getProperty(infectionHash)).getValues();
+        int before = infection[0];
+        infection[0] += 3;
+        BoardNode fresh = data.findGraphBoard("cities").getBoardNodes().get(0);
+        assertEquals(before, ((PropertyIntArray) fresh.getProperty(infectionHash)).getValues()[0]);
+    }
+
+    @Test
+    public void gamesSetUpFromTheCacheAreIndependent() {
+        PandemicGameState first = (PandemicGameState) GameType.Pandemic.createGameInstance(4, 1).getGameState();
+        PandemicGameState second = (PandemicGameState) GameType.Pandemic.createGameInstance(4, 1).getGameState();
+        // the same seed gives the same game, but with components of its own
+        assertEquals(first.getWorld().getBoardNodes().size(), second.getWorld().getBoardNodes().size());
+        assertNotSame(first.getWorld(), second.getWorld());
+        for (int i = 0; i < first.getWorld().getBoardNodes().size(); i++) {
+            BoardNode a = first.getWorld().getBoardNodes().get(i), b = second.getWorld().getBoardNodes().get(i);
+            assertNotSame(a, b);
+            assertEquals(a.getProperty(infectionHash), b.getProperty(infectionHash));
+        }
+    }
+}
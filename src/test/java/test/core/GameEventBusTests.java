@@ -0,0 +1,144 @@
+package test.core;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.CoreConstants.GameEvents;
+import core.CoreParameters;
+import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.IGameListener;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static core.CoreConstants.GameEvents.*;
+import static org.junit.Assert.*;
+
+public class GameEventBusTests {
+
+    // Records the events it is given, and the thread and state they came with
+    private static class Recorder implements IGameListener {
+        final Function<GameEvents, Payload> payload;
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        final List<AbstractGameState> states = Collections.synchronizedList(new ArrayList<>());
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        long delay;
+
+        Recorder(Function<GameEvents, Payload> payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public Payload payload(GameEvents type) {
+            return payload.apply(type);
+        }
+
+        @Override
+        public void onGameEvent(GameEvents type, Game game) {
+            events.add(type.name());
+        }
+
+        @Override
+        public void onEvent(GameEvents type, AbstractGameState state, AbstractAction action) {
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+            threads.add(Thread.currentThread());
+            events.add(type + " " + state.getTurnOrder().getTurnCounter() + " " + state.getHistory().size() + " " + state.getGameStatus());
+            states.add(state);
+        }
+    }
+
+    private Game play(int queueSize, long seed, IGameListener... listeners) {
+        Game game = GameType.TicTacToe.createGameInstance(2, seed);
+        CoreParameters params = new CoreParameters();
+        params.eventQueueSize = queueSize;
+        game.setCoreParameters(params);
+        for (IGameListener listener : listeners)
+            game.addListener(listener);
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(seed)), new RandomPlayer(new Random(seed + 1)));
+        game.reset(players, seed);
+        game.run();
+        return game;
+    }
+
+    @Test
+    public void listenersOnlyGetWhatTheyAskFor() {
+        Recorder gameOverOnly = new Recorder(t -> t == GAME_OVER ? IGameListener.Payload.STATE : IGameListener.Payload.NONE);
+        Recorder live = new Recorder(t -> t == ACTION_TAKEN ? IGameListener.Payload.STATE : IGameListener.Payload.NONE);
+        Recorder snapshots = new Recorder(t -> t == ACTION_TAKEN ? IGameListener.Payload.SNAPSHOT : IGameListener.Payload.NONE);
+        Recorder moreSnapshots = new Recorder(t -> t == ACTION_TAKEN ? IGameListener.Payload.SNAPSHOT : IGameListener.Payload.NONE);
+        Game game = play(0, 1, gameOverOnly, live, snapshots, moreSnapshots);
+
+        assertEquals(Collections.singletonList("GAME_OVER"), gameOverOnly.events);
+        int ticks = game.getTick();
+        assertEquals(ticks, live.events.size());
+        assertEquals(live.events, snapshots.events);
+        for (int i = 0; i < ticks; i++) {
+            assertSame(game.getGameState(), live.states.get(i));
+            // one copy is made for each event, and shared by those that want one
+            assertNotSame(game.getGameState(), snapshots.states.get(i));
+            assertSame(snapshots.states.get(i), moreSnapshots.states.get(i));
+            if (i > 0)
+                assertNotSame(snapshots.states.get(i - 1), snapshots.states.get(i));
+        }
+        // a snapshot is the state just after the action was taken
+        assertEquals(game.getGameState().getHistory(), snapshots.states.get(ticks - 1).getHistory());
+    }
+
+    @Test
+    public void queuedEventsArriveInOrder() {
+        Recorder sync = new Recorder(t -> t == GAME_OVER || t == ACTION_TAKEN ? IGameListener.Payload.SNAPSHOT : IGameListener.Payload.NONE);
+        play(0, 2, sync);
+
+        Recorder queued = new Recorder(sync.payload);
+        queued.delay = 2;
+        Recorder live = new Recorder(t -> t == ACTION_CHOSEN || t == GAME_OVER ? IGameListener.Payload.STATE : IGameListener.Payload.NONE);
+        play(2, 2, queued, live);
+
+        // everything has been delivered by the end of the game, in the same order as without the queue
+        assertEquals(sync.events, queued.events);
+        assertEquals(1, queued.threads.size());
+        assertFalse(queued.threads.contains(Thread.currentThread()));
+        assertEquals(Collections.singleton(Thread.currentThread()), live.threads);
+        assertEquals("GAME_OVER", live.events.get(live.events.size() - 1));
+    }
+
+    @Test
+    public void failuresOnTheQueueReachTheGame() {
+        Recorder failing = new Recorder(t -> t == ACTION_TAKEN ? IGameListener.Payload.SNAPSHOT : IGameListener.Payload.NONE) {
+            @Override
+            public void onEvent(GameEvents type, AbstractGameState state, AbstractAction action) {
+                throw new IllegalStateException("listener failed");
+            }
+        };
+        try {
+            play(4, 3, failing);
+            fail("Expected the failure of the listener to be passed on");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void defaultsAreUnchanged() {
+        IGameListener listener = new IGameListener() {
+            @Override
+            public void onGameEvent(GameEvents type, Game game) {
+            }
+
+            @Override
+            public void onEvent(GameEvents type, AbstractGameState state, AbstractAction action) {
+            }
+        };
+        for (GameEvents type : GameEvents.values())
+            assertEquals(type == ACTION_TAKEN ? IGameListener.Payload.SNAPSHOT : IGameListener.Payload.STATE, listener.payload(type));
+    }
+}
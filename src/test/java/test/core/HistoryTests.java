@@ -0,0 +1,101 @@
+package test.core;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.UndoToken;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistoryTests {
+
+    // Plays random actions, recording each as the history used to, and returns the actions
+    private List<AbstractAction> play(AbstractGameState state, AbstractForwardModel fm, int steps, Random rnd, List<String> text) {
+        List<AbstractAction> played = new ArrayList<>();
+        for (int i = 0; i < steps && state.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+            text.add("Player " + state.getCurrentPlayer() + " : " + action.getString(state));
+            fm.next(state, action);
+            played.add(action);
+        }
+        return played;
+    }
+
+    private void checkCopies(GameType gameType, int nPlayers, long seed) {
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(seed);
+        List<String> text = new ArrayList<>();
+        List<AbstractAction> played = play(state, fm, 20, rnd, text);
+        assertEquals(played, state.getHistory());
+        assertEquals(text, state.getHistoryAsText());
+
+        // the copy shares what has been played so far, and from then on each has its own history
+        AbstractGameState copy = state.copy();
+        List<String> copyText = new ArrayList<>(text);
+        List<AbstractAction> copyPlayed = new ArrayList<>(played);
+        copyPlayed.addAll(play(copy, fm, 10, rnd, copyText));
+        played.addAll(play(state, fm, 5, rnd, text));
+        assertEquals(played, state.getHistory());
+        assertEquals(text, state.getHistoryAsText());
+        assertEquals(copyPlayed, copy.getHistory());
+        assertEquals(copyText, copy.getHistoryAsText());
+
+        // the list returned is not the history itself
+        state.getHistory().clear();
+        assertEquals(played, state.getHistory());
+    }
+
+    @Test
+    public void copiesShareHistory() {
+        for (int seed = 0; seed < 5; seed++) {
+            checkCopies(GameType.TicTacToe, 2, seed);
+            checkCopies(GameType.Connect4, 2, seed);
+            checkCopies(GameType.CantStop, 3, seed);
+            checkCopies(GameType.Diamant, 4, seed);
+        }
+    }
+
+    @Test
+    public void simulationsAreNotRecorded() {
+        Game game = GameType.Connect4.createGameInstance(2, 3);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(3);
+        List<String> text = new ArrayList<>();
+        List<AbstractAction> played = play(state, fm, 6, rnd, text);
+
+        AbstractGameState simulation = state.copy();
+        simulation.setSimulation(true);
+        play(simulation, fm, 6, rnd, new ArrayList<>());
+        assertEquals(played, simulation.getHistory());
+        // the text was fixed when each action was played, so asking the simulation for it first changes nothing
+        assertEquals(text, simulation.getHistoryAsText());
+        assertEquals(text, state.getHistoryAsText());
+
+        // copies of a simulation are simulations, and undo still works on them
+        AbstractGameState copy = simulation.copy();
+        assertTrue(copy.isSimulation());
+        List<AbstractAction> actions = fm.computeAvailableActions(copy);
+        UndoToken token = fm.nextWithUndo(copy, actions.get(0));
+        assertEquals(played, copy.getHistory());
+        fm.undo(copy, token);
+        assertEquals(played, copy.getHistory());
+
+        // and recording starts again once the flag is cleared
+        copy.setSimulation(false);
+        played.addAll(play(copy, fm, 1, rnd, new ArrayList<>()));
+        assertEquals(played, copy.getHistory());
+        assertFalse(state.isSimulation());
+        assertFalse(state.copy().isSimulation());
+    }
+}
@@ -0,0 +1,132 @@
+package test.core;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.metrics.Histogram;
+import core.metrics.Metrics;
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MetricsTests {
+
+    @After
+    public void cleanUp() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void percentilesAreWithinThePrecisionOfTheBuckets() {
+        Histogram h = new Histogram();
+        for (int i = 1; i <= 100000; i++)
+            h.record(i);
+        assertEquals(100000, h.getCount());
+        assertEquals(1, h.getMin());
+        assertEquals(100000, h.getMax());
+        assertEquals(50000.5, h.getMean(), 1e-9);
+        for (double p : new double[]{1, 50, 90, 99, 99.9}) {
+            double exact = p * 1000;
+            assertEquals(exact, h.getValueAtPercentile(p), exact * 0.04);
+        }
+        assertEquals(100000, h.getValueAtPercentile(100));
+
+        // small values are exact, and very large ones do not overflow
+        h.reset();
+        h.record(3);
+        h.record(Long.MAX_VALUE);
+        assertEquals(3, h.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, h.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void nothingIsRecordedUnlessEnabled() {
+        play(1);
+        assertTrue(Metrics.toJSON().isEmpty());
+    }
+
+    @Test
+    public void gamesAreTimedForEachPlayerAndPhase() {
+        Metrics.setEnabled(true);
+        Game game = play(1);
+        play(2);
+
+        JSONArray all = Metrics.toJSON();
+        JSONObject games = find(all, Metrics.GAMES, -1, null);
+        assertEquals(2L, games.get("value"));
+        assertEquals("TicTacToe", games.get("game"));
+
+        long decisions = 0;
+        for (int p = 0; p < 2; p++) {
+            String agent = game.getPlayers().get(p).toString();
+            JSONObject getAction = find(all, Metrics.GET_ACTION, p, agent);
+            assertEquals("Main", getAction.get("phase"));
+            assertEquals("ns", getAction.get("unit"));
+            assertTrue((Long) getAction.get("p50") <= (Long) getAction.get("p99"));
+            assertTrue((Long) getAction.get("p99") <= (Long) getAction.get("max"));
+            decisions += (Long) getAction.get("count");
+            // the forward model is timed for the player whose turn it is
+            assertTrue((Long) find(all, Metrics.NEXT, p, null).get("count") > 0);
+            assertTrue((Long) find(all, Metrics.COMPUTE_ACTIONS, p, null).get("count") > 0);
+            assertTrue((Long) find(all, Metrics.COPY, p, null).get("count") > 0);
+        }
+        // the last move of each game is forced, so the agent is not asked
+        assertTrue(decisions > 0);
+    }
+
+    @Test
+    public void prometheusTextHasSummariesAndCounters() {
+        Metrics.setEnabled(true);
+        play(3);
+        String text = Metrics.toPrometheus();
+        assertTrue(text.contains("# TYPE tag_games_played_total counter\n"));
+        assertTrue(text.contains("tag_games_played_total{game=\"TicTacToe\"} 1\n"));
+        assertTrue(text.contains("# TYPE tag_player_get_action_seconds summary\n"));
+        assertTrue(text.contains("tag_forward_model_next_seconds{game=\"TicTacToe\",player=\"0\",phase=\"Main\",quantile=\"0.99\"} "));
+        assertTrue(text.contains("tag_forward_model_next_seconds_count{game=\"TicTacToe\",player=\"0\",phase=\"Main\"} "));
+        for (String line : text.split("\n"))
+            assertTrue(line, line.startsWith("# ") || line.matches("tag_\\w+(\\{.*})? \\S+"));
+    }
+
+    @Test
+    public void aMetricHasOneKind() {
+        Metrics.counter("test", null, -1, null, null).increment();
+        try {
+            Metrics.timer("test", null, -1, null, null);
+            fail("Expected a metric of the wrong kind to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private Game play(long seed) {
+        Game game = GameType.TicTacToe.createGameInstance(2, seed);
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(seed)), new RandomPlayer(new Random(seed + 1)));
+        game.reset(players, seed);
+        game.run();
+        AbstractGameState state = game.getGameState();
+        assertFalse(state.isNotTerminal());
+        return game;
+    }
+
+    private JSONObject find(JSONArray all, String name, long player, String agent) {
+        for (Object o : all) {
+            JSONObject json = (JSONObject) o;
+            Object p = json.get("player");
+            if (json.get("name").equals(name) && (player < 0 ? p == null : Long.valueOf(player).equals(p == null ? null : ((Number) p).longValue()))
+                    && (agent == null ? json.get("agent") == null : agent.equals(json.get("agent"))))
+                return json;
+        }
+        throw new AssertionError("No " + name + " for player " + player + " in " + all.toJSONString());
+    }
+}
@@ -0,0 +1,110 @@
+package test.core;
+
+import core.AbstractPlayer;
+import core.Game;
+import core.ParallelGameRunner;
+import games.GameType;
+import org.junit.Test;
+import players.mcts.MCTSParams;
+import players.simple.OSLAPlayer;
+import players.simple.RandomPlayer;
+import test.players.mcts.TestMCTSPlayer;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.*;
+
+public class ParallelGameRunnerTests {
+
+    private List<String> play(GameType gameType, List<AbstractPlayer> players, int nGames, int threads) {
+        ParallelGameRunner runner = new ParallelGameRunner(threads);
+        List<Callable<String>> games = new ArrayList<>();
+        for (int i = 0; i < nGames; i++) {
+            long seed = ParallelGameRunner.gameSeed(123, i);
+            games.add(() -> {
+                List<AbstractPlayer> copies = runner.playersFor(players, seed);
+                Game game = gameType.createGameInstance(copies.size(), seed);
+                game.reset(copies, seed);
+                game.run();
+                Utils.GameResult[] results = game.getGameState().getPlayerResults();
+                return Arrays.toString(results) + " after " + game.getTick() + " ticks";
+            });
+        }
+        return runner.run(games, players);
+    }
+
+    @Test
+    public void resultsDoNotDependOnThreads() {
+        // the copies are seeded from the seed of each game, so the same players can be used each time
+        List<AbstractPlayer> players = Arrays.asList(new OSLAPlayer(new Random(3)), new RandomPlayer(new Random(7)));
+        List<String> twoThreads = play(GameType.TicTacToe, players, 40, 2);
+        assertEquals(40, twoThreads.size());
+        assertEquals(twoThreads, play(GameType.TicTacToe, players, 40, 4));
+        assertEquals(twoThreads, play(GameType.TicTacToe, players, 40, 3));
+    }
+
+    @Test
+    public void resultsDoNotDependOnThreadsWithRandomGames() {
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(3)), new RandomPlayer(new Random(7)));
+        assertEquals(play(GameType.Uno, players, 8, 2), play(GameType.Uno, players, 8, 4));
+    }
+
+    @Test
+    public void oneThreadPlaysTheOriginalPlayers() {
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(3)), new RandomPlayer(new Random(7)));
+        assertSame(players, new ParallelGameRunner(1).playersFor(players, 1));
+        List<AbstractPlayer> copies = new ParallelGameRunner(2).playersFor(players, 1);
+        for (int i = 0; i < players.size(); i++)
+            assertNotSame(players.get(i), copies.get(i));
+    }
+
+    @Test
+    public void playerSeedsDependOnlyOnTheGame() {
+        assertEquals(ParallelGameRunner.playerSeed(7, 1), ParallelGameRunner.playerSeed(7, 1));
+        assertNotEquals(ParallelGameRunner.playerSeed(7, 0), ParallelGameRunner.playerSeed(7, 1));
+        assertNotEquals(ParallelGameRunner.playerSeed(7, 0), ParallelGameRunner.playerSeed(8, 0));
+    }
+
+    @Test
+    public void gameSeedsAreDistinct() {
+        assertNotEquals(ParallelGameRunner.gameSeed(1, 0), ParallelGameRunner.gameSeed(1, 1));
+        assertNotEquals(ParallelGameRunner.gameSeed(1, 1), ParallelGameRunner.gameSeed(2, 0));
+        assertEquals(ParallelGameRunner.gameSeed(5, 3), ParallelGameRunner.gameSeed(5, 3));
+    }
+
+    @Test
+    public void copyingAPlayerDoesNotChangeItsRandomNumbers() {
+        TestMCTSPlayer copied = new TestMCTSPlayer(new MCTSParams(7));
+        TestMCTSPlayer uncopied = new TestMCTSPlayer(new MCTSParams(7));
+        copied.copy();
+        copied.copy();
+        for (int i = 0; i < 10; i++)
+            assertEquals(uncopied.getRnd().nextLong(), copied.getRnd().nextLong());
+    }
+
+    @Test
+    public void uncopiedPlayersArePlayedInTurn() {
+        ParallelGameRunner runner = new ParallelGameRunner(4);
+        AbstractPlayer shared = new RandomPlayer(new Random(1)) {
+            @Override
+            public RandomPlayer copy() {
+                return this;
+            }
+
+            @Override
+            public RandomPlayer copy(long seed) {
+                return this;
+            }
+        };
+        List<Callable<Thread>> games = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            games.add(Thread::currentThread);
+        for (Thread thread : runner.run(games, Arrays.asList(shared, new RandomPlayer())))
+            assertSame(Thread.currentThread(), thread);
+    }
+}
@@ -0,0 +1,159 @@
+package test.core;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.UndoToken;
+import core.actions.AbstractAction;
+import core.components.Card;
+import core.components.ChangeJournal;
+import core.components.Counter;
+import core.components.Deck;
+import core.components.GridBoard;
+import core.components.PartialObservableDeck;
+import core.components.Token;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
+import static org.junit.Assert.*;
+
+public class UndoTests {
+
+    private void playAndUndo(GameType gameType, int nPlayers, int maxSteps, long seed) {
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        assertTrue(fm.supportsUndo());
+        Random rnd = new Random(seed);
+
+        ArrayDeque<UndoToken> tokens = new ArrayDeque<>();
+        List<Integer> hashes = new ArrayList<>();
+        List<Long> zobristHashes = new ArrayList<>();
+        List<Integer> players = new ArrayList<>();
+        for (int i = 0; i < maxSteps && state.isNotTerminal(); i++) {
+            hashes.add(state.hashCode());
+            zobristHashes.add(state.getZobristHash());
+            players.add(state.getCurrentPlayer());
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            tokens.push(fm.nextWithUndo(state, actions.get(rnd.nextInt(actions.size()))));
+        }
+        assertEquals(tokens.size(), state.getHistory().size());
+
+        for (int i = hashes.size() - 1; i >= 0; i--) {
+            fm.undo(state, tokens.pop());
+            assertEquals(hashes.get(i).intValue(), state.hashCode());
+            assertEquals(zobristHashes.get(i).longValue(), state.getZobristHash());
+            assertEquals(players.get(i).intValue(), state.getCurrentPlayer());
+            assertEquals(i, state.getHistory().size());
+        }
+        assertTrue(state.isNotTerminal());
+    }
+
+    @Test
+    public void ticTacToe() {
+        for (int seed = 0; seed < 10; seed++)
+            playAndUndo(GameType.TicTacToe, 2, 100, seed);
+    }
+
+    @Test
+    public void connect4() {
+        for (int seed = 0; seed < 10; seed++)
+            playAndUndo(GameType.Connect4, 2, 100, seed);
+    }
+
+    @Test
+    public void dotsAndBoxes() {
+        for (int seed = 0; seed < 5; seed++)
+            playAndUndo(GameType.DotsAndBoxes, 3, 200, seed);
+    }
+
+    @Test
+    public void stratego() {
+        for (int seed = 0; seed < 5; seed++)
+            playAndUndo(GameType.Stratego, 2, 300, seed);
+    }
+
+    @Test
+    public void undoneStateCanBeReplayed() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState copy = state.copy();
+        copy.getGameParameters().setRandomSeed(state.getGameParameters().getRandomSeed());
+
+        AbstractAction action = fm.computeAvailableActions(state).get(4);
+        fm.undo(state, fm.nextWithUndo(state, action));
+        fm.next(state, action);
+        fm.next(copy, action);
+        assertEquals(copy.hashCode(), state.hashCode());
+        assertEquals(copy.getZobristHash(), state.getZobristHash());
+    }
+
+    @Test
+    public void undoIsRefusedForGamesThatDoNotSupportIt() {
+        Game game = GameType.Uno.createGameInstance(3, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        assertFalse(fm.supportsUndo());
+        AbstractAction action = fm.computeAvailableActions(state).get(0);
+        int hash = state.hashCode();
+        try {
+            fm.nextWithUndo(state, action);
+            fail("nextWithUndo() should throw for a game that does not support undo");
+        } catch (IllegalStateException e) {
+            // expected, and the state must be untouched
+        }
+        assertEquals(hash, state.hashCode());
+    }
+
+    @Test
+    public void journalRestoresComponents() {
+        Deck<Card> deck = new Deck<>("Deck", 1, VISIBLE_TO_ALL);
+        PartialObservableDeck<Card> hand = new PartialObservableDeck<>("Hand", 0, 2);
+        Counter counter = new Counter(3, 0, 10, "Counter");
+        GridBoard<Token> board = new GridBoard<>(3, 3, new Token("Empty"));
+        for (int i = 0; i < 6; i++)
+            deck.add(new Card("Card" + i));
+        hand.add(new Card("Held"), new boolean[]{true, false});
+
+        String deckBefore = deck.toString();
+        long deckHash = deck.getZobristHash();
+        int handHash = hand.hashCode();
+        long boardHash = board.getZobristHash();
+        Card top = deck.peek();
+
+        ChangeJournal journal = ChangeJournal.start();
+        deck.shuffle(new Random(3));
+        hand.add(deck.draw());
+        hand.add(deck.draw());
+        hand.setVisibilityOfComponent(0, 1, true);
+        deck.remove(deck.peek());
+        deck.getComponents().add(new Card("Extra"));
+        counter.increment(4);
+        counter.decrement(1);
+        board.setElement(1, 1, new Token("X"));
+        board.getGridValues()[0][2] = new Token("O");
+        journal.stop();
+        assertTrue(journal.size() > 0);
+        assertNotEquals(deckHash, deck.getZobristHash());
+
+        journal.undo();
+        assertEquals(deckBefore, deck.toString());
+        assertEquals(deckHash, deck.getZobristHash());
+        assertEquals(1, top.getOwnerId());
+        assertEquals(1, hand.getSize());
+        assertEquals(handHash, hand.hashCode());
+        assertFalse(hand.isComponentVisible(0, 1));
+        assertEquals(3, counter.getValue());
+        assertEquals("Empty", board.getElement(1, 1).getTokenType());
+        assertEquals("Empty", board.getElement(2, 0).getTokenType());
+        assertEquals(boardHash, board.getZobristHash());
+        assertFalse(ChangeJournal.isRecording());
+    }
+}
@@ -0,0 +1,99 @@
+package test.evaluation;
+
+import evaluation.CandidateRace;
+import org.junit.Test;
+import utilities.SplitMixRandom;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CandidateRaceTests {
+
+    // Candidate {i} wins with probability winRates[i]
+    private static double[] play(List<int[]> seated, double[] winRates, Random rnd) {
+        return seated.stream().mapToDouble(c -> rnd.nextDouble() < winRates[c[0]] ? 1.0 : 0.0).toArray();
+    }
+
+    private static List<int[]> candidates(int n) {
+        int[][] retValue = new int[n][];
+        for (int i = 0; i < n; i++)
+            retValue[i] = new int[]{i};
+        return Arrays.asList(retValue);
+    }
+
+    @Test
+    public void clearlyWorseCandidatesAreDroppedEarly() {
+        double[] winRates = {0.8, 0.1, 0.75, 0.2};
+        Random rnd = new SplitMixRandom(17);
+        CandidateRace race = new CandidateRace(candidates(4), 0.05, 1.0, 4000);
+        int winner = race.run(1, s -> play(s, winRates, rnd), 4000, 100);
+
+        assertTrue(winner == 0 || winner == 2);
+        assertFalse(race.contenders().contains(1));
+        assertFalse(race.contenders().contains(3));
+        // the budget saved on the losers goes to the close contenders
+        assertTrue(race.results(1).n() < race.results(0).n() / 4);
+        assertTrue(race.results(3).n() < race.results(2).n() / 4);
+        int total = 0;
+        for (int i = 0; i < 4; i++)
+            total += race.results(i).n();
+        assertEquals(4000, total);
+    }
+
+    @Test
+    public void theRaceStopsWhenOnlyOneCandidateIsLeft() {
+        double[] winRates = {0.0, 1.0, 0.0};
+        Random rnd = new SplitMixRandom(3);
+        CandidateRace race = new CandidateRace(candidates(3), 0.05, 1.0, 1000);
+        assertEquals(1, race.run(1, s -> play(s, winRates, rnd), 1000, 50));
+
+        assertEquals(Arrays.asList(1), race.contenders());
+        assertTrue(race.results(1).n() >= 50);
+        assertTrue(race.results(0).n() + race.results(1).n() + race.results(2).n() < 300);
+        assertEquals(1.0, race.results(1).mean(), 0.0);
+    }
+
+    @Test
+    public void equalCandidatesAreNotDropped() {
+        double[] winRates = {0.5, 0.5};
+        Random rnd = new SplitMixRandom(5);
+        CandidateRace race = new CandidateRace(candidates(2), 0.05, 1.0, 400);
+        race.run(1, s -> play(s, winRates, rnd), 400, 10);
+
+        assertEquals(2, race.contenders().size());
+        assertEquals(200, race.results(0).n());
+        assertEquals(200, race.results(1).n());
+    }
+
+    @Test
+    public void candidatesCanPlayEachOther() {
+        // a game between all four seats, with the score being the index of the candidate
+        CandidateRace race = new CandidateRace(candidates(3), 0.05, 0.0, 400);
+        race.run(4, s -> s.stream().mapToDouble(c -> c[0]).toArray(), 100, 1);
+
+        for (int i = 0; i < 3; i++)
+            assertEquals(i, race.results(i).mean(), 0.0);
+        assertTrue(race.results(0).n() + race.results(1).n() + race.results(2).n() <= 400);
+        assertEquals(2, race.leader());
+        assertFalse(race.contenders().contains(0));
+    }
+
+    @Test
+    public void invalidRacesAreRejected() {
+        try {
+            new CandidateRace(candidates(0), 0.05, 1.0, 10);
+            fail("Expected a race with no candidates to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new CandidateRace(candidates(2), 1.0, 1.0, 10);
+            fail("Expected a certain race to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
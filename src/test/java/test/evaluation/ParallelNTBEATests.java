@@ -0,0 +1,204 @@
+package test.evaluation;
+
+import evaluation.ConcurrentSolutionEvaluator;
+import evaluation.ParallelNTBEA;
+import evodef.SearchSpace;
+import evodef.SolutionEvaluator;
+import ntbea.NTupleSystem;
+import org.junit.Test;
+import utilities.SplitMixRandom;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.Assert.*;
+
+public class ParallelNTBEATests {
+
+    // Three settings with four values each
+    private static class GridSpace implements SearchSpace {
+        @Override
+        public int nDims() {
+            return 3;
+        }
+
+        @Override
+        public int nValues(int i) {
+            return 4;
+        }
+
+        @Override
+        public String name(int i) {
+            return "x" + i;
+        }
+
+        @Override
+        public Object value(int i, int j) {
+            return j;
+        }
+
+        @Override
+        public double[] sampleAt(int[] x) {
+            return valueAt(x);
+        }
+
+        @Override
+        public double[] valueAt(int[] x) {
+            return Arrays.stream(x).asDoubleStream().toArray();
+        }
+    }
+
+    // Scores a point by its distance from {1, 2, 3}, with some noise, and takes a random time to do so
+    private static class DistanceEvaluator implements ConcurrentSolutionEvaluator {
+        final SearchSpace searchSpace = new GridSpace();
+        final List<String> evaluated = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger mostRunning = new AtomicInteger();
+        int nEvals;
+
+        @Override
+        public DoubleSupplier evaluation(int[] settings, int evaluation) {
+            nEvals++;
+            Random rnd = SplitMixRandom.stream(11, evaluation);
+            long delay = rnd.nextInt(3);
+            return () -> {
+                mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                running.decrementAndGet();
+                evaluated.add(evaluation + ":" + Arrays.toString(settings));
+                return 0.1 * rnd.nextDouble() - Math.abs(settings[0] - 1) - Math.abs(settings[1] - 2) - Math.abs(settings[2] - 3);
+            };
+        }
+
+        @Override
+        public double evaluate(int[] settings) {
+            return evaluation(settings, nEvals).getAsDouble();
+        }
+
+        @Override
+        public double evaluate(double[] settings) {
+            throw new AssertionError("Not used");
+        }
+
+        @Override
+        public void reset() {
+            nEvals = 0;
+        }
+
+        @Override
+        public SearchSpace searchSpace() {
+            return searchSpace;
+        }
+
+        @Override
+        public int nEvals() {
+            return nEvals;
+        }
+    }
+
+    private static NTupleSystem model(DistanceEvaluator evaluator) {
+        NTupleSystem retValue = new NTupleSystem(evaluator.searchSpace);
+        retValue.addTuples();
+        return retValue;
+    }
+
+    private static List<String> sortedEvaluations(DistanceEvaluator evaluator) {
+        List<String> retValue = new ArrayList<>(evaluator.evaluated);
+        retValue.sort(Comparator.comparingInt(s -> Integer.parseInt(s.substring(0, s.indexOf(':')))));
+        return retValue;
+    }
+
+    @Test
+    public void batchesGiveTheSameSearchWhateverTheNumberOfThreads() {
+        DistanceEvaluator oneThread = new DistanceEvaluator();
+        NTupleSystem oneThreadModel = model(oneThread);
+        double[] oneThreadBest = new ParallelNTBEA(oneThreadModel, 2.0, 50, 4, 2, 1, false, 7).runTrial(oneThread, 150);
+
+        DistanceEvaluator fourThreads = new DistanceEvaluator();
+        NTupleSystem fourThreadsModel = model(fourThreads);
+        double[] fourThreadsBest = new ParallelNTBEA(fourThreadsModel, 2.0, 50, 4, 2, 4, false, 7).runTrial(fourThreads, 150);
+
+        assertEquals(150, oneThread.nEvals());
+        assertEquals(150, fourThreads.evaluated.size());
+        assertTrue(fourThreads.mostRunning.get() > 1);
+        assertEquals(sortedEvaluations(oneThread), sortedEvaluations(fourThreads));
+        assertArrayEquals(oneThreadBest, fourThreadsBest, 0.0);
+        assertArrayEquals(new double[]{1, 2, 3}, oneThreadBest, 0.0);
+    }
+
+    @Test
+    public void steadyStateKeepsEveryThreadBusy() {
+        DistanceEvaluator evaluator = new DistanceEvaluator();
+        NTupleSystem model = model(evaluator);
+        double[] best = new ParallelNTBEA(model, 2.0, 50, 1, 1, 4, true, 3).runTrial(evaluator, 150);
+
+        assertEquals(150, evaluator.nEvals());
+        assertEquals(150, evaluator.evaluated.size());
+        assertTrue(evaluator.mostRunning.get() > 1);
+        assertEquals(3, best.length);
+        assertTrue(model.getMeanEstimate(new int[]{1, 2, 3}) > model.getMeanEstimate(new int[]{3, 0, 0}));
+    }
+
+    @Test
+    public void onlyConcurrentEvaluatorsAndPositiveSizesAreAccepted() {
+        NTupleSystem model = model(new DistanceEvaluator());
+        try {
+            new ParallelNTBEA(model, 2.0, 50, 0, 1, 1, false, 1);
+            fail("Expected a batch size of 0 to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new ParallelNTBEA(model, 2.0, 50, 1, 1, 0, false, 1);
+            fail("Expected no threads to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        SolutionEvaluator plain = new SolutionEvaluatorWrapper(new DistanceEvaluator());
+        try {
+            new ParallelNTBEA(model, 2.0, 50, 1, 1, 1, false, 1).runTrial(plain, 10);
+            fail("Expected a plain SolutionEvaluator to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    // Hides the ConcurrentSolutionEvaluator interface of the wrapped evaluator
+    private static class SolutionEvaluatorWrapper implements SolutionEvaluator {
+        private final SolutionEvaluator wrapped;
+
+        SolutionEvaluatorWrapper(SolutionEvaluator wrapped) {
+            this.wrapped = wrapped;
+        }
+
+        @Override
+        public void reset() {
+            wrapped.reset();
+        }
+
+        @Override
+        public double evaluate(double[] settings) {
+            return wrapped.evaluate(settings);
+        }
+
+        @Override
+        public double evaluate(int[] settings) {
+            return wrapped.evaluate(settings);
+        }
+
+        @Override
+        public SearchSpace searchSpace() {
+            return wrapped.searchSpace();
+        }
+
+        @Override
+        public int nEvals() {
+            return wrapped.nEvals();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package test.evaluation;
+
+import evaluation.SimulationServer;
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SimulationServerTests {
+
+    private SimulationServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new SimulationServer(0, 3);
+        server.preload(GameType.TicTacToe);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    private HttpURLConnection post(String job) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + "/jobs").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(job.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private List<JSONObject> lines(InputStream in) throws IOException, ParseException {
+        List<JSONObject> retValue = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null)
+                retValue.add((JSONObject) new JSONParser().parse(line));
+        }
+        return retValue;
+    }
+
+    @Test
+    public void resultsAreStreamedForEveryGame() throws IOException, ParseException {
+        HttpURLConnection connection = post("{\"game\": \"TicTacToe\", \"players\": [\"random\", \"osla\"], " +
+                "\"firstSeed\": 10, \"lastSeed\": 12, \"repetitions\": 2}");
+        assertEquals(200, connection.getResponseCode());
+        List<JSONObject> lines = lines(connection.getInputStream());
+        assertEquals(1 + 6 + 1, lines.size());
+
+        JSONObject header = lines.get(0);
+        assertEquals("TicTacToe", header.get("game"));
+        assertEquals(6L, header.get("games"));
+        assertEquals(2, ((JSONArray) header.get("players")).size());
+
+        Set<Long> indices = new HashSet<>();
+        Set<Long> seeds = new HashSet<>();
+        for (JSONObject result : lines.subList(1, 7)) {
+            assertNull(result.get("error"));
+            assertEquals(header.get("job"), result.get("job"));
+            indices.add((Long) result.get("index"));
+            seeds.add((Long) result.get("seed"));
+            JSONArray results = (JSONArray) result.get("results");
+            assertEquals(2, results.size());
+            assertTrue(results.contains("WIN") || results.contains("DRAW"));
+        }
+        assertEquals(new HashSet<>(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L)), indices);
+        // the first repetition of each seed is played with that seed, and the second with one derived from it
+        assertEquals(6, seeds.size());
+        assertTrue(seeds.containsAll(Arrays.asList(10L, 11L, 12L)));
+
+        JSONObject summary = lines.get(7);
+        assertEquals(true, summary.get("done"));
+        assertEquals(0L, summary.get("errors"));
+    }
+
+    @Test
+    public void gameParametersAndPlayerJSONAreUsed() throws IOException, ParseException {
+        HttpURLConnection connection = post("{\"game\": \"TicTacToe\", \"gameParams\": {\"gridSize\": 4}, " +
+                "\"players\": [{\"class\": \"players.simple.RandomPlayer\"}, \"random\"], \"seeds\": [5]}");
+        assertEquals(200, connection.getResponseCode());
+        List<JSONObject> lines = lines(connection.getInputStream());
+        assertEquals(3, lines.size());
+        assertNull(lines.get(1).get("error"));
+        // on a 4x4 board no one can win in fewer than 7 moves (on the default 3x3 board it can take 5)
+        assertTrue((Long) lines.get(1).get("ticks") >= 7);
+    }
+
+    @Test
+    public void badJobsAreRejected() throws IOException {
+        assertEquals(400, post("{\"game\": \"NoSuchGame\", \"players\": [\"random\", \"random\"]}").getResponseCode());
+        assertEquals(400, post("{\"game\": \"TicTacToe\", \"players\": [\"random\"]}").getResponseCode());
+        assertEquals(400, post("{\"game\": \"TicTacToe\", \"players\": [\"nobody\", \"random\"]}").getResponseCode());
+        assertEquals(400, post("not json").getResponseCode());
+    }
+
+    @Test
+    public void statusCountsGames() throws IOException, ParseException {
+        HttpURLConnection connection = post("{\"game\": \"TicTacToe\", \"players\": [\"random\", \"random\"], \"seeds\": [1, 2]}");
+        lines(connection.getInputStream());
+        HttpURLConnection status = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + "/status").openConnection();
+        JSONObject json = lines(status.getInputStream()).get(0);
+        assertEquals(2L, json.get("gamesPlayed"));
+        assertEquals(3L, json.get("threads"));
+    }
+}
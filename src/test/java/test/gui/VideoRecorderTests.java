@@ -0,0 +1,138 @@
+package test.gui;
+
+import gui.VideoRecorder;
+import org.junit.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class VideoRecorderTests {
+
+    // Records what it is given, optionally waiting for a latch before each frame
+    private static class RecordingSink implements VideoRecorder.FrameSink {
+        final List<Long> timestamps = new ArrayList<>();
+        final List<Integer> colours = new ArrayList<>();
+        final CountDownLatch release;
+        boolean finished;
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void encode(BufferedImage image, long timestamp) {
+            try {
+                if (release != null)
+                    release.await();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            timestamps.add(timestamp);
+            colours.add(image.getRGB(5, 5));
+        }
+
+        @Override
+        public void finish() {
+            finished = true;
+        }
+    }
+
+    private final JPanel panel = new JPanel();
+
+    public VideoRecorderTests() {
+        panel.setSize(20, 20);
+    }
+
+    @Test
+    public void unchangedFramesAreSkipped() {
+        RecordingSink sink = new RecordingSink(null);
+        VideoRecorder recorder = new VideoRecorder(20, 20, 4, sink);
+        panel.setBackground(Color.RED);
+        assertTrue(recorder.captureFrame(panel, 0));
+        assertFalse(recorder.captureFrame(panel, 1));
+        assertFalse(recorder.captureFrame(panel, 2));
+        panel.setBackground(Color.BLUE);
+        assertTrue(recorder.captureFrame(panel, 3));
+        recorder.close();
+
+        assertTrue(sink.finished);
+        assertEquals(4, recorder.getFramesCaptured());
+        assertEquals(2, recorder.getFramesUnchanged());
+        assertEquals(0, recorder.getFramesDropped());
+        assertEquals(2, recorder.getFramesEncoded());
+        assertEquals(Color.RED.getRGB(), (int) sink.colours.get(0));
+        assertEquals(Color.BLUE.getRGB(), (int) sink.colours.get(1));
+        assertEquals(3L, (long) sink.timestamps.get(1));
+    }
+
+    @Test
+    public void timestampsAlwaysIncrease() {
+        RecordingSink sink = new RecordingSink(null);
+        VideoRecorder recorder = new VideoRecorder(20, 20, 4, sink);
+        Color[] colours = {Color.RED, Color.GREEN, Color.BLUE};
+        for (Color c : colours) {
+            panel.setBackground(c);
+            // the same tick for every frame
+            recorder.captureFrame(panel, 5);
+        }
+        recorder.close();
+        assertEquals(3, sink.timestamps.size());
+        assertEquals(5L, (long) sink.timestamps.get(0));
+        assertEquals(6L, (long) sink.timestamps.get(1));
+        assertEquals(7L, (long) sink.timestamps.get(2));
+    }
+
+    @Test
+    public void framesAreDroppedRatherThanWaitingForTheEncoder() {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        int queueSize = 2;
+        VideoRecorder recorder = new VideoRecorder(20, 20, queueSize, sink);
+        // the encoder is stuck, so only as many frames as there are images can be taken
+        int frames = 10;
+        for (int i = 0; i < frames; i++) {
+            panel.setBackground(new Color(i * 20, 0, 0));
+            recorder.captureFrame(panel, i);
+        }
+        assertEquals(frames, recorder.getFramesCaptured());
+        assertEquals(frames - queueSize - 1, recorder.getFramesDropped());
+        assertTrue(recorder.getMaxQueued() <= queueSize + 1);
+
+        release.countDown();
+        recorder.close();
+        // all the frames that were not dropped are encoded, in order
+        assertEquals(queueSize + 1, recorder.getFramesEncoded());
+        assertEquals(queueSize + 1, sink.timestamps.size());
+        for (int i = 1; i < sink.timestamps.size(); i++)
+            assertTrue(sink.timestamps.get(i) > sink.timestamps.get(i - 1));
+        assertTrue(sink.finished);
+    }
+
+    @Test
+    public void encoderFailuresAreRethrown() {
+        VideoRecorder recorder = new VideoRecorder(20, 20, 2, new VideoRecorder.FrameSink() {
+            @Override
+            public void encode(BufferedImage image, long timestamp) {
+                throw new IllegalStateException("codec");
+            }
+
+            @Override
+            public void finish() {
+            }
+        });
+        panel.setBackground(Color.RED);
+        recorder.captureFrame(panel, 0);
+        try {
+            recorder.close();
+            fail("Expected the failure of the encoder");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package test.players.heuristics;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.IStateFeatureVector;
+import core.interfaces.IStateHeuristic;
+import games.GameType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import players.heuristics.*;
+import utilities.SplitMixRandom;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StateHeuristicBatchTests {
+
+    // Six features, so that the dot product has a remainder after groups of four
+    private static class TestFeatures implements IStateFeatureVector {
+        @Override
+        public double[] featureVector(AbstractGameState state, int playerID) {
+            return new double[]{state.getGameScore(playerID), state.getCurrentPlayer() == playerID ? 1.0 : 0.0,
+                    state.getTurnOrder().getRoundCounter(), state.getTurnOrder().getTurnCounter(),
+                    state.getHistory().size(), state.isNotTerminal() ? 0.0 : 1.0};
+        }
+
+        @Override
+        public String[] names() {
+            return new String[]{"SCORE", "OUR_TURN", "ROUND", "TURN", "HISTORY", "TERMINAL"};
+        }
+    }
+
+    private static final double[] coefficients = {0.3, 0.5, -0.2, 0.1, 0.05, -0.07, 0.4};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private String coefficientsFile;
+    private final List<AbstractGameState> states = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        File file = folder.newFile("coefficients.txt");
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("BIAS\tSCORE\tOUR_TURN\tROUND\tTURN\tHISTORY\tTERMINAL\n");
+            StringBuilder values = new StringBuilder();
+            for (double c : coefficients)
+                values.append(values.length() == 0 ? "" : "\t").append(c);
+            writer.write(values + "\n");
+        }
+        coefficientsFile = file.getPath();
+
+        // every state of a few random games of Tic-Tac-Toe, ending in wins, losses and draws
+        Random rnd = new SplitMixRandom(11);
+        for (int g = 0; g < 5; g++) {
+            Game game = GameType.TicTacToe.createGameInstance(2, g);
+            AbstractGameState state = game.getGameState();
+            AbstractForwardModel fm = game.getForwardModel();
+            states.add(state.copy());
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+                states.add(state.copy());
+            }
+        }
+    }
+
+    private static double linear(AbstractGameState state, int playerId) {
+        double[] phi = new TestFeatures().featureVector(state, playerId);
+        double retValue = coefficients[0];
+        for (int i = 0; i < phi.length; i++)
+            retValue += phi[i] * coefficients[i + 1];
+        return retValue;
+    }
+
+    private void assertBatchIsAsSingle(IStateHeuristic heuristic, int playerId) {
+        double[] results = new double[states.size() + 3];
+        heuristic.evaluateStates(states, playerId, results);
+        for (int i = 0; i < states.size(); i++)
+            assertEquals(heuristic.evaluateState(states.get(i), playerId), results[i], 0.0);
+        // and again, with the buffers already in use
+        heuristic.evaluateStates(states.subList(3, 7), playerId, results);
+        for (int i = 0; i < 4; i++)
+            assertEquals(heuristic.evaluateState(states.get(i + 3), playerId), results[i], 0.0);
+    }
+
+    @Test
+    public void linearHeuristicsGiveTheSameValuesInBatches() {
+        LinearStateHeuristic linear = new LinearStateHeuristic(new TestFeatures(), coefficientsFile, new LeaderHeuristic());
+        for (AbstractGameState state : states)
+            assertEquals(linear(state, 0), linear.evaluateState(state, 0), 1e-12);
+        for (int p = 0; p < 2; p++) {
+            assertBatchIsAsSingle(linear, p);
+            assertBatchIsAsSingle(new LinearStateWinHeuristic(new TestFeatures(), coefficientsFile, new LeaderHeuristic()), p);
+            assertBatchIsAsSingle(new LinearStateOrdHeuristic(new TestFeatures(), coefficientsFile, new LeaderHeuristic()), p);
+            assertBatchIsAsSingle(new LinearStateBonusHeuristic(new TestFeatures(), coefficientsFile, new LeaderHeuristic()), p);
+        }
+    }
+
+    @Test
+    public void logisticHeuristicsGiveTheSameValuesInBatches() {
+        LogisticStateHeuristic logistic = new LogisticStateHeuristic(new TestFeatures(), coefficientsFile, new LeaderHeuristic());
+        for (AbstractGameState state : states)
+            assertEquals(1.0 / (1.0 + Math.exp(-linear(state, 1))), logistic.evaluateState(state, 1), 1e-12);
+        for (int p = 0; p < 2; p++) {
+            assertBatchIsAsSingle(logistic, p);
+            assertBatchIsAsSingle(new LogisticStateWinHeuristic(new TestFeatures(), coefficientsFile, new LeaderHeuristic()), p);
+        }
+    }
+
+    @Test
+    public void withoutCoefficientsTheDefaultHeuristicIsUsed() {
+        LinearStateHeuristic linear = new LinearStateHeuristic(new TestFeatures(), "", new LeaderHeuristic());
+        double[] results = new double[states.size()];
+        linear.evaluateStates(states, 0, results);
+        for (int i = 0; i < states.size(); i++)
+            assertEquals(new LeaderHeuristic().evaluateState(states.get(i), 0), results[i], 0.0);
+        assertBatchIsAsSingle(new LogisticStateWinHeuristic(new TestFeatures(), "", new LeaderHeuristic()), 1);
+    }
+
+    @Test
+    public void featuresCanBeWrittenIntoALargerArray() {
+        double[] buffer = new double[20];
+        new TestFeatures().featureVector(states.get(4), 1, buffer, 7);
+        double[] expected = new TestFeatures().featureVector(states.get(4), 1);
+        for (int i = 0; i < 20; i++)
+            assertEquals(i >= 7 && i < 13 ? expected[i - 7] : 0.0, buffer[i], 0.0);
+    }
+}
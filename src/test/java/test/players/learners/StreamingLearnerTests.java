@@ -0,0 +1,181 @@
+package test.players.learners;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import players.learners.*;
+import utilities.SplitMixRandom;
+import weka.core.matrix.LinearRegression;
+import weka.core.matrix.Matrix;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class StreamingLearnerTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String name, String content) throws IOException {
+        File retValue = folder.newFile(name);
+        try (FileWriter writer = new FileWriter(retValue)) {
+            writer.write(content);
+        }
+        return retValue;
+    }
+
+    private static List<double[]> readAll(TSVDataReader reader, File file) {
+        List<double[]> retValue = new ArrayList<>();
+        reader.forEachRow(file.getPath(), row -> retValue.add(row.clone()));
+        return retValue;
+    }
+
+    // Numbers in the formats used by FileStatsLogger and ExpertIterationDataGatherer, and a few awkward ones
+    private static String[][] numbers() {
+        Random rnd = new SplitMixRandom(42);
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"0", "-0.0", "1e+05", "-2.50e-07", "NaN"});
+        rows.add(new String[]{"12345678901234567890", "0.1", "3.141592653589793", "-Infinity", "1E300"});
+        rows.add(new String[]{"+7", "007.5000", ".5", "5.", "4.9e-324"});
+        for (int i = 0; i < 200; i++) {
+            double d = (rnd.nextDouble() - 0.5) * Math.pow(10, rnd.nextInt(20) - 10);
+            rows.add(new String[]{String.format("%.3g", d), String.format("%.4g", d), Double.toString(d),
+                    String.valueOf(rnd.nextInt(1000) - 500), String.format("%.6f", d)});
+        }
+        return rows.toArray(new String[0][]);
+    }
+
+    @Test
+    public void rowsAreParsedExactlyAsDoubleParseDoubleWouldAcrossWindows() throws IOException {
+        String[][] numbers = numbers();
+        StringBuilder content = new StringBuilder("A\tB\tC\tD\tE\n");
+        for (int i = 0; i < numbers.length; i++)
+            content.append(String.join("\t", numbers[i])).append(i % 3 == 0 ? "\r\n" : "\n");
+        content.append("\n");  // a blank line at the end is ignored
+        File file = write("data.txt", content.toString());
+
+        // a window much shorter than the file, and one shorter than a line, which must be grown
+        for (int window : new int[]{7, 64, 1 << 20}) {
+            List<double[]> rows = readAll(new TSVDataReader(false, window), file);
+            assertEquals(numbers.length, rows.size());
+            for (int i = 0; i < numbers.length; i++)
+                for (int j = 0; j < 5; j++)
+                    assertEquals(numbers[i][j] + " with window " + window,
+                            Double.doubleToLongBits(Double.parseDouble(numbers[i][j])), Double.doubleToLongBits(rows.get(i)[j]));
+        }
+    }
+
+    @Test
+    public void theCacheIsReadWhileTheFileIsUnchanged() throws IOException {
+        File file = write("data.txt", "A\tB\n1.5\t2\n3\t-4.25\n");
+        File cache = new File(file.getPath() + TSVDataReader.CACHE_SUFFIX);
+        TSVDataReader reader = new TSVDataReader(true);
+
+        List<double[]> first = readAll(reader, file);
+        assertTrue(cache.exists());
+        assertEquals(24 + 2 * 2 * 8, cache.length());
+        List<double[]> second = readAll(reader, file);
+        assertEquals(2, second.size());
+        for (int i = 0; i < 2; i++)
+            assertArrayEquals(first.get(i), second.get(i), 0.0);
+
+        // if the cache were read, it would still have only two rows
+        try (FileWriter writer = new FileWriter(file, true)) {
+            writer.write("5\t6\n");
+        }
+        List<double[]> third = readAll(reader, file);
+        assertEquals(3, third.size());
+        assertArrayEquals(new double[]{5, 6}, third.get(2), 0.0);
+        assertEquals(24 + 3 * 2 * 8, cache.length());
+    }
+
+    @Test
+    public void rowsWithTheWrongNumberOfColumnsAreRejected() throws IOException {
+        File file = write("data.txt", "A\tB\n1\t2\n3\n");
+        try {
+            readAll(new TSVDataReader(false), file);
+            fail("Expected a short row to be rejected");
+        } catch (AssertionError e) {
+            // expected
+        }
+    }
+
+    // Records as written by a StateFeatureListener, with three features, a win that depends on them through the
+    // logistic function, and a score that depends on them linearly
+    private File learnerData(String name, int records, long seed) throws IOException {
+        Random rnd = new SplitMixRandom(seed);
+        StringBuilder content = new StringBuilder("GameID\tPlayer\tRound\tTurn\tCurrentScore\tF1\tF2\tF3\tPlayerCount\tTotalRounds\tWin\tOrdinal\tFinalScore\n");
+        for (int i = 0; i < records; i++) {
+            double f1 = rnd.nextGaussian(), f2 = rnd.nextGaussian(), f3 = rnd.nextInt(5);
+            double win = rnd.nextDouble() < 1.0 / (1.0 + Math.exp(-(0.5 + 1.5 * f1 - f2))) ? 1 : 0;
+            double score = 2.0 + 3.0 * f1 - 0.5 * f3 + 0.1 * rnd.nextGaussian();
+            content.append(Arrays.stream(new double[]{i / 10, i % 2, i % 10, i % 10, 0, f1, f2, f3, 2, 10, win, 2 - win, score})
+                    .mapToObj(d -> String.format("%.4g", d)).collect(Collectors.joining("\t"))).append("\n");
+        }
+        return write(name, content.toString());
+    }
+
+    private static double[] coefficients(File file) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals("BIAS\tF1\tF2\tF3", lines.get(0));
+        return Arrays.stream(lines.get(1).split("\t")).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    @Test
+    public void regressionFromStreamedDataIsThatOfTheWholeMatrix() throws IOException {
+        File first = learnerData("first.txt", 300, 1);
+        File second = learnerData("second.txt", 200, 2);
+        SimpleRegressionLearner learner = new SimpleRegressionLearner();
+        learner.setTarget(AbstractLearner.Target.SCORE);
+        learner.learnFrom(first.getPath(), second.getPath());
+        File learned = folder.newFile("learned.txt");
+        assertTrue(learner.writeToFile(learned.getPath()));
+
+        // as SimpleRegressionLearner did before, with all the data in one matrix
+        List<double[]> x = new ArrayList<>();
+        List<double[]> y = new ArrayList<>();
+        for (File file : new File[]{first, second}) {
+            for (double[] row : readAll(new TSVDataReader(false), file)) {
+                x.add(new double[]{1.0, row[5], row[6], row[7]});
+                y.add(new double[]{row[12]});
+            }
+        }
+        double[] expected = new LinearRegression(new Matrix(x.toArray(new double[0][])), new Matrix(y.toArray(new double[0][])), 0.1).getCoefficients();
+        double[] actual = coefficients(learned);
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(Double.parseDouble(String.format("%.4g", expected[i])), actual[i], 0.0);
+        assertEquals(3.0, actual[1], 0.05);
+    }
+
+    @Test
+    public void sgdLearnersFindTheCoefficientsOfTheData() throws IOException {
+        File data = learnerData("data.txt", 4000, 3);
+
+        SGDLinearLearner linear = new SGDLinearLearner(10, 32, 0.5);
+        linear.setTarget(AbstractLearner.Target.SCORE);
+        linear.setCacheData(true);
+        linear.learnFrom(data.getPath());
+        assertTrue(new File(data.getPath() + TSVDataReader.CACHE_SUFFIX).exists());
+        File linearFile = folder.newFile("linear.txt");
+        assertTrue(linear.writeToFile(linearFile.getPath()));
+        assertArrayEquals(new double[]{2.0, 3.0, 0.0, -0.5}, coefficients(linearFile), 0.1);
+
+        SGDLogisticLearner logistic = new SGDLogisticLearner(10, 32, 0.5);
+        logistic.learnFrom(data.getPath());
+        File logisticFile = folder.newFile("logistic.txt");
+        assertTrue(logistic.writeToFile(logisticFile.getPath()));
+        assertArrayEquals(new double[]{0.5, 1.5, -1.0, 0.0}, coefficients(logisticFile), 0.25);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sgdSettingsMustBePositive() {
+        new SGDLogisticLearner(10, 0, 0.1);
+    }
+}
@@ -0,0 +1,123 @@
+package test.players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import utilities.SummaryLogger;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CompactTreeTests {
+
+    MCTSParams params;
+    boolean competitionMode;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams(9332);
+        params.compactTree = true;
+        params.maxTreeDepth = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 500;
+    }
+
+    // Plays a game between MCTS players with the same parameters, checking that each action chosen is available
+    private SummaryLogger[] play(GameType gameType, int nPlayers, long seed) {
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        AbstractGameState state = game.getGameState();
+        state.getCoreGameParameters().competitionMode = competitionMode;
+        AbstractForwardModel fm = game.getForwardModel();
+        TestMCTSPlayer[] players = new TestMCTSPlayer[nPlayers];
+        SummaryLogger[] loggers = new SummaryLogger[nPlayers];
+        for (int p = 0; p < nPlayers; p++) {
+            players[p] = new TestMCTSPlayer(params);
+            players[p].setForwardModel(fm.copy());
+            loggers[p] = new SummaryLogger();
+            loggers[p].printToConsole = false;
+            players[p].setStatsLogger(loggers[p]);
+            players[p].initializePlayer(state.copy(p));
+        }
+        for (int i = 0; i < 60 && state.isNotTerminal(); i++) {
+            int p = state.getCurrentPlayer();
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            AbstractAction chosen = players[p].getAction(state.copy(p), actions);
+            assertTrue(chosen.toString(), actions.contains(chosen));
+            // the search was not done with SingleTreeNode
+            assertNull(players[p].getRoot(p));
+            fm.next(state, chosen);
+        }
+        return loggers;
+    }
+
+    @Test
+    public void budgetIsUsed() {
+        SummaryLogger logger = play(GameType.TicTacToe, 2, 1)[0];
+        assertEquals(500, logger.summary().get("iterations").mean(), 1e-6);
+        assertTrue(logger.summary().get("totalNodes").min() > 1);
+        assertEquals(0, logger.summary().get("recycledNodes").max(), 1e-6);
+        assertEquals(0, logger.summary().get("reusedVisits").max(), 1e-6);
+    }
+
+    @Test
+    public void treeIsNoLargerThanTheCap() {
+        params.maxTreeNodes = 40;
+        params.budget = 2000;
+        SummaryLogger logger = play(GameType.Connect4, 2, 1)[0];
+        assertEquals(40, logger.summary().get("totalNodes").max(), 1e-6);
+        assertTrue(logger.summary().get("recycledNodes").max() > 0);
+    }
+
+    @Test
+    public void reuseCarriesVisitsOver() {
+        params.reuseTree = true;
+        for (MCTSEnums.OpponentTreePolicy policy : new MCTSEnums.OpponentTreePolicy[]{
+                MCTSEnums.OpponentTreePolicy.Paranoid, MCTSEnums.OpponentTreePolicy.SelfOnly}) {
+            params.opponentTreePolicy = policy;
+            SummaryLogger logger = play(GameType.Connect4, 2, 2)[0];
+            // the first decision has no tree to reuse
+            assertEquals(0, logger.summary().get("reusedVisits").min(), 1e-6);
+            assertTrue(policy.toString(), logger.summary().get("reusedVisits").max() > 0);
+        }
+    }
+
+    @Test
+    public void reuseInCompetitionMode() {
+        // with no history, the tree can only be descended by the action the player chose
+        competitionMode = true;
+        params.reuseTree = true;
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.SelfOnly;
+        assertTrue(play(GameType.Connect4, 2, 2)[0].summary().get("reusedVisits").max() > 0);
+    }
+
+    @Test
+    public void playsGamesWithMorePlayers() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MaxN;
+        params.information = MCTSEnums.Information.Information_Set;
+        params.reuseTree = true;
+        params.maxTreeNodes = 100;
+        params.budget = 200;
+        play(GameType.Diamant, 4, 3);
+        play(GameType.CantStop, 3, 3);
+    }
+
+    @Test
+    public void unsupportedOptionsUseSingleTreeNode() {
+        params.information = MCTSEnums.Information.Closed_Loop;
+        Game game = GameType.TicTacToe.createGameInstance(2, 1);
+        AbstractGameState state = game.getGameState();
+        TestMCTSPlayer player = new TestMCTSPlayer(params);
+        player.setForwardModel(game.getForwardModel());
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(state);
+        assertTrue(actions.contains(player.getAction(state, actions)));
+        assertEquals(500, player.getRoot(0).getVisits());
+    }
+}
@@ -0,0 +1,147 @@
+package test.players.mcts;
+
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MASTPlayer;
+import players.mcts.MASTStatistics;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import utilities.Pair;
+import utilities.SplitMixRandom;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MASTStatisticsTests {
+
+    private static class Move extends AbstractAction {
+        final int n;
+
+        Move(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public boolean execute(AbstractGameState gs) {
+            return true;
+        }
+
+        @Override
+        public Move copy() {
+            return new Move(n);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Move && ((Move) obj).n == n;
+        }
+
+        @Override
+        public int hashCode() {
+            return n;
+        }
+
+        @Override
+        public String getString(AbstractGameState gameState) {
+            return "Move " + n;
+        }
+    }
+
+    @Test
+    public void visitsAndValuesAreAddedUpForEachPlayer() {
+        MASTStatistics stats = new MASTStatistics(2);
+        for (int i = 0; i < 100; i++)
+            stats.update(i % 2, new Move(i % 7), i);
+
+        assertEquals(7, stats.size(0));
+        assertEquals(7, stats.size(1));
+        // player 0 has moved Move 0 at i = 0, 14, 28, ... 98
+        assertEquals(8, stats.visits(0, new Move(0)));
+        assertEquals(14 * 28, stats.totalValue(0, new Move(0)), 1e-9);
+        assertEquals(49.0, stats.meanValue(0, new Move(0), 0.0, -1.0), 1e-9);
+        assertEquals(14 * 28 / 9.0, stats.meanValue(0, new Move(0), 1.0, -1.0), 1e-9);
+
+        assertEquals(0, stats.visits(0, new Move(7)));
+        assertEquals(0.0, stats.totalValue(0, new Move(7)), 0.0);
+        assertEquals(-1.0, stats.meanValue(0, new Move(7), 0.0, -1.0), 0.0);
+    }
+
+    @Test
+    public void decayIsAsForPairs() {
+        MASTStatistics stats = new MASTStatistics(1);
+        for (int i = 0; i < 30; i++)
+            stats.update(0, new Move(i % 4), i * 0.1);
+        for (double gamma : new double[]{0.9, 0.5, 1.0, 0.3, 0.0}) {
+            List<Pair<Integer, Double>> expected = new ArrayList<>();
+            for (int m = 0; m < 4; m++)
+                expected.add(Utils.decay(new Pair<>(stats.visits(0, new Move(m)), stats.totalValue(0, new Move(m))), gamma));
+            stats.decay(gamma);
+            for (int m = 0; m < 4; m++) {
+                assertEquals((int) expected.get(m).a, stats.visits(0, new Move(m)));
+                assertEquals(expected.get(m).b, stats.totalValue(0, new Move(m)), 1e-9);
+            }
+        }
+        // once decayed away, an action seen before has a value of 0, rather than that of an unknown action
+        assertEquals(0.0, stats.meanValue(0, new Move(1), 0.0, 10.0), 0.0);
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        MASTStatistics stats = new MASTStatistics(1);
+        stats.update(0, new Move(1), 1.0);
+        MASTStatistics copy = stats.copy();
+        copy.update(0, new Move(1), 1.0);
+        copy.update(0, new Move(2), 1.0);
+        stats.decay(0.0);
+
+        assertEquals(0, stats.visits(0, new Move(1)));
+        assertEquals(1, stats.size(0));
+        assertEquals(2, copy.visits(0, new Move(1)));
+        assertEquals(1, copy.visits(0, new Move(2)));
+    }
+
+    @Test
+    public void theRolloutPolicyFavoursTheBestActions() {
+        MASTStatistics stats = new MASTStatistics(2);
+        for (int i = 0; i < 20; i++) {
+            stats.update(0, new Move(0), 0.0);
+            stats.update(0, new Move(1), 1.0);
+            stats.update(0, new Move(2), 0.2);
+        }
+        MASTPlayer player = new MASTPlayer(new SplitMixRandom(3));
+        player.setStats(stats);
+        Game game = GameType.TicTacToe.createGameInstance(2, 1);
+        List<AbstractAction> actions = Arrays.asList(new Move(0), new Move(1), new Move(2));
+        int[] counts = new int[3];
+        for (int i = 0; i < 1000; i++)
+            counts[((Move) player.getAction(game.getGameState(), actions)).n]++;
+
+        // with a temperature of 0.1, Move 1 is e^8 times as likely as Move 2
+        assertTrue(counts[1] > 990);
+        assertEquals(1000, counts[0] + counts[1] + counts[2]);
+    }
+
+    @Test
+    public void mctsWithMASTRolloutsPlaysAGame() {
+        MCTSParams params = new MCTSParams(42);
+        params.setParameterValue("rolloutType", MCTSEnums.Strategies.MAST);
+        params.setParameterValue("rolloutLength", 10);
+        params.setParameterValue("MASTGamma", 0.5);
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        assertTrue(params.useMAST);
+        Game game = GameType.TicTacToe.createGameInstance(2, 7);
+        game.reset(Arrays.asList(new MCTSPlayer(params), new MCTSPlayer((MCTSParams) params.copy())));
+        game.run();
+        assertFalse(game.getGameState().isNotTerminal());
+    }
+}
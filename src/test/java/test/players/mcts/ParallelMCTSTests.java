@@ -0,0 +1,123 @@
+package test.players.mcts;
+
+import core.AbstractForwardModel;
+import core.actions.AbstractAction;
+import games.tictactoe.TicTacToeForwardModel;
+import games.tictactoe.TicTacToeGame;
+import games.tictactoe.TicTacToeGameParameters;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.SingleTreeNode;
+import utilities.SummaryLogger;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+public class ParallelMCTSTests {
+
+    TicTacToeGame game;
+    TicTacToeGameState state;
+    AbstractForwardModel fm;
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        game = new TicTacToeGame(new TicTacToeGameParameters(3));
+        state = (TicTacToeGameState) game.getGameState();
+        fm = game.getForwardModel();
+        params = new MCTSParams(9332);
+        params.threads = 4;
+        params.maxTreeDepth = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 1000;
+    }
+
+    private TestMCTSPlayer search(SummaryLogger logger) {
+        TestMCTSPlayer player = new TestMCTSPlayer(params);
+        player.setForwardModel(new TicTacToeForwardModel());
+        if (logger != null)
+            player.setStatsLogger(logger);
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        AbstractAction chosen = player.getAction(state, actions);
+        assertTrue(actions.contains(chosen));
+        player.finalizePlayer(state);
+        return player;
+    }
+
+    private int childVisits(SingleTreeNode root) {
+        return root.getChildren().values().stream()
+                .filter(Objects::nonNull)
+                .flatMap(Arrays::stream)
+                .filter(Objects::nonNull)
+                .mapToInt(SingleTreeNode::getVisits).sum();
+    }
+
+    private void checkBudget(SingleTreeNode root) {
+        // each thread may finish the iteration it is on after the budget is used up by another
+        assertTrue(root.getVisits() >= params.budget);
+        assertTrue(root.getVisits() < params.budget + params.threads);
+        assertEquals(root.getVisits(), childVisits(root));
+    }
+
+    @Test
+    public void rootParallelMergesTrees() {
+        params.parallelisation = MCTSEnums.Parallelisation.Root;
+        checkBudget(search(null).getRoot(0));
+    }
+
+    @Test
+    public void treeParallelRemovesVirtualLoss() {
+        params.parallelisation = MCTSEnums.Parallelisation.Tree;
+        SingleTreeNode root = search(null).getRoot(0);
+        checkBudget(root);
+        // every iteration passes through one child of the root, so once the virtual loss (which is never applied to
+        // the root itself) has all been removed, the values of the children add up to that of the root
+        for (int player = 0; player < 2; player++) {
+            int p = player;
+            double childValue = root.getChildren().values().stream()
+                    .filter(Objects::nonNull)
+                    .flatMap(Arrays::stream)
+                    .filter(Objects::nonNull)
+                    .mapToDouble(n -> n.getTotValue()[p]).sum();
+            assertEquals(root.getTotValue()[player], childValue, 1e-6);
+        }
+    }
+
+    @Test
+    public void timeBudgetIsSharedByAllThreads() {
+        params.parallelisation = MCTSEnums.Parallelisation.Tree;
+        params.budgetType = PlayerConstants.BUDGET_TIME;
+        params.budget = 200;
+        long start = System.currentTimeMillis();
+        SingleTreeNode root = search(null).getRoot(0);
+        // the threads stop together at the end of the budget, so the search takes it only once (with some slack)
+        assertTrue(System.currentTimeMillis() - start < 2 * params.budget);
+        assertTrue(root.getVisits() > 0);
+        assertEquals(root.getVisits(), childVisits(root));
+    }
+
+    @Test
+    public void treeParallelFallsBackToRoot() {
+        params.parallelisation = MCTSEnums.Parallelisation.Tree;
+        params.information = MCTSEnums.Information.Closed_Loop;
+        checkBudget(search(null).getRoot(0));
+    }
+
+    @Test
+    public void threadStatisticsAreLogged() {
+        params.parallelisation = MCTSEnums.Parallelisation.Tree;
+        SummaryLogger logger = new SummaryLogger();
+        logger.printToConsole = false;
+        search(logger);
+        assertEquals(4, (int) logger.summary().get("threads").mean());
+        assertTrue(logger.summary().get("maxThreadIterations").mean() > 0);
+        assertTrue(logger.summary().get("meanThreadItersPerSecond").mean() > 0);
+    }
+}
@@ -21,6 +21,10 @@ public class TestMCTSPlayer extends MCTSPlayer {
         this.debug = debug;
     }
 
+    public Random getRnd() {
+        return rnd;
+    }
+
     public SingleTreeNode getRoot(int player) {
         if (root instanceof MultiTreeNode)
             return ((MultiTreeNode) root).getRoot(player);
@@ -0,0 +1,215 @@
+package test.players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import core.components.Card;
+import core.components.Deck;
+import core.components.PartialObservableDeck;
+import games.tictactoe.TicTacToeConstants;
+import games.tictactoe.TicTacToeForwardModel;
+import games.tictactoe.TicTacToeGame;
+import games.tictactoe.TicTacToeGameParameters;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.SingleTreeNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
+import static org.junit.Assert.*;
+
+public class TranspositionTests {
+
+    TicTacToeGame game;
+    TicTacToeGameState state;
+    AbstractForwardModel fm;
+
+    @Before
+    public void setup() {
+        game = new TicTacToeGame(new TicTacToeGameParameters(3));
+        state = (TicTacToeGameState) game.getGameState();
+        fm = game.getForwardModel();
+    }
+
+    private void play(AbstractGameState gs, int x, int y) {
+        int board = ((TicTacToeGameState) gs).getGridBoard().getComponentID();
+        fm.next(gs, new SetGridValueAction<>(board, x, y, TicTacToeConstants.playerMapping.get(gs.getCurrentPlayer())));
+    }
+
+    @Test
+    public void transpositionsHaveTheSameHash() {
+        AbstractGameState first = state.copy();
+        AbstractGameState second = state.copy();
+        assertEquals(state.getZobristHash(), first.getZobristHash());
+
+        play(first, 0, 0);
+        play(first, 1, 1);
+        play(first, 2, 2);
+        play(second, 2, 2);
+        play(second, 1, 1);
+        play(second, 0, 0);
+        assertEquals(first.getZobristHash(), second.getZobristHash());
+        assertNotEquals(state.getZobristHash(), first.getZobristHash());
+
+        // same cells, but different players
+        AbstractGameState third = state.copy();
+        play(third, 1, 1);
+        play(third, 0, 0);
+        play(third, 2, 2);
+        assertNotEquals(first.getZobristHash(), third.getZobristHash());
+    }
+
+    @Test
+    public void deckHashIsMaintained() {
+        Deck<Card> deck = new Deck<>("Test", VISIBLE_TO_ALL);
+        deck.setOrderMatters(false);
+        long emptyHash = deck.getZobristHash();
+        Card a = new Card("A");
+        Card b = new Card("B");
+        deck.add(a);
+        deck.add(b);
+        long fullHash = deck.getZobristHash();
+        assertNotEquals(emptyHash, fullHash);
+
+        deck.shuffle(new Random(3));
+        assertEquals(fullHash, deck.getZobristHash());
+        assertEquals(fullHash, deck.copy().getZobristHash());
+
+        deck.remove(a);
+        deck.draw();
+        assertEquals(emptyHash, deck.getZobristHash());
+
+        // changes made directly to the list are picked up too
+        deck.getComponents().add(b);
+        deck.getComponents().add(a);
+        assertEquals(fullHash, deck.getZobristHash());
+    }
+
+    @Test
+    public void deckOrderIsPartOfTheHashUnlessItDoesNotMatter() {
+        Card a = new Card("A");
+        Card b = new Card("B");
+        // the same cards, in different orders
+        Deck<Card> first = new Deck<>("Test", VISIBLE_TO_ALL);
+        first.add(a);
+        first.add(b);
+        Deck<Card> second = new Deck<>("Test", VISIBLE_TO_ALL);
+        second.add(b);
+        second.add(a);
+        assertNotEquals(first.getZobristHash(), second.getZobristHash());
+        assertEquals(first.getZobristHash(), first.copy().getZobristHash());
+
+        // and after a change to the order, the hash is worked out again
+        second.remove(a);
+        second.add(a, 1);
+        assertEquals(first.getZobristHash(), second.getZobristHash());
+        second.shuffle(0, 2, new Random(1));
+        second.setComponent(0, a);
+        second.setComponent(1, b);
+        assertNotEquals(first.getZobristHash(), second.getZobristHash());
+
+        first.setOrderMatters(false);
+        second.setOrderMatters(false);
+        assertEquals(first.getZobristHash(), second.getZobristHash());
+    }
+
+    // The hash of a deck with these cards, worked out from scratch
+    private static long fullHash(List<Card> cards) {
+        Deck<Card> deck = new Deck<>("Test", VISIBLE_TO_ALL);
+        deck.setComponents(new ArrayList<>(cards));
+        return deck.getZobristHash();
+    }
+
+    @Test
+    public void orderedDeckHashIsMaintainedAsCardsAreAddedAndRemoved() {
+        Random rnd = new Random(7);
+        Card[] cards = new Card[10];
+        for (int i = 0; i < cards.length; i++)
+            cards[i] = new Card("C" + i);
+        for (Deck<Card> deck : Arrays.asList(new Deck<Card>("Test", VISIBLE_TO_ALL), new PartialObservableDeck<Card>("Test", 2))) {
+            for (int i = 0; i < 500; i++) {
+                // cards may be in the deck more than once
+                Card card = cards[rnd.nextInt(cards.length)];
+                int size = deck.getSize();
+                switch (rnd.nextInt(8)) {
+                    case 0:
+                    case 1:
+                        deck.add(card);
+                        break;
+                    case 2:
+                        deck.add(card, rnd.nextInt(size + 1));
+                        break;
+                    case 3:
+                        deck.draw();
+                        break;
+                    case 4:
+                        if (size > 0)
+                            deck.remove(rnd.nextInt(size));
+                        break;
+                    case 5:
+                        if (size > 0)
+                            deck.setComponent(rnd.nextInt(size), card);
+                        break;
+                    case 6:
+                        // (PartialObservableDeck has no visibility for components added this way)
+                        if (!(deck instanceof PartialObservableDeck))
+                            deck.add(Arrays.asList(cards[0], cards[1]), rnd.nextInt(size + 1));
+                        break;
+                    default:
+                        if (rnd.nextInt(10) == 0)
+                            deck.shuffle(rnd);
+                        else if (size > 0)
+                            deck.pickLast();
+                }
+                List<Card> contents = new ArrayList<>();
+                deck.stream().forEach(contents::add);
+                assertEquals("after step " + i, fullHash(contents), deck.getZobristHash());
+                assertEquals(deck.getZobristHash(), deck.copy().getZobristHash());
+            }
+        }
+    }
+
+    @Test
+    public void transpositionTreeSharesNodes() {
+        MCTSParams params = new MCTSParams(9332);
+        params.information = MCTSEnums.Information.Transposition;
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MaxN;
+        params.maxTreeDepth = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 1000;
+        TestMCTSPlayer player = new TestMCTSPlayer(params);
+        player.setForwardModel(new TicTacToeForwardModel());
+
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        player.getAction(state, actions);
+        SingleTreeNode root = player.getRoot(0);
+
+        assertEquals(1000, root.getVisits());
+        List<SingleTreeNode> nodes = root.allNodesInTree();
+        long links = nodes.stream()
+                .flatMap(n -> n.getChildren().values().stream())
+                .filter(Objects::nonNull)
+                .flatMap(Arrays::stream)
+                .filter(Objects::nonNull)
+                .count();
+        // without transpositions every node other than the root has exactly one parent
+        assertTrue(links > nodes.size() - 1);
+        // nodes at depth 1 can only be reached from the root, so every iteration passes through exactly one of them
+        int childVisits = root.getChildren().values().stream()
+                .filter(Objects::nonNull)
+                .flatMap(Arrays::stream)
+                .filter(Objects::nonNull)
+                .mapToInt(SingleTreeNode::getVisits).sum();
+        assertEquals(1000, childVisits);
+    }
+}
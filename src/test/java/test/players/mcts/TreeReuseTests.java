@@ -0,0 +1,137 @@
+package test.players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.SingleTreeNode;
+import utilities.SummaryLogger;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TreeReuseTests {
+
+    MCTSParams params;
+    boolean competitionMode;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams(9332);
+        params.reuseTree = true;
+        params.maxTreeDepth = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 300;
+    }
+
+    // Plays a game between MCTS players with the same parameters, and returns the statistics of the first player
+    private SummaryLogger play(GameType gameType, int nPlayers, long seed) {
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        AbstractGameState state = game.getGameState();
+        state.getCoreGameParameters().competitionMode = competitionMode;
+        AbstractForwardModel fm = game.getForwardModel();
+        TestMCTSPlayer[] players = new TestMCTSPlayer[nPlayers];
+        SummaryLogger[] loggers = new SummaryLogger[nPlayers];
+        for (int p = 0; p < nPlayers; p++) {
+            players[p] = new TestMCTSPlayer(params);
+            players[p].setForwardModel(fm.copy());
+            loggers[p] = new SummaryLogger();
+            loggers[p].printToConsole = false;
+            players[p].setStatsLogger(loggers[p]);
+            players[p].initializePlayer(state.copy(p));
+        }
+        for (int i = 0; i < 60 && state.isNotTerminal(); i++) {
+            int p = state.getCurrentPlayer();
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            AbstractAction chosen = players[p].getAction(state.copy(p), actions);
+            assertTrue(chosen.toString(), actions.contains(chosen));
+
+            SingleTreeNode root = players[p].getRoot(p);
+            assertNull(root.getParent());
+            assertEquals(0, root.getDepth());
+            for (AbstractAction action : root.getChildren().keySet())
+                assertTrue(action.toString(), actions.contains(action));
+            if (params.opponentTreePolicy != MCTSEnums.OpponentTreePolicy.MultiTree) {
+                // every iteration visits the root once
+                double reused = loggers[p].summary().get("reusedVisits").getLastAdded();
+                assertEquals(params.budget + reused, root.getVisits(), 1e-6);
+            }
+            fm.next(state, chosen);
+        }
+        return loggers[0];
+    }
+
+    private void checkReuse(GameType gameType, int nPlayers) {
+        SummaryLogger logger = play(gameType, nPlayers, 1);
+        // the first decision has no tree to reuse
+        assertEquals(0, logger.summary().get("reusedVisits").min(), 1e-6);
+        assertTrue(logger.summary().get("reusedVisits").max() > 0);
+    }
+
+    @Test
+    public void openLoop() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MaxN;
+        checkReuse(GameType.Connect4, 2);
+        checkReuse(GameType.CantStop, 3);
+    }
+
+    @Test
+    public void selfOnly() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.SelfOnly;
+        checkReuse(GameType.Connect4, 2);
+        checkReuse(GameType.Diamant, 3);
+    }
+
+    @Test
+    public void multiTree() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MultiTree;
+        checkReuse(GameType.Connect4, 2);
+        checkReuse(GameType.CantStop, 3);
+    }
+
+    @Test
+    public void closedLoop() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.Paranoid;
+        params.information = MCTSEnums.Information.Closed_Loop;
+        checkReuse(GameType.TicTacToe, 2);
+    }
+
+    @Test
+    public void transpositions() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.Paranoid;
+        params.information = MCTSEnums.Information.Transposition;
+        checkReuse(GameType.Connect4, 2);
+    }
+
+    @Test
+    public void competitionMode() {
+        // players are given no history in competition mode, so a tree of their own decisions can be descended by the
+        // action they chose, and others only through transpositions
+        competitionMode = true;
+        Game game = GameType.Connect4.createGameInstance(2, 1);
+        game.getGameState().getCoreGameParameters().competitionMode = true;
+        game.getForwardModel().next(game.getGameState(), game.getForwardModel().computeAvailableActions(game.getGameState()).get(0));
+        assertEquals(0, game.getGameState().copy(1).getHistorySize());
+
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.SelfOnly;
+        checkReuse(GameType.Connect4, 2);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MultiTree;
+        checkReuse(GameType.CantStop, 3);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.Paranoid;
+        params.information = MCTSEnums.Information.Transposition;
+        checkReuse(GameType.Connect4, 2);
+    }
+
+    @Test
+    public void noReuseByDefault() {
+        params.reuseTree = false;
+        assertEquals(0, play(GameType.Connect4, 2, 1).summary().get("reusedVisits").max(), 1e-6);
+    }
+}
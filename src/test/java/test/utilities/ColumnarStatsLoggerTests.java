@@ -0,0 +1,114 @@
+package test.utilities;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import utilities.ColumnarStatsLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ColumnarStatsLoggerTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Map<String, Object>> readAll(String file) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        ColumnarStatsLogger.read(file, rows::add);
+        return rows;
+    }
+
+    private static Map<String, Object> row(Object... keysAndValues) {
+        Map<String, Object> retValue = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2)
+            retValue.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        return retValue;
+    }
+
+    @Test
+    public void rowsAreReadBack() throws IOException {
+        String file = folder.newFile().getPath();
+        ColumnarStatsLogger logger = new ColumnarStatsLogger(file, false, 3);
+        logger.record(row("turn", 1, "score", 0.5, "player", "MCTS"));
+        logger.record(row("turn", 2, "score", 1.5));
+        logger.record(row("turn", 3L, "player", "Random", "extra", true));
+        // in a new batch, the scores become integers and the turns text
+        logger.record(row("turn", "last", "score", 2));
+        logger.record("single", 7.0);
+        logger.processDataAndFinish();
+
+        List<Map<String, Object>> expected = Arrays.asList(
+                row("turn", 1L, "score", 0.5, "player", "MCTS"),
+                row("turn", 2L, "score", 1.5),
+                row("turn", 3L, "player", "Random", "extra", "true"),
+                row("turn", "last", "score", 2L),
+                row("single", 7.0));
+        assertEquals(expected, readAll(file));
+    }
+
+    @Test
+    public void typesChangeWithinABatch() throws IOException {
+        String file = folder.newFile().getPath();
+        ColumnarStatsLogger logger = new ColumnarStatsLogger(file, false, 100);
+        logger.record(row("a", 1, "b", 1));
+        logger.record(row("a", 2.5, "b", 2));
+        logger.record(row("b", "three"));
+        logger.processDataAndFinish();
+
+        List<Map<String, Object>> expected = Arrays.asList(
+                row("a", 1.0, "b", "1"),
+                row("a", 2.5, "b", "2"),
+                row("b", "three"));
+        assertEquals(expected, readAll(file));
+    }
+
+    @Test
+    public void threadsDoNotInterleave() throws Exception {
+        String file = folder.newFile().getPath();
+        ColumnarStatsLogger logger = new ColumnarStatsLogger(file, false, 64);
+        int nThreads = 4, nRows = 1000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < nThreads; t++) {
+            long id = t;
+            threads.add(new Thread(() -> {
+                for (long i = 0; i < nRows; i++)
+                    logger.record(row("thread", id, "row", i, "check", id * 10000 + i, "name", "t" + id));
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads)
+            t.join();
+        logger.processDataAndFinish();
+
+        List<Map<String, Object>> rows = readAll(file);
+        assertEquals(nThreads * nRows, rows.size());
+        long[] next = new long[nThreads];
+        for (Map<String, Object> r : rows) {
+            int t = (int) (long) (Long) r.get("thread");
+            assertEquals(next[t], r.get("row"));
+            assertEquals(t * 10000 + next[t], r.get("check"));
+            assertEquals("t" + t, r.get("name"));
+            next[t]++;
+        }
+    }
+
+    @Test
+    public void appendsAndExportsToCSV() throws IOException {
+        String file = folder.newFile().getPath();
+        ColumnarStatsLogger logger = new ColumnarStatsLogger(file, false, 10);
+        logger.record(row("a", 1, "b", "x,y"));
+        logger.processDataAndFinish();
+        logger = new ColumnarStatsLogger(file);
+        logger.record(row("c", 0.25, "a", 2));
+        logger.processDataAndFinish();
+        assertEquals(2, readAll(file).size());
+
+        String csv = folder.newFile().getPath();
+        ColumnarStatsLogger.toCSV(file, csv, ",");
+        assertEquals(Arrays.asList("a,b,c", "1,\"x,y\",", "2,,0.25"), Files.readAllLines(new java.io.File(csv).toPath()));
+    }
+}
@@ -0,0 +1,82 @@
+package test.utilities;
+
+import org.junit.Test;
+import utilities.SplitMixRandom;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SplitMixRandomTests {
+
+    private static long[] numbers(Random rnd, int n) {
+        long[] retValue = new long[n];
+        for (int i = 0; i < n; i++)
+            retValue[i] = rnd.nextLong();
+        return retValue;
+    }
+
+    @Test
+    public void theSameSeedGivesTheSameNumbers() {
+        assertArrayEquals(numbers(new SplitMixRandom(42), 100), numbers(new SplitMixRandom(42), 100));
+        assertFalse(numbers(new SplitMixRandom(42), 1)[0] == numbers(new SplitMixRandom(43), 1)[0]);
+
+        // setSeed() starts again, as with Random
+        Random rnd = new SplitMixRandom(42);
+        long[] first = numbers(rnd, 10);
+        rnd.setSeed(42);
+        assertArrayEquals(first, numbers(rnd, 10));
+    }
+
+    @Test
+    public void streamsDependOnlyOnTheirIds() {
+        // created in different orders, and with other streams in between
+        Random a = SplitMixRandom.stream(7, 3, 1);
+        SplitMixRandom.stream(7, 3, 0).nextLong();
+        Random b = SplitMixRandom.stream(7, 3, 2);
+        long[] fromA = numbers(a, 20), fromB = numbers(b, 20);
+        assertArrayEquals(fromB, numbers(SplitMixRandom.stream(7, 3, 2), 20));
+        assertArrayEquals(fromA, numbers(SplitMixRandom.stream(7, 3, 1), 20));
+
+        // the master seed and every ID matter
+        long first = fromA[0];
+        assertNotEquals(first, SplitMixRandom.stream(8, 3, 1).nextLong());
+        assertNotEquals(first, SplitMixRandom.stream(7, 1, 3).nextLong());
+        assertNotEquals(first, SplitMixRandom.stream(7, 3).nextLong());
+    }
+
+    @Test
+    public void splitsAreReproducibleAndIndependent() {
+        SplitMixRandom parent = new SplitMixRandom(99);
+        SplitMixRandom child = parent.split();
+        SplitMixRandom again = new SplitMixRandom(99).split();
+        assertArrayEquals(numbers(child, 50), numbers(again, 50));
+        assertNotEquals(numbers(parent, 1)[0], numbers(parent.split(), 1)[0]);
+
+        // any other Random is split by seeding a new generator from it
+        assertTrue(SplitMixRandom.split(new Random(1)) instanceof SplitMixRandom);
+    }
+
+    @Test
+    public void boundedNumbersAreUniform() {
+        Random rnd = new SplitMixRandom(5);
+        for (int bound : new int[]{1, 2, 3, 7, 16, 1000}) {
+            int[] counts = new int[bound];
+            int n = 2000 * bound;
+            for (int i = 0; i < n; i++)
+                counts[rnd.nextInt(bound)]++;
+            for (int c : counts)
+                assertEquals(2000, c, 2000 * 0.15);
+        }
+        for (int i = 0; i < 1000; i++) {
+            double d = rnd.nextDouble();
+            assertTrue(d >= 0 && d < 1);
+        }
+        try {
+            rnd.nextInt(0);
+            fail("Expected a bound of 0 to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}